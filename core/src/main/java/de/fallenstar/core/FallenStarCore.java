@@ -12,6 +12,7 @@ import de.fallenstar.core.registry.AdminCommandRegistry;
 import de.fallenstar.core.registry.PlotTypeRegistry;
 import de.fallenstar.core.registry.ProviderRegistry;
 import de.fallenstar.core.registry.UIRegistry;
+import de.fallenstar.core.transaction.TransactionCoordinator;
 import de.fallenstar.core.ui.BaseUi;
 import de.fallenstar.core.ui.ConfirmationUi;
 import de.fallenstar.core.ui.SimpleTradeUi;
@@ -27,6 +28,7 @@ import org.bukkit.plugin.java.JavaPlugin;
  * Verantwortlichkeiten:
  * - Provider-Registry initialisieren
  * - DataStore bereitstellen
+ * - TransactionCoordinator für mehrstufige Wirtschafts-Transaktionen bereitstellen
  * - ProvidersReadyEvent feuern
  * - Koordination zwischen Modulen
  * 
@@ -46,6 +48,7 @@ public class FallenStarCore extends JavaPlugin {
     private DataStore dataStore;
     private InteractionRegistry interactionRegistry;
     private InteractionHandler interactionHandler;
+    private TransactionCoordinator transactionCoordinator;
     
     @Override
     public void onEnable() {
@@ -64,6 +67,9 @@ public class FallenStarCore extends JavaPlugin {
         // DataStore initialisieren
         initializeDataStore();
 
+        // TransactionCoordinator initialisieren (Journal im DataStore)
+        initializeTransactionCoordinator();
+
         // Commands registrieren
         registerCommands();
 
@@ -90,6 +96,17 @@ public class FallenStarCore extends JavaPlugin {
         getLogger().info("✓ Commands registered");
     }
 
+    /**
+     * Initialisiert den TransactionCoordinator und startet den Kompensations-Retry.
+     */
+    private void initializeTransactionCoordinator() {
+        transactionCoordinator = new TransactionCoordinator(getLogger(), dataStore,
+                getConfig().getLong("transactions.lock-timeout-ms", 250L));
+        transactionCoordinator.startRetryTask(this,
+                getConfig().getLong("transactions.compensation-retry-ticks", 200L));
+        getLogger().info("✓ TransactionCoordinator initialized");
+    }
+
     /**
      * Initialisiert den DataStore basierend auf Config.
      */
@@ -217,6 +234,11 @@ public class FallenStarCore extends JavaPlugin {
     public void onDisable() {
         getLogger().info("Shutting down FallenStar Core...");
         
+        // Offene Kompensationen ein letztes Mal versuchen (vor DataStore-Shutdown)
+        if (transactionCoordinator != null) {
+            transactionCoordinator.shutdown();
+        }
+
         // DataStore ordentlich schließen
         if (dataStore != null) {
             dataStore.shutdown();
@@ -269,6 +291,18 @@ public class FallenStarCore extends JavaPlugin {
         return dataStore;
     }
 
+    /**
+     * API-Methode: Gibt den TransactionCoordinator zurück.
+     *
+     * Wird von Modulen genutzt um mehrstufige Transaktionen (Vault, Inventar, Truhen)
+     * atomar auszuführen.
+     *
+     * @return TransactionCoordinator
+     */
+    public TransactionCoordinator getTransactionCoordinator() {
+        return transactionCoordinator;
+    }
+
     /**
      * API-Methode: Gibt die AdminCommandRegistry zurück.
      *
@@ -0,0 +1,387 @@
+package de.fallenstar.core.economy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Festkomma-Geldbetrag (Minor Units als long + Währungs-ID).
+ *
+ * Ersetzt BigDecimal/double auf den Economy-Hot-Paths:
+ * - Keine Allokation pro Rechenschritt (nur ein kleiner Record)
+ * - Kein Rundungs-Drift an der Vault-Grenze
+ * - Überlauf wird erkannt statt stillschweigend umzubrechen
+ *
+ * Features:
+ * - 2 Nachkommastellen (1 Stern = 100 Minor Units)
+ * - Überlauf-geprüfte Arithmetik (ArithmeticException)
+ * - Exakte Konvertierung von/zu Vault-Doubles
+ * - Währungs-Prüfung bei Rechenoperationen (IllegalArgumentException)
+ *
+ * **Verwendung:**
+ * <pre>
+ * Money price = Money.ofMajor(10, Money.BASE_CURRENCY_ID);     // 10.00 Sterne
+ * Money balance = Money.fromVault(economy.getBalance(player), Money.BASE_CURRENCY_ID);
+ * long affordable = balance.fits(price);                        // Wie oft passt price in balance?
+ * economy.withdraw(player, price.times(affordable));
+ * </pre>
+ *
+ * @param minorUnits Betrag in Minor Units (1/100 der Währungseinheit)
+ * @param currencyId Währungs-ID (z.B. "sterne")
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public record Money(long minorUnits, String currencyId) implements Comparable<Money> {
+
+    /**
+     * Währungs-ID der Basiswährung (Sterne).
+     */
+    public static final String BASE_CURRENCY_ID = "sterne";
+
+    /**
+     * Anzahl Nachkommastellen.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Minor Units pro Währungseinheit.
+     */
+    public static final long MINOR_PER_MAJOR = 100L;
+
+    /**
+     * Größter Betrag, der verlustfrei als double dargestellt werden kann (2^53).
+     */
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    /**
+     * Erstellt einen Money-Wert.
+     *
+     * @throws NullPointerException wenn currencyId null
+     */
+    public Money {
+        Objects.requireNonNull(currencyId, "currencyId");
+    }
+
+    // ==================== Factories ====================
+
+    /**
+     * Erstellt einen Betrag aus Minor Units.
+     *
+     * @param minorUnits Minor Units
+     * @param currencyId Währungs-ID
+     * @return Money
+     */
+    public static Money of(long minorUnits, String currencyId) {
+        return new Money(minorUnits, currencyId);
+    }
+
+    /**
+     * Erstellt einen Betrag aus ganzen Währungseinheiten.
+     *
+     * @param majorUnits Ganze Einheiten (z.B. 10 Sterne)
+     * @param currencyId Währungs-ID
+     * @return Money
+     * @throws ArithmeticException bei Überlauf
+     */
+    public static Money ofMajor(long majorUnits, String currencyId) {
+        return new Money(Math.multiplyExact(majorUnits, MINOR_PER_MAJOR), currencyId);
+    }
+
+    /**
+     * Erstellt einen Nullbetrag.
+     *
+     * @param currencyId Währungs-ID
+     * @return Money mit 0 Minor Units
+     */
+    public static Money zero(String currencyId) {
+        return new Money(0L, currencyId);
+    }
+
+    /**
+     * Konvertiert einen Vault-Double exakt in Minor Units.
+     *
+     * Nutzt die kürzeste Dezimal-Darstellung des Doubles (Double.toString),
+     * damit z.B. 0.1 + 0.2 = 0.30000000000000004 als 0.30 ankommt und nicht
+     * durch Binär-Artefakte verfälscht wird. Mehr als 2 Nachkommastellen
+     * werden kaufmännisch gerundet (HALF_UP).
+     *
+     * @param amount Vault-Betrag
+     * @param currencyId Währungs-ID
+     * @return Money
+     * @throws ArithmeticException bei NaN, Infinity oder Überlauf
+     */
+    public static Money fromVault(double amount, String currencyId) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Ungültiger Vault-Betrag: " + amount);
+        }
+        return fromBigDecimal(BigDecimal.valueOf(amount), currencyId);
+    }
+
+    /**
+     * Konvertiert einen BigDecimal in Minor Units (HALF_UP bei mehr als 2 Nachkommastellen).
+     *
+     * @param amount Betrag
+     * @param currencyId Währungs-ID
+     * @return Money
+     * @throws ArithmeticException bei Überlauf
+     */
+    public static Money fromBigDecimal(BigDecimal amount, String currencyId) {
+        return new Money(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact(), currencyId);
+    }
+
+    // ==================== Konvertierung ====================
+
+    /**
+     * Konvertiert exakt in einen Vault-Double.
+     *
+     * Für |minorUnits| &lt; 2^53 ist minorUnits / 100.0 der nächstgelegene Double
+     * zum Dezimalwert, d.h. fromVault(toVault()) ergibt wieder denselben Betrag.
+     *
+     * @return Betrag als double
+     * @throws ArithmeticException wenn der Betrag nicht verlustfrei darstellbar ist
+     */
+    public double toVault() {
+        if (minorUnits > MAX_EXACT_DOUBLE || minorUnits < -MAX_EXACT_DOUBLE) {
+            throw new ArithmeticException("Betrag nicht verlustfrei als double darstellbar: " + minorUnits);
+        }
+        return minorUnits / (double) MINOR_PER_MAJOR;
+    }
+
+    /**
+     * Konvertiert in einen BigDecimal (Scale 2).
+     *
+     * @return Betrag als BigDecimal
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    // ==================== Arithmetik ====================
+
+    /**
+     * Addiert einen Betrag.
+     *
+     * @param other Betrag (gleiche Währung)
+     * @return Summe
+     * @throws ArithmeticException bei Überlauf
+     * @throws IllegalArgumentException bei unterschiedlicher Währung
+     */
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currencyId);
+    }
+
+    /**
+     * Subtrahiert einen Betrag.
+     *
+     * @param other Betrag (gleiche Währung)
+     * @return Differenz
+     * @throws ArithmeticException bei Überlauf
+     * @throws IllegalArgumentException bei unterschiedlicher Währung
+     */
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currencyId);
+    }
+
+    /**
+     * Multipliziert mit einer ganzen Zahl (z.B. Stückpreis × Menge).
+     *
+     * @param factor Faktor
+     * @return Produkt
+     * @throws ArithmeticException bei Überlauf
+     */
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currencyId);
+    }
+
+    /**
+     * Multipliziert mit einem Dezimal-Faktor (z.B. Wechselkurs).
+     *
+     * Nicht für Hot-Paths gedacht - Wechselkurse sollten vorab in Minor Units
+     * umgerechnet werden.
+     *
+     * @param factor Faktor
+     * @param rounding Rundungsmodus für Bruchteile von Minor Units
+     * @return Produkt in derselben Währung
+     * @throws ArithmeticException bei Überlauf
+     */
+    public Money times(BigDecimal factor, RoundingMode rounding) {
+        BigDecimal result = BigDecimal.valueOf(minorUnits).multiply(factor).setScale(0, rounding);
+        return new Money(result.longValueExact(), currencyId);
+    }
+
+    /**
+     * Rechnet mit einem ganzzahligen Verhältnis in eine andere Währung um.
+     *
+     * Ergebnis = minorUnits × numerator / denominator, gerundet nach rounding.
+     * Für Hot-Paths gedacht: Wechselkurse werden vorab als gekürzter Bruch
+     * abgelegt, die Umrechnung ist dann eine Multiplikation und eine Division.
+     *
+     * @param numerator Zähler des Kurses
+     * @param denominator Nenner des Kurses (&gt; 0)
+     * @param rounding Rundungsmodus für Bruchteile von Minor Units
+     * @param targetCurrencyId Zielwährung
+     * @return Betrag in der Zielwährung
+     * @throws IllegalArgumentException wenn denominator &lt;= 0
+     * @throws ArithmeticException bei Überlauf des Ergebnisses oder UNNECESSARY mit Rest
+     */
+    public Money convert(long numerator, long denominator, RoundingMode rounding, String targetCurrencyId) {
+        if (denominator <= 0) {
+            throw new IllegalArgumentException("Nenner muss größer als 0 sein: " + denominator);
+        }
+
+        long product;
+        try {
+            product = Math.multiplyExact(minorUnits, numerator);
+        } catch (ArithmeticException overflow) {
+            // Zwischenergebnis zu groß für long - exakt über BigDecimal
+            BigDecimal result = BigDecimal.valueOf(minorUnits).multiply(BigDecimal.valueOf(numerator))
+                    .divide(BigDecimal.valueOf(denominator), 0, rounding);
+            return new Money(result.longValueExact(), targetCurrencyId);
+        }
+        return new Money(divide(product, denominator, rounding), targetCurrencyId);
+    }
+
+    /**
+     * Gibt zurück, wie oft ein Betrag vollständig in diesen Betrag passt.
+     *
+     * Beispiel: 25.00 Sterne fits 10.00 Sterne = 2
+     *
+     * @param unit Einzelbetrag (gleiche Währung, &gt; 0)
+     * @return Anzahl (0 wenn dieser Betrag negativ ist)
+     * @throws IllegalArgumentException bei unterschiedlicher Währung oder unit &lt;= 0
+     */
+    public long fits(Money unit) {
+        requireSameCurrency(unit);
+        if (unit.minorUnits <= 0) {
+            throw new IllegalArgumentException("Einzelbetrag muss größer als 0 sein: " + unit);
+        }
+        return minorUnits <= 0 ? 0 : minorUnits / unit.minorUnits;
+    }
+
+    /**
+     * Negiert den Betrag.
+     *
+     * @return Negierter Betrag
+     * @throws ArithmeticException bei Überlauf (Long.MIN_VALUE)
+     */
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currencyId);
+    }
+
+    /**
+     * Gibt den kleineren von zwei Beträgen zurück.
+     *
+     * @param other Betrag (gleiche Währung)
+     * @return Minimum
+     */
+    public Money min(Money other) {
+        return compareTo(other) <= 0 ? this : other;
+    }
+
+    /**
+     * Gibt den größeren von zwei Beträgen zurück.
+     *
+     * @param other Betrag (gleiche Währung)
+     * @return Maximum
+     */
+    public Money max(Money other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    // ==================== Vergleiche ====================
+
+    /**
+     * Prüft ob der Betrag 0 ist.
+     *
+     * @return true wenn 0
+     */
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    /**
+     * Prüft ob der Betrag größer als 0 ist.
+     *
+     * @return true wenn positiv
+     */
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    /**
+     * Prüft ob der Betrag kleiner als 0 ist.
+     *
+     * @return true wenn negativ
+     */
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    /**
+     * Prüft ob dieser Betrag mindestens so groß wie ein anderer ist.
+     *
+     * @param other Betrag (gleiche Währung)
+     * @return true wenn this &gt;= other
+     */
+    public boolean isAtLeast(Money other) {
+        return compareTo(other) >= 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * Gibt den Betrag ohne Währung zurück (z.B. "12.50").
+     *
+     * @return Dezimal-String mit 2 Nachkommastellen
+     */
+    public String toPlainString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString() + " " + currencyId;
+    }
+
+    /**
+     * Prüft ob ein Betrag dieselbe Währung hat.
+     */
+    private void requireSameCurrency(Money other) {
+        if (!currencyId.equals(other.currencyId)) {
+            throw new IllegalArgumentException(
+                    "Währungen stimmen nicht überein: " + currencyId + " vs " + other.currencyId);
+        }
+    }
+
+    /**
+     * Ganzzahl-Division mit Rundungsmodus (denominator &gt; 0).
+     */
+    private static long divide(long numerator, long denominator, RoundingMode rounding) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = numerator < 0 ? -1 : 1;
+        int half = Long.compare(Math.abs(remainder), denominator - Math.abs(remainder)); // Rest vs. halber Nenner
+        boolean awayFromZero = switch (rounding) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rundung erforderlich: " + numerator + "/" + denominator);
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
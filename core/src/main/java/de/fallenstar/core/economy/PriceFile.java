@@ -0,0 +1,311 @@
+package de.fallenstar.core.economy;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Streaming-Codec für Preistabellen (CSV und JSON).
+ *
+ * Liest und schreibt Preise Zeile für Zeile bzw. Objekt für Objekt, ohne die
+ * komplette Datei im Speicher aufzubauen. Grundlage für Import/Export von
+ * Basis- und Plot-Preisen.
+ *
+ * Features:
+ * - CSV: {@code item,buy,sell} (Kopfzeile optional, {@code #}-Kommentare, leere Felder = kein Preis)
+ * - JSON: Array aus {@code {"item": "DIAMOND", "buy": "90.00", "sell": "100.00"}}
+ * - Preise als Dezimal-Strings mit 2 Nachkommastellen (kein double-Drift)
+ * - Fehler mit Zeilen-/Pfadangabe als IOException
+ *
+ * **Verwendung:**
+ * <pre>
+ * try (Reader in = Files.newBufferedReader(path)) {
+ *     PriceFile.read(in, PriceFile.Format.CSV, entry -> updates.put(entry.item(), entry));
+ * }
+ *
+ * try (PriceFile.EntryWriter out = PriceFile.writer(Files.newBufferedWriter(path), PriceFile.Format.JSON)) {
+ *     out.write(new PriceFile.Entry("DIAMOND", buy, sell));
+ * }
+ * </pre>
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public final class PriceFile {
+
+    private static final String CSV_HEADER = "item,buy,sell";
+
+    /**
+     * Dateiformat einer Preistabelle.
+     */
+    public enum Format {
+        CSV,
+        JSON;
+
+        /**
+         * Ermittelt das Format aus der Dateiendung (.csv / .json).
+         *
+         * @param fileName Dateiname
+         * @return Format, oder empty bei unbekannter Endung
+         */
+        public static Optional<Format> fromFileName(String fileName) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".csv")) {
+                return Optional.of(CSV);
+            }
+            if (lower.endsWith(".json")) {
+                return Optional.of(JSON);
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Ein Eintrag der Preistabelle.
+     *
+     * @param item Item-Schlüssel (Material-Name oder TYPE:ID)
+     * @param buyPrice Ankaufspreis (null = kein Preis)
+     * @param sellPrice Verkaufspreis (null = kein Preis)
+     */
+    public record Entry(String item, BigDecimal buyPrice, BigDecimal sellPrice) {
+
+        /**
+         * Erstellt einen Eintrag.
+         *
+         * @throws NullPointerException wenn item null
+         */
+        public Entry {
+            Objects.requireNonNull(item, "item");
+        }
+    }
+
+    /**
+     * Schreibt Einträge nacheinander in eine Preistabelle.
+     */
+    public interface EntryWriter extends AutoCloseable {
+
+        /**
+         * Schreibt einen Eintrag.
+         *
+         * @param entry Eintrag
+         * @throws IOException bei Schreibfehlern
+         */
+        void write(Entry entry) throws IOException;
+
+        /**
+         * Schließt die Tabelle ab und schließt den zugrunde liegenden Writer.
+         *
+         * @throws IOException bei Schreibfehlern
+         */
+        @Override
+        void close() throws IOException;
+    }
+
+    private PriceFile() {
+        // Utility-Klasse
+    }
+
+    // ==================== Lesen ====================
+
+    /**
+     * Liest eine Preistabelle und übergibt jeden Eintrag an einen Consumer.
+     *
+     * Bricht beim ersten ungültigen Eintrag ab; bereits übergebene Einträge
+     * muss der Aufrufer verwerfen, wenn er atomar importieren will.
+     *
+     * @param reader Quelle (wird nicht geschlossen)
+     * @param format Dateiformat
+     * @param consumer Empfänger der Einträge
+     * @return Anzahl gelesener Einträge
+     * @throws IOException bei Lesefehlern oder ungültigem Inhalt
+     */
+    public static int read(Reader reader, Format format, Consumer<Entry> consumer) throws IOException {
+        return format == Format.CSV ? readCsv(reader, consumer) : readJson(reader, consumer);
+    }
+
+    /**
+     * Liest eine CSV-Tabelle zeilenweise.
+     */
+    private static int readCsv(Reader reader, Consumer<Entry> consumer) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        int count = 0;
+        int lineNumber = 0;
+        String line;
+
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")
+                    || (lineNumber == 1 && trimmed.equalsIgnoreCase(CSV_HEADER))) {
+                continue;
+            }
+
+            String[] fields = trimmed.split(",", -1);
+            if (fields.length < 2 || fields.length > 3) {
+                throw new IOException("Zeile " + lineNumber + ": erwartet item,buy,sell - war '" + trimmed + "'");
+            }
+
+            String item = fields[0].strip();
+            if (item.isEmpty()) {
+                throw new IOException("Zeile " + lineNumber + ": Item fehlt");
+            }
+
+            String location = "Zeile " + lineNumber;
+            consumer.accept(new Entry(item,
+                    parsePrice(fields[1], location),
+                    parsePrice(fields.length > 2 ? fields[2] : "", location)));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Liest ein JSON-Array objektweise.
+     */
+    private static int readJson(Reader reader, Consumer<Entry> consumer) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        int count = 0;
+
+        json.beginArray();
+        while (json.hasNext()) {
+            String item = null;
+            BigDecimal buy = null;
+            BigDecimal sell = null;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "item" -> item = json.nextString().strip();
+                    case "buy" -> buy = parsePrice(json.nextString(), json.getPath());
+                    case "sell" -> sell = parsePrice(json.nextString(), json.getPath());
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+
+            if (item == null || item.isEmpty()) {
+                throw new IOException(json.getPath() + ": Item fehlt");
+            }
+            consumer.accept(new Entry(item, buy, sell));
+            count++;
+        }
+        json.endArray();
+        return count;
+    }
+
+    /**
+     * Parst einen Preis (leer = kein Preis).
+     */
+    private static BigDecimal parsePrice(String value, String location) throws IOException {
+        String trimmed = value.strip();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+
+        BigDecimal price;
+        try {
+            price = new BigDecimal(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IOException(location + ": ungültiger Preis '" + trimmed + "'");
+        }
+        if (price.signum() < 0) {
+            throw new IOException(location + ": negativer Preis '" + trimmed + "'");
+        }
+        return price;
+    }
+
+    // ==================== Schreiben ====================
+
+    /**
+     * Öffnet eine Preistabelle zum Schreiben.
+     *
+     * @param writer Ziel (wird beim Schließen mitgeschlossen)
+     * @param format Dateiformat
+     * @return EntryWriter
+     * @throws IOException bei Schreibfehlern
+     */
+    public static EntryWriter writer(Writer writer, Format format) throws IOException {
+        return format == Format.CSV ? csvWriter(writer) : jsonWriter(writer);
+    }
+
+    /**
+     * CSV-Writer (Kopfzeile + eine Zeile pro Eintrag).
+     */
+    private static EntryWriter csvWriter(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        return new EntryWriter() {
+            @Override
+            public void write(Entry entry) throws IOException {
+                writer.write(entry.item());
+                writer.write(',');
+                writer.write(formatPrice(entry.buyPrice()));
+                writer.write(',');
+                writer.write(formatPrice(entry.sellPrice()));
+                writer.write('\n');
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    /**
+     * JSON-Writer (ein Array, ein Objekt pro Eintrag).
+     */
+    private static EntryWriter jsonWriter(Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+        json.beginArray();
+
+        return new EntryWriter() {
+            @Override
+            public void write(Entry entry) throws IOException {
+                json.beginObject();
+                json.name("item").value(entry.item());
+                if (entry.buyPrice() != null) {
+                    json.name("buy").value(formatPrice(entry.buyPrice()));
+                }
+                if (entry.sellPrice() != null) {
+                    json.name("sell").value(formatPrice(entry.sellPrice()));
+                }
+                json.endObject();
+            }
+
+            @Override
+            public void close() throws IOException {
+                json.endArray();
+                json.close();
+            }
+        };
+    }
+
+    /**
+     * Formatiert einen Preis mit 2 Nachkommastellen (null = leer).
+     */
+    private static String formatPrice(BigDecimal price) {
+        if (price == null) {
+            return "";
+        }
+        return price.setScale(Money.SCALE, RoundingMode.HALF_UP).toPlainString();
+    }
+}
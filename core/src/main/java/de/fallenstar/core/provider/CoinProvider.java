@@ -1,9 +1,11 @@
 package de.fallenstar.core.provider;
 
+import de.fallenstar.core.economy.Money;
 import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
 import org.bukkit.inventory.ItemStack;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -30,7 +32,7 @@ import java.util.Optional;
  * </pre>
  *
  * @author FallenStar
- * @version 1.0
+ * @version 1.1
  */
 public interface CoinProvider {
 
@@ -50,14 +52,14 @@ public interface CoinProvider {
      * 3. Berücksichtigt Max-Stack-Size
      *
      * **Tier-Auswahl:**
-     * - 0.01 - 9.99 Sterne → Bronze (1er Münzen)
-     * - 10 - 999 Sterne → Silber (10er Münzen)
-     * - 1000+ Sterne → Gold (100er Münzen)
+     * - Der Preis wird möglichst exakt in einem einzigen Stack dargestellt
+     * - Ist das nicht möglich, wird auf den nächsten darstellbaren Betrag gerundet
+     * - Für exaktes Wechselgeld über mehrere Stacks: {@link #createCoinStacksForPrice}
      *
      * **Beispiele:**
      * - 5 Sterne → 5x Bronze-Münze
-     * - 50 Sterne → 5x Silber-Münze
-     * - 500 Sterne → 50x Silber-Münze
+     * - 15 Sterne → 15x Bronze-Münze
+     * - 500 Sterne → 5x Gold-Münze
      * - 5000 Sterne → 50x Gold-Münze
      *
      * @param price Preis in Basiswährung (Sterne)
@@ -68,6 +70,44 @@ public interface CoinProvider {
     Optional<ItemStack> createCoinsForPrice(BigDecimal price, int maxStackSize)
             throws ProviderFunctionalityNotFoundException;
 
+    /**
+     * Erstellt Münzen für einen Festkomma-Preis in Basiswährung.
+     *
+     * Default-Implementierung delegiert an {@link #createCoinsForPrice(BigDecimal, int)}.
+     *
+     * @param price Preis in Basiswährung (Sterne)
+     * @param maxStackSize Maximale Stack-Größe (typischerweise 64)
+     * @return Optional mit Münz-ItemStack, oder empty wenn fehlgeschlagen
+     * @throws ProviderFunctionalityNotFoundException wenn Provider nicht verfügbar
+     */
+    default Optional<ItemStack> createCoinsForPrice(Money price, int maxStackSize)
+            throws ProviderFunctionalityNotFoundException {
+        return createCoinsForPrice(price.toBigDecimal(), maxStackSize);
+    }
+
+    /**
+     * Erstellt exaktes Wechselgeld für einen Preis, verteilt auf mehrere Stacks.
+     *
+     * Die Stückelung nutzt möglichst wenige Münzen und höchstens maxStacks
+     * Stacks (z.B. 2 für die beiden Zutaten eines Villager-Trades).
+     *
+     * **Beispiele (maxStacks = 2):**
+     * - 15 Sterne → 1x Silber + 5x Bronze
+     * - 115 Sterne → 1x Gold + 15x Bronze
+     *
+     * Default-Implementierung nutzt {@link #createCoinsForPrice(Money, int)} (ein Stack).
+     *
+     * @param price Preis in Basiswährung (Sterne)
+     * @param maxStackSize Maximale Stack-Größe (typischerweise 64)
+     * @param maxStacks Maximale Anzahl Stacks
+     * @return Münz-Stacks, oder leere Liste wenn der Preis nicht darstellbar ist
+     * @throws ProviderFunctionalityNotFoundException wenn Provider nicht verfügbar
+     */
+    default List<ItemStack> createCoinStacksForPrice(Money price, int maxStackSize, int maxStacks)
+            throws ProviderFunctionalityNotFoundException {
+        return createCoinsForPrice(price, maxStackSize).map(List::of).orElse(List.of());
+    }
+
     /**
      * Erstellt Münzen mit spezifischem Tier und Menge.
      *
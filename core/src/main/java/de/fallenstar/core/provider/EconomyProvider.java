@@ -1,5 +1,6 @@
 package de.fallenstar.core.provider;
 
+import de.fallenstar.core.economy.Money;
 import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
@@ -172,6 +173,46 @@ public interface EconomyProvider {
     String getCurrencyNamePlural()
             throws ProviderFunctionalityNotFoundException;
 
+    // ================== Festkomma-Beträge (Money) ==================
+
+    /**
+     * Gibt das Guthaben eines Spielers als Festkomma-Betrag in Basiswährung zurück.
+     *
+     * Default-Implementierung konvertiert {@link #getBalance(Player)} exakt via
+     * {@link Money#fromVault(double, String)}.
+     *
+     * @param player Der Spieler
+     * @return Guthaben in Basiswährung
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    default Money getBalanceMoney(Player player) throws ProviderFunctionalityNotFoundException {
+        return Money.fromVault(getBalance(player), Money.BASE_CURRENCY_ID);
+    }
+
+    /**
+     * Zieht einen Festkomma-Betrag vom Konto eines Spielers ab.
+     *
+     * @param player Der Spieler
+     * @param amount Betrag
+     * @return true wenn erfolgreich
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    default boolean withdraw(Player player, Money amount) throws ProviderFunctionalityNotFoundException {
+        return withdraw(player, amount.toVault());
+    }
+
+    /**
+     * Fügt einen Festkomma-Betrag zum Konto eines Spielers hinzu.
+     *
+     * @param player Der Spieler
+     * @param amount Betrag
+     * @return true wenn erfolgreich
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    default boolean deposit(Player player, Money amount) throws ProviderFunctionalityNotFoundException {
+        return deposit(player, amount.toVault());
+    }
+
     // ================== Item-Preis-Verwaltung ==================
 
     /**
@@ -222,4 +263,54 @@ public interface EconomyProvider {
      */
     Collection<Material> getAllPricedMaterials()
             throws ProviderFunctionalityNotFoundException;
+
+    // ================== Custom-Item-Preise ==================
+
+    /**
+     * Gibt die Identität eines Custom-Items zurück ("TYPE:ID", Großschreibung).
+     *
+     * Implementierungen bestimmen die Identität einmal pro ItemMeta und cachen
+     * sie - wiederholte Abfragen desselben Items fragen den ItemProvider nicht erneut.
+     *
+     * @param item Der ItemStack
+     * @return Optional mit "TYPE:ID", leer bei Vanilla-Items
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    default Optional<String> getCustomItemKey(ItemStack item) throws ProviderFunctionalityNotFoundException {
+        throw new ProviderFunctionalityNotFoundException(
+                "EconomyProvider",
+                "getCustomItemKey",
+                "Custom-Item-Preise nicht unterstützt"
+        );
+    }
+
+    /**
+     * Gibt den Ankaufspreis eines Custom-Items zurück.
+     *
+     * @param customItemKey "TYPE:ID" aus {@link #getCustomItemKey(ItemStack)}
+     * @return Optional mit Ankaufspreis, leer wenn kein Preis definiert
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    default Optional<BigDecimal> getCustomBuyPrice(String customItemKey) throws ProviderFunctionalityNotFoundException {
+        throw new ProviderFunctionalityNotFoundException(
+                "EconomyProvider",
+                "getCustomBuyPrice",
+                "Custom-Item-Preise nicht unterstützt"
+        );
+    }
+
+    /**
+     * Gibt den Verkaufspreis eines Custom-Items zurück.
+     *
+     * @param customItemKey "TYPE:ID" aus {@link #getCustomItemKey(ItemStack)}
+     * @return Optional mit Verkaufspreis, leer wenn kein Preis definiert
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    default Optional<BigDecimal> getCustomSellPrice(String customItemKey) throws ProviderFunctionalityNotFoundException {
+        throw new ProviderFunctionalityNotFoundException(
+                "EconomyProvider",
+                "getCustomSellPrice",
+                "Custom-Item-Preise nicht unterstützt"
+        );
+    }
 }
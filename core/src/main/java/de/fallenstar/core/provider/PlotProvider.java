@@ -101,6 +101,22 @@ public interface PlotProvider {
     java.util.List<java.util.UUID> getAssociates(Plot plot)
             throws ProviderFunctionalityNotFoundException;
 
+    /**
+     * Prüft ob ein Spieler mit einem Plot assoziiert ist (z.B. Stadtbewohner).
+     *
+     * Standard-Implementierung nutzt {@link #getAssociates(Plot)}.
+     * Provider mit gecachten Bewohner-Mengen sollten O(1) überschreiben.
+     *
+     * @param plot Das Grundstück
+     * @param playerUUID UUID des Spielers
+     * @return true wenn Spieler assoziiert ist
+     * @throws ProviderFunctionalityNotFoundException wenn Feature nicht verfügbar
+     */
+    default boolean isAssociate(Plot plot, java.util.UUID playerUUID)
+            throws ProviderFunctionalityNotFoundException {
+        return getAssociates(plot).contains(playerUUID);
+    }
+
     /**
      * Gibt alle Grundstücke zurück, die einem Spieler gehören.
      *
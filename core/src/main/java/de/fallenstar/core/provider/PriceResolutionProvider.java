@@ -0,0 +1,115 @@
+package de.fallenstar.core.provider;
+
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Provider-Interface für die Auflösung effektiver Item-Preise auf einem Grundstück.
+ *
+ * Der effektive Preis wird hierarchisch bestimmt, die erste gesetzte Ebene gewinnt:
+ * 1. Plot-Preis (z.B. PlotPriceManager)
+ * 2. Town-Standardpreis
+ * 3. Globaler Basispreis (EconomyProvider)
+ * 4. Custom-Item-Preis (ItemProvider)
+ *
+ * Implementierungen:
+ * - PlotPriceResolver (Plots-Modul, mit vorberechnetem Cache)
+ * - NoOpPriceResolutionProvider (Fallback)
+ *
+ * **Verwendung:**
+ * ```java
+ * PriceResolutionProvider resolver = providers.getPriceResolutionProvider();
+ * BigDecimal price = resolver.getSellPrice(plot, item).orElse(BigDecimal.ZERO);
+ *
+ * // Nach einer Preisänderung auf dem Plot
+ * resolver.invalidate(plot);
+ * ```
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public interface PriceResolutionProvider {
+
+    /**
+     * Prüft ob dieser Provider verfügbar ist.
+     *
+     * @return true wenn verfügbar
+     */
+    boolean isAvailable();
+
+    /**
+     * Gibt den effektiven Ankaufpreis (NPC kauft vom Spieler) für ein Item zurück.
+     *
+     * @param plot Das Grundstück
+     * @param item Das Item (Custom-Items werden über ihre ID aufgelöst)
+     * @return Ankaufpreis oder Empty wenn keine Ebene einen Preis hat
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    Optional<BigDecimal> getBuyPrice(Plot plot, ItemStack item)
+            throws ProviderFunctionalityNotFoundException;
+
+    /**
+     * Gibt den effektiven Verkaufspreis (Spieler kauft vom NPC) für ein Item zurück.
+     *
+     * @param plot Das Grundstück
+     * @param item Das Item (Custom-Items werden über ihre ID aufgelöst)
+     * @return Verkaufspreis oder Empty wenn keine Ebene einen Preis hat
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    Optional<BigDecimal> getSellPrice(Plot plot, ItemStack item)
+            throws ProviderFunctionalityNotFoundException;
+
+    /**
+     * Gibt den effektiven Ankaufpreis für ein Material zurück (ohne Custom-Item-Ebene).
+     *
+     * @param plot Das Grundstück
+     * @param material Das Material
+     * @return Ankaufpreis oder Empty
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    Optional<BigDecimal> getBuyPrice(Plot plot, Material material)
+            throws ProviderFunctionalityNotFoundException;
+
+    /**
+     * Gibt den effektiven Verkaufspreis für ein Material zurück (ohne Custom-Item-Ebene).
+     *
+     * @param plot Das Grundstück
+     * @param material Das Material
+     * @return Verkaufspreis oder Empty
+     * @throws ProviderFunctionalityNotFoundException wenn nicht verfügbar
+     */
+    Optional<BigDecimal> getSellPrice(Plot plot, Material material)
+            throws ProviderFunctionalityNotFoundException;
+
+    /**
+     * Verwirft die zwischengespeicherten Preise eines Grundstücks.
+     *
+     * Muss nach jeder Änderung eines Plot-Preises aufgerufen werden.
+     *
+     * @param plot Das Grundstück
+     */
+    void invalidate(Plot plot);
+
+    /**
+     * Verwirft alle zwischengespeicherten Preise.
+     *
+     * Muss nach Änderungen an Town-, Basis- oder Custom-Item-Preisen aufgerufen werden.
+     */
+    void invalidateAll();
+
+    /**
+     * Meldet einen abgeschlossenen Handel als Nachfrage-Signal.
+     *
+     * Implementierungen mit dynamischer Preisbildung verbuchen nur das
+     * Volumen; die Neuberechnung erfolgt asynchron und nie im Aufrufer.
+     *
+     * @param plot Das Grundstück
+     * @param material Gehandeltes Material
+     * @param amount Gehandelte Menge
+     */
+    void recordTrade(Plot plot, Material material, int amount);
+}
@@ -95,6 +95,16 @@ public class NoOpPlotProvider implements PlotProvider {
         );
     }
 
+    @Override
+    public boolean isAssociate(Plot plot, java.util.UUID playerUUID)
+            throws ProviderFunctionalityNotFoundException {
+        throw new ProviderFunctionalityNotFoundException(
+            PROVIDER_NAME,
+            "isAssociate",
+            REASON
+        );
+    }
+
     @Override
     public java.util.List<Plot> getPlayerPlots(java.util.UUID playerUUID)
             throws ProviderFunctionalityNotFoundException {
@@ -0,0 +1,70 @@
+package de.fallenstar.core.provider.impl;
+
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.core.provider.PriceResolutionProvider;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * NoOp (No Operation) Implementation des PriceResolutionProviders.
+ *
+ * Wird verwendet wenn kein Plots-Modul verfügbar ist.
+ * Preis-Abfragen werfen ProviderFunctionalityNotFoundException,
+ * Invalidierungen werden ignoriert.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class NoOpPriceResolutionProvider implements PriceResolutionProvider {
+
+    private static final String PROVIDER_NAME = "PriceResolutionProvider";
+    private static final String REASON = "No plots module available";
+
+    @Override
+    public boolean isAvailable() {
+        return false;
+    }
+
+    @Override
+    public Optional<BigDecimal> getBuyPrice(Plot plot, ItemStack item)
+            throws ProviderFunctionalityNotFoundException {
+        throw new ProviderFunctionalityNotFoundException(PROVIDER_NAME, "getBuyPrice", REASON);
+    }
+
+    @Override
+    public Optional<BigDecimal> getSellPrice(Plot plot, ItemStack item)
+            throws ProviderFunctionalityNotFoundException {
+        throw new ProviderFunctionalityNotFoundException(PROVIDER_NAME, "getSellPrice", REASON);
+    }
+
+    @Override
+    public Optional<BigDecimal> getBuyPrice(Plot plot, Material material)
+            throws ProviderFunctionalityNotFoundException {
+        throw new ProviderFunctionalityNotFoundException(PROVIDER_NAME, "getBuyPrice", REASON);
+    }
+
+    @Override
+    public Optional<BigDecimal> getSellPrice(Plot plot, Material material)
+            throws ProviderFunctionalityNotFoundException {
+        throw new ProviderFunctionalityNotFoundException(PROVIDER_NAME, "getSellPrice", REASON);
+    }
+
+    @Override
+    public void invalidate(Plot plot) {
+        // Kein Cache vorhanden
+    }
+
+    @Override
+    public void invalidateAll() {
+        // Kein Cache vorhanden
+    }
+
+    @Override
+    public void recordTrade(Plot plot, Material material, int amount) {
+        // Keine dynamische Preisbildung
+    }
+}
@@ -31,6 +31,7 @@ public class ProviderRegistry {
     private NPCProvider npcProvider;
     private ItemProvider itemProvider;
     private CoinProvider coinProvider;
+    private PriceResolutionProvider priceResolutionProvider;
     private ChatProvider chatProvider;
     private NetworkProvider networkProvider;
     private UIProvider uiProvider;
@@ -111,6 +112,10 @@ public class ProviderRegistry {
         coinProvider = new NoOpCoinProvider();
         logger.info("○ CoinProvider: NoOp (Economy-Modul wird Implementierung registrieren)");
 
+        // Price Resolution Provider - NoOp (Plots-Modul registriert PlotPriceResolver)
+        priceResolutionProvider = new NoOpPriceResolutionProvider();
+        logger.info("○ PriceResolutionProvider: NoOp (Plots-Modul wird Implementierung registrieren)");
+
         // Chat Provider - NoOp
         chatProvider = new NoOpChatProvider();
         logger.info("○ Chat provider: NoOp (external chat integration disabled)");
@@ -147,6 +152,7 @@ public class ProviderRegistry {
     public NPCProvider getNpcProvider() { return npcProvider; }
     public ItemProvider getItemProvider() { return itemProvider; }
     public CoinProvider getCoinProvider() { return coinProvider; }
+    public PriceResolutionProvider getPriceResolutionProvider() { return priceResolutionProvider; }
     public ChatProvider getChatProvider() { return chatProvider; }
     public NetworkProvider getNetworkProvider() { return networkProvider; }
     public UIProvider getUIProvider() { return uiProvider; }
@@ -194,6 +200,11 @@ public class ProviderRegistry {
         logger.info("✓ CoinProvider updated: " + coinProvider.getClass().getSimpleName());
     }
 
+    public void setPriceResolutionProvider(PriceResolutionProvider priceResolutionProvider) {
+        this.priceResolutionProvider = priceResolutionProvider;
+        logger.info("✓ PriceResolutionProvider updated: " + priceResolutionProvider.getClass().getSimpleName());
+    }
+
     public void setChatProvider(ChatProvider chatProvider) {
         this.chatProvider = chatProvider;
         logger.info("✓ ChatProvider updated: " + chatProvider.getClass().getSimpleName());
@@ -0,0 +1,99 @@
+package de.fallenstar.core.transaction;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import de.fallenstar.core.provider.EconomyProvider;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Transaktions-Leg für Economy-Konten (Vault über EconomyProvider).
+ *
+ * Bucht einen Festkomma-Betrag ab oder ein; die Kompensation bucht
+ * den Betrag in Gegenrichtung zurück.
+ *
+ * **Konsistenz:**
+ * Nutzt die synchronen EconomyProvider-Methoden. Für asynchron bereits
+ * ausgeführte Buchungen stattdessen {@link TransactionLeg#applied} verwenden.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class EconomyLeg implements TransactionLeg {
+
+    private final EconomyProvider economyProvider;
+    private final Player player;
+    private final Money amount;
+    private final boolean withdrawal;
+    private boolean applied;
+
+    private EconomyLeg(EconomyProvider economyProvider, Player player, Money amount, boolean withdrawal) {
+        this.economyProvider = economyProvider;
+        this.player = player;
+        this.amount = amount;
+        this.withdrawal = withdrawal;
+    }
+
+    /**
+     * Erstellt ein Leg, das einen Betrag abbucht (schlägt bei zu wenig Guthaben fehl).
+     *
+     * @param economyProvider EconomyProvider
+     * @param player Spieler
+     * @param amount Betrag (&gt; 0)
+     * @return EconomyLeg
+     */
+    public static EconomyLeg withdraw(EconomyProvider economyProvider, Player player, Money amount) {
+        return new EconomyLeg(economyProvider, player, amount, true);
+    }
+
+    /**
+     * Erstellt ein Leg, das einen Betrag einzahlt.
+     *
+     * @param economyProvider EconomyProvider
+     * @param player Spieler
+     * @param amount Betrag (&gt; 0)
+     * @return EconomyLeg
+     */
+    public static EconomyLeg deposit(EconomyProvider economyProvider, Player player, Money amount) {
+        return new EconomyLeg(economyProvider, player, amount, false);
+    }
+
+    @Override
+    public Collection<String> resourceKeys() {
+        return List.of(TransactionKeys.economy(player.getUniqueId()));
+    }
+
+    @Override
+    public boolean apply() {
+        applied = book(withdrawal);
+        return applied;
+    }
+
+    @Override
+    public boolean compensate() {
+        if (applied && book(!withdrawal)) {
+            applied = false;
+        }
+        return !applied;
+    }
+
+    @Override
+    public String describe() {
+        return (withdrawal ? "WITHDRAW " : "DEPOSIT ") + amount + " @ " + player.getName();
+    }
+
+    /**
+     * Führt eine Buchung aus.
+     */
+    private boolean book(boolean asWithdrawal) {
+        try {
+            return asWithdrawal
+                    ? economyProvider.withdraw(player, amount)
+                    : economyProvider.deposit(player, amount);
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return false;
+        }
+    }
+}
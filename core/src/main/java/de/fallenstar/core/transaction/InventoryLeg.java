@@ -0,0 +1,198 @@
+package de.fallenstar.core.transaction;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transaktions-Leg für Inventare und Container.
+ *
+ * Verschiebt einen ItemStack in eine oder mehrere Inventare hinein (ADD)
+ * oder aus ihnen heraus (REMOVE), z.B. Spieler-Inventar oder die
+ * Input-/Output-Truhen eines Plots. Pro Inventar wird protokolliert, wie
+ * viele Items bewegt wurden - die Kompensation bewegt genau diese Mengen zurück.
+ *
+ * Features:
+ * - Alles-oder-nichts: Teilweise Bewegungen werden in apply() selbst zurückgenommen
+ * - Mehrere Inventare pro Leg (z.B. alle Output-Truhen eines Plots)
+ * - Idempotente Kompensation (bereits zurückgebuchte Mengen werden nicht doppelt bewegt)
+ *
+ * **Verwendung:**
+ * <pre>
+ * InventoryLeg.remove(TransactionKeys.inventory(player.getUniqueId()),
+ *         player.getInventory(), coins);
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Inventare sind nicht thread-sicher - Legs dieses Typs nur auf dem Main-Thread ausführen.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class InventoryLeg implements TransactionLeg {
+
+    /**
+     * Richtung der Bewegung.
+     */
+    public enum Direction {
+        ADD,
+        REMOVE
+    }
+
+    private final List<String> resourceKeys;
+    private final List<Inventory> inventories;
+    private final ItemStack item;
+    private final Direction direction;
+    private final int[] moved; // Bewegte Menge pro Inventar (für Kompensation)
+
+    /**
+     * Konstruktor für InventoryLeg.
+     *
+     * @param resourceKeys Ressourcen-Schlüssel (einer pro Inventar)
+     * @param inventories Inventare (werden in dieser Reihenfolge befüllt/geleert)
+     * @param item Item (Typ, Meta und Gesamtmenge)
+     * @param direction ADD oder REMOVE
+     */
+    public InventoryLeg(List<String> resourceKeys, List<Inventory> inventories,
+                        ItemStack item, Direction direction) {
+        if (resourceKeys.size() != inventories.size()) {
+            throw new IllegalArgumentException("Ein Ressourcen-Schlüssel pro Inventar erforderlich");
+        }
+        this.resourceKeys = List.copyOf(resourceKeys);
+        this.inventories = List.copyOf(inventories);
+        this.item = item.clone();
+        this.direction = direction;
+        this.moved = new int[inventories.size()];
+    }
+
+    /**
+     * Erstellt ein Leg, das Items in ein Inventar legt.
+     *
+     * @param resourceKey Ressourcen-Schlüssel
+     * @param inventory Inventar
+     * @param item Item
+     * @return InventoryLeg
+     */
+    public static InventoryLeg add(String resourceKey, Inventory inventory, ItemStack item) {
+        return new InventoryLeg(List.of(resourceKey), List.of(inventory), item, Direction.ADD);
+    }
+
+    /**
+     * Erstellt ein Leg, das Items aus einem Inventar entfernt.
+     *
+     * @param resourceKey Ressourcen-Schlüssel
+     * @param inventory Inventar
+     * @param item Item
+     * @return InventoryLeg
+     */
+    public static InventoryLeg remove(String resourceKey, Inventory inventory, ItemStack item) {
+        return new InventoryLeg(List.of(resourceKey), List.of(inventory), item, Direction.REMOVE);
+    }
+
+    /**
+     * Erstellt ein Leg über mehrere Container (z.B. alle Output-Truhen eines Plots).
+     *
+     * @param keyedInventories Paare aus Ressourcen-Schlüssel und Inventar
+     * @param item Item
+     * @param direction ADD oder REMOVE
+     * @return InventoryLeg
+     */
+    public static InventoryLeg across(List<Map.Entry<String, Inventory>> keyedInventories,
+                                      ItemStack item, Direction direction) {
+        List<String> keys = new ArrayList<>(keyedInventories.size());
+        List<Inventory> inventories = new ArrayList<>(keyedInventories.size());
+        for (Map.Entry<String, Inventory> entry : keyedInventories) {
+            keys.add(entry.getKey());
+            inventories.add(entry.getValue());
+        }
+        return new InventoryLeg(keys, inventories, item, direction);
+    }
+
+    @Override
+    public Collection<String> resourceKeys() {
+        return resourceKeys;
+    }
+
+    @Override
+    public boolean apply() {
+        int total = item.getAmount();
+
+        // REMOVE: vorab prüfen, ob genug vorhanden ist (vermeidet unnötige Bewegungen)
+        if (direction == Direction.REMOVE && countSimilar() < total) {
+            return false;
+        }
+
+        int remaining = total;
+        for (int i = 0; i < inventories.size() && remaining > 0; i++) {
+            int done = move(inventories.get(i), remaining, direction);
+            moved[i] += done;
+            remaining -= done;
+        }
+
+        if (remaining > 0) {
+            // Nicht vollständig möglich → Teilbewegung sofort zurücknehmen
+            compensate();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean compensate() {
+        Direction reverse = direction == Direction.ADD ? Direction.REMOVE : Direction.ADD;
+        boolean complete = true;
+
+        for (int i = 0; i < inventories.size(); i++) {
+            if (moved[i] <= 0) {
+                continue;
+            }
+            moved[i] -= move(inventories.get(i), moved[i], reverse);
+            complete &= moved[i] == 0;
+        }
+        return complete;
+    }
+
+    @Override
+    public String describe() {
+        return direction + " " + item.getAmount() + "x " + item.getType() + " @ " + resourceKeys;
+    }
+
+    /**
+     * Bewegt bis zu amount Items in/aus einem Inventar.
+     *
+     * @return Tatsächlich bewegte Menge
+     */
+    private int move(Inventory inventory, int amount, Direction dir) {
+        ItemStack stack = item.clone();
+        stack.setAmount(amount);
+
+        Map<Integer, ItemStack> leftover = dir == Direction.ADD
+                ? inventory.addItem(stack)
+                : inventory.removeItem(stack);
+
+        int notMoved = 0;
+        for (ItemStack rest : leftover.values()) {
+            notMoved += rest.getAmount();
+        }
+        return amount - notMoved;
+    }
+
+    /**
+     * Zählt passende Items über alle Inventare.
+     */
+    private int countSimilar() {
+        int count = 0;
+        for (Inventory inventory : inventories) {
+            for (ItemStack content : inventory.getContents()) {
+                if (content != null && content.isSimilar(item)) {
+                    count += content.getAmount();
+                }
+            }
+        }
+        return count;
+    }
+}
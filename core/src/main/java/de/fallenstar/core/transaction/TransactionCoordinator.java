@@ -0,0 +1,419 @@
+package de.fallenstar.core.transaction;
+
+import de.fallenstar.core.database.DataStore;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Koordiniert mehrstufige Wirtschafts-Transaktionen (Vault, Inventare, Truhen).
+ *
+ * Eine Transaktion besteht aus mehreren {@link TransactionLeg}s, die der
+ * Reihe nach angewendet werden. Schlägt ein Leg fehl, werden alle bereits
+ * angewendeten Legs in umgekehrter Reihenfolge kompensiert - ein Handel wird
+ * nie nur halb ausgeführt.
+ *
+ * Features:
+ * - Sperren nur auf betroffene Konten/Container (Lock-Striping über Ressourcen-Schlüssel)
+ * - Deadlock-frei: Sperren werden in fester Reihenfolge und mit Timeout geholt
+ * - Idempotente Wiederholung: dieselbe Transaktions-ID wird nur einmal ausgeführt
+ * - Kompensations-Journal: fehlgeschlagene Kompensationen werden periodisch wiederholt
+ *   und bis zur Auflösung im DataStore protokolliert (Namespace "transaction_journal")
+ *
+ * **Verwendung:**
+ * <pre>
+ * TransactionResult result = coordinator.execute("trade:" + tradeId, List.of(
+ *         InventoryLeg.remove(TransactionKeys.inventory(playerId), playerInv, coins),
+ *         InventoryLeg.add(TransactionKeys.container(chestLoc), chestInv, coins)));
+ * if (!result.isCommitted()) { ... }
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Legs werden auf dem aufrufenden Thread ausgeführt. Inventar-Legs müssen daher
+ * vom Main-Thread aus ausgeführt werden; der Retry-Task läuft ebenfalls dort.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class TransactionCoordinator {
+
+    /**
+     * DataStore-Namespace für offene Kompensationen.
+     */
+    public static final String JOURNAL_NAMESPACE = "transaction_journal";
+
+    private static final int LOCK_STRIPES = 256;
+    private static final int MAX_REMEMBERED_RESULTS = 4096;
+    private static final int MAX_COMPENSATION_ATTEMPTS = 20;
+
+    private final Logger logger;
+    private final DataStore dataStore;
+    private final long lockTimeoutMillis;
+    private final ReentrantLock[] locks;
+    private final Map<String, TransactionResult> completed;
+    private final Set<String> inFlight;
+    private final ConcurrentLinkedQueue<PendingCompensation> pending;
+    private BukkitTask retryTask;
+
+    /**
+     * Offene Kompensation im Journal.
+     */
+    private static final class PendingCompensation {
+        private final String transactionId;
+        private final TransactionLeg leg;
+        private int attempts;
+
+        private PendingCompensation(String transactionId, TransactionLeg leg) {
+            this.transactionId = transactionId;
+            this.leg = leg;
+        }
+    }
+
+    /**
+     * Persistierter Journal-Eintrag (für Admins nach Neustart / bei Aufgabe).
+     *
+     * @param transactionId Transaktions-ID
+     * @param legs Beschreibungen der offenen Kompensationen
+     * @param createdAt Zeitpunkt der Aufzeichnung
+     */
+    public record JournalRecord(String transactionId, List<String> legs, long createdAt) {
+    }
+
+    /**
+     * Konstruktor für TransactionCoordinator.
+     *
+     * @param logger Logger
+     * @param dataStore DataStore für das Kompensations-Journal (null = nur im Speicher)
+     * @param lockTimeoutMillis Maximale Wartezeit auf gesperrte Ressourcen
+     */
+    public TransactionCoordinator(Logger logger, DataStore dataStore, long lockTimeoutMillis) {
+        this.logger = logger;
+        this.dataStore = dataStore;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TransactionResult> eldest) {
+                return size() > MAX_REMEMBERED_RESULTS;
+            }
+        });
+        this.inFlight = ConcurrentHashMap.newKeySet();
+        this.pending = new ConcurrentLinkedQueue<>();
+    }
+
+    // ==================== Transaktionen ====================
+
+    /**
+     * Führt eine Transaktion aus (alles oder nichts).
+     *
+     * Wird dieselbe Transaktions-ID erneut übergeben (z.B. Doppelklick, Retry
+     * nach Timeout), wird das gespeicherte Ergebnis zurückgegeben, ohne die
+     * Legs erneut anzuwenden. Ausnahme: LOCK_TIMEOUT - dort wurde nichts ausgeführt.
+     *
+     * @param transactionId Eindeutige Transaktions-ID
+     * @param legs Legs in Ausführungsreihenfolge
+     * @return TransactionResult
+     */
+    public TransactionResult execute(String transactionId, List<? extends TransactionLeg> legs) {
+        TransactionResult previous = completed.get(transactionId);
+        if (previous != null) {
+            return previous.asReplay();
+        }
+
+        if (!inFlight.add(transactionId)) {
+            return new TransactionResult(transactionId, TransactionResult.Status.IN_PROGRESS, null, false);
+        }
+
+        try {
+            List<ReentrantLock> held = acquireLocks(legs);
+            if (held == null) {
+                logger.fine("Transaktion " + transactionId + ": Ressourcen gesperrt (Timeout)");
+                return new TransactionResult(transactionId, TransactionResult.Status.LOCK_TIMEOUT, null, false);
+            }
+
+            try {
+                TransactionResult result = applyAll(transactionId, legs);
+                completed.put(transactionId, result);
+                return result;
+            } finally {
+                releaseLocks(held);
+            }
+        } finally {
+            inFlight.remove(transactionId);
+        }
+    }
+
+    /**
+     * Kompensiert Legs, die außerhalb von {@link #execute} angewendet wurden.
+     *
+     * Für asynchrone Schritte (z.B. Vault-Buchungen über die VaultBridge), deren
+     * Folgeschritt fehlgeschlagen ist. Sind die Ressourcen gerade gesperrt,
+     * landen die Legs direkt im Journal und werden vom Retry-Task nachgeholt.
+     *
+     * @param transactionId Transaktions-ID
+     * @param applied Bereits angewendete Legs (in Ausführungsreihenfolge)
+     * @param failedLeg Beschreibung des fehlgeschlagenen Schritts
+     * @return ROLLED_BACK oder COMPENSATION_PENDING
+     */
+    public TransactionResult compensate(String transactionId, List<? extends TransactionLeg> applied,
+                                        String failedLeg) {
+        TransactionResult result;
+        List<ReentrantLock> held = acquireLocks(applied);
+
+        if (held == null) {
+            List<String> open = new ArrayList<>();
+            for (int i = applied.size() - 1; i >= 0; i--) {
+                pending.add(new PendingCompensation(transactionId, applied.get(i)));
+                open.add(applied.get(i).describe());
+            }
+            logger.warning("✗ Transaktion " + transactionId + ": Ressourcen gesperrt - Kompensation ins Journal: " + open);
+            persist(new JournalRecord(transactionId, open, System.currentTimeMillis()));
+            result = new TransactionResult(transactionId, TransactionResult.Status.COMPENSATION_PENDING, failedLeg, false);
+        } else {
+            try {
+                result = rollback(transactionId, new ArrayList<>(applied), failedLeg);
+            } finally {
+                releaseLocks(held);
+            }
+        }
+
+        completed.put(transactionId, result);
+        return result;
+    }
+
+    /**
+     * Wendet alle Legs an und kompensiert bei einem Fehler.
+     */
+    private TransactionResult applyAll(String transactionId, List<? extends TransactionLeg> legs) {
+        List<TransactionLeg> applied = new ArrayList<>(legs.size());
+
+        for (TransactionLeg leg : legs) {
+            boolean success;
+            try {
+                success = leg.apply();
+            } catch (RuntimeException e) {
+                logger.warning("Transaktion " + transactionId + ": Leg '" + leg.describe() +
+                        "' mit Exception abgebrochen: " + e.getMessage());
+                // Leg-Zustand unbekannt → ebenfalls kompensieren (idempotent)
+                applied.add(leg);
+                success = false;
+            }
+
+            if (!success) {
+                return rollback(transactionId, applied, leg.describe());
+            }
+            applied.add(leg);
+        }
+
+        return new TransactionResult(transactionId, TransactionResult.Status.COMMITTED, null, false);
+    }
+
+    /**
+     * Kompensiert angewendete Legs in umgekehrter Reihenfolge.
+     */
+    private TransactionResult rollback(String transactionId, List<TransactionLeg> applied, String failedLeg) {
+        List<String> open = new ArrayList<>();
+
+        for (int i = applied.size() - 1; i >= 0; i--) {
+            TransactionLeg leg = applied.get(i);
+            if (!tryCompensate(leg)) {
+                pending.add(new PendingCompensation(transactionId, leg));
+                open.add(leg.describe());
+            }
+        }
+
+        if (open.isEmpty()) {
+            logger.fine("Transaktion " + transactionId + " zurückgerollt (fehlgeschlagen: " + failedLeg + ")");
+            return new TransactionResult(transactionId, TransactionResult.Status.ROLLED_BACK, failedLeg, false);
+        }
+
+        logger.warning("✗ Transaktion " + transactionId + ": " + open.size() +
+                " Kompensation(en) ausstehend - wird wiederholt: " + open);
+        persist(new JournalRecord(transactionId, open, System.currentTimeMillis()));
+        return new TransactionResult(transactionId, TransactionResult.Status.COMPENSATION_PENDING, failedLeg, false);
+    }
+
+    // ==================== Kompensations-Journal ====================
+
+    /**
+     * Wiederholt alle ausstehenden Kompensationen.
+     *
+     * Gesperrte Ressourcen werden übersprungen und beim nächsten Lauf erneut versucht.
+     *
+     * @return Anzahl in diesem Lauf aufgelöster Kompensationen
+     */
+    public int retryPendingCompensations() {
+        int resolved = 0;
+        Set<String> touched = new TreeSet<>();
+        Set<String> abandoned = new TreeSet<>();
+
+        Iterator<PendingCompensation> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            PendingCompensation entry = iterator.next();
+
+            List<ReentrantLock> held = acquireLocks(List.of(entry.leg));
+            if (held == null) {
+                continue;
+            }
+
+            try {
+                if (tryCompensate(entry.leg)) {
+                    iterator.remove();
+                    touched.add(entry.transactionId);
+                    resolved++;
+                    logger.info("✓ Kompensation nachgeholt: " + entry.transactionId + " / " + entry.leg.describe());
+                } else if (++entry.attempts >= MAX_COMPENSATION_ATTEMPTS) {
+                    iterator.remove();
+                    abandoned.add(entry.transactionId);
+                    logger.severe("KRITISCH: Kompensation nach " + entry.attempts + " Versuchen aufgegeben: " +
+                            entry.transactionId + " / " + entry.leg.describe() + " - bitte manuell prüfen!");
+                }
+            } finally {
+                releaseLocks(held);
+            }
+        }
+
+        // Journal-Einträge vollständig aufgelöster Transaktionen entfernen (aufgegebene bleiben für Admins)
+        for (String transactionId : touched) {
+            if (!abandoned.contains(transactionId) && pending.stream().noneMatch(entry -> entry.transactionId.equals(transactionId))) {
+                forget(transactionId);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Gibt die Anzahl ausstehender Kompensationen zurück.
+     *
+     * @return Anzahl
+     */
+    public int getPendingCompensationCount() {
+        return pending.size();
+    }
+
+    /**
+     * Startet den periodischen Retry-Task (Main-Thread, da Inventar-Legs).
+     *
+     * @param plugin Plugin
+     * @param intervalTicks Intervall in Ticks
+     */
+    public void startRetryTask(Plugin plugin, long intervalTicks) {
+        if (retryTask != null) {
+            return;
+        }
+
+        retryTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
+            if (!pending.isEmpty()) {
+                retryPendingCompensations();
+            }
+        }, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Stoppt den Retry-Task und versucht einen letzten Durchlauf.
+     */
+    public void shutdown() {
+        if (retryTask != null) {
+            retryTask.cancel();
+            retryTask = null;
+        }
+
+        if (!pending.isEmpty()) {
+            retryPendingCompensations();
+        }
+        if (!pending.isEmpty()) {
+            logger.severe("✗ " + pending.size() + " Kompensation(en) beim Shutdown offen - siehe DataStore '" +
+                    JOURNAL_NAMESPACE + "'");
+        }
+    }
+
+    // ==================== Intern ====================
+
+    /**
+     * Führt eine Kompensation aus (Exceptions gelten als fehlgeschlagen).
+     */
+    private boolean tryCompensate(TransactionLeg leg) {
+        try {
+            return leg.compensate();
+        } catch (RuntimeException e) {
+            logger.warning("Kompensation '" + leg.describe() + "' fehlgeschlagen: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Holt die Stripe-Locks aller Ressourcen in aufsteigender Reihenfolge.
+     *
+     * @return Gehaltene Locks, oder null bei Timeout (dann ist nichts gesperrt)
+     */
+    private List<ReentrantLock> acquireLocks(List<? extends TransactionLeg> legs) {
+        Set<Integer> stripes = new TreeSet<>();
+        for (TransactionLeg leg : legs) {
+            for (String key : leg.resourceKeys()) {
+                int h = key.hashCode();
+                stripes.add((h ^ (h >>> 16)) & (LOCK_STRIPES - 1));
+            }
+        }
+
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                ReentrantLock lock = locks[stripe];
+                if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    releaseLocks(held);
+                    return null;
+                }
+                held.add(lock);
+            }
+        } catch (InterruptedException e) {
+            releaseLocks(held);
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return held;
+    }
+
+    /**
+     * Gibt Locks in umgekehrter Reihenfolge frei.
+     */
+    private void releaseLocks(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+        held.clear();
+    }
+
+    /**
+     * Schreibt einen Journal-Eintrag in den DataStore.
+     */
+    private void persist(JournalRecord record) {
+        if (dataStore != null) {
+            dataStore.save(JOURNAL_NAMESPACE, record.transactionId(), record);
+        }
+    }
+
+    /**
+     * Entfernt einen Journal-Eintrag aus dem DataStore.
+     */
+    private void forget(String transactionId) {
+        if (dataStore != null) {
+            dataStore.delete(JOURNAL_NAMESPACE, transactionId);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package de.fallenstar.core.transaction;
+
+import org.bukkit.Location;
+
+import java.util.UUID;
+
+/**
+ * Ressourcen-Schlüssel für das Sperren in Transaktionen.
+ *
+ * Zwei Legs, die denselben Schlüssel nennen, werden nie gleichzeitig
+ * von verschiedenen Transaktionen ausgeführt.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public final class TransactionKeys {
+
+    private TransactionKeys() {
+        // Utility-Klasse
+    }
+
+    /**
+     * Schlüssel für ein Economy-Konto (Vault).
+     *
+     * @param playerId Spieler-UUID
+     * @return Schlüssel
+     */
+    public static String economy(UUID playerId) {
+        return "economy:" + playerId;
+    }
+
+    /**
+     * Schlüssel für ein Spieler-Inventar.
+     *
+     * @param playerId Spieler-UUID
+     * @return Schlüssel
+     */
+    public static String inventory(UUID playerId) {
+        return "inventory:" + playerId;
+    }
+
+    /**
+     * Schlüssel für einen Container (Truhe, Fass, ...) an einer Block-Position.
+     *
+     * @param location Position des Containers
+     * @return Schlüssel
+     */
+    public static String container(Location location) {
+        String world = location.getWorld() != null ? location.getWorld().getName() : "?";
+        return "container:" + world + ":" + location.getBlockX() + ":" +
+                location.getBlockY() + ":" + location.getBlockZ();
+    }
+}
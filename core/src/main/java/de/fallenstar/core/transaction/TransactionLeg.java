@@ -0,0 +1,140 @@
+package de.fallenstar.core.transaction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Ein einzelner Schritt (Leg) einer mehrstufigen Transaktion.
+ *
+ * Beispiele: Vault-Abbuchung, Items aus Spieler-Inventar entfernen,
+ * Items in eine Truhe legen.
+ *
+ * **Vertrag:**
+ * - {@link #apply()} führt den Schritt aus. Liefert es false, darf der Schritt
+ *   nichts verändert haben (oder muss seine Teiländerungen selbst zurückgenommen haben).
+ * - {@link #compensate()} nimmt einen erfolgreich angewendeten Schritt zurück.
+ *   Muss idempotent sein - der TransactionCoordinator wiederholt fehlgeschlagene
+ *   Kompensationen, bis sie true liefern.
+ * - {@link #resourceKeys()} nennt alle Konten/Container, die der Schritt berührt.
+ *   Nur diese werden für die Dauer der Transaktion gesperrt.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public interface TransactionLeg {
+
+    /**
+     * Gibt die Ressourcen-Schlüssel zurück, die gesperrt werden müssen.
+     *
+     * Konvention: "economy:&lt;uuid&gt;", "inventory:&lt;uuid&gt;",
+     * "container:&lt;welt&gt;:&lt;x&gt;:&lt;y&gt;:&lt;z&gt;" (siehe {@link TransactionKeys}).
+     *
+     * @return Ressourcen-Schlüssel
+     */
+    Collection<String> resourceKeys();
+
+    /**
+     * Führt den Schritt aus.
+     *
+     * @return true wenn erfolgreich, false wenn nichts verändert wurde
+     */
+    boolean apply();
+
+    /**
+     * Nimmt den Schritt zurück (idempotent).
+     *
+     * @return true wenn vollständig zurückgenommen (oder nichts zu tun)
+     */
+    boolean compensate();
+
+    /**
+     * Gibt eine lesbare Beschreibung zurück (für Logs und Journal).
+     *
+     * @return Beschreibung
+     */
+    String describe();
+
+    /**
+     * Erstellt ein Leg aus Lambdas.
+     *
+     * Die Kompensation wird höchstens einmal erfolgreich ausgeführt.
+     *
+     * @param resourceKey Ressourcen-Schlüssel
+     * @param description Beschreibung
+     * @param apply Ausführung
+     * @param compensate Kompensation
+     * @return TransactionLeg
+     */
+    static TransactionLeg of(String resourceKey, String description,
+                             BooleanSupplier apply, BooleanSupplier compensate) {
+        return new TransactionLeg() {
+            private boolean applied;
+
+            @Override
+            public Collection<String> resourceKeys() {
+                return List.of(resourceKey);
+            }
+
+            @Override
+            public boolean apply() {
+                applied = apply.getAsBoolean();
+                return applied;
+            }
+
+            @Override
+            public boolean compensate() {
+                if (applied && compensate.getAsBoolean()) {
+                    applied = false;
+                }
+                return !applied;
+            }
+
+            @Override
+            public String describe() {
+                return description;
+            }
+        };
+    }
+
+    /**
+     * Erstellt ein Leg für einen bereits ausgeführten Schritt.
+     *
+     * Für Schritte, die vorab asynchron gelaufen sind (z.B. Vault-Abbuchung
+     * über die VaultBridge): Der Coordinator übernimmt nur noch die Kompensation,
+     * falls ein späterer Schritt fehlschlägt.
+     *
+     * @param resourceKey Ressourcen-Schlüssel
+     * @param description Beschreibung
+     * @param compensate Kompensation
+     * @return TransactionLeg
+     */
+    static TransactionLeg applied(String resourceKey, String description, BooleanSupplier compensate) {
+        return new TransactionLeg() {
+            private boolean applied = true;   // Schritt lief bereits vor der Registrierung
+
+            @Override
+            public Collection<String> resourceKeys() {
+                return List.of(resourceKey);
+            }
+
+            @Override
+            public boolean apply() {
+                return applied;
+            }
+
+            @Override
+            public boolean compensate() {
+                if (applied && compensate.getAsBoolean()) {
+                    applied = false;
+                }
+                return !applied;
+            }
+
+            @Override
+            public String describe() {
+                return description;
+            }
+        };
+    }
+}
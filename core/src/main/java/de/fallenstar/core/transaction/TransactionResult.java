@@ -0,0 +1,49 @@
+package de.fallenstar.core.transaction;
+
+/**
+ * Ergebnis einer Transaktion des TransactionCoordinators.
+ *
+ * @param transactionId Transaktions-ID
+ * @param status Status
+ * @param failedLeg Beschreibung des fehlgeschlagenen Legs (null bei Erfolg)
+ * @param replayed true wenn das Ergebnis aus einem früheren Aufruf mit derselben ID stammt
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public record TransactionResult(String transactionId, Status status, String failedLeg, boolean replayed) {
+
+    /**
+     * Status einer Transaktion.
+     */
+    public enum Status {
+        /** Alle Legs angewendet. */
+        COMMITTED,
+        /** Ein Leg schlug fehl, alle vorherigen Legs wurden kompensiert. */
+        ROLLED_BACK,
+        /** Ein Leg schlug fehl, mindestens eine Kompensation steht noch aus (wird wiederholt). */
+        COMPENSATION_PENDING,
+        /** Ressourcen waren gesperrt - nichts wurde ausgeführt, erneuter Versuch möglich. */
+        LOCK_TIMEOUT,
+        /** Transaktion mit derselben ID läuft gerade. */
+        IN_PROGRESS
+    }
+
+    /**
+     * Prüft ob die Transaktion vollständig angewendet wurde.
+     *
+     * @return true wenn COMMITTED
+     */
+    public boolean isCommitted() {
+        return status == Status.COMMITTED;
+    }
+
+    /**
+     * Gibt dasselbe Ergebnis als Wiederholung markiert zurück.
+     *
+     * @return TransactionResult mit replayed = true
+     */
+    TransactionResult asReplay() {
+        return new TransactionResult(transactionId, status, failedLeg, true);
+    }
+}
@@ -0,0 +1,160 @@
+package de.fallenstar.core.economy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für Money.
+ *
+ * Testet:
+ * - Exakte Konvertierung von/zu Vault-Doubles
+ * - Überlauf-geprüfte Arithmetik
+ * - Währungs-Prüfung
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    private static final String STERNE = Money.BASE_CURRENCY_ID;
+
+    @Test
+    @DisplayName("fromVault() sollte Binär-Artefakte von doubles entfernen")
+    void testFromVault_RemovesBinaryArtifacts() {
+        assertEquals(30, Money.fromVault(0.1 + 0.2, STERNE).minorUnits());
+        assertEquals(1250, Money.fromVault(12.5, STERNE).minorUnits());
+        assertEquals(-5, Money.fromVault(-0.05, STERNE).minorUnits());
+    }
+
+    @Test
+    @DisplayName("fromVault() sollte ab der 3. Nachkommastelle HALF_UP runden")
+    void testFromVault_RoundsHalfUp() {
+        assertEquals(101, Money.fromVault(1.005, STERNE).minorUnits());
+        assertEquals(100, Money.fromVault(1.004, STERNE).minorUnits());
+    }
+
+    @Test
+    @DisplayName("fromVault() sollte NaN und Infinity ablehnen")
+    void testFromVault_RejectsNaN() {
+        assertThrows(ArithmeticException.class, () -> Money.fromVault(Double.NaN, STERNE));
+        assertThrows(ArithmeticException.class, () -> Money.fromVault(Double.POSITIVE_INFINITY, STERNE));
+    }
+
+    @Test
+    @DisplayName("toVault() und fromVault() sollten verlustfrei round-trippen")
+    void testVaultRoundTrip() {
+        long[] samples = {0, 1, 5, 10, 99, 12345, 100_000_07, -42, 9_007_199_254_740_99L};
+        for (long minor : samples) {
+            Money money = Money.of(minor, STERNE);
+            assertEquals(money, Money.fromVault(money.toVault(), STERNE), "Round-Trip für " + minor);
+        }
+    }
+
+    @Test
+    @DisplayName("toVault() sollte bei nicht darstellbaren Beträgen Exception werfen")
+    void testToVault_ThrowsOutsideExactRange() {
+        assertThrows(ArithmeticException.class, () -> Money.of(Long.MAX_VALUE, STERNE).toVault());
+    }
+
+    @Test
+    @DisplayName("plus()/minus()/times() sollten bei Überlauf Exception werfen")
+    void testArithmetic_DetectsOverflow() {
+        Money max = Money.of(Long.MAX_VALUE, STERNE);
+        Money min = Money.of(Long.MIN_VALUE, STERNE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.of(1, STERNE)));
+        assertThrows(ArithmeticException.class, () -> min.minus(Money.of(1, STERNE)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.ofMajor(Long.MAX_VALUE / 10, STERNE));
+        assertThrows(ArithmeticException.class, min::negate);
+    }
+
+    @Test
+    @DisplayName("Arithmetik sollte exakt in Minor Units rechnen")
+    void testArithmetic_Exact() {
+        Money price = Money.fromVault(0.1, STERNE);
+
+        assertEquals(Money.ofMajor(1, STERNE), price.times(10));
+        assertEquals(Money.of(30, STERNE), price.plus(price).plus(price));
+        assertEquals(Money.of(-10, STERNE), Money.zero(STERNE).minus(price));
+    }
+
+    @Test
+    @DisplayName("times(BigDecimal) sollte Wechselkurse mit Rundungsmodus anwenden")
+    void testTimesBigDecimal() {
+        Money tenStars = Money.ofMajor(10, STERNE);
+
+        assertEquals(Money.ofMajor(12, STERNE), tenStars.times(new BigDecimal("1.2"), RoundingMode.HALF_UP));
+        assertEquals(Money.of(33, STERNE), Money.of(100, STERNE).times(new BigDecimal("0.333"), RoundingMode.HALF_UP));
+        assertEquals(Money.of(34, STERNE), Money.of(100, STERNE).times(new BigDecimal("0.333"), RoundingMode.UP));
+    }
+
+    @Test
+    @DisplayName("convert() sollte mit Verhältnis umrechnen und nach Modus runden")
+    void testConvert_RoundsPerMode() {
+        Money amount = Money.of(1000, STERNE); // 10.00 Sterne
+
+        // Kurs 1.2 → 5/6: 10.00 Sterne = 8.333... Dukaten
+        assertEquals(833, amount.convert(5, 6, RoundingMode.HALF_UP, "dukaten").minorUnits());
+        assertEquals(834, amount.convert(5, 6, RoundingMode.UP, "dukaten").minorUnits());
+        assertEquals("dukaten", amount.convert(5, 6, RoundingMode.HALF_UP, "dukaten").currencyId());
+
+        // Negative Beträge: FLOOR/CEILING richtungsabhängig
+        Money negative = Money.of(-1000, STERNE);
+        assertEquals(-834, negative.convert(5, 6, RoundingMode.FLOOR, "dukaten").minorUnits());
+        assertEquals(-833, negative.convert(5, 6, RoundingMode.CEILING, "dukaten").minorUnits());
+
+        // Halbe Minor Units: HALF_EVEN vs HALF_UP
+        assertEquals(2, Money.of(5, STERNE).convert(1, 2, RoundingMode.HALF_EVEN, STERNE).minorUnits());
+        assertEquals(3, Money.of(5, STERNE).convert(1, 2, RoundingMode.HALF_UP, STERNE).minorUnits());
+        assertThrows(ArithmeticException.class,
+                () -> Money.of(5, STERNE).convert(1, 2, RoundingMode.UNNECESSARY, STERNE));
+    }
+
+    @Test
+    @DisplayName("convert() sollte bei großem Zwischenergebnis exakt bleiben")
+    void testConvert_LargeIntermediate() {
+        Money amount = Money.of(Long.MAX_VALUE / 2, STERNE);
+
+        assertEquals(Long.MAX_VALUE / 2, amount.convert(4, 4, RoundingMode.UNNECESSARY, STERNE).minorUnits());
+        assertThrows(ArithmeticException.class, () -> amount.convert(4, 1, RoundingMode.HALF_UP, STERNE));
+    }
+
+    @Test
+    @DisplayName("fits() sollte abgerundete Anzahl vollständiger Einheiten liefern")
+    void testFits() {
+        Money balance = Money.ofMajor(25, STERNE);
+
+        assertEquals(2, balance.fits(Money.ofMajor(10, STERNE)));
+        assertEquals(0, Money.of(-500, STERNE).fits(Money.ofMajor(1, STERNE)));
+        assertThrows(IllegalArgumentException.class, () -> balance.fits(Money.zero(STERNE)));
+    }
+
+    @Test
+    @DisplayName("Operationen mit unterschiedlichen Währungen sollten Exception werfen")
+    void testCurrencyMismatch_Throws() {
+        Money sterne = Money.ofMajor(1, STERNE);
+        Money dukaten = Money.ofMajor(1, "dukaten");
+
+        assertThrows(IllegalArgumentException.class, () -> sterne.plus(dukaten));
+        assertThrows(IllegalArgumentException.class, () -> sterne.minus(dukaten));
+        assertThrows(IllegalArgumentException.class, () -> sterne.compareTo(dukaten));
+    }
+
+    @Test
+    @DisplayName("toBigDecimal() und toPlainString() sollten 2 Nachkommastellen liefern")
+    void testFormatting() {
+        Money money = Money.of(1250, STERNE);
+
+        assertEquals(new BigDecimal("12.50"), money.toBigDecimal());
+        assertEquals("12.50", money.toPlainString());
+        assertEquals("12.50 sterne", money.toString());
+        assertEquals(money, Money.fromBigDecimal(new BigDecimal("12.5"), STERNE));
+    }
+}
@@ -0,0 +1,102 @@
+package de.fallenstar.core.economy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für PriceFile.
+ *
+ * Testet:
+ * - Round-Trip CSV und JSON
+ * - Leere Felder / fehlende Preise
+ * - Fehlermeldungen bei ungültigem Inhalt
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("PriceFile Tests")
+class PriceFileTest {
+
+    private static final List<PriceFile.Entry> ENTRIES = List.of(
+            new PriceFile.Entry("DIAMOND", new BigDecimal("90"), new BigDecimal("100.5")),
+            new PriceFile.Entry("IRON_INGOT", null, new BigDecimal("5")),
+            new PriceFile.Entry("SWORD:EXCALIBUR", new BigDecimal("1000"), null)
+    );
+
+    @Test
+    @DisplayName("CSV und JSON sollten verlustfrei round-trippen")
+    void testRoundTrip() throws IOException {
+        for (PriceFile.Format format : PriceFile.Format.values()) {
+            StringWriter out = new StringWriter();
+            try (PriceFile.EntryWriter writer = PriceFile.writer(out, format)) {
+                for (PriceFile.Entry entry : ENTRIES) {
+                    writer.write(entry);
+                }
+            }
+
+            List<PriceFile.Entry> read = new ArrayList<>();
+            assertEquals(ENTRIES.size(), PriceFile.read(new StringReader(out.toString()), format, read::add));
+
+            for (int i = 0; i < ENTRIES.size(); i++) {
+                assertEquals(ENTRIES.get(i).item(), read.get(i).item(), format + " Item " + i);
+                assertPrice(ENTRIES.get(i).buyPrice(), read.get(i).buyPrice());
+                assertPrice(ENTRIES.get(i).sellPrice(), read.get(i).sellPrice());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("CSV sollte Kommentare, Leerzeilen und fehlende Spalte akzeptieren")
+    void testReadCsv_Lenient() throws IOException {
+        String csv = "# Preise\n\nDIAMOND,90\nSTONE,,0.10\n";
+        List<PriceFile.Entry> read = new ArrayList<>();
+
+        assertEquals(2, PriceFile.read(new StringReader(csv), PriceFile.Format.CSV, read::add));
+        assertPrice(new BigDecimal("90"), read.get(0).buyPrice());
+        assertNull(read.get(0).sellPrice());
+        assertNull(read.get(1).buyPrice());
+        assertPrice(new BigDecimal("0.1"), read.get(1).sellPrice());
+    }
+
+    @Test
+    @DisplayName("Ungültige Preise sollten mit Zeilenangabe abgelehnt werden")
+    void testRead_RejectsInvalidPrices() {
+        IOException csv = assertThrows(IOException.class, () ->
+                PriceFile.read(new StringReader("item,buy,sell\nDIAMOND,abc,1\n"), PriceFile.Format.CSV, e -> { }));
+        assertTrue(csv.getMessage().startsWith("Zeile 2"), csv.getMessage());
+
+        assertThrows(IOException.class, () ->
+                PriceFile.read(new StringReader("DIAMOND,-1,1"), PriceFile.Format.CSV, e -> { }));
+        assertThrows(IOException.class, () ->
+                PriceFile.read(new StringReader("[{\"buy\": 1}]"), PriceFile.Format.JSON, e -> { }));
+    }
+
+    @Test
+    @DisplayName("Format sollte aus der Dateiendung erkannt werden")
+    void testFormat_FromFileName() {
+        assertEquals(PriceFile.Format.CSV, PriceFile.Format.fromFileName("preise.CSV").orElseThrow());
+        assertEquals(PriceFile.Format.JSON, PriceFile.Format.fromFileName("preise.json").orElseThrow());
+        assertTrue(PriceFile.Format.fromFileName("preise.yml").isEmpty());
+    }
+
+    /**
+     * Hilfsmethode: Vergleicht Preise unabhängig von der Skala.
+     */
+    private static void assertPrice(BigDecimal expected, BigDecimal actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(0, expected.compareTo(actual), "Erwartet " + expected + ", war " + actual);
+    }
+}
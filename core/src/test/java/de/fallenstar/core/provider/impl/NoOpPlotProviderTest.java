@@ -100,6 +100,17 @@ class NoOpPlotProviderTest {
         assertExceptionContent(exception, "hasAdminRights");
     }
 
+    @Test
+    @DisplayName("isAssociate() sollte ProviderFunctionalityNotFoundException werfen")
+    void testIsAssociate_ThrowsException() {
+        ProviderFunctionalityNotFoundException exception =
+            assertThrows(ProviderFunctionalityNotFoundException.class,
+                () -> provider.isAssociate(mockPlot, java.util.UUID.randomUUID()),
+                "isAssociate() sollte Exception werfen");
+
+        assertExceptionContent(exception, "isAssociate");
+    }
+
     /**
      * Hilfsmethode: Prüft ob Exception korrekte Informationen enthält.
      */
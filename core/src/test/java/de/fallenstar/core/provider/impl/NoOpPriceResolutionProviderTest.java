@@ -0,0 +1,96 @@
+package de.fallenstar.core.provider.impl;
+
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import de.fallenstar.core.provider.Plot;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit-Tests für NoOpPriceResolutionProvider.
+ *
+ * Testet dass:
+ * - isAvailable() false zurückgibt
+ * - Preis-Abfragen ProviderFunctionalityNotFoundException werfen
+ * - Invalidierungen ohne Exception ignoriert werden
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("NoOpPriceResolutionProvider Tests")
+class NoOpPriceResolutionProviderTest {
+
+    private NoOpPriceResolutionProvider provider;
+    private Plot mockPlot;
+    private ItemStack mockItemStack;
+
+    @BeforeEach
+    void setUp() {
+        provider = new NoOpPriceResolutionProvider();
+        mockPlot = mock(Plot.class);
+        mockItemStack = mock(ItemStack.class);
+    }
+
+    @Test
+    @DisplayName("isAvailable() sollte false zurückgeben")
+    void testIsAvailable_ReturnsFalse() {
+        assertFalse(provider.isAvailable(),
+            "NoOpPriceResolutionProvider sollte nicht verfügbar sein");
+    }
+
+    @Test
+    @DisplayName("getSellPrice(ItemStack) sollte ProviderFunctionalityNotFoundException werfen")
+    void testGetSellPrice_Item_ThrowsException() {
+        ProviderFunctionalityNotFoundException exception =
+            assertThrows(ProviderFunctionalityNotFoundException.class,
+                () -> provider.getSellPrice(mockPlot, mockItemStack),
+                "getSellPrice() sollte Exception werfen");
+
+        assertExceptionContent(exception, "getSellPrice");
+    }
+
+    @Test
+    @DisplayName("getBuyPrice(Material) sollte ProviderFunctionalityNotFoundException werfen")
+    void testGetBuyPrice_Material_ThrowsException() {
+        ProviderFunctionalityNotFoundException exception =
+            assertThrows(ProviderFunctionalityNotFoundException.class,
+                () -> provider.getBuyPrice(mockPlot, Material.DIAMOND),
+                "getBuyPrice() sollte Exception werfen");
+
+        assertExceptionContent(exception, "getBuyPrice");
+    }
+
+    @Test
+    @DisplayName("invalidate()/invalidateAll() sollten keine Exception werfen")
+    void testInvalidate_DoesNotThrow() {
+        assertDoesNotThrow(() -> provider.invalidate(mockPlot));
+        assertDoesNotThrow(() -> provider.invalidateAll());
+    }
+
+    @Test
+    @DisplayName("recordTrade() sollte keine Exception werfen")
+    void testRecordTrade_DoesNotThrow() {
+        assertDoesNotThrow(() -> provider.recordTrade(mockPlot, Material.DIAMOND, 5));
+    }
+
+    /**
+     * Hilfsmethode: Prüft ob Exception korrekte Informationen enthält.
+     */
+    private void assertExceptionContent(
+            ProviderFunctionalityNotFoundException exception,
+            String expectedMethodName) {
+
+        String message = exception.getMessage();
+
+        assertNotNull(message, "Exception message sollte nicht null sein");
+        assertTrue(message.contains("PriceResolutionProvider"),
+            "Exception sollte Provider-Namen enthalten");
+        assertTrue(message.contains(expectedMethodName),
+            "Exception sollte Methoden-Namen enthalten");
+    }
+}
@@ -186,6 +186,7 @@ class ProviderRegistryTest {
         assertNotNull(registry.getEconomyProvider());
         assertNotNull(registry.getNpcProvider());
         assertNotNull(registry.getItemProvider());
+        assertNotNull(registry.getPriceResolutionProvider());
         assertNotNull(registry.getChatProvider());
         assertNotNull(registry.getNetworkProvider());
     }
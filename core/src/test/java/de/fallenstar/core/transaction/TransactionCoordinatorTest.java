@@ -0,0 +1,198 @@
+package de.fallenstar.core.transaction;
+
+import de.fallenstar.core.database.DataStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für TransactionCoordinator.
+ *
+ * Testet:
+ * - Alles-oder-nichts (Kompensation in umgekehrter Reihenfolge)
+ * - Idempotente Wiederholung derselben Transaktions-ID
+ * - Kompensations-Journal (Retry, DataStore-Eintrag)
+ * - Sperren nur auf betroffene Ressourcen
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("TransactionCoordinator Tests")
+class TransactionCoordinatorTest {
+
+    private DataStore dataStore;
+    private TransactionCoordinator coordinator;
+    private List<String> log;
+
+    @BeforeEach
+    void setUp() {
+        dataStore = mock(DataStore.class);
+        when(dataStore.save(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        when(dataStore.delete(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(true));
+
+        coordinator = new TransactionCoordinator(Logger.getLogger("test"), dataStore, 50L);
+        log = new ArrayList<>();
+    }
+
+    /**
+     * Erstellt ein protokollierendes Leg.
+     */
+    private TransactionLeg leg(String name, boolean applies) {
+        return TransactionLeg.of("res:" + name, name,
+                () -> {
+                    log.add("apply " + name);
+                    return applies;
+                },
+                () -> {
+                    log.add("undo " + name);
+                    return true;
+                });
+    }
+
+    @Test
+    @DisplayName("execute() sollte alle Legs anwenden und COMMITTED liefern")
+    void testExecute_Commits() {
+        TransactionResult result = coordinator.execute("tx1", List.of(leg("a", true), leg("b", true)));
+
+        assertTrue(result.isCommitted());
+        assertFalse(result.replayed());
+        assertEquals(List.of("apply a", "apply b"), log);
+    }
+
+    @Test
+    @DisplayName("execute() sollte bei Fehlschlag vorherige Legs rückwärts kompensieren")
+    void testExecute_RollsBackInReverseOrder() {
+        TransactionResult result = coordinator.execute("tx1",
+                List.of(leg("a", true), leg("b", true), leg("c", false), leg("d", true)));
+
+        assertEquals(TransactionResult.Status.ROLLED_BACK, result.status());
+        assertEquals("c", result.failedLeg());
+        assertEquals(List.of("apply a", "apply b", "apply c", "undo b", "undo a"), log);
+    }
+
+    @Test
+    @DisplayName("execute() sollte Exceptions in Legs wie Fehlschläge behandeln")
+    void testExecute_ExceptionRollsBack() {
+        TransactionLeg failing = TransactionLeg.of("res:x", "x", () -> {
+            throw new IllegalStateException("Truhe entfernt");
+        }, () -> true);
+
+        TransactionResult result = coordinator.execute("tx1", List.of(leg("a", true), failing));
+
+        assertEquals(TransactionResult.Status.ROLLED_BACK, result.status());
+        assertEquals(List.of("apply a", "undo a"), log);
+    }
+
+    @Test
+    @DisplayName("execute() sollte dieselbe Transaktions-ID nur einmal ausführen")
+    void testExecute_Idempotent() {
+        coordinator.execute("tx1", List.of(leg("a", true)));
+        TransactionResult replay = coordinator.execute("tx1", List.of(leg("a", true)));
+
+        assertTrue(replay.isCommitted());
+        assertTrue(replay.replayed());
+        assertEquals(List.of("apply a"), log, "Leg darf nicht erneut angewendet werden");
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagene Kompensationen sollten ins Journal und per Retry nachgeholt werden")
+    void testCompensationJournal_RetriesUntilResolved() {
+        AtomicInteger undoAttempts = new AtomicInteger();
+        TransactionLeg stubborn = TransactionLeg.of("res:vault", "vault",
+                () -> true,
+                () -> undoAttempts.incrementAndGet() >= 3);
+
+        TransactionResult result = coordinator.execute("tx1", List.of(stubborn, leg("b", false)));
+
+        assertEquals(TransactionResult.Status.COMPENSATION_PENDING, result.status());
+        assertEquals(1, coordinator.getPendingCompensationCount());
+        verify(dataStore).save(eq(TransactionCoordinator.JOURNAL_NAMESPACE), eq("tx1"), any());
+
+        assertEquals(0, coordinator.retryPendingCompensations());
+        assertEquals(1, coordinator.retryPendingCompensations());
+        assertEquals(0, coordinator.getPendingCompensationCount());
+        verify(dataStore).delete(TransactionCoordinator.JOURNAL_NAMESPACE, "tx1");
+
+        // Idempotent: weitere Retries kompensieren nicht erneut
+        coordinator.retryPendingCompensations();
+        assertEquals(3, undoAttempts.get());
+    }
+
+    @Test
+    @DisplayName("compensate() sollte asynchron angewendete Legs zurücknehmen")
+    void testCompensate_AppliedLeg() {
+        AtomicInteger refunds = new AtomicInteger();
+        TransactionLeg vault = TransactionLeg.applied("res:vault", "vault", () -> refunds.incrementAndGet() > 0);
+
+        TransactionResult result = coordinator.compensate("tx1", List.of(vault), "payout");
+
+        assertEquals(TransactionResult.Status.ROLLED_BACK, result.status());
+        assertEquals(1, refunds.get());
+        assertTrue(coordinator.execute("tx1", List.of(leg("a", true))).replayed());
+    }
+
+    @Test
+    @DisplayName("Gesperrte Ressource sollte LOCK_TIMEOUT liefern, fremde Ressourcen nicht blockieren")
+    void testLocks_OnlyAffectedResources() throws Exception {
+        CountDownLatch insideLeg = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<TransactionResult> slowResult = new AtomicReference<>();
+
+        TransactionLeg slow = TransactionLeg.of("res:shared", "slow", () -> {
+            insideLeg.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }, () -> true);
+
+        Thread worker = new Thread(() -> slowResult.set(coordinator.execute("slow", List.of(slow))));
+        worker.start();
+        assertTrue(insideLeg.await(5, TimeUnit.SECONDS));
+
+        TransactionResult blocked = coordinator.execute("blocked", List.of(
+                TransactionLeg.of("res:shared", "other", () -> true, () -> true)));
+        assertEquals(TransactionResult.Status.LOCK_TIMEOUT, blocked.status());
+
+        // Unabhängige Ressource (anderer Stripe) wird nicht blockiert
+        String independent = "res:free";
+        for (int i = 0; sameStripe(independent, "res:shared"); i++) {
+            independent = "res:free" + i;
+        }
+        assertTrue(coordinator.execute("free", List.of(
+                TransactionLeg.of(independent, "free", () -> true, () -> true))).isCommitted());
+
+        release.countDown();
+        worker.join();
+        assertTrue(slowResult.get().isCommitted());
+
+        // LOCK_TIMEOUT wird nicht gespeichert - erneuter Versuch läuft normal
+        assertTrue(coordinator.execute("blocked", List.of(
+                TransactionLeg.of("res:shared", "other", () -> true, () -> true))).isCommitted());
+    }
+
+    /**
+     * Prüft ob zwei Schlüssel auf denselben Lock-Stripe fallen (256 Stripes).
+     */
+    private static boolean sameStripe(String a, String b) {
+        int ha = a.hashCode();
+        int hb = b.hashCode();
+        return ((ha ^ (ha >>> 16)) & 255) == ((hb ^ (hb >>> 16)) & 255);
+    }
+}
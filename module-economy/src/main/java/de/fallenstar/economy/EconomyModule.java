@@ -1,19 +1,38 @@
 package de.fallenstar.economy;
 
 import de.fallenstar.core.FallenStarCore;
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
 import de.fallenstar.core.event.ProvidersReadyEvent;
 import de.fallenstar.core.registry.AdminCommandRegistry;
 import de.fallenstar.core.registry.ProviderRegistry;
+import de.fallenstar.core.transaction.TransactionCoordinator;
 import de.fallenstar.economy.command.EconomyAdminHandler;
+import de.fallenstar.economy.manager.BankAccountHandler;
 import de.fallenstar.economy.manager.CurrencyManager;
+import de.fallenstar.economy.manager.EconomyMetrics;
+import de.fallenstar.economy.manager.RefundQueue;
+import de.fallenstar.economy.market.MarketExchange;
+import de.fallenstar.economy.market.MatchingEngine;
 import de.fallenstar.economy.model.CurrencyItemSet;
+import de.fallenstar.economy.pricing.CustomItemKeyResolver;
 import de.fallenstar.economy.pricing.ItemBasePriceProvider;
+import de.fallenstar.economy.pricing.ItemPriceStore;
 import de.fallenstar.economy.provider.CoinProviderImpl;
+import de.fallenstar.economy.provider.VaultBridge;
+import de.fallenstar.economy.provider.VaultBridgeListener;
 import de.fallenstar.economy.provider.VaultEconomyProvider;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Economy-Modul für FallenStar.
  *
@@ -21,8 +40,11 @@ import org.bukkit.plugin.java.JavaPlugin;
  * - Weltwirtschaft mit mehreren Währungen
  * - Münzsystem (Bronze/Silber/Gold)
  * - Wechselkurse und Preisberechnungen
- * - Vault-Integration
- * - Item-Basispreise (für Handelsgilden)
+ * - Vault-Integration (asynchron über VaultBridge)
+ * - Item-Basispreise (für Handelsgilden, persistiert pro Eintrag im ItemPriceStore)
+ * - Ingame-Banken mit persistentem Journal (BankAccountHandler)
+ * - Geldfluss-Metriken mit periodischem Snapshot (EconomyMetrics)
+ * - Börse mit Orderbuch pro Item für Plot-Händler (MarketExchange)
  *
  * Abhängigkeiten:
  * - FallenStar-Core (ProviderRegistry)
@@ -37,8 +59,13 @@ public class EconomyModule extends JavaPlugin implements Listener {
     private ProviderRegistry providers;
     private CurrencyManager currencyManager;
     private ItemBasePriceProvider priceProvider;
+    private ItemPriceStore priceStore;
     private VaultEconomyProvider economyProvider;
     private CoinProviderImpl coinProvider;
+    private DataStore dataStore;
+    private MarketExchange marketExchange;
+    private RefundQueue refundQueue;
+    private final Map<String, BankAccountHandler> banks = new ConcurrentHashMap<>();
 
     @Override
     public void onEnable() {
@@ -55,6 +82,35 @@ public class EconomyModule extends JavaPlugin implements Listener {
 
     @Override
     public void onDisable() {
+        // Börse: letzte Ausführungen abrechnen, offene Orders sichern (vor dem Vault-Thread!)
+        if (marketExchange != null) {
+            marketExchange.shutdown();
+        }
+
+        // Metriken: finaler Snapshot
+        if (currencyManager != null) {
+            currencyManager.getMetrics().shutdown();
+        }
+
+        // Bank-Journale flushen (finaler Snapshot)
+        banks.values().forEach(BankAccountHandler::shutdown);
+        banks.clear();
+
+        // Preis-Speicher: offene Preisänderungen schreiben
+        if (priceStore != null) {
+            priceStore.shutdown();
+        }
+
+        // Vault-Thread beenden (offene Buchungen werden noch ausgeführt)
+        if (economyProvider != null) {
+            economyProvider.shutdownBridge();
+        }
+
+        // Rückerstattungen: erst nach dem Vault-Thread sichern (laufende Buchungen sind dann abgeschlossen)
+        if (refundQueue != null) {
+            refundQueue.shutdown();
+        }
+
         getLogger().info("FallenStar Economy Modul wird gestoppt.");
     }
 
@@ -76,15 +132,30 @@ public class EconomyModule extends JavaPlugin implements Listener {
             return;
         }
 
+        // DataStore aus Core (für Bank-Journale und Item-Basispreise)
+        FallenStarCore core = (FallenStarCore) getServer().getPluginManager().getPlugin("FallenStar-Core");
+        this.dataStore = core != null ? core.getDataStore() : null;
+
         // Initialisiere Module
         initializeManagers();
         registerEconomyProvider();
 
-        // Setze EconomyProvider im CurrencyManager (für withdrawCoins)
-        currencyManager.setEconomyProvider(economyProvider);
+        // Starte VaultBridge und setze sie im CurrencyManager (für withdrawCoins/depositCoins)
+        VaultBridge bridge = startVaultBridge();
+        TransactionCoordinator transactionCoordinator = core != null
+                ? core.getTransactionCoordinator()
+                : new TransactionCoordinator(getLogger(), null, 250L);
+        currencyManager.setVaultBridge(bridge);
+        currencyManager.setTransactionCoordinator(transactionCoordinator);
+        startRefundQueue(bridge);
 
         // Registriere Basiswährung (muss vor CoinProvider erfolgen!)
         registerBaseCurrency();
+        registerConfiguredCurrencies();
+        configureExchange();
+        startMetrics();
+        startBanks();
+        startMarket(bridge, transactionCoordinator);
 
         // Registriere CoinProvider (benötigt Basiswährung)
         registerCoinProvider();
@@ -153,7 +224,8 @@ public class EconomyModule extends JavaPlugin implements Listener {
 
         // Initialisiere ItemBasePriceProvider
         this.priceProvider = new ItemBasePriceProvider(getLogger());
-        priceProvider.loadFromConfig(getConfig());
+        priceProvider.setKeyResolver(new CustomItemKeyResolver(getLogger(), itemProvider));
+        loadItemPrices();
 
         getLogger().info("✓ Manager initialisiert");
         getLogger().info("  - Item-Basispreise: " + priceProvider.getVanillaPriceCount() +
@@ -161,6 +233,30 @@ public class EconomyModule extends JavaPlugin implements Listener {
         getLogger().info("  - ItemProvider: " + (itemProvider.isAvailable() ? "verfügbar" : "nicht verfügbar"));
     }
 
+    /**
+     * Lädt die Item-Basispreise aus dem Preis-Speicher (Config: item-prices.*).
+     *
+     * Existiert noch kein Preis-Speicher, werden die Preise einmalig aus
+     * config.yml (item-base-prices) übernommen. Ohne DataStore bleibt es
+     * bei der Config (Änderungen schreiben dann die komplette config.yml).
+     */
+    private void loadItemPrices() {
+        if (dataStore == null) {
+            getLogger().warning("○ Kein DataStore - Item-Basispreise werden in config.yml gespeichert");
+            priceProvider.loadFromConfig(getConfig());
+            return;
+        }
+
+        this.priceStore = new ItemPriceStore(getLogger(), dataStore);
+        if (!priceStore.load(priceProvider)) {
+            priceProvider.loadFromConfig(getConfig());
+            priceStore.importAll(priceProvider);
+        }
+
+        priceProvider.setPriceStore(priceStore);
+        priceStore.start(this, getConfig().getLong("item-prices.flush-interval-ticks", 20L));
+    }
+
     /**
      * Registriert den VaultEconomyProvider in der ProviderRegistry.
      */
@@ -190,6 +286,42 @@ public class EconomyModule extends JavaPlugin implements Listener {
         }
     }
 
+    /**
+     * Startet die asynchrone VaultBridge und registriert ihren Listener.
+     *
+     * @return VaultBridge, oder null wenn Vault nicht verfügbar
+     */
+    private VaultBridge startVaultBridge() {
+        VaultBridge bridge = economyProvider.enableBridge(this,
+                getConfig().getLong("vault.balance-cache-ttl-ms", 2000L));
+
+        if (bridge == null) {
+            getLogger().warning("✗ VaultBridge nicht verfügbar - Münz-Ein-/Auszahlungen deaktiviert");
+            return null;
+        }
+
+        // Balance-Cache beim Logout verwerfen
+        getServer().getPluginManager().registerEvents(new VaultBridgeListener(bridge), this);
+        return bridge;
+    }
+
+    /**
+     * Startet die Warteschlange für Rückerstattungen (Config: vault.refund-retry-interval-ticks).
+     *
+     * Offene Rückerstattungen aus dem letzten Lauf werden sofort nachgeholt.
+     *
+     * @param bridge VaultBridge (oder null)
+     */
+    private void startRefundQueue(VaultBridge bridge) {
+        if (bridge == null) {
+            return;
+        }
+
+        this.refundQueue = new RefundQueue(getLogger(), bridge);
+        refundQueue.start(this, dataStore, getConfig().getLong("vault.refund-retry-interval-ticks", 200L));
+        currencyManager.setRefundQueue(refundQueue);
+    }
+
     /**
      * Registriert den CoinProvider in der ProviderRegistry.
      */
@@ -222,6 +354,131 @@ public class EconomyModule extends JavaPlugin implements Listener {
                 " (Wechselkurs: " + sterne.exchangeRate() + ")");
     }
 
+    /**
+     * Registriert weitere Währungen aus der Config (currencies.&lt;id&gt;).
+     */
+    private void registerConfiguredCurrencies() {
+        ConfigurationSection section = getConfig().getConfigurationSection("currencies");
+        if (section == null) {
+            return;
+        }
+
+        for (String currencyId : section.getKeys(false)) {
+            ConfigurationSection entry = section.getConfigurationSection(currencyId);
+            if (entry == null) {
+                continue;
+            }
+
+            try {
+                String plural = entry.getString("name-plural", currencyId);
+                CurrencyItemSet currency = new CurrencyItemSet(
+                        currencyId,
+                        plural,
+                        entry.getString("name-singular", plural),
+                        plural,
+                        entry.getString("bronze-item", "bronze_" + currencyId),
+                        entry.getString("silver-item", "silver_" + currencyId),
+                        entry.getString("gold-item", "gold_" + currencyId),
+                        new BigDecimal(entry.getString("exchange-rate", "1.0"))
+                );
+                currencyManager.registerCurrency(currency);
+            } catch (IllegalArgumentException e) {
+                getLogger().warning("✗ Währung '" + currencyId + "' ungültig: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Setzt die Standard-Rundung der Währungsumrechnung (Config: exchange.rounding).
+     */
+    private void configureExchange() {
+        String rounding = getConfig().getString("exchange.rounding", "HALF_UP");
+        try {
+            currencyManager.getExchange().setDefaultRounding(RoundingMode.valueOf(rounding.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            getLogger().warning("✗ Ungültige Rundung '" + rounding + "' - verwende HALF_UP");
+        }
+
+        getLogger().info("✓ Kursmatrix: " + currencyManager.getExchange().getCurrencyCount() +
+                " Währungen, Rundung " + currencyManager.getExchange().getDefaultRounding());
+    }
+
+    /**
+     * Startet die Geldfluss-Metriken (Config: metrics.*).
+     *
+     * Direkte Vault-Buchungen werden über den VaultEconomyProvider gezählt.
+     */
+    private void startMetrics() {
+        EconomyMetrics metrics = currencyManager.getMetrics();
+        economyProvider.setMetrics(metrics);
+        metrics.start(this, dataStore,
+                getConfig().getLong("metrics.sample-interval-ticks", 1200L),
+                getConfig().getInt("metrics.window-samples", 60),
+                getConfig().getInt("metrics.snapshot-every", 5));
+
+        getLogger().info("✓ Economy-Metriken gestartet (Münz-Geldmenge: " +
+                metrics.getCoinSupply().toPlainString() + ")");
+    }
+
+    /**
+     * Erstellt die konfigurierten Ingame-Banken (Config: bank.currencies).
+     *
+     * Jede Bank stellt ihre Konten aus dem Journal wieder her; die Start-Liquidität
+     * gilt nur beim ersten Start ohne Journal.
+     */
+    private void startBanks() {
+        ConfigurationSection section = getConfig().getConfigurationSection("bank.currencies");
+        if (section == null) {
+            getLogger().info("○ Keine Ingame-Banken konfiguriert");
+            return;
+        }
+
+        for (String currencyId : section.getKeys(false)) {
+            Optional<CurrencyItemSet> currency = currencyManager.getCurrency(currencyId);
+            if (currency.isEmpty()) {
+                getLogger().warning("✗ Bank für unbekannte Währung '" + currencyId + "' übersprungen");
+                continue;
+            }
+
+            try {
+                getOrCreateBank(currency.get(), Money.ofMajor(section.getLong(currencyId, 0L), currencyId));
+            } catch (IllegalArgumentException e) {
+                getLogger().warning("✗ Bank für '" + currencyId + "' ungültig: " + e.getMessage());
+            }
+        }
+
+        getLogger().info("✓ Ingame-Banken gestartet: " + banks.size());
+    }
+
+    /**
+     * Startet die Börse für Plot-Händler (Config: market.*).
+     *
+     * Benötigt die VaultBridge: Gebote werden beim Einstellen über den
+     * Vault-Thread abgebucht, Auszahlungen funktionieren auch offline.
+     *
+     * @param bridge VaultBridge (oder null)
+     * @param transactionCoordinator Koordinator für Truhen-Buchungen
+     */
+    private void startMarket(VaultBridge bridge, TransactionCoordinator transactionCoordinator) {
+        if (!getConfig().getBoolean("market.enabled", true)) {
+            getLogger().info("○ Börse deaktiviert (market.enabled = false)");
+            return;
+        }
+        if (bridge == null) {
+            getLogger().warning("✗ Börse nicht verfügbar (VaultBridge fehlt)");
+            return;
+        }
+
+        MatchingEngine engine = new MatchingEngine(getLogger(), getConfig().getInt("market.snapshot-depth", 10));
+        this.marketExchange = new MarketExchange(getLogger(), engine, bridge, providers, transactionCoordinator,
+                getConfig().getInt("market.max-open-orders", 20));
+        marketExchange.setMetrics(currencyManager.getMetrics());
+        marketExchange.start(this, dataStore, getConfig().getLong("market.settlement-interval-ticks", 5L));
+
+        getLogger().info("✓ Börse gestartet (max. " + getConfig().getInt("market.max-open-orders", 20)
+                + " offene Orders pro Spieler)");
+    }
+
     /**
      * Registriert Admin-Command-Handler in der Core AdminCommandRegistry.
      */
@@ -242,11 +499,52 @@ public class EconomyModule extends JavaPlugin implements Listener {
 
         // Erstelle und registriere EconomyAdminHandler
         EconomyAdminHandler handler = new EconomyAdminHandler(currencyManager, providers);
+        handler.setMarketExchange(marketExchange);
+        handler.setEconomyModule(this);
         registry.registerHandler("economy", handler);
 
         getLogger().info("✓ Admin-Commands registriert");
     }
 
+    // ==================== Banken ====================
+
+    /**
+     * Gibt die Bank für eine Währung zurück oder erstellt sie.
+     *
+     * Neue Banken stellen ihre Konten aus dem DataStore-Journal wieder her
+     * und starten den Group-Commit (Config: bank.journal.*).
+     *
+     * @param currency Währung der Bank
+     * @param initialBankBalance Initiale Liquidität (nur wenn noch kein Journal existiert)
+     * @return BankAccountHandler
+     */
+    public BankAccountHandler getOrCreateBank(CurrencyItemSet currency, Money initialBankBalance) {
+        return banks.computeIfAbsent(currency.currencyId(), id -> {
+            BankAccountHandler bank = new BankAccountHandler(
+                    getLogger(), providers.getItemProvider(), currency, initialBankBalance, dataStore);
+            if (currencyManager != null) {
+                bank.setCoinRecognizer(currencyManager.getCoinRecognizer());
+                bank.setMetrics(currencyManager.getMetrics());
+            }
+
+            bank.startJournal(this,
+                    getConfig().getLong("bank.journal.commit-interval-ticks", 20L),
+                    getConfig().getInt("bank.journal.snapshot-every", 300));
+            bank.reconcile();
+            return bank;
+        });
+    }
+
+    /**
+     * Gibt die Bank für eine Währung zurück.
+     *
+     * @param currencyId Währungs-ID
+     * @return BankAccountHandler oder null
+     */
+    public BankAccountHandler getBank(String currencyId) {
+        return banks.get(currencyId);
+    }
+
     // ==================== Getter ====================
 
     /**
@@ -267,6 +565,15 @@ public class EconomyModule extends JavaPlugin implements Listener {
         return priceProvider;
     }
 
+    /**
+     * Gibt die Börse zurück.
+     *
+     * @return MarketExchange oder null wenn deaktiviert
+     */
+    public MarketExchange getMarketExchange() {
+        return marketExchange;
+    }
+
     /**
      * Gibt die ProviderRegistry zurück.
      *
@@ -279,11 +586,14 @@ public class EconomyModule extends JavaPlugin implements Listener {
     /**
      * Speichert die Config zurück auf die Festplatte.
      *
-     * Diese Methode wird nach Preis-Änderungen aufgerufen.
+     * Preise landen nur ohne Preis-Speicher in der Config; mit Preis-Speicher
+     * werden sie pro Eintrag im DataStore persistiert.
      */
     public void saveConfiguration() {
-        // Speichere Preise in Config
-        priceProvider.saveToConfig(getConfig());
+        // Speichere Preise in Config (nur Fallback ohne DataStore)
+        if (priceStore == null) {
+            priceProvider.saveToConfig(getConfig());
+        }
 
         // Schreibe Config auf Festplatte
         saveConfig();
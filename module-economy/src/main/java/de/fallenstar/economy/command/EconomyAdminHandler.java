@@ -1,18 +1,39 @@
 package de.fallenstar.economy.command;
 
 import de.fallenstar.core.command.AdminSubcommandHandler;
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.economy.PriceFile;
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.core.provider.PlotProvider;
 import de.fallenstar.core.provider.EconomyProvider;
 import de.fallenstar.core.registry.ProviderRegistry;
+import de.fallenstar.economy.EconomyModule;
 import de.fallenstar.economy.manager.CurrencyManager;
+import de.fallenstar.economy.manager.EconomyMetrics;
+import de.fallenstar.economy.market.MarketExchange;
+import de.fallenstar.economy.market.OrderBook;
+import de.fallenstar.economy.model.CoinReceipt;
 import de.fallenstar.economy.model.CurrencyItemSet;
+import de.fallenstar.economy.model.ItemBasePrice;
+import de.fallenstar.economy.pricing.ItemBasePriceProvider;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Material;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Admin-Command-Handler für Economy-Modul.
@@ -20,6 +41,17 @@ import java.util.List;
  * Behandelt alle /fscore admin economy Subcommands:
  * - getcoin: Gibt Münzen aus (kostenlos, Admin-Feature)
  * - withdraw: Zahlt Münzen aus und zieht von Vault-Konto ab
+ * - deposit: Nimmt Münzen aus dem Inventar und zahlt auf Vault ein
+ * - depositall: Zahlt alle Münzen einer Währung auf einmal auf Vault ein
+ * - withdrawamount: Zahlt einen Betrag in möglichst wenigen Münzen aus
+ * - rate: Zeigt oder ändert den Wechselkurs einer Währung
+ * - convert: Rechnet einen Betrag zwischen zwei Währungen um
+ * - metrics: Zeigt Münz-Geldmenge, Umlaufgeschwindigkeit und Raten pro Quelle/Senke
+ * - bid/ask: Stellt ein Gebot/Angebot für den Plot am Standort in die Börse
+ * - cancelorder: Storniert eine eigene offene Order
+ * - orders: Zeigt die eigenen offenen Orders
+ * - orderbook: Zeigt die Markttiefe eines Items
+ * - prices export/import: Item-Basispreise als CSV/JSON (plugins/.../prices/)
  *
  * Implementiert das AdminSubcommandHandler-Interface für
  * Reflection-freie Inter-Modul-Kommunikation.
@@ -31,6 +63,8 @@ public class EconomyAdminHandler implements AdminSubcommandHandler {
 
     private final CurrencyManager currencyManager;
     private final ProviderRegistry providerRegistry;
+    private MarketExchange marketExchange; // Setter-injected (optional)
+    private EconomyModule economyModule; // Setter-injected (optional)
 
     /**
      * Erstellt einen neuen EconomyAdminHandler.
@@ -43,6 +77,24 @@ public class EconomyAdminHandler implements AdminSubcommandHandler {
         this.providerRegistry = providerRegistry;
     }
 
+    /**
+     * Setzt die Börse (für bid/ask/cancelorder/orders/orderbook).
+     *
+     * @param marketExchange MarketExchange (oder null wenn deaktiviert)
+     */
+    public void setMarketExchange(MarketExchange marketExchange) {
+        this.marketExchange = marketExchange;
+    }
+
+    /**
+     * Setzt das Economy-Modul (für prices export/import).
+     *
+     * @param economyModule EconomyModule (Preis-Provider, Datenordner, Scheduler)
+     */
+    public void setEconomyModule(EconomyModule economyModule) {
+        this.economyModule = economyModule;
+    }
+
     @Override
     public boolean handle(CommandSender sender, String[] args) {
         if (!(sender instanceof Player player)) {
@@ -62,6 +114,17 @@ public class EconomyAdminHandler implements AdminSubcommandHandler {
             case "getcoin" -> handleGetCoin(player, subArgs);
             case "withdraw" -> handleWithdraw(player, subArgs);
             case "deposit" -> handleDeposit(player, subArgs);
+            case "depositall" -> handleDepositAll(player, subArgs);
+            case "withdrawamount" -> handleWithdrawAmount(player, subArgs);
+            case "rate" -> handleRate(player, subArgs);
+            case "convert" -> handleConvert(player, subArgs);
+            case "metrics" -> handleMetrics(player);
+            case "bid" -> handlePlaceOrder(player, subArgs, true);
+            case "ask" -> handlePlaceOrder(player, subArgs, false);
+            case "cancelorder" -> handleCancelOrder(player, subArgs);
+            case "orders" -> handleOrders(player);
+            case "orderbook" -> handleOrderBook(player, subArgs);
+            case "prices" -> handlePrices(player, subArgs);
             default -> {
                 sender.sendMessage(Component.text("Unbekannter Economy-Befehl: " + subCommand, NamedTextColor.RED));
                 sendHelp(sender);
@@ -80,6 +143,20 @@ public class EconomyAdminHandler implements AdminSubcommandHandler {
             completions.add("getcoin");
             completions.add("withdraw");
             completions.add("deposit");
+            completions.add("depositall");
+            completions.add("withdrawamount");
+            completions.add("rate");
+            completions.add("convert");
+            completions.add("metrics");
+            completions.add("bid");
+            completions.add("ask");
+            completions.add("cancelorder");
+            completions.add("orders");
+            completions.add("orderbook");
+            completions.add("prices");
+        } else if (args.length == 1 && args[0].equalsIgnoreCase("prices")) {
+            completions.add("export");
+            completions.add("import");
         } else if (args.length == 1) {
             // Second argument: currency name
             completions.addAll(currencyManager.getCurrencyIds());
@@ -112,6 +189,26 @@ public class EconomyAdminHandler implements AdminSubcommandHandler {
         sender.sendMessage(Component.text("    Zahlt Münzen aus (zieht von Vault-Konto ab)", NamedTextColor.GRAY));
         sender.sendMessage(Component.text("  /fscore admin economy deposit <währung> [tier] [anzahl]", NamedTextColor.GOLD));
         sender.sendMessage(Component.text("    Nimmt Münzen aus Inventar, zahlt auf Vault ein", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy depositall <währung>", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Zahlt alle Münzen der Währung auf einmal ein", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy withdrawamount <währung> <betrag>", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Zahlt einen Betrag in möglichst wenigen Münzen aus", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy rate <währung> [kurs]", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Zeigt oder ändert den Wechselkurs zur Basiswährung", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy convert <betrag> <von> <nach>", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Rechnet einen Betrag zwischen Währungen um", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy metrics", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Zeigt Geldmenge, Umlauf und Quellen/Senken pro Stunde", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy bid|ask <item> <menge> <preis>", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Gebot/Angebot für den Plot am Standort (Börse)", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy cancelorder <id>", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Storniert eine eigene offene Order", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy orders", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Zeigt die eigenen offenen Orders", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy orderbook <item>", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Zeigt die Markttiefe eines Items", NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("  /fscore admin economy prices export|import <datei.csv|json>", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("    Exportiert/importiert alle Item-Basispreise (Import atomar)", NamedTextColor.GRAY));
         sender.sendMessage(Component.empty());
         sender.sendMessage(Component.text("Beispiele:", NamedTextColor.YELLOW));
         sender.sendMessage(Component.text("  /fscore admin economy getcoin sterne bronze 10", NamedTextColor.GOLD)
@@ -228,13 +325,27 @@ public class EconomyAdminHandler implements AdminSubcommandHandler {
             // Balance display is optional
         }
 
-        // Withdraw coins
-        int actualAmount = currencyManager.withdrawCoins(player, currencyName, tier, amount);
+        // Withdraw coins (Vault-Aufruf asynchron, Ergebnis auf dem Main-Thread)
+        int requestedAmount = amount;
+        currencyManager.withdrawCoins(player, currencyName, tier, amount)
+                .thenAccept(actualAmount -> sendWithdrawResult(player, currencyName, tierName, requestedAmount, actualAmount));
+    }
 
+    /**
+     * Sendet das Ergebnis von /fscore admin economy withdraw an den Spieler.
+     *
+     * @param player Spieler
+     * @param currencyName Währungsname
+     * @param tierName Tier-Name
+     * @param requestedAmount Gewünschte Anzahl
+     * @param actualAmount Tatsächliche Anzahl (0 = fehlgeschlagen)
+     */
+    private void sendWithdrawResult(Player player, String currencyName, String tierName,
+                                    int requestedAmount, int actualAmount) {
         if (actualAmount > 0) {
-            if (actualAmount < amount) {
+            if (actualAmount < requestedAmount) {
                 player.sendMessage(Component.text("⚠ ", NamedTextColor.YELLOW)
-                        .append(Component.text("Nicht genug Guthaben für " + amount + " Münzen!", NamedTextColor.WHITE)));
+                        .append(Component.text("Nicht genug Guthaben für " + requestedAmount + " Münzen!", NamedTextColor.WHITE)));
                 player.sendMessage(Component.text("✓ ", NamedTextColor.GREEN)
                         .append(Component.text(actualAmount + "x ", NamedTextColor.WHITE))
                         .append(Component.text(tierName.toUpperCase(), NamedTextColor.GOLD))
@@ -317,11 +428,25 @@ public class EconomyAdminHandler implements AdminSubcommandHandler {
             // Balance display is optional
         }
 
-        // Deposit coins
-        int actualAmount = currencyManager.depositCoins(player, currencyName, tier, amount);
+        // Deposit coins (Vault-Aufruf asynchron, Ergebnis auf dem Main-Thread)
+        int requestedAmount = amount;
+        currencyManager.depositCoins(player, currencyName, tier, amount)
+                .thenAccept(actualAmount -> sendDepositResult(player, currencyName, tierName, requestedAmount, actualAmount));
+    }
 
+    /**
+     * Sendet das Ergebnis von /fscore admin economy deposit an den Spieler.
+     *
+     * @param player Spieler
+     * @param currencyName Währungsname
+     * @param tierName Tier-Name
+     * @param requestedAmount Gewünschte Anzahl
+     * @param actualAmount Tatsächliche Anzahl (0 = fehlgeschlagen)
+     */
+    private void sendDepositResult(Player player, String currencyName, String tierName,
+                                   int requestedAmount, int actualAmount) {
         if (actualAmount > 0) {
-            if (actualAmount < amount) {
+            if (actualAmount < requestedAmount) {
                 player.sendMessage(Component.text("⚠ ", NamedTextColor.YELLOW)
                         .append(Component.text("Nur " + actualAmount + " Münzen im Inventar gefunden!", NamedTextColor.WHITE)));
                 player.sendMessage(Component.text("✓ ", NamedTextColor.GREEN)
@@ -354,4 +479,556 @@ public class EconomyAdminHandler implements AdminSubcommandHandler {
             player.sendMessage(Component.text("  - Economy-System nicht verfügbar", NamedTextColor.GRAY));
         }
     }
+
+    /**
+     * Behandelt /fscore admin economy depositall.
+     *
+     * @param player Spieler
+     * @param args Argumente: <währungsname>
+     */
+    private void handleDepositAll(Player player, String[] args) {
+        if (args.length < 1) {
+            player.sendMessage(Component.text("Verwendung: /fscore admin economy depositall <währungsname>", NamedTextColor.RED));
+            player.sendMessage(Component.text("Beispiel: /fscore admin economy depositall sterne", NamedTextColor.GRAY));
+            return;
+        }
+
+        String currencyName = args[0].toLowerCase();
+        currencyManager.depositAllCoins(player, currencyName)
+                .thenAccept(receipt -> sendReceipt(player, receipt, "eingezahlt"));
+    }
+
+    /**
+     * Behandelt /fscore admin economy withdrawamount.
+     *
+     * @param player Spieler
+     * @param args Argumente: <währungsname> <betrag>
+     */
+    private void handleWithdrawAmount(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage(Component.text("Verwendung: /fscore admin economy withdrawamount <währungsname> <betrag>", NamedTextColor.RED));
+            player.sendMessage(Component.text("Beispiel: /fscore admin economy withdrawamount sterne 325", NamedTextColor.GRAY));
+            player.sendMessage(Component.text("Hinweis: Zieht Geld von deinem Vault-Konto ab!", NamedTextColor.YELLOW));
+            return;
+        }
+
+        String currencyName = args[0].toLowerCase();
+        Money amount;
+        try {
+            amount = Money.fromBigDecimal(new BigDecimal(args[1]), currencyName);
+        } catch (NumberFormatException | ArithmeticException e) {
+            player.sendMessage(Component.text("Ungültiger Betrag: " + args[1], NamedTextColor.RED));
+            return;
+        }
+        if (!amount.isPositive()) {
+            player.sendMessage(Component.text("Betrag muss größer als 0 sein!", NamedTextColor.RED));
+            return;
+        }
+
+        currencyManager.withdrawAmount(player, currencyName, amount)
+                .thenAccept(receipt -> sendReceipt(player, receipt, "ausgezahlt"));
+    }
+
+    /**
+     * Sendet einen Sammel-Beleg (depositall/withdrawamount) an den Spieler.
+     *
+     * @param player Spieler
+     * @param receipt Beleg
+     * @param verb "eingezahlt" oder "ausgezahlt"
+     */
+    private void sendReceipt(Player player, CoinReceipt receipt, String verb) {
+        switch (receipt.status()) {
+            case COMPLETED, PARTIAL -> {
+                if (receipt.isPartial()) {
+                    player.sendMessage(Component.text("⚠ ", NamedTextColor.YELLOW)
+                            .append(Component.text("Nur ein Teil von " + receipt.requested().toPlainString() +
+                                    " " + verb + "!", NamedTextColor.WHITE)));
+                }
+                player.sendMessage(Component.text("✓ ", NamedTextColor.GREEN)
+                        .append(Component.text(receipt.summary(), NamedTextColor.GOLD))
+                        .append(Component.text(" " + verb + "!", NamedTextColor.WHITE)));
+            }
+            case NOTHING -> player.sendMessage(Component.text("○ Nichts " + verb +
+                    " (keine Münzen oder kein Guthaben)", NamedTextColor.GRAY));
+            case FAILED -> {
+                player.sendMessage(Component.text("✗ Buchung fehlgeschlagen!", NamedTextColor.RED));
+                player.sendMessage(Component.text("  - Währung: " + receipt.coins().currencyId(), NamedTextColor.GRAY));
+                player.sendMessage(Component.text("  - Economy-System verfügbar? Inventar voll?", NamedTextColor.GRAY));
+            }
+        }
+    }
+
+    /**
+     * Behandelt /fscore admin economy rate.
+     *
+     * @param player Spieler
+     * @param args Argumente: <währungsname> [neuer kurs]
+     */
+    private void handleRate(Player player, String[] args) {
+        if (args.length < 1) {
+            player.sendMessage(Component.text("Verwendung: /fscore admin economy rate <währungsname> [kurs]", NamedTextColor.RED));
+            player.sendMessage(Component.text("Beispiel: /fscore admin economy rate dukaten 1.25", NamedTextColor.GRAY));
+            return;
+        }
+
+        String currencyName = args[0].toLowerCase();
+        Optional<CurrencyItemSet> currency = currencyManager.getCurrency(currencyName);
+        if (currency.isEmpty()) {
+            player.sendMessage(Component.text("Währung nicht gefunden: " + currencyName, NamedTextColor.RED));
+            return;
+        }
+
+        if (args.length > 1) {
+            BigDecimal rate;
+            try {
+                rate = new BigDecimal(args[1]);
+            } catch (NumberFormatException e) {
+                player.sendMessage(Component.text("Ungültiger Kurs: " + args[1], NamedTextColor.RED));
+                return;
+            }
+
+            if (rate.signum() <= 0) {
+                player.sendMessage(Component.text("Kurs muss größer als 0 sein!", NamedTextColor.RED));
+                return;
+            }
+            if (!currencyManager.updateExchangeRate(currencyName, rate)) {
+                player.sendMessage(Component.text("✗ Kurs der Basiswährung kann nicht geändert werden!", NamedTextColor.RED));
+                return;
+            }
+            player.sendMessage(Component.text("✓ ", NamedTextColor.GREEN)
+                    .append(Component.text("Wechselkurs geändert", NamedTextColor.WHITE)));
+        }
+
+        // Kurse zu allen anderen Währungen anzeigen
+        player.sendMessage(Component.text("Wechselkurse für 1 " + currencyName.toUpperCase() + ":", NamedTextColor.GOLD));
+        for (String otherId : currencyManager.getCurrencyIds()) {
+            if (otherId.equals(currencyName)) {
+                continue;
+            }
+            currencyManager.getExchange().getRate(currencyName, otherId).ifPresent(rate ->
+                    player.sendMessage(Component.text("  = ", NamedTextColor.GRAY)
+                            .append(Component.text(rate.toPlainString(), NamedTextColor.GOLD))
+                            .append(Component.text(" " + otherId.toUpperCase(), NamedTextColor.WHITE))));
+        }
+    }
+
+    /**
+     * Behandelt /fscore admin economy convert.
+     *
+     * @param player Spieler
+     * @param args Argumente: <betrag> <von> <nach>
+     */
+    private void handleConvert(Player player, String[] args) {
+        if (args.length < 3) {
+            player.sendMessage(Component.text("Verwendung: /fscore admin economy convert <betrag> <von> <nach>", NamedTextColor.RED));
+            player.sendMessage(Component.text("Beispiel: /fscore admin economy convert 120 sterne dukaten", NamedTextColor.GRAY));
+            return;
+        }
+
+        String from = args[1].toLowerCase();
+        String to = args[2].toLowerCase();
+        try {
+            Money amount = Money.fromBigDecimal(new BigDecimal(args[0]), from);
+            Money converted = currencyManager.convert(amount, to);
+
+            player.sendMessage(Component.text(amount.toPlainString() + " " + from.toUpperCase(), NamedTextColor.WHITE)
+                    .append(Component.text(" = ", NamedTextColor.GRAY))
+                    .append(Component.text(converted.toPlainString() + " " + to.toUpperCase(), NamedTextColor.GOLD))
+                    .append(Component.text(" (" + currencyManager.getExchange().getDefaultRounding() + ")", NamedTextColor.GRAY)));
+        } catch (NumberFormatException e) {
+            player.sendMessage(Component.text("Ungültiger Betrag: " + args[0], NamedTextColor.RED));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            player.sendMessage(Component.text("✗ Umrechnung fehlgeschlagen: " + e.getMessage(), NamedTextColor.RED));
+        }
+    }
+
+    /**
+     * Behandelt /fscore admin economy metrics.
+     *
+     * @param player Spieler
+     */
+    private void handleMetrics(Player player) {
+        EconomyMetrics.Report report = currencyManager.getMetrics().report();
+        long minutes = report.windowMillis() / 60_000L;
+
+        player.sendMessage(Component.text("Economy-Metriken (Fenster: " + minutes + " min, Werte in " +
+                Money.BASE_CURRENCY_ID.toUpperCase() + "):", NamedTextColor.GOLD));
+        player.sendMessage(Component.text("  Münz-Geldmenge: ", NamedTextColor.GRAY)
+                .append(Component.text(report.coinSupply().toPlainString(), NamedTextColor.GOLD))
+                .append(Component.text(" (" + signed(report.supplyChangePerHour()) + "/h)", NamedTextColor.GRAY)));
+        player.sendMessage(Component.text("  Umlaufgeschwindigkeit: ", NamedTextColor.GRAY)
+                .append(Component.text(String.format("%.3f", report.velocityPerHour()) + "/h", NamedTextColor.GOLD)));
+        player.sendMessage(Component.text("  Banken Netto-Abfluss: ", NamedTextColor.GRAY)
+                .append(Component.text(signed(report.bankNetOutflowPerHour()) + "/h", NamedTextColor.GOLD))
+                .append(Component.text(" (Spitze: " + report.bankPeakOutflowPerHour().toPlainString() + "/h)", NamedTextColor.GRAY)));
+
+        sendRates(player, "Quellen (Mint)", report.ratesOf(EconomyMetrics.Category.MINT));
+        sendRates(player, "Senken (Burn)", report.ratesOf(EconomyMetrics.Category.BURN));
+        sendRates(player, "Vault-Buchungen", report.ratesOf(EconomyMetrics.Category.VAULT));
+        sendRates(player, "Handel", report.ratesOf(EconomyMetrics.Category.TRADE));
+    }
+
+    /**
+     * Behandelt /fscore admin economy bid|ask.
+     *
+     * @param player Spieler
+     * @param args Argumente: <item> <menge> <preis>
+     * @param buy true für Gebot, false für Angebot
+     */
+    private void handlePlaceOrder(Player player, String[] args, boolean buy) {
+        if (!checkMarket(player)) {
+            return;
+        }
+        String command = buy ? "bid" : "ask";
+        if (args.length < 3) {
+            player.sendMessage(Component.text("Verwendung: /fscore admin economy " + command + " <item> <menge> <preis>", NamedTextColor.RED));
+            player.sendMessage(Component.text("Beispiel: /fscore admin economy " + command + " diamond 16 95.50", NamedTextColor.GRAY));
+            return;
+        }
+
+        Material material = Material.matchMaterial(args[0]);
+        if (material == null) {
+            player.sendMessage(Component.text("Unbekanntes Item: " + args[0], NamedTextColor.RED));
+            return;
+        }
+
+        int quantity;
+        Money price;
+        try {
+            quantity = Integer.parseInt(args[1]);
+            price = Money.fromBigDecimal(new BigDecimal(args[2]), Money.BASE_CURRENCY_ID);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            player.sendMessage(Component.text("Ungültige Menge oder ungültiger Preis!", NamedTextColor.RED));
+            return;
+        }
+
+        Optional<Plot> plot = plotAt(player);
+        if (plot.isEmpty()) {
+            player.sendMessage(Component.text("Du stehst auf keinem Plot!", NamedTextColor.RED));
+            return;
+        }
+
+        if (buy) {
+            marketExchange.placeBuyOrder(player, plot.get(), material, quantity, price);
+        } else {
+            marketExchange.placeSellOrder(player, plot.get(), material, quantity, price);
+        }
+    }
+
+    /**
+     * Behandelt /fscore admin economy cancelorder.
+     *
+     * @param player Spieler
+     * @param args Argumente: <id>
+     */
+    private void handleCancelOrder(Player player, String[] args) {
+        if (!checkMarket(player)) {
+            return;
+        }
+        if (args.length < 1) {
+            player.sendMessage(Component.text("Verwendung: /fscore admin economy cancelorder <id>", NamedTextColor.RED));
+            return;
+        }
+
+        try {
+            marketExchange.cancelOrder(player, Long.parseLong(args[0].replace("#", "")));
+        } catch (NumberFormatException e) {
+            player.sendMessage(Component.text("Ungültige Order-ID: " + args[0], NamedTextColor.RED));
+        }
+    }
+
+    /**
+     * Behandelt /fscore admin economy orders.
+     *
+     * @param player Spieler
+     */
+    private void handleOrders(Player player) {
+        if (!checkMarket(player)) {
+            return;
+        }
+
+        List<MarketExchange.OrderData> orders = marketExchange.getOpenOrders(player.getUniqueId());
+        player.sendMessage(Component.text("Offene Orders (" + orders.size() + "):", NamedTextColor.GOLD));
+        if (orders.isEmpty()) {
+            player.sendMessage(Component.text("  ○ keine offenen Orders", NamedTextColor.GRAY));
+            return;
+        }
+
+        for (MarketExchange.OrderData order : orders) {
+            player.sendMessage(Component.text("  #" + order.orderId + " ", NamedTextColor.WHITE)
+                    .append(Component.text(("BUY".equals(order.side) ? "Kauf " : "Verkauf ") + order.remaining + "/"
+                            + order.quantity + "x " + order.material, NamedTextColor.GRAY))
+                    .append(Component.text(" à " + Money.of(order.limitPriceMinor, Money.BASE_CURRENCY_ID).toPlainString(),
+                            NamedTextColor.GOLD)));
+        }
+    }
+
+    /**
+     * Behandelt /fscore admin economy orderbook.
+     *
+     * @param player Spieler
+     * @param args Argumente: [item] (ohne Item: alle Items mit offenen Orders)
+     */
+    private void handleOrderBook(Player player, String[] args) {
+        if (!checkMarket(player)) {
+            return;
+        }
+        if (args.length < 1) {
+            List<Material> active = marketExchange.getActiveMaterials();
+            player.sendMessage(Component.text("Items mit offenen Orders: ", NamedTextColor.GOLD)
+                    .append(Component.text(active.isEmpty() ? "keine" : active.toString(), NamedTextColor.WHITE)));
+            return;
+        }
+
+        Material material = Material.matchMaterial(args[0]);
+        if (material == null) {
+            player.sendMessage(Component.text("Unbekanntes Item: " + args[0], NamedTextColor.RED));
+            return;
+        }
+
+        OrderBook.Snapshot snapshot = marketExchange.getSnapshot(material);
+        player.sendMessage(Component.text("Orderbuch " + material.name() + " (letzter Preis: " +
+                (snapshot.lastPriceMinor() > 0
+                        ? Money.of(snapshot.lastPriceMinor(), Money.BASE_CURRENCY_ID).toPlainString()
+                        : "-") + "):", NamedTextColor.GOLD));
+        sendLevels(player, "Angebote (Ask)", snapshot.asks(), NamedTextColor.RED);
+        sendLevels(player, "Gebote (Bid)", snapshot.bids(), NamedTextColor.GREEN);
+    }
+
+    /**
+     * Sendet die Preisstufen einer Orderbuch-Seite.
+     *
+     * @param player Spieler
+     * @param title Überschrift
+     * @param levels Preisstufen (bester Preis zuerst)
+     * @param color Farbe der Preise
+     */
+    private void sendLevels(Player player, String title, List<OrderBook.Level> levels, NamedTextColor color) {
+        player.sendMessage(Component.text(title + ":", NamedTextColor.YELLOW));
+        if (levels.isEmpty()) {
+            player.sendMessage(Component.text("  ○ keine Orders", NamedTextColor.GRAY));
+            return;
+        }
+
+        for (OrderBook.Level level : levels) {
+            player.sendMessage(Component.text("  " + level.price().toPlainString(), color)
+                    .append(Component.text(" × " + level.quantity() + " (" + level.orders() + " Orders)", NamedTextColor.GRAY)));
+        }
+    }
+
+    /**
+     * Behandelt /fscore admin economy prices export|import.
+     *
+     * Dateien liegen in {@code plugins/<Economy-Modul>/prices/}. Vanilla-Items
+     * stehen als Material-Name, Custom-Items als TYPE:ID in der Tabelle. Lesen
+     * und Schreiben laufen asynchron; ein Import wird komplett geprüft und dann
+     * in einem Schritt übernommen (ein Flush, eine Invalidierung).
+     *
+     * @param player Spieler
+     * @param args [export|import, datei]
+     */
+    private void handlePrices(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage(Component.text("Verwendung: /fscore admin economy prices <export|import> <datei.csv|json>",
+                    NamedTextColor.GRAY));
+            return;
+        }
+        if (economyModule == null) {
+            player.sendMessage(Component.text("✗ Preis-System nicht verfügbar!", NamedTextColor.RED));
+            return;
+        }
+
+        PriceFile.Format format = PriceFile.Format.fromFileName(args[1]).orElse(null);
+        if (format == null || !args[1].matches("[A-Za-z0-9_.-]+") || args[1].contains("..")) {
+            player.sendMessage(Component.text("✗ Ungültiger Dateiname (erlaubt: name.csv oder name.json)", NamedTextColor.RED));
+            return;
+        }
+        File file = new File(new File(economyModule.getDataFolder(), "prices"), args[1]);
+
+        switch (args[0].toLowerCase()) {
+            case "export" -> exportPrices(player, file, format);
+            case "import" -> importPrices(player, file, format);
+            default -> player.sendMessage(Component.text("Unbekannter Preis-Befehl: " + args[0], NamedTextColor.RED));
+        }
+    }
+
+    /**
+     * Exportiert alle Basispreise (Snapshot auf dem Main-Thread, Schreiben asynchron).
+     */
+    private void exportPrices(Player player, File file, PriceFile.Format format) {
+        ItemBasePriceProvider priceProvider = economyModule.getPriceProvider();
+        List<PriceFile.Entry> entries = new ArrayList<>();
+        for (ItemBasePrice.VanillaItemPrice price : priceProvider.getAllVanillaPrices()) {
+            entries.add(new PriceFile.Entry(price.getItemIdentifier(), price.buyPrice(), price.sellPrice()));
+        }
+        for (ItemBasePrice.CustomItemPrice price : priceProvider.getAllCustomPrices()) {
+            entries.add(new PriceFile.Entry(price.getItemIdentifier(), price.buyPrice(), price.sellPrice()));
+        }
+        entries.sort((a, b) -> a.item().compareTo(b.item()));
+        UUID playerId = player.getUniqueId();
+
+        economyModule.getServer().getScheduler().runTaskAsynchronously(economyModule, () -> {
+            String result;
+            try {
+                Files.createDirectories(file.getParentFile().toPath());
+                try (PriceFile.EntryWriter writer = PriceFile.writer(
+                        Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8), format)) {
+                    for (PriceFile.Entry entry : entries) {
+                        writer.write(entry);
+                    }
+                }
+                result = "✓ " + entries.size() + " Basispreise exportiert nach prices/" + file.getName();
+            } catch (IOException e) {
+                result = "✗ Export fehlgeschlagen: " + e.getMessage();
+            }
+            notifyPlayer(playerId, result);
+        });
+    }
+
+    /**
+     * Importiert Basispreise (Lesen und Prüfen asynchron, Übernahme auf dem Main-Thread).
+     */
+    private void importPrices(Player player, File file, PriceFile.Format format) {
+        if (!file.isFile()) {
+            player.sendMessage(Component.text("✗ Datei nicht gefunden: prices/" + file.getName(), NamedTextColor.RED));
+            return;
+        }
+        UUID playerId = player.getUniqueId();
+
+        economyModule.getServer().getScheduler().runTaskAsynchronously(economyModule, () -> {
+            List<ItemBasePrice> prices = new ArrayList<>();
+            List<String> invalid = new ArrayList<>();
+
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                PriceFile.read(reader, format, entry -> {
+                    ItemBasePrice price = toBasePrice(entry);
+                    if (price == null) {
+                        invalid.add(entry.item());
+                    } else {
+                        prices.add(price);
+                    }
+                });
+            } catch (IOException e) {
+                notifyPlayer(playerId, "✗ Import abgebrochen: " + e.getMessage());
+                return;
+            }
+
+            if (!invalid.isEmpty()) {
+                notifyPlayer(playerId, "✗ Import abgebrochen - ungültige Einträge: "
+                        + String.join(", ", invalid.subList(0, Math.min(5, invalid.size())))
+                        + (invalid.size() > 5 ? " (+" + (invalid.size() - 5) + ")" : ""));
+                return;
+            }
+
+            economyModule.getServer().getScheduler().runTask(economyModule, () -> {
+                if (!economyModule.getPriceProvider().applyPrices(prices)) {
+                    economyModule.saveConfiguration();
+                }
+                providerRegistry.getPriceResolutionProvider().invalidateAll();
+                notifyPlayer(playerId, "✓ " + prices.size() + " Basispreise importiert");
+            });
+        });
+    }
+
+    /**
+     * Wandelt einen Tabellen-Eintrag in einen Basispreis.
+     *
+     * Fehlt eine Seite, gilt der Preis der anderen (wie bei Einzelpreisen in der Config).
+     *
+     * @return Basispreis, oder null bei unbekanntem Item / ohne Preis
+     */
+    private static ItemBasePrice toBasePrice(PriceFile.Entry entry) {
+        BigDecimal buy = entry.buyPrice() != null ? entry.buyPrice() : entry.sellPrice();
+        BigDecimal sell = entry.sellPrice() != null ? entry.sellPrice() : entry.buyPrice();
+        if (buy == null) {
+            return null;
+        }
+
+        int separator = entry.item().indexOf(':');
+        if (separator > 0 && separator < entry.item().length() - 1) {
+            return new ItemBasePrice.CustomItemPrice(entry.item().substring(0, separator),
+                    entry.item().substring(separator + 1), buy, sell);
+        }
+
+        Material material = Material.matchMaterial(entry.item());
+        if (material == null || !material.isItem()) {
+            return null;
+        }
+        return new ItemBasePrice.VanillaItemPrice(material, buy, sell);
+    }
+
+    /**
+     * Sendet eine Ergebnis-Meldung auf dem Main-Thread (falls der Spieler noch online ist).
+     */
+    private void notifyPlayer(UUID playerId, String message) {
+        economyModule.getServer().getScheduler().runTask(economyModule, () -> {
+            Player player = economyModule.getServer().getPlayer(playerId);
+            if (player != null) {
+                player.sendMessage(Component.text(message,
+                        message.startsWith("✓") ? NamedTextColor.GREEN : NamedTextColor.RED));
+            }
+        });
+    }
+
+    /**
+     * Prüft ob die Börse verfügbar ist.
+     *
+     * @param player Spieler (erhält Fehlermeldung)
+     * @return true wenn verfügbar
+     */
+    private boolean checkMarket(Player player) {
+        if (marketExchange == null) {
+            player.sendMessage(Component.text("✗ Börse nicht verfügbar (deaktiviert oder Vault fehlt)", NamedTextColor.RED));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gibt den Plot am Standort des Spielers zurück.
+     *
+     * @param player Spieler
+     * @return Plot oder empty
+     */
+    private Optional<Plot> plotAt(Player player) {
+        PlotProvider plotProvider = providerRegistry.getPlotProvider();
+        if (plotProvider == null || !plotProvider.isAvailable()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(plotProvider.getPlot(player.getLocation()));
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sendet die Raten einer Kategorie.
+     *
+     * @param player Spieler
+     * @param title Überschrift
+     * @param rates Raten (nach Volumen absteigend)
+     */
+    private void sendRates(Player player, String title, List<EconomyMetrics.Rate> rates) {
+        player.sendMessage(Component.text(title + ":", NamedTextColor.YELLOW));
+        if (rates.isEmpty()) {
+            player.sendMessage(Component.text("  ○ keine Buchungen", NamedTextColor.GRAY));
+            return;
+        }
+
+        for (EconomyMetrics.Rate rate : rates) {
+            player.sendMessage(Component.text("  " + rate.channel() + ": ", NamedTextColor.WHITE)
+                    .append(Component.text(rate.volumePerHour().toPlainString() + "/h", NamedTextColor.GOLD))
+                    .append(Component.text(String.format(" (%.1f Buchungen/h, gesamt %s in %d)",
+                            rate.countPerHour(), rate.totalVolume().toPlainString(), rate.totalCount()), NamedTextColor.GRAY)));
+        }
+    }
+
+    /**
+     * Formatiert einen Betrag mit Vorzeichen.
+     */
+    private static String signed(Money amount) {
+        return (amount.isNegative() ? "" : "+") + amount.toPlainString();
+    }
 }
@@ -1,12 +1,16 @@
 package de.fallenstar.economy.manager;
 
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
 import de.fallenstar.core.provider.ItemProvider;
 import de.fallenstar.economy.model.BankAccount;
+import de.fallenstar.economy.model.CoinBreakdown;
+import de.fallenstar.economy.model.CoinReceipt;
 import de.fallenstar.economy.model.CurrencyItemSet;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
 
-import java.math.BigDecimal;
 import java.util.*;
 import java.util.logging.Logger;
 
@@ -20,8 +24,13 @@ import java.util.logging.Logger;
  * - Konten registrieren/verwalten
  * - Deposit: Münzen vom Inventar → Konto
  * - Withdraw: Konto → Münzen ins Inventar
+ * - Sammel-Buchungen: alle Münzen einzahlen / Betrag in optimaler Stückelung
+ *   auszahlen (ein Inventar-Durchlauf, eine Buchung, CoinReceipt als Beleg)
  * - totalBankBalance: Bank hat eigenen Münz-Vorrat
  * - Auszahlung nur wenn Bank genug Liquidität hat
+ * - Thread-Safe: Kontostände und Liquidität im lock-freien BankLedger (CAS)
+ * - Persistent: alle Buchungen laufen über das BankJournal (DataStore, Replay beim Start)
+ * - Metriken: Ein-/Auszahlungen als Burn/Mint in EconomyMetrics (optional)
  *
  * Use Cases:
  * - Bankgebäude in Städten
@@ -29,18 +38,28 @@ import java.util.logging.Logger;
  * - Event-Währungen
  *
  * @author FallenStar
- * @version 2.0 - Refactored: SpecialItemManager → ItemProvider (eliminiert Items-Modul Dependency)
+ * @version 3.1 - Sammel-Ein-/Auszahlung (depositAll, withdrawAmount)
  */
 public class BankAccountHandler {
 
+    /**
+     * Maximale Auszahlung pro Sammel-Buchung in Einheiten
+     * (36 Inventar-Slots × 64 Gold-Münzen à 100 Einheiten).
+     */
+    public static final long MAX_WITHDRAW_UNITS = 36L * 64L * 100L;
+
     private final Logger logger;
     private final ItemProvider itemProvider;
     private final CurrencyItemSet currency;
-    private final Map<UUID, BankAccount> accounts;
-    private BigDecimal totalBankBalance;
+    private final String currencyId;
+    private final BankLedger ledger;
+    private final BankJournal journal;
+    private final CoinDenominationEngine denominationEngine;
+    private CoinRecognizer coinRecognizer;
+    private EconomyMetrics metrics;
 
     /**
-     * Konstruktor für BankAccountHandler.
+     * Konstruktor für BankAccountHandler (ohne Persistierung).
      *
      * @param logger Logger
      * @param itemProvider ItemProvider (Core-Interface, eliminiert Items-Modul Dependency)
@@ -48,15 +67,94 @@ public class BankAccountHandler {
      * @param initialBankBalance Initialer Münz-Vorrat der Bank
      */
     public BankAccountHandler(Logger logger, ItemProvider itemProvider,
-                               CurrencyItemSet currency, BigDecimal initialBankBalance) {
+                               CurrencyItemSet currency, Money initialBankBalance) {
+        this(logger, itemProvider, currency, initialBankBalance, null);
+    }
+
+    /**
+     * Konstruktor für BankAccountHandler mit Journal-Persistierung.
+     *
+     * Stellt Konten und Liquidität aus dem DataStore wieder her (Snapshot + Replay).
+     * initialBankBalance gilt nur, wenn noch kein Journal existiert.
+     *
+     * @param logger Logger
+     * @param itemProvider ItemProvider (Core-Interface, eliminiert Items-Modul Dependency)
+     * @param currency Währung die diese Bank verwaltet
+     * @param initialBankBalance Initialer Münz-Vorrat der Bank
+     * @param dataStore DataStore für das Journal (null = nur In-Memory)
+     */
+    public BankAccountHandler(Logger logger, ItemProvider itemProvider,
+                               CurrencyItemSet currency, Money initialBankBalance, DataStore dataStore) {
         this.logger = logger;
         this.itemProvider = itemProvider;
         this.currency = currency;
-        this.accounts = new HashMap<>();
-        this.totalBankBalance = initialBankBalance;
+        this.currencyId = currency.currencyId();
+        this.ledger = new BankLedger(initialBankBalance.minorUnits());
+        this.journal = new BankJournal(logger, dataStore, currencyId, ledger);
+        this.coinRecognizer = new CoinRecognizer(logger, itemProvider);
+        coinRecognizer.register(currency);
+        this.denominationEngine = new CoinDenominationEngine();
+        denominationEngine.register(currency);
+        journal.recover();
 
         logger.info("BankAccountHandler für " + currency.namePlural() +
-                " initialisiert (Bank-Balance: " + totalBankBalance + ")");
+                " initialisiert (Bank-Balance: " + getTotalBankBalance().toPlainString() +
+                ", Konten: " + ledger.size() + ")");
+    }
+
+    /**
+     * Setzt eine gemeinsame Münz-Erkennung (z.B. vom CurrencyManager).
+     *
+     * Die Währung dieser Bank wird darin registriert.
+     *
+     * @param coinRecognizer CoinRecognizer
+     */
+    public void setCoinRecognizer(CoinRecognizer coinRecognizer) {
+        coinRecognizer.register(currency);
+        this.coinRecognizer = coinRecognizer;
+    }
+
+    /**
+     * Setzt die Geldfluss-Metriken (Ein-/Auszahlungen werden als Burn/Mint gezählt).
+     *
+     * @param metrics EconomyMetrics, oder null
+     */
+    public void setMetrics(EconomyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Startet den Group-Commit des Journals.
+     *
+     * @param plugin Plugin für Scheduler
+     * @param commitIntervalTicks Intervall zwischen Commits
+     * @param snapshotEverySegments Snapshot nach so vielen Segmenten
+     */
+    public void startJournal(Plugin plugin, long commitIntervalTicks, int snapshotEverySegments) {
+        journal.start(plugin, commitIntervalTicks, snapshotEverySegments);
+    }
+
+    /**
+     * Schreibt alle offenen Buchungen und einen finalen Snapshot.
+     *
+     * Synchron - für onDisable gedacht.
+     */
+    public void shutdown() {
+        journal.shutdown();
+    }
+
+    /**
+     * Gleicht Bank-Liquidität mit der Summe der Kontostände ab.
+     *
+     * @return Reconciliation (drift == 0 wenn konsistent)
+     */
+    public BankJournal.Reconciliation reconcile() {
+        BankJournal.Reconciliation result = journal.reconcile();
+        if (!result.isBalanced()) {
+            logger.warning("Bank " + currency.namePlural() + ": Liquidität weicht um " +
+                    Money.of(result.drift(), currencyId).toPlainString() + " von den Kontoständen ab!");
+        }
+        return result;
     }
 
     /**
@@ -68,14 +166,11 @@ public class BankAccountHandler {
     public boolean registerAccount(Player player) {
         UUID playerId = player.getUniqueId();
 
-        if (accounts.containsKey(playerId)) {
+        if (!journal.open(playerId)) {
             logger.fine("Konto für " + player.getName() + " existiert bereits");
             return false;
         }
 
-        BankAccount account = BankAccount.createEmpty(playerId, currency.currencyId());
-        accounts.put(playerId, account);
-
         logger.info("Neues Konto erstellt für " + player.getName() +
                 " (" + currency.namePlural() + ")");
 
@@ -89,17 +184,21 @@ public class BankAccountHandler {
      * @return true wenn Konto existiert
      */
     public boolean hasAccount(UUID playerId) {
-        return accounts.containsKey(playerId);
+        return ledger.exists(playerId);
     }
 
     /**
      * Gibt ein Konto zurück.
      *
      * @param playerId Spieler-UUID
-     * @return Optional mit BankAccount
+     * @return Optional mit BankAccount (Momentaufnahme des Kontostands)
      */
     public Optional<BankAccount> getAccount(UUID playerId) {
-        return Optional.ofNullable(accounts.get(playerId));
+        long balance = ledger.balance(playerId);
+        if (balance < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new BankAccount(playerId, currencyId, Money.of(balance, currencyId)));
     }
 
     /**
@@ -125,19 +224,9 @@ public class BankAccountHandler {
             return 0;
         }
 
-        // Suche Münzen im Inventar
-        CurrencyItemSet.InventoryCoinResult coinResult = currency.findCoinsInInventory(
-                player.getInventory(),
-                tier,
-                (stack, itemId) -> {
-                    try {
-                        return itemProvider.isCustomItem(stack);
-                    } catch (Exception e) {
-                        logger.fine("Fehler beim Prüfen von Custom-Item: " + e.getMessage());
-                        return false;
-                    }
-                }
-        );
+        // Suche Münzen im Inventar (ein Durchlauf für alle Tiers)
+        CurrencyItemSet.InventoryCoinResult coinResult =
+                currency.findAllCoinsInInventory(player.getInventory(), coinRecognizer).get(tier);
 
         if (!coinResult.hasCoins()) {
             logger.fine("Keine " + tier + " " + currency.namePlural() + " im Inventar von " + player.getName());
@@ -167,18 +256,14 @@ public class BankAccountHandler {
         }
 
         // Berechne Wert in Basiseinheiten
-        BigDecimal depositValue = currency.calculateValue(tier, actualAmount);
-
-        // Aktualisiere Kontostand
-        BankAccount account = accounts.get(playerId);
-        BigDecimal newBalance = account.balance().add(depositValue);
-        accounts.put(playerId, account.withBalance(newBalance));
+        Money depositValue = currency.calculateMoney(tier, actualAmount);
 
-        // Erhöhe Bank-Balance
-        totalBankBalance = totalBankBalance.add(depositValue);
+        // Aktualisiere Kontostand und Bank-Balance (atomar pro Saldo)
+        long newBalance = journal.deposit(playerId, depositValue.minorUnits());
+        recordMetric(EconomyMetrics.Category.BURN, EconomyMetrics.BANK_DEPOSIT, depositValue);
 
         logger.info("Einzahlung: " + actualAmount + "x " + tier + " " + currency.namePlural() +
-                " von " + player.getName() + " (Neuer Stand: " + newBalance + ")");
+                " von " + player.getName() + " (Neuer Stand: " + Money.of(newBalance, currencyId).toPlainString() + ")");
 
         return actualAmount;
     }
@@ -187,11 +272,9 @@ public class BankAccountHandler {
      * Hebt Münzen vom Bank-Konto ab und gibt sie ins Spieler-Inventar.
      *
      * Diese Methode:
-     * 1. Prüft Kontostand (genug Guthaben?)
-     * 2. Prüft totalBankBalance (genug Liquidität?)
-     * 3. Zahlt maximal möglichen Betrag aus
-     * 4. Verringert Kontostand und totalBankBalance
-     * 5. Gibt Münzen ins Inventar
+     * 1. Bucht maximal mögliche Menge (Kontostand und Bank-Liquidität, CAS)
+     * 2. Gibt Münzen ins Inventar
+     * 3. Bucht zurück, falls die Münz-Erstellung fehlschlägt
      *
      * @param player Spieler
      * @param tier Münz-Tier (BRONZE, SILVER, GOLD)
@@ -207,47 +290,27 @@ public class BankAccountHandler {
             return 0;
         }
 
-        BankAccount account = accounts.get(playerId);
-
-        // Berechne Kosten
-        BigDecimal costPerCoin = currency.calculateValue(tier, 1);
-        BigDecimal totalCost = costPerCoin.multiply(BigDecimal.valueOf(requestedAmount));
+        long costPerCoin = currency.calculateMoney(tier, 1).minorUnits();
 
-        // Prüfe Kontostand
-        int actualAmount = requestedAmount;
-        BigDecimal actualCost = totalCost;
-
-        if (!account.hasEnough(totalCost)) {
-            // Berechne höchstmögliche Menge basierend auf Kontostand
-            actualAmount = account.balance().divide(costPerCoin, 0, BigDecimal.ROUND_DOWN).intValue();
-            actualCost = costPerCoin.multiply(BigDecimal.valueOf(actualAmount));
-
-            if (actualAmount <= 0) {
+        // Buche höchstmögliche Menge (begrenzt durch Kontostand und Bank-Liquidität)
+        int actualAmount = (int) journal.withdrawUpTo(playerId, costPerCoin, requestedAmount);
+        if (actualAmount <= 0) {
+            if (ledger.balance(playerId) >= costPerCoin) {
+                logger.warning("Bank hat keine Liquidität mehr!");
+            } else {
                 logger.fine("Nicht genug Guthaben für " + player.getName() +
-                        " (benötigt: " + totalCost + ", hat: " + account.balance() + ")");
-                return 0;
+                        " (benötigt: " + Money.of(costPerCoin, currencyId).times(requestedAmount).toPlainString() +
+                        ", hat: " + Money.of(ledger.balance(playerId), currencyId).toPlainString() + ")");
             }
-
-            logger.fine("Guthaben reicht nur für " + actualAmount + " statt " + requestedAmount + " Münzen");
+            return 0;
         }
 
-        // Prüfe Bank-Liquidität
-        if (totalBankBalance.compareTo(actualCost) < 0) {
-            // Bank hat nicht genug Münzen - reduziere Auszahlung
-            int maxBankAmount = totalBankBalance.divide(costPerCoin, 0, BigDecimal.ROUND_DOWN).intValue();
-            if (maxBankAmount < actualAmount) {
-                actualAmount = maxBankAmount;
-                actualCost = costPerCoin.multiply(BigDecimal.valueOf(actualAmount));
-
-                if (actualAmount <= 0) {
-                    logger.warning("Bank hat keine Liquidität mehr!");
-                    return 0;
-                }
-
-                logger.fine("Bank-Liquidität reicht nur für " + actualAmount + " Münzen");
-            }
+        if (actualAmount < requestedAmount) {
+            logger.fine("Guthaben/Liquidität reicht nur für " + actualAmount + " statt " + requestedAmount + " Münzen");
         }
 
+        long actualCost = actualAmount * costPerCoin;
+
         // Erstelle Münzen via ItemProvider (eliminiert Items-Modul Dependency!)
         String itemId = currency.getItemId(tier);
         Optional<ItemStack> coins;
@@ -255,37 +318,198 @@ public class BankAccountHandler {
             coins = itemProvider.getSpecialItem(itemId, actualAmount);
         } catch (Exception e) {
             logger.warning("Fehler beim Erstellen von Münzen: " + e.getMessage());
+            rollbackWithdraw(playerId, actualCost);
             return 0;
         }
 
         if (coins.isEmpty()) {
             logger.warning("Konnte Münzen nicht erstellen: " + itemId);
+            rollbackWithdraw(playerId, actualCost);
             return 0;
         }
 
         // Gebe Münzen an Spieler
         player.getInventory().addItem(coins.get());
-
-        // Aktualisiere Kontostand
-        BigDecimal newBalance = account.balance().subtract(actualCost);
-        accounts.put(playerId, account.withBalance(newBalance));
-
-        // Verringere Bank-Balance
-        totalBankBalance = totalBankBalance.subtract(actualCost);
+        recordMetric(EconomyMetrics.Category.MINT, EconomyMetrics.BANK_WITHDRAW, Money.of(actualCost, currencyId));
 
         logger.info("Auszahlung: " + actualAmount + "x " + tier + " " + currency.namePlural() +
-                " an " + player.getName() + " (Neuer Stand: " + newBalance + ", Bank: " + totalBankBalance + ")");
+                " an " + player.getName() + " (Neuer Stand: " + Money.of(ledger.balance(playerId), currencyId).toPlainString() +
+                ", Bank: " + Money.of(ledger.bankBalance(), currencyId).toPlainString() + ")");
 
         return actualAmount;
     }
 
+    /**
+     * Zahlt alle Münzen dieser Währung aus dem Spieler-Inventar ein.
+     *
+     * Ein Inventar-Durchlauf für alle Tiers, eine Buchung auf Konto und
+     * Bank-Liquidität (statt einer Buchung pro Tier).
+     *
+     * @param player Spieler
+     * @return Beleg (NOTHING wenn keine Münzen, FAILED wenn kein Konto)
+     */
+    public CoinReceipt depositAll(Player player) {
+        UUID playerId = player.getUniqueId();
+        Money none = Money.zero(currencyId);
+
+        if (!hasAccount(playerId)) {
+            logger.warning("Kein Konto für " + player.getName() + " - depositAll fehlgeschlagen");
+            return CoinReceipt.empty(CoinReceipt.Operation.DEPOSIT_ALL, CoinReceipt.Status.FAILED, currencyId, none);
+        }
+
+        // Ein Durchlauf für alle Tiers
+        Map<CurrencyItemSet.CurrencyTier, CurrencyItemSet.InventoryCoinResult> found =
+                currency.findAllCoinsInInventory(player.getInventory(), coinRecognizer);
+        CoinBreakdown coins = new CoinBreakdown(currencyId,
+                found.get(CurrencyItemSet.CurrencyTier.BRONZE).totalAmount(),
+                found.get(CurrencyItemSet.CurrencyTier.SILVER).totalAmount(),
+                found.get(CurrencyItemSet.CurrencyTier.GOLD).totalAmount());
+
+        if (coins.isEmpty()) {
+            logger.fine("Keine " + currency.namePlural() + " im Inventar von " + player.getName());
+            return CoinReceipt.empty(CoinReceipt.Operation.DEPOSIT_ALL, CoinReceipt.Status.NOTHING, currencyId, none);
+        }
+
+        // Alle gefundenen Slots leeren
+        for (CurrencyItemSet.InventoryCoinResult result : found.values()) {
+            for (CurrencyItemSet.InventorySlotStack slotStack : result.stacks()) {
+                player.getInventory().setItem(slotStack.slot(), null);
+            }
+        }
+
+        // Eine Buchung für den Gesamtwert
+        Money value = Money.ofMajor(coins.totalUnits(), currencyId);
+        long newBalance = journal.deposit(playerId, value.minorUnits());
+        Money balanceAfter = Money.of(newBalance, currencyId);
+        recordMetric(EconomyMetrics.Category.BURN, EconomyMetrics.BANK_DEPOSIT, value);
+
+        CoinReceipt receipt = new CoinReceipt(CoinReceipt.Operation.DEPOSIT_ALL, CoinReceipt.Status.COMPLETED,
+                coins, value, value, balanceAfter);
+        logger.info("Einzahlung (alle " + currency.namePlural() + ") von " + player.getName() + ": " + receipt.summary());
+        return receipt;
+    }
+
+    /**
+     * Zahlt einen Betrag in möglichst wenigen Münzen aus.
+     *
+     * Bucht den höchstmöglichen Betrag in ganzen Einheiten in einer Buchung
+     * (begrenzt durch Kontostand und Bank-Liquidität), stückelt ihn
+     * (Gold → Silber → Bronze) und gibt die Münzen ins Inventar. Münzen,
+     * die nicht ins Inventar passen, werden in einer Buchung zurückerstattet.
+     *
+     * Bruchteile einer Einheit (Minor Units unter 1.00) werden nicht ausgezahlt.
+     *
+     * @param player Spieler
+     * @param amount Gewünschter Betrag in der Währung dieser Bank (&gt; 0)
+     * @return Beleg (PARTIAL wenn weniger als gewünscht ausgezahlt wurde)
+     * @throws IllegalArgumentException wenn amount in einer anderen Währung oder nicht positiv ist
+     */
+    public CoinReceipt withdrawAmount(Player player, Money amount) {
+        if (!amount.currencyId().equals(currencyId) || !amount.isPositive()) {
+            throw new IllegalArgumentException("Betrag muss positiv und in " + currencyId + " sein: " + amount);
+        }
+
+        UUID playerId = player.getUniqueId();
+        if (!hasAccount(playerId)) {
+            logger.warning("Kein Konto für " + player.getName() + " - withdrawAmount fehlgeschlagen");
+            return CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.FAILED, currencyId, amount);
+        }
+
+        long unitCost = Money.MINOR_PER_MAJOR;
+        long requestedUnits = Math.min(amount.minorUnits() / unitCost, MAX_WITHDRAW_UNITS);
+
+        // Eine Buchung (begrenzt durch Kontostand und Bank-Liquidität)
+        long units = journal.withdrawUpTo(playerId, unitCost, requestedUnits);
+        if (units <= 0) {
+            logger.fine("Keine Auszahlung an " + player.getName() + " möglich (Guthaben: " +
+                    Money.of(ledger.balance(playerId), currencyId).toPlainString() +
+                    ", Bank: " + Money.of(ledger.bankBalance(), currencyId).toPlainString() + ")");
+            return CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.NOTHING, currencyId, amount);
+        }
+
+        CoinBreakdown breakdown = denominationEngine.breakdown(currencyId, units);
+
+        // Alle Münzen erstellen, bevor etwas ins Inventar geht
+        Map<CurrencyItemSet.CurrencyTier, ItemStack> coins = new EnumMap<>(CurrencyItemSet.CurrencyTier.class);
+        for (CurrencyItemSet.CurrencyTier tier : CurrencyItemSet.CurrencyTier.values()) {
+            long count = breakdown.count(tier);
+            if (count == 0) {
+                continue;
+            }
+
+            Optional<ItemStack> stack;
+            try {
+                stack = itemProvider.getSpecialItem(currency.getItemId(tier), (int) count);
+            } catch (Exception e) {
+                logger.warning("Fehler beim Erstellen von Münzen: " + e.getMessage());
+                stack = Optional.empty();
+            }
+            if (stack.isEmpty()) {
+                logger.warning("Konnte Münzen nicht erstellen: " + currency.getItemId(tier));
+                rollbackWithdraw(playerId, units * unitCost);
+                return CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.FAILED, currencyId, amount);
+            }
+            coins.put(tier, stack.get());
+        }
+
+        // Ins Inventar geben (Gold zuerst); was nicht passt, wird gezählt und zurückerstattet
+        long[] paid = {breakdown.bronze(), breakdown.silver(), breakdown.gold()};
+        CurrencyItemSet.CurrencyTier[] tiers = CurrencyItemSet.CurrencyTier.values();
+        for (int t = tiers.length - 1; t >= 0; t--) {
+            ItemStack stack = coins.get(tiers[t]);
+            if (stack == null) {
+                continue;
+            }
+            for (ItemStack leftover : player.getInventory().addItem(stack).values()) {
+                paid[t] -= leftover.getAmount();
+            }
+        }
+
+        CoinBreakdown paidOut = new CoinBreakdown(currencyId, paid[0], paid[1], paid[2]);
+        long refundUnits = units - paidOut.totalUnits();
+        if (refundUnits > 0) {
+            logger.fine("Inventar von " + player.getName() + " voll - " + refundUnits + " Einheiten zurückerstattet");
+            rollbackWithdraw(playerId, refundUnits * unitCost);
+        }
+
+        if (paidOut.isEmpty()) {
+            return CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.FAILED, currencyId, amount);
+        }
+
+        Money value = Money.ofMajor(paidOut.totalUnits(), currencyId);
+        recordMetric(EconomyMetrics.Category.MINT, EconomyMetrics.BANK_WITHDRAW, value);
+        CoinReceipt receipt = new CoinReceipt(CoinReceipt.Operation.WITHDRAW,
+                value.isAtLeast(amount) ? CoinReceipt.Status.COMPLETED : CoinReceipt.Status.PARTIAL,
+                paidOut, value, amount, Money.of(ledger.balance(playerId), currencyId));
+        logger.info("Auszahlung (" + amount.toPlainString() + " " + currency.namePlural() + ") an " +
+                player.getName() + ": " + receipt.summary() +
+                ", Bank: " + Money.of(ledger.bankBalance(), currencyId).toPlainString());
+        return receipt;
+    }
+
+    /**
+     * Zählt einen Geldfluss, falls Metriken gesetzt sind.
+     */
+    private void recordMetric(EconomyMetrics.Category category, String channel, Money value) {
+        if (metrics != null) {
+            metrics.record(category, channel, value);
+        }
+    }
+
+    /**
+     * Macht eine gebuchte Auszahlung rückgängig (Konto und Liquidität).
+     */
+    private void rollbackWithdraw(UUID playerId, long amount) {
+        journal.refund(playerId, amount);
+    }
+
     /**
      * Gibt die Gesamtliquidität der Bank zurück.
      *
      * @return Total Bank Balance
      */
-    public BigDecimal getTotalBankBalance() {
-        return totalBankBalance;
+    public Money getTotalBankBalance() {
+        return Money.of(ledger.bankBalance(), currencyId);
     }
 
     /**
@@ -293,14 +517,14 @@ public class BankAccountHandler {
      *
      * @param newBalance Neue Bank-Balance
      */
-    public void setTotalBankBalance(BigDecimal newBalance) {
-        if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
+    public void setTotalBankBalance(Money newBalance) {
+        if (newBalance.isNegative()) {
             logger.warning("Versuch, negative Bank-Balance zu setzen!");
             return;
         }
 
-        totalBankBalance = newBalance;
-        logger.info("Bank-Balance geändert: " + totalBankBalance);
+        journal.setBankBalance(newBalance.minorUnits());
+        logger.info("Bank-Balance geändert: " + newBalance.toPlainString());
     }
 
     /**
@@ -318,17 +542,15 @@ public class BankAccountHandler {
      * @return Anzahl Konten
      */
     public int getAccountCount() {
-        return accounts.size();
+        return ledger.size();
     }
 
     /**
      * Gibt die Summe aller Kontostände zurück.
      *
-     * @return Gesamtguthaben aller Spieler
+     * @return Gesamtguthaben aller Spieler (schwach konsistent)
      */
-    public BigDecimal getTotalPlayerBalance() {
-        return accounts.values().stream()
-                .map(BankAccount::balance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money getTotalPlayerBalance() {
+        return Money.of(ledger.totalAccountBalance(), currencyId);
     }
 }
@@ -0,0 +1,527 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.database.DataStore;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * Transaktions-Journal für einen BankLedger mit Persistierung via DataStore.
+ *
+ * Alle Konto-Operationen laufen über das Journal: die Änderung wird im
+ * BankLedger angewendet und als Eintrag in die Commit-Queue gestellt.
+ * Ein Async-Task schreibt die Queue gebündelt (Group Commit) als Segment
+ * in den DataStore. Periodisch wird ein Snapshot aller Kontostände
+ * geschrieben und die davon abgedeckten Segmente gelöscht.
+ *
+ * Features:
+ * - Group Commit: ein DataStore-Write pro Intervall statt pro Buchung
+ * - Snapshots alle N Segmente (und beim Shutdown)
+ * - Replay beim Start: Snapshot + alle folgenden Segmente
+ * - Abgleich Bank-Liquidität ↔ Summe der Kontostände (reconcile)
+ *
+ * **DataStore-Layout** (Namespace "bank_journal_&lt;währung&gt;"):
+ * <pre>
+ * snapshot      → SnapshotData (Kontostände, Liquidität, letztes Segment)
+ * segment_&lt;n&gt;   → SegmentData (Einträge in Buchungsreihenfolge)
+ * </pre>
+ *
+ * **Dauerhaftigkeit:**
+ * Buchungen sind nach dem nächsten Group Commit (Standard: 1 Sekunde)
+ * persistiert. Ein Absturz verliert höchstens das laufende Intervall.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class BankJournal {
+
+    private static final String NAMESPACE_PREFIX = "bank_journal_";
+    private static final String SNAPSHOT_KEY = "snapshot";
+    private static final String SEGMENT_PREFIX = "segment_";
+
+    private final Logger logger;
+    private final DataStore dataStore;
+    private final String namespace;
+    private final BankLedger ledger;
+
+    // Buchungen: read lock (parallel); Snapshot/Abgleich: write lock (exklusiv)
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong expectedReserve;   // Soll-Differenz Liquidität - Summe Konten
+
+    // Nur unter commitLock verändert
+    private final Object commitLock = new Object();
+    private final List<Entry> pending = new ArrayList<>();
+    private long nextSegment = 1;
+    private long oldestSegment = 1;
+    private int segmentsSinceSnapshot = 0;
+    private int snapshotEvery = 300;
+
+    private BukkitTask commitTask;
+
+    /**
+     * Art einer Buchung.
+     */
+    public enum Operation {
+        OPEN,       // Konto eröffnet
+        DEPOSIT,    // Einzahlung (Konto + Bank)
+        WITHDRAW,   // Auszahlung (Konto - Bank)
+        REFUND,     // Rückbuchung einer Auszahlung (Konto + Bank)
+        SET_BANK    // Admin: Liquidität gesetzt (amount = neuer Wert)
+    }
+
+    /**
+     * Journal-Eintrag.
+     *
+     * @param operation Art der Buchung
+     * @param playerId Spieler-UUID (null bei SET_BANK)
+     * @param amount Betrag in Minor Units
+     * @param timestamp Zeitpunkt der Buchung
+     */
+    public record Entry(Operation operation, UUID playerId, long amount, long timestamp) {
+    }
+
+    /**
+     * Persistiertes Journal-Segment (ein Group Commit).
+     */
+    public static class SegmentData {
+        public long sequence;
+        public List<Entry> entries = new ArrayList<>();
+
+        public SegmentData() {
+            // Gson
+        }
+
+        SegmentData(long sequence, List<Entry> entries) {
+            this.sequence = sequence;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * Persistierter Snapshot aller Kontostände.
+     */
+    public static class SnapshotData {
+        public long lastSegment;
+        public long bankBalance;
+        public long expectedReserve;
+        public long createdAt;
+        public Map<String, Long> balances = new HashMap<>();
+
+        public SnapshotData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Ergebnis eines Abgleichs zwischen Liquidität und Kontoständen.
+     *
+     * @param totalAccounts Summe aller Kontostände (Minor Units)
+     * @param bankBalance Bank-Liquidität (Minor Units)
+     * @param expectedReserve Erwartete Differenz Liquidität - Konten
+     * @param drift Abweichung von der erwarteten Differenz (0 = konsistent)
+     */
+    public record Reconciliation(long totalAccounts, long bankBalance, long expectedReserve, long drift) {
+        /**
+         * Prüft ob Liquidität und Kontostände übereinstimmen.
+         *
+         * @return true wenn drift == 0
+         */
+        public boolean isBalanced() {
+            return drift == 0;
+        }
+    }
+
+    /**
+     * Konstruktor für BankJournal.
+     *
+     * @param logger Logger
+     * @param dataStore DataStore (null = nur In-Memory, keine Persistierung)
+     * @param currencyId Währungs-ID (bestimmt den Namespace)
+     * @param ledger BankLedger (mit initialer Liquidität)
+     */
+    public BankJournal(Logger logger, DataStore dataStore, String currencyId, BankLedger ledger) {
+        this.logger = logger;
+        this.dataStore = dataStore;
+        this.namespace = NAMESPACE_PREFIX + currencyId;
+        this.ledger = ledger;
+        this.expectedReserve = new AtomicLong(ledger.bankBalance() - ledger.totalAccountBalance());
+    }
+
+    // ==================== Lebenszyklus ====================
+
+    /**
+     * Stellt den Ledger aus Snapshot und Journal-Segmenten wieder her.
+     *
+     * MUSS vor der ersten Buchung aufgerufen werden.
+     *
+     * @return Anzahl wiederhergestellter Journal-Einträge
+     */
+    public int recover() {
+        if (dataStore == null) {
+            return 0;
+        }
+
+        synchronized (commitLock) {
+            long lastSegment = 0;
+
+            Optional<SnapshotData> snapshot = dataStore.loadSync(namespace, SNAPSHOT_KEY, SnapshotData.class);
+            if (snapshot.isPresent()) {
+                SnapshotData data = snapshot.get();
+                data.balances.forEach((playerId, balance) -> ledger.setBalance(UUID.fromString(playerId), balance));
+                ledger.setBankBalance(data.bankBalance);
+                expectedReserve.set(data.expectedReserve);
+                lastSegment = data.lastSegment;
+            }
+
+            int replayed = 0;
+            long sequence = lastSegment + 1;
+            Optional<SegmentData> segment;
+            while ((segment = dataStore.loadSync(namespace, SEGMENT_PREFIX + sequence, SegmentData.class)).isPresent()) {
+                for (Entry entry : segment.get().entries) {
+                    apply(entry);
+                    replayed++;
+                }
+                sequence++;
+            }
+
+            nextSegment = sequence;
+            oldestSegment = lastSegment + 1;
+            segmentsSinceSnapshot = (int) (sequence - oldestSegment);
+
+            logger.info("BankJournal " + namespace + ": " + ledger.size() + " Konten wiederhergestellt" +
+                    (snapshot.isPresent() ? " (Snapshot + " : " (") + replayed + " Journal-Einträge)");
+            return replayed;
+        }
+    }
+
+    /**
+     * Startet den Group-Commit-Task.
+     *
+     * @param plugin Plugin für Scheduler
+     * @param commitIntervalTicks Intervall zwischen Commits
+     * @param snapshotEverySegments Snapshot nach so vielen Segmenten
+     */
+    public void start(Plugin plugin, long commitIntervalTicks, int snapshotEverySegments) {
+        stop();
+        if (dataStore == null) {
+            return;
+        }
+
+        this.snapshotEvery = Math.max(1, snapshotEverySegments);
+        long interval = Math.max(1L, commitIntervalTicks);
+        commitTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::commit, interval, interval);
+    }
+
+    /**
+     * Stoppt den Commit-Task und schreibt einen finalen Snapshot.
+     *
+     * Synchron - für onDisable gedacht.
+     */
+    public void shutdown() {
+        stop();
+        if (dataStore != null) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Stoppt den Commit-Task (ohne Flush).
+     */
+    private void stop() {
+        if (commitTask != null) {
+            commitTask.cancel();
+            commitTask = null;
+        }
+    }
+
+    // ==================== Buchungen ====================
+
+    /**
+     * Eröffnet ein Konto.
+     *
+     * @param playerId Spieler-UUID
+     * @return true wenn neu angelegt
+     */
+    public boolean open(UUID playerId) {
+        stateLock.readLock().lock();
+        try {
+            boolean created = ledger.open(playerId);
+            if (created) {
+                append(Operation.OPEN, playerId, 0L);
+            }
+            return created;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bucht eine Einzahlung (Konto und Bank-Liquidität).
+     *
+     * @param playerId Spieler-UUID
+     * @param amount Betrag in Minor Units
+     * @return Neuer Kontostand, oder -1 wenn kein Konto existiert
+     */
+    public long deposit(UUID playerId, long amount) {
+        stateLock.readLock().lock();
+        try {
+            long newBalance = ledger.credit(playerId, amount);
+            if (newBalance >= 0) {
+                append(Operation.DEPOSIT, playerId, amount);
+            }
+            return newBalance;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bucht eine Auszahlung von bis zu maxUnits Einheiten à unitCost.
+     *
+     * Begrenzt durch Kontostand UND Bank-Liquidität. Der nicht gedeckte
+     * Teil wird innerhalb derselben Buchung zurückgebucht.
+     *
+     * @param playerId Spieler-UUID
+     * @param unitCost Kosten pro Einheit in Minor Units
+     * @param maxUnits Maximale Anzahl Einheiten
+     * @return Tatsächlich ausgezahlte Einheiten
+     */
+    public long withdrawUpTo(UUID playerId, long unitCost, long maxUnits) {
+        stateLock.readLock().lock();
+        try {
+            long units = ledger.debitUpTo(playerId, unitCost, maxUnits);
+            if (units <= 0) {
+                return 0L;
+            }
+
+            long liquid = ledger.reserveLiquidityUpTo(unitCost, units);
+            if (liquid < units) {
+                ledger.refund(playerId, (units - liquid) * unitCost);
+            }
+
+            if (liquid > 0) {
+                append(Operation.WITHDRAW, playerId, liquid * unitCost);
+            }
+            return liquid;
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bucht eine Auszahlung zurück (z.B. wenn die Münz-Erstellung fehlschlägt).
+     *
+     * @param playerId Spieler-UUID
+     * @param amount Betrag in Minor Units
+     */
+    public void refund(UUID playerId, long amount) {
+        stateLock.readLock().lock();
+        try {
+            ledger.refund(playerId, amount);
+            ledger.releaseLiquidity(amount);
+            append(Operation.REFUND, playerId, amount);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Setzt die Bank-Liquidität (Admin).
+     *
+     * @param amount Neue Liquidität in Minor Units
+     */
+    public void setBankBalance(long amount) {
+        stateLock.readLock().lock();
+        try {
+            long previous = ledger.setBankBalance(amount);
+            expectedReserve.addAndGet(amount - previous);
+            append(Operation.SET_BANK, null, amount);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    // ==================== Commit & Snapshot ====================
+
+    /**
+     * Schreibt alle offenen Einträge als ein Segment (Group Commit).
+     *
+     * Wird vom Async-Task aufgerufen. Schlägt das Schreiben fehl, bleiben
+     * die Einträge offen und werden beim nächsten Commit erneut geschrieben.
+     */
+    public void commit() {
+        if (dataStore == null) {
+            return;
+        }
+
+        synchronized (commitLock) {
+            drainQueue();
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            SegmentData segment = new SegmentData(nextSegment, new ArrayList<>(pending));
+            if (!dataStore.saveSync(namespace, SEGMENT_PREFIX + nextSegment, segment)) {
+                logger.warning("BankJournal " + namespace + ": Segment " + nextSegment +
+                        " konnte nicht geschrieben werden (" + pending.size() + " Einträge offen)");
+                return;
+            }
+
+            pending.clear();
+            nextSegment++;
+            segmentsSinceSnapshot++;
+
+            if (segmentsSinceSnapshot >= snapshotEvery) {
+                snapshot();
+            }
+        }
+    }
+
+    /**
+     * Schreibt einen Snapshot aller Kontostände und löscht abgedeckte Segmente.
+     *
+     * @return true wenn erfolgreich
+     */
+    public boolean snapshot() {
+        if (dataStore == null) {
+            return false;
+        }
+
+        synchronized (commitLock) {
+            SnapshotData data = new SnapshotData();
+            Reconciliation reconciliation;
+
+            // Exklusiv: keine Buchung zwischen Queue-Drain und Kopie der Stände
+            stateLock.writeLock().lock();
+            try {
+                drainQueue();
+                ledger.snapshotBalances().forEach((playerId, balance) -> data.balances.put(playerId.toString(), balance));
+                data.bankBalance = ledger.bankBalance();
+                data.expectedReserve = expectedReserve.get();
+                reconciliation = reconcileUnlocked();
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+
+            // Offene Einträge sind im Snapshot enthalten - als Segment sichern,
+            // damit sie auch bei fehlschlagendem Snapshot-Write erhalten bleiben
+            if (!pending.isEmpty()) {
+                if (!dataStore.saveSync(namespace, SEGMENT_PREFIX + nextSegment,
+                        new SegmentData(nextSegment, new ArrayList<>(pending)))) {
+                    logger.warning("BankJournal " + namespace + ": Segment vor Snapshot nicht geschrieben");
+                    return false;
+                }
+                pending.clear();
+                nextSegment++;
+            }
+
+            data.lastSegment = nextSegment - 1;
+            data.createdAt = System.currentTimeMillis();
+
+            if (!dataStore.saveSync(namespace, SNAPSHOT_KEY, data)) {
+                logger.warning("BankJournal " + namespace + ": Snapshot konnte nicht geschrieben werden");
+                return false;
+            }
+
+            // Abgedeckte Segmente löschen (Fehler sind harmlos - Replay ignoriert sie)
+            for (long sequence = oldestSegment; sequence <= data.lastSegment; sequence++) {
+                dataStore.delete(namespace, SEGMENT_PREFIX + sequence);
+            }
+            oldestSegment = data.lastSegment + 1;
+            segmentsSinceSnapshot = 0;
+
+            if (!reconciliation.isBalanced()) {
+                logger.warning("BankJournal " + namespace + ": Abweichung zwischen Liquidität und Konten! " +
+                        "Konten=" + reconciliation.totalAccounts() + ", Bank=" + reconciliation.bankBalance() +
+                        ", Soll-Reserve=" + reconciliation.expectedReserve() + ", Drift=" + reconciliation.drift());
+            }
+
+            logger.fine("BankJournal " + namespace + ": Snapshot bis Segment " + data.lastSegment + " geschrieben");
+            return true;
+        }
+    }
+
+    /**
+     * Gleicht Bank-Liquidität mit der Summe der Kontostände ab.
+     *
+     * Sperrt Buchungen kurzzeitig, damit keine Auszahlung halb sichtbar ist.
+     *
+     * @return Reconciliation
+     */
+    public Reconciliation reconcile() {
+        stateLock.writeLock().lock();
+        try {
+            return reconcileUnlocked();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gibt die Anzahl noch nicht persistierter Einträge zurück.
+     *
+     * @return Anzahl
+     */
+    public int getPendingCount() {
+        synchronized (commitLock) {
+            return queue.size() + pending.size();
+        }
+    }
+
+    // ==================== Intern ====================
+
+    /**
+     * Stellt einen Eintrag in die Commit-Queue.
+     */
+    private void append(Operation operation, UUID playerId, long amount) {
+        if (dataStore != null) {
+            queue.add(new Entry(operation, playerId, amount, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Überträgt die Queue in die Pending-Liste (unter commitLock).
+     */
+    private void drainQueue() {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            pending.add(entry);
+        }
+    }
+
+    /**
+     * Wendet einen Eintrag beim Replay an.
+     */
+    private void apply(Entry entry) {
+        switch (entry.operation()) {
+            case OPEN -> ledger.open(entry.playerId());
+            case DEPOSIT, REFUND -> ledger.applyDelta(entry.playerId(), entry.amount(), entry.amount());
+            case WITHDRAW -> ledger.applyDelta(entry.playerId(), -entry.amount(), -entry.amount());
+            case SET_BANK -> {
+                long previous = ledger.setBankBalance(entry.amount());
+                expectedReserve.addAndGet(entry.amount() - previous);
+            }
+        }
+    }
+
+    /**
+     * Abgleich ohne Sperre (Aufrufer hält write lock).
+     */
+    private Reconciliation reconcileUnlocked() {
+        long accounts = ledger.totalAccountBalance();
+        long bank = ledger.bankBalance();
+        long reserve = expectedReserve.get();
+        return new Reconciliation(accounts, bank, reserve, (bank - accounts) - reserve);
+    }
+}
@@ -0,0 +1,317 @@
+package de.fallenstar.economy.manager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-sicheres Kontobuch für einen BankAccountHandler.
+ *
+ * Kontostände und Bank-Liquidität werden als long (Minor Units, siehe Money)
+ * in AtomicLongs gehalten und ausschließlich per CAS verändert. Es gibt keine
+ * globale Sperre - gleichzeitige Auszahlungen an verschiedenen Bankern
+ * skalieren über Threads, ohne Updates zu verlieren.
+ *
+ * Features:
+ * - Konten in Shards (nach UUID-Hash) aus ConcurrentHashMaps
+ * - Lock-freie Gutschrift/Belastung pro Konto (CAS)
+ * - Atomare Gesamt-Liquidität der Bank
+ * - "Bis zu N Einheiten"-Reservierung (Konto und Bank) mit Rückbuchung
+ *
+ * **Konsistenz:**
+ * Konto und Bank-Liquidität sind zwei getrennte Atome. Eine Auszahlung
+ * reserviert zuerst am Konto, dann an der Bank und bucht Überschüsse
+ * zurück. Aggregate (Summe der Konten) sind daher nur schwach konsistent:
+ * eine laufende Auszahlung kann am Konto schon sichtbar sein, an der Bank
+ * aber noch nicht.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class BankLedger {
+
+    /**
+     * Standard-Anzahl Shards.
+     */
+    public static final int DEFAULT_SHARDS = 16;
+
+    private final ConcurrentHashMap<UUID, AtomicLong>[] shards;
+    private final int shardMask;
+    private final AtomicLong bankBalance;
+
+    /**
+     * Konstruktor für BankLedger.
+     *
+     * @param initialBankBalance Initiale Bank-Liquidität in Minor Units
+     * @param shardCount Anzahl Shards (wird auf die nächste Zweierpotenz aufgerundet)
+     */
+    @SuppressWarnings("unchecked")
+    public BankLedger(long initialBankBalance, int shardCount) {
+        int size = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+
+        this.shards = new ConcurrentHashMap[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = size - 1;
+        this.bankBalance = new AtomicLong(initialBankBalance);
+    }
+
+    /**
+     * Konstruktor mit Standard-Shard-Anzahl.
+     *
+     * @param initialBankBalance Initiale Bank-Liquidität in Minor Units
+     */
+    public BankLedger(long initialBankBalance) {
+        this(initialBankBalance, DEFAULT_SHARDS);
+    }
+
+    // ==================== Konten ====================
+
+    /**
+     * Eröffnet ein Konto mit Stand 0.
+     *
+     * @param playerId Spieler-UUID
+     * @return true wenn neu angelegt, false wenn bereits vorhanden
+     */
+    public boolean open(UUID playerId) {
+        return shard(playerId).putIfAbsent(playerId, new AtomicLong()) == null;
+    }
+
+    /**
+     * Prüft ob ein Konto existiert.
+     *
+     * @param playerId Spieler-UUID
+     * @return true wenn vorhanden
+     */
+    public boolean exists(UUID playerId) {
+        return shard(playerId).containsKey(playerId);
+    }
+
+    /**
+     * Gibt den Kontostand zurück.
+     *
+     * @param playerId Spieler-UUID
+     * @return Kontostand in Minor Units, oder -1 wenn kein Konto existiert
+     */
+    public long balance(UUID playerId) {
+        AtomicLong balance = shard(playerId).get(playerId);
+        return balance != null ? balance.get() : -1L;
+    }
+
+    /**
+     * Schreibt einem Konto einen Betrag gut und erhöht die Bank-Liquidität.
+     *
+     * @param playerId Spieler-UUID
+     * @param amount Betrag in Minor Units (&gt;= 0)
+     * @return Neuer Kontostand, oder -1 wenn kein Konto existiert
+     * @throws ArithmeticException bei Überlauf
+     */
+    public long credit(UUID playerId, long amount) {
+        AtomicLong balance = shard(playerId).get(playerId);
+        if (balance == null) {
+            return -1L;
+        }
+
+        long newBalance = addExact(balance, amount);
+        addExact(bankBalance, amount);
+        return newBalance;
+    }
+
+    /**
+     * Belastet ein Konto mit bis zu maxUnits Einheiten à unitCost.
+     *
+     * Bucht atomar so viele Einheiten ab, wie das Guthaben deckt.
+     *
+     * @param playerId Spieler-UUID
+     * @param unitCost Kosten pro Einheit in Minor Units (&gt; 0)
+     * @param maxUnits Maximale Anzahl Einheiten
+     * @return Tatsächlich belastete Einheiten (0 wenn nichts oder kein Konto)
+     */
+    public long debitUpTo(UUID playerId, long unitCost, long maxUnits) {
+        AtomicLong balance = shard(playerId).get(playerId);
+        return balance != null ? takeUpTo(balance, unitCost, maxUnits) : 0L;
+    }
+
+    /**
+     * Bucht einen Betrag auf ein Konto zurück (ohne Bank-Liquidität zu ändern).
+     *
+     * Gegenstück zu {@link #debitUpTo(UUID, long, long)} für Rollbacks.
+     *
+     * @param playerId Spieler-UUID
+     * @param amount Betrag in Minor Units
+     */
+    public void refund(UUID playerId, long amount) {
+        AtomicLong balance = shard(playerId).get(playerId);
+        if (balance != null) {
+            addExact(balance, amount);
+        }
+    }
+
+    /**
+     * Setzt den Kontostand direkt (Admin/Wiederherstellung).
+     *
+     * Legt das Konto bei Bedarf an. Ändert die Bank-Liquidität nicht.
+     *
+     * @param playerId Spieler-UUID
+     * @param amount Neuer Kontostand in Minor Units
+     */
+    public void setBalance(UUID playerId, long amount) {
+        shard(playerId).computeIfAbsent(playerId, id -> new AtomicLong()).set(amount);
+    }
+
+    /**
+     * Wendet eine bereits validierte Änderung auf Konto und Bank an (Journal-Replay).
+     *
+     * Legt das Konto bei Bedarf an. Prüft weder Deckung noch Liquidität.
+     *
+     * @param playerId Spieler-UUID
+     * @param accountDelta Änderung des Kontostands in Minor Units
+     * @param bankDelta Änderung der Bank-Liquidität in Minor Units
+     */
+    public void applyDelta(UUID playerId, long accountDelta, long bankDelta) {
+        addExact(shard(playerId).computeIfAbsent(playerId, id -> new AtomicLong()), accountDelta);
+        addExact(bankBalance, bankDelta);
+    }
+
+    // ==================== Bank-Liquidität ====================
+
+    /**
+     * Gibt die Bank-Liquidität zurück.
+     *
+     * @return Liquidität in Minor Units
+     */
+    public long bankBalance() {
+        return bankBalance.get();
+    }
+
+    /**
+     * Setzt die Bank-Liquidität.
+     *
+     * @param amount Neue Liquidität in Minor Units
+     * @return Vorherige Liquidität in Minor Units
+     */
+    public long setBankBalance(long amount) {
+        return bankBalance.getAndSet(amount);
+    }
+
+    /**
+     * Reserviert bis zu maxUnits Einheiten à unitCost aus der Bank-Liquidität.
+     *
+     * @param unitCost Kosten pro Einheit in Minor Units (&gt; 0)
+     * @param maxUnits Maximale Anzahl Einheiten
+     * @return Tatsächlich reservierte Einheiten
+     */
+    public long reserveLiquidityUpTo(long unitCost, long maxUnits) {
+        return takeUpTo(bankBalance, unitCost, maxUnits);
+    }
+
+    /**
+     * Gibt reservierte Liquidität an die Bank zurück.
+     *
+     * @param amount Betrag in Minor Units
+     */
+    public void releaseLiquidity(long amount) {
+        addExact(bankBalance, amount);
+    }
+
+    // ==================== Aggregate ====================
+
+    /**
+     * Gibt die Anzahl Konten zurück.
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        int count = 0;
+        for (Map<UUID, AtomicLong> shard : shards) {
+            count += shard.size();
+        }
+        return count;
+    }
+
+    /**
+     * Gibt die Summe aller Kontostände zurück (schwach konsistent).
+     *
+     * @return Summe in Minor Units
+     * @throws ArithmeticException bei Überlauf
+     */
+    public long totalAccountBalance() {
+        long total = 0L;
+        for (Map<UUID, AtomicLong> shard : shards) {
+            for (AtomicLong balance : shard.values()) {
+                total = Math.addExact(total, balance.get());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gibt eine Kopie aller Kontostände zurück (schwach konsistent).
+     *
+     * @return Map Spieler-UUID → Kontostand in Minor Units
+     */
+    public Map<UUID, Long> snapshotBalances() {
+        Map<UUID, Long> snapshot = new HashMap<>();
+        for (Map<UUID, AtomicLong> shard : shards) {
+            shard.forEach((playerId, balance) -> snapshot.put(playerId, balance.get()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gibt alle Konto-Inhaber zurück (schwach konsistent).
+     *
+     * @return Set von Spieler-UUIDs
+     */
+    public Set<UUID> accountIds() {
+        return snapshotBalances().keySet();
+    }
+
+    // ==================== Intern ====================
+
+    /**
+     * Wählt den Shard für eine UUID (gespreizter Hash).
+     */
+    private ConcurrentHashMap<UUID, AtomicLong> shard(UUID playerId) {
+        int h = playerId.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+
+    /**
+     * CAS-Schleife: nimmt bis zu maxUnits Einheiten à unitCost aus einem Saldo.
+     */
+    private static long takeUpTo(AtomicLong balance, long unitCost, long maxUnits) {
+        if (unitCost <= 0 || maxUnits <= 0) {
+            return 0L;
+        }
+
+        while (true) {
+            long current = balance.get();
+            long units = Math.min(maxUnits, current <= 0 ? 0L : current / unitCost);
+            if (units == 0) {
+                return 0L;
+            }
+
+            if (balance.compareAndSet(current, current - units * unitCost)) {
+                return units;
+            }
+        }
+    }
+
+    /**
+     * CAS-Schleife: überlauf-geprüfte Addition.
+     */
+    private static long addExact(AtomicLong balance, long amount) {
+        while (true) {
+            long current = balance.get();
+            long updated = Math.addExact(current, amount);
+            if (balance.compareAndSet(current, updated)) {
+                return updated;
+            }
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.model.CoinBreakdown;
+import de.fallenstar.economy.model.CurrencyItemSet;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Berechnet exakte Münz-Stückelungen (Wechselgeld) für alle registrierten Währungen.
+ *
+ * Ein Betrag in Basiswährung wird zuerst in Münz-Einheiten der Zielwährung
+ * umgerechnet (1 Einheit = 1 Bronze-Münze) und dann auf Bronze/Silber/Gold
+ * verteilt - mit möglichst wenigen Münzen und auf Wunsch begrenzt auf eine
+ * maximale Anzahl Stacks (z.B. 2 Zutaten eines Villager-Trades).
+ *
+ * Features:
+ * - Umrechnung per Ganzzahl-Division (Wechselkurs einmalig als Bruch vorberechnet)
+ * - Rundungsregel pro Aufruf (z.B. HALF_UP für Preise, DOWN für Auszahlungen)
+ * - Lookup-Tabelle für häufige Beträge (0 - 999 Einheiten) pro Währung
+ * - Stückelung über mehrere Stacks, optimal unter Stack-Limit
+ *
+ * **Verwendung:**
+ * <pre>
+ * Optional&lt;CoinBreakdown&gt; change = engine.forPrice("sterne",
+ *         Money.ofMajor(15, "sterne"), RoundingMode.HALF_UP, 64, 2);
+ * // → 1x Silber + 5x Bronze
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Die Tabellen liegen in einer unveränderlichen Map, die bei jeder
+ * Registrierung (auch Kursänderung) kopiert und atomar ausgetauscht wird.
+ * Abfragen sind lock-frei und von jedem Thread möglich; sie sehen die alte
+ * oder die neue Tabelle, nie eine Mischung. Registrierungen werden serialisiert.
+ *
+ * @author FallenStar
+ * @version 1.1
+ */
+public class CoinDenominationEngine {
+
+    /**
+     * Anzahl Einheiten, für die Stückelungen vorberechnet werden.
+     */
+    public static final int COMMON_UNITS = 1000;
+
+    private static final long SILVER_UNITS = 10;
+    private static final long GOLD_UNITS = 100;
+
+    private volatile Map<String, CurrencyTable> tables;   // Unveränderlich, Copy-on-Write
+
+    /**
+     * Vorberechnete Daten einer Währung.
+     *
+     * Wert einer Bronze-Münze in Basis-Minor-Units = unitDenominator / unitNumerator.
+     *
+     * @param currencyId Währungs-ID
+     * @param baseCurrency true wenn Wechselkurs 1.0
+     * @param unitNumerator 10^scale des Wechselkurses
+     * @param unitDenominator Wechselkurs (unscaled) × 100
+     * @param common Greedy-Stückelungen für 0 .. COMMON_UNITS-1 Einheiten
+     */
+    private record CurrencyTable(String currencyId, boolean baseCurrency,
+                                 long unitNumerator, long unitDenominator, CoinBreakdown[] common) {
+    }
+
+    /**
+     * Konstruktor für CoinDenominationEngine.
+     */
+    public CoinDenominationEngine() {
+        this.tables = Map.of();
+    }
+
+    /**
+     * Registriert eine Währung und berechnet ihre Tabellen vor.
+     *
+     * Eine bereits registrierte Währung wird ersetzt (z.B. nach Kursänderung).
+     *
+     * @param currency Währung
+     */
+    public synchronized void register(CurrencyItemSet currency) {
+        BigDecimal rate = currency.exchangeRate().stripTrailingZeros();
+        if (rate.scale() < 0) {
+            rate = rate.setScale(0);
+        }
+        long numerator = BigDecimal.TEN.pow(rate.scale()).longValueExact();
+        long denominator = Math.multiplyExact(rate.unscaledValue().longValueExact(), Money.MINOR_PER_MAJOR);
+
+        CoinBreakdown[] common = new CoinBreakdown[COMMON_UNITS];
+        for (int units = 0; units < COMMON_UNITS; units++) {
+            common[units] = greedy(currency.currencyId(), units);
+        }
+
+        Map<String, CurrencyTable> next = new HashMap<>(tables);
+        next.put(currency.currencyId(), new CurrencyTable(
+                currency.currencyId(), currency.isBaseCurrency(), numerator, denominator, common));
+        tables = Map.copyOf(next);
+    }
+
+    /**
+     * Prüft ob eine Währung registriert ist.
+     *
+     * @param currencyId Währungs-ID
+     * @return true wenn registriert
+     */
+    public boolean isRegistered(String currencyId) {
+        return tables.containsKey(currencyId);
+    }
+
+    /**
+     * Rechnet einen Preis in Münz-Einheiten einer Währung um.
+     *
+     * Preise in der Zielwährung selbst werden direkt umgerechnet, Preise in
+     * einer Basiswährung (Wechselkurs 1.0) über den Wechselkurs.
+     *
+     * @param currencyId Zielwährung
+     * @param price Preis (&gt;= 0)
+     * @param rounding Rundung für Bruchteile einer Münze (UNNECESSARY = nur exakte Beträge)
+     * @return Anzahl Einheiten (Bronze-Äquivalent)
+     * @throws IllegalArgumentException bei unbekannter Währung, negativem Preis
+     *                                  oder Preis in einer Fremdwährung
+     * @throws ArithmeticException bei UNNECESSARY und nicht exaktem Betrag
+     */
+    public long toCoinUnits(String currencyId, Money price, RoundingMode rounding) {
+        Map<String, CurrencyTable> current = tables;
+        CurrencyTable table = table(current, currencyId);
+        if (price.isNegative()) {
+            throw new IllegalArgumentException("Preis darf nicht negativ sein: " + price);
+        }
+
+        if (price.currencyId().equals(currencyId)) {
+            return divide(price.minorUnits(), Money.MINOR_PER_MAJOR, rounding);
+        }
+
+        CurrencyTable priceTable = current.get(price.currencyId());
+        if (priceTable != null && !priceTable.baseCurrency()) {
+            throw new IllegalArgumentException("Preis muss in Basiswährung oder " + currencyId + " sein: " + price);
+        }
+        return divide(Math.multiplyExact(price.minorUnits(), table.unitNumerator()), table.unitDenominator(), rounding);
+    }
+
+    /**
+     * Gibt den Wert einer Stückelung in Basiswährung zurück (kaufmännisch gerundet).
+     *
+     * @param breakdown Stückelung
+     * @return Wert in Basiswährung
+     */
+    public Money toBase(CoinBreakdown breakdown) {
+        CurrencyTable table = table(tables, breakdown.currencyId());
+        long minor = divide(Math.multiplyExact(breakdown.totalUnits(), table.unitDenominator()),
+                table.unitNumerator(), RoundingMode.HALF_UP);
+        return Money.of(minor, Money.BASE_CURRENCY_ID);
+    }
+
+    /**
+     * Stückelt einen Betrag mit möglichst wenigen Münzen (ohne Stack-Limit).
+     *
+     * @param currencyId Währung
+     * @param units Betrag in Einheiten (&gt;= 0)
+     * @return CoinBreakdown
+     */
+    public CoinBreakdown breakdown(String currencyId, long units) {
+        CurrencyTable table = table(tables, currencyId);
+        if (units < 0) {
+            throw new IllegalArgumentException("Betrag darf nicht negativ sein: " + units);
+        }
+        return units < COMMON_UNITS ? table.common()[(int) units] : greedy(currencyId, units);
+    }
+
+    /**
+     * Stückelt einen Betrag exakt in höchstens maxStacks Stacks.
+     *
+     * Unter allen exakten Stückelungen, die in maxStacks Stacks passen, wird
+     * die mit den wenigsten Münzen gewählt (bei Gleichstand: wenigste Stacks).
+     *
+     * Beispiel (2 Stacks à 64): 115 → 1x Gold + 15x Bronze statt 1/1/5 (3 Stacks)
+     *
+     * @param currencyId Währung
+     * @param units Betrag in Einheiten (&gt;= 0)
+     * @param maxStackSize Maximale Stack-Größe
+     * @param maxStacks Maximale Anzahl Stacks
+     * @return CoinBreakdown, oder empty wenn der Betrag nicht in maxStacks Stacks passt
+     */
+    public Optional<CoinBreakdown> breakdown(String currencyId, long units, int maxStackSize, int maxStacks) {
+        if (maxStackSize <= 0 || maxStacks <= 0) {
+            throw new IllegalArgumentException("Stack-Größe und Stack-Anzahl müssen größer als 0 sein!");
+        }
+
+        // Greedy hat die wenigsten Münzen überhaupt - passt es, ist es optimal
+        CoinBreakdown greedy = breakdown(currencyId, units);
+        if (greedy.stackCount(maxStackSize) <= maxStacks) {
+            return Optional.of(greedy);
+        }
+
+        long stackSize = maxStackSize;
+        if (units > GOLD_UNITS * stackSize * maxStacks) {
+            return Optional.empty();
+        }
+
+        CoinBreakdown best = null;
+        long maxGold = Math.min(units / GOLD_UNITS, stackSize * maxStacks);
+        for (long gold = maxGold; gold >= 0; gold--) {
+            int freeStacks = maxStacks - (int) ceilDiv(gold, stackSize);
+            long rest = units - gold * GOLD_UNITS;
+
+            // Pro Anzahl Silber-Stacks ist die größte Silber-Menge optimal (weniger Bronze)
+            for (int silverStacks = 0; silverStacks <= freeStacks; silverStacks++) {
+                long silver = Math.min(rest / SILVER_UNITS, stackSize * silverStacks);
+                long bronze = rest - silver * SILVER_UNITS;
+                if (ceilDiv(silver, stackSize) + ceilDiv(bronze, stackSize) > freeStacks) {
+                    continue;
+                }
+
+                CoinBreakdown candidate = new CoinBreakdown(currencyId, bronze, silver, gold);
+                if (best == null || isBetter(candidate, best, maxStackSize)) {
+                    best = candidate;
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Rechnet einen Preis um und stückelt ihn in höchstens maxStacks Stacks.
+     *
+     * @param currencyId Zielwährung
+     * @param price Preis (Basiswährung oder Zielwährung)
+     * @param rounding Rundung für Bruchteile einer Münze
+     * @param maxStackSize Maximale Stack-Größe
+     * @param maxStacks Maximale Anzahl Stacks
+     * @return CoinBreakdown, oder empty wenn nicht darstellbar
+     */
+    public Optional<CoinBreakdown> forPrice(String currencyId, Money price, RoundingMode rounding,
+                                            int maxStackSize, int maxStacks) {
+        return breakdown(currencyId, toCoinUnits(currencyId, price, rounding), maxStackSize, maxStacks);
+    }
+
+    /**
+     * Gibt die Tabelle einer Währung aus einem Tabellen-Stand zurück.
+     */
+    private static CurrencyTable table(Map<String, CurrencyTable> tables, String currencyId) {
+        CurrencyTable table = tables.get(currencyId);
+        if (table == null) {
+            throw new IllegalArgumentException("Währung nicht registriert: " + currencyId);
+        }
+        return table;
+    }
+
+    /**
+     * Greedy-Stückelung (optimal für 1/10/100 ohne Stack-Limit).
+     */
+    private static CoinBreakdown greedy(String currencyId, long units) {
+        long gold = units / GOLD_UNITS;
+        long silver = (units % GOLD_UNITS) / SILVER_UNITS;
+        long bronze = units % SILVER_UNITS;
+        return new CoinBreakdown(currencyId, bronze, silver, gold);
+    }
+
+    /**
+     * Vergleicht zwei Stückelungen (weniger Münzen, dann weniger Stacks).
+     */
+    private static boolean isBetter(CoinBreakdown candidate, CoinBreakdown best, int maxStackSize) {
+        if (candidate.coinCount() != best.coinCount()) {
+            return candidate.coinCount() < best.coinCount();
+        }
+        return candidate.stackCount(maxStackSize) < best.stackCount(maxStackSize);
+    }
+
+    /**
+     * Ganzzahl-Division (aufgerundet) für nicht-negative Werte.
+     */
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Ganzzahl-Division nicht-negativer Werte mit Rundungsregel.
+     */
+    private static long divide(long numerator, long denominator, RoundingMode rounding) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        long twice = remainder * 2; // remainder < denominator, daher kein Überlauf bei üblichen Kursen
+        return switch (rounding) {
+            case DOWN, FLOOR -> quotient;
+            case UP, CEILING -> quotient + 1;
+            case HALF_UP -> twice >= denominator ? quotient + 1 : quotient;
+            case HALF_DOWN -> twice > denominator ? quotient + 1 : quotient;
+            case HALF_EVEN -> twice > denominator || (twice == denominator && (quotient & 1) == 1)
+                    ? quotient + 1 : quotient;
+            case UNNECESSARY -> throw new ArithmeticException(
+                    "Betrag nicht exakt darstellbar: " + numerator + "/" + denominator);
+        };
+    }
+}
@@ -0,0 +1,244 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.provider.ItemProvider;
+import de.fallenstar.economy.model.CurrencyItemSet;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Schnelle Münz-Erkennung für alle registrierten Währungen.
+ *
+ * Ordnet einem ItemStack Währung und Tier zu, ohne für jeden Stack den
+ * ItemProvider (MMOItems: NBT-Parsing) zu befragen.
+ *
+ * Features:
+ * - PDC-Schnellpfad: Vanilla-SpecialItems tragen ihre ID im PDC des Items-Moduls
+ * - Index SpecialItem-ID → (Währung, Tier) über alle Währungen
+ * - Meta-Cache (LRU) für den langsamen Provider-Pfad, inkl. negativer Treffer
+ * - Stacks ohne ItemMeta werden ohne weitere Prüfung verworfen
+ *
+ * Bukkit liefert bei jedem getContents()/getItemMeta() Kopien - eine
+ * Identitäts-Zuordnung wäre beim nächsten Klick wertlos. Der Cache ist
+ * daher nach dem Wert der ItemMeta geschlüsselt: gleiche Münzen (gleiche
+ * Meta, beliebige Stackgröße) teilen sich einen Eintrag.
+ *
+ * **Verwendung:**
+ * <pre>
+ * Map&lt;CurrencyTier, InventoryCoinResult&gt; coins =
+ *         currency.findAllCoinsInInventory(player.getInventory(), recognizer);
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Nicht thread-sicher - wie Inventare nur auf dem Main-Thread verwenden.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class CoinRecognizer implements CurrencyItemSet.CoinTierResolver {
+
+    /**
+     * PDC-Schlüssel, unter dem das Items-Modul die SpecialItem-ID ablegt
+     * (Plugin "FallenStar-Items", siehe SpecialItemManager).
+     */
+    public static final NamespacedKey SPECIAL_ITEM_ID_KEY =
+            NamespacedKey.fromString("fallenstar-items:special_item_id");
+
+    /**
+     * Maximale Anzahl gecachter ItemMetas.
+     */
+    public static final int META_CACHE_SIZE = 512;
+
+    /**
+     * Maximale Versuche, die Provider-IDs der Münzen zu ermitteln.
+     */
+    private static final int MAX_RESOLVE_ATTEMPTS = 3;
+
+    /** Platzhalter für "keine Münze" im Meta-Cache. */
+    private static final Coin NOT_A_COIN = new Coin("", CurrencyItemSet.CurrencyTier.BRONZE);
+
+    private final Logger logger;
+    private final ItemProvider itemProvider;
+    private final Map<String, Coin> coinsBySpecialId;   // SpecialItem-ID → Münze
+    private final Map<String, Coin> coinsByProviderId;  // Provider-ID (MMOItems) → Münze
+    private final Map<ItemMeta, Coin> metaCache;
+    private boolean providerIdsResolved;
+    private int resolveAttempts;
+
+    /**
+     * Währung und Tier einer erkannten Münze.
+     *
+     * @param currencyId Währungs-ID
+     * @param tier Münz-Tier
+     */
+    public record Coin(String currencyId, CurrencyItemSet.CurrencyTier tier) {
+    }
+
+    /**
+     * Konstruktor für CoinRecognizer.
+     *
+     * @param logger Logger
+     * @param itemProvider ItemProvider (für Nicht-PDC-Münzen, z.B. MMOItems)
+     */
+    public CoinRecognizer(Logger logger, ItemProvider itemProvider) {
+        this.logger = logger;
+        this.itemProvider = itemProvider;
+        this.coinsBySpecialId = new HashMap<>();
+        this.coinsByProviderId = new HashMap<>();
+        this.metaCache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ItemMeta, Coin> eldest) {
+                return size() > META_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Registriert die Münzen einer Währung.
+     *
+     * @param currency Währung
+     */
+    public void register(CurrencyItemSet currency) {
+        for (CurrencyItemSet.CurrencyTier tier : CurrencyItemSet.CurrencyTier.values()) {
+            coinsBySpecialId.put(currency.getItemId(tier), new Coin(currency.currencyId(), tier));
+        }
+
+        // Provider-IDs und Cache neu aufbauen (beim nächsten Bedarf)
+        providerIdsResolved = false;
+        resolveAttempts = 0;
+        coinsByProviderId.clear();
+        metaCache.clear();
+    }
+
+    /**
+     * Erkennt Währung und Tier eines ItemStacks.
+     *
+     * @param stack ItemStack
+     * @return Münze oder empty wenn keine registrierte Münze
+     */
+    public Optional<Coin> recognize(ItemStack stack) {
+        return Optional.ofNullable(lookup(stack));
+    }
+
+    /**
+     * Gibt das Tier eines ItemStacks zurück, falls er eine Münze der Währung ist.
+     *
+     * @param stack ItemStack
+     * @param currencyId Währungs-ID
+     * @return Tier oder null
+     */
+    @Override
+    public CurrencyItemSet.CurrencyTier resolveTier(ItemStack stack, String currencyId) {
+        Coin coin = lookup(stack);
+        return coin != null && coin.currencyId().equals(currencyId) ? coin.tier() : null;
+    }
+
+    /**
+     * Gibt die Anzahl gecachter ItemMetas zurück.
+     *
+     * @return Cache-Größe
+     */
+    public int getCacheSize() {
+        return metaCache.size();
+    }
+
+    /**
+     * Erkennt eine Münze (PDC → Meta-Cache → ItemProvider).
+     *
+     * @return Münze oder null
+     */
+    private Coin lookup(ItemStack stack) {
+        if (stack == null || stack.getType().isAir() || !stack.hasItemMeta()) {
+            return null;
+        }
+
+        // 1. PDC: Vanilla-SpecialItems tragen ihre ID direkt
+        ItemMeta meta = stack.getItemMeta();
+        String specialId = meta.getPersistentDataContainer().get(SPECIAL_ITEM_ID_KEY, PersistentDataType.STRING);
+        if (specialId != null) {
+            return coinsBySpecialId.get(specialId);
+        }
+
+        // 2. Meta-Cache (auch negative Treffer)
+        Coin cached = metaCache.get(meta);
+        if (cached != null) {
+            return cached == NOT_A_COIN ? null : cached;
+        }
+
+        // 3. ItemProvider (langsam, nur bei Cache-Miss)
+        Coin resolved = lookupViaProvider(stack);
+        metaCache.put(meta, resolved != null ? resolved : NOT_A_COIN);
+        return resolved;
+    }
+
+    /**
+     * Erkennt eine Münze über die Provider-ID (z.B. MMOItems-ID).
+     */
+    private Coin lookupViaProvider(ItemStack stack) {
+        resolveProviderIds();
+        if (coinsByProviderId.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return itemProvider.getItemId(stack).map(coinsByProviderId::get).orElse(null);
+        } catch (Exception e) {
+            logger.fine("Fehler beim Prüfen von Custom-Item: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ermittelt die Provider-IDs aller Münzen, die nicht per PDC erkannt werden.
+     *
+     * Dazu wird pro Münze ein Referenz-Item über den ItemProvider erstellt.
+     * Scheitert das (z.B. Items-Modul noch nicht bereit), wird es beim
+     * nächsten Cache-Miss erneut versucht (höchstens MAX_RESOLVE_ATTEMPTS mal).
+     */
+    private void resolveProviderIds() {
+        if (providerIdsResolved) {
+            return;
+        }
+        if (++resolveAttempts > MAX_RESOLVE_ATTEMPTS) {
+            providerIdsResolved = true;
+            logger.warning("✗ Nicht alle Münzen über den ItemProvider auflösbar - nur PDC-Erkennung für diese");
+            return;
+        }
+
+        boolean complete = true;
+        for (Map.Entry<String, Coin> entry : coinsBySpecialId.entrySet()) {
+            try {
+                Optional<ItemStack> reference = itemProvider.getSpecialItem(entry.getKey(), 1);
+                if (reference.isEmpty()) {
+                    complete = false;
+                    continue;
+                }
+                ItemStack item = reference.get();
+                if (item.hasItemMeta() && item.getItemMeta().getPersistentDataContainer()
+                        .has(SPECIAL_ITEM_ID_KEY, PersistentDataType.STRING)) {
+                    continue; // PDC-Münze, Schnellpfad genügt
+                }
+                itemProvider.getItemId(item)
+                        .ifPresent(providerId -> coinsByProviderId.put(providerId, entry.getValue()));
+            } catch (Exception e) {
+                complete = false;
+                logger.fine("Referenz-Münze nicht erstellbar: " + entry.getKey() + " (" + e.getMessage() + ")");
+            }
+        }
+
+        if (complete) {
+            providerIdsResolved = true;
+            metaCache.clear(); // Negative Treffer aus unvollständigen Versuchen verwerfen
+            if (!coinsByProviderId.isEmpty()) {
+                logger.info("✓ " + coinsByProviderId.size() + " Münzen ohne PDC-ID werden über den ItemProvider erkannt");
+            }
+        }
+    }
+}
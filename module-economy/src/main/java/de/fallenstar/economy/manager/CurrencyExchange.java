@@ -0,0 +1,217 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.model.CurrencyItemSet;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Umrechnung zwischen beliebigen registrierten Währungen.
+ *
+ * Hält eine unveränderliche Umrechnungsmatrix: für jedes Währungspaar den
+ * exakten Kurs als gekürzten Bruch (Zähler/Nenner als long). Eine Umrechnung
+ * ist damit ein Tabellen-Lookup plus eine Festkomma-Multiplikation
+ * ({@link Money#convert}) - ohne BigDecimal-Division pro Aufruf.
+ *
+ * Features:
+ * - Exakte Kurse: Kurs(A → B) = Wechselkurs(A) / Wechselkurs(B), gekürzt
+ * - Rundungsregel pro Aufruf oder konfigurierbarer Standard (exchange.rounding)
+ * - Atomarer Neuaufbau bei Kursänderung (Leser sehen alte oder neue Matrix, nie eine Mischung)
+ * - Versionszähler für Caches, die auf Kursen aufbauen
+ *
+ * **Verwendung:**
+ * <pre>
+ * Money dukaten = exchange.convert(Money.ofMajor(12, "sterne"), "dukaten");  // 10.00 Dukaten
+ * Money kronen = exchange.convert(dukaten, "kronen", RoundingMode.DOWN);
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Lesen ist lock-frei und von jedem Thread möglich (z.B. Vault-Thread).
+ * Neuaufbauten werden serialisiert.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class CurrencyExchange {
+
+    private final AtomicReference<ExchangeMatrix> matrix;
+    private volatile RoundingMode defaultRounding;
+
+    /**
+     * Umrechnungsmatrix (nach dem Aufbau nie verändert).
+     *
+     * @param version Version (steigt mit jedem Neuaufbau)
+     * @param index Währungs-ID → Zeile/Spalte
+     * @param numerators Zähler pro Paar (Zeile = Quelle, Spalte = Ziel)
+     * @param denominators Nenner pro Paar
+     */
+    private record ExchangeMatrix(long version, Map<String, Integer> index,
+                                  long[][] numerators, long[][] denominators) {
+
+        private static final ExchangeMatrix EMPTY =
+                new ExchangeMatrix(0, Map.of(), new long[0][0], new long[0][0]);
+    }
+
+    /**
+     * Konstruktor für CurrencyExchange.
+     *
+     * @param defaultRounding Standard-Rundung für convert() ohne Rundungsangabe
+     */
+    public CurrencyExchange(RoundingMode defaultRounding) {
+        this.matrix = new AtomicReference<>(ExchangeMatrix.EMPTY);
+        this.defaultRounding = defaultRounding;
+    }
+
+    /**
+     * Baut die Matrix aus den aktuellen Währungen neu auf und tauscht sie atomar aus.
+     *
+     * @param currencies Alle registrierten Währungen
+     * @return Version der neuen Matrix
+     */
+    public synchronized long rebuild(Collection<CurrencyItemSet> currencies) {
+        int size = currencies.size();
+        Map<String, Integer> index = new HashMap<>();
+        BigInteger[] unscaled = new BigInteger[size];
+        int[] scales = new int[size];
+
+        int i = 0;
+        for (CurrencyItemSet currency : currencies) {
+            BigDecimal rate = currency.exchangeRate().stripTrailingZeros();
+            if (rate.scale() < 0) {
+                rate = rate.setScale(0);
+            }
+            index.put(currency.currencyId(), i);
+            unscaled[i] = rate.unscaledValue();
+            scales[i] = rate.scale();
+            i++;
+        }
+
+        // Kurs(A → B) = (uA / 10^sA) / (uB / 10^sB) = (uA · 10^sB) / (uB · 10^sA)
+        long[][] numerators = new long[size][size];
+        long[][] denominators = new long[size][size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                BigInteger numerator = unscaled[from].multiply(BigInteger.TEN.pow(scales[to]));
+                BigInteger denominator = unscaled[to].multiply(BigInteger.TEN.pow(scales[from]));
+                BigInteger gcd = numerator.gcd(denominator);
+                numerators[from][to] = numerator.divide(gcd).longValueExact();
+                denominators[from][to] = denominator.divide(gcd).longValueExact();
+            }
+        }
+
+        ExchangeMatrix next = new ExchangeMatrix(matrix.get().version() + 1, Map.copyOf(index),
+                numerators, denominators);
+        matrix.set(next);
+        return next.version();
+    }
+
+    /**
+     * Rechnet einen Betrag mit der Standard-Rundung in eine andere Währung um.
+     *
+     * @param amount Betrag (Quellwährung = amount.currencyId())
+     * @param targetCurrencyId Zielwährung
+     * @return Betrag in der Zielwährung
+     * @throws IllegalArgumentException wenn eine Währung nicht registriert ist
+     */
+    public Money convert(Money amount, String targetCurrencyId) {
+        return convert(amount, targetCurrencyId, defaultRounding);
+    }
+
+    /**
+     * Rechnet einen Betrag in eine andere Währung um.
+     *
+     * @param amount Betrag (Quellwährung = amount.currencyId())
+     * @param targetCurrencyId Zielwährung
+     * @param rounding Rundung für Bruchteile von Minor Units (UNNECESSARY = nur exakte Umrechnungen)
+     * @return Betrag in der Zielwährung
+     * @throws IllegalArgumentException wenn eine Währung nicht registriert ist
+     * @throws ArithmeticException bei Überlauf oder UNNECESSARY mit Rest
+     */
+    public Money convert(Money amount, String targetCurrencyId, RoundingMode rounding) {
+        if (amount.currencyId().equals(targetCurrencyId)) {
+            return amount;
+        }
+
+        ExchangeMatrix current = matrix.get();
+        int from = indexOf(current, amount.currencyId());
+        int to = indexOf(current, targetCurrencyId);
+        return amount.convert(current.numerators()[from][to], current.denominators()[from][to],
+                rounding, targetCurrencyId);
+    }
+
+    /**
+     * Gibt den Kurs zwischen zwei Währungen zurück (für Anzeige, 10 signifikante Stellen).
+     *
+     * @param fromCurrencyId Quellwährung
+     * @param toCurrencyId Zielwährung
+     * @return Kurs (1 Einheit Quelle = Kurs Einheiten Ziel), oder empty wenn nicht registriert
+     */
+    public Optional<BigDecimal> getRate(String fromCurrencyId, String toCurrencyId) {
+        ExchangeMatrix current = matrix.get();
+        Integer from = current.index().get(fromCurrencyId);
+        Integer to = current.index().get(toCurrencyId);
+        if (from == null || to == null) {
+            return Optional.empty();
+        }
+
+        BigDecimal rate = BigDecimal.valueOf(current.numerators()[from][to])
+                .divide(BigDecimal.valueOf(current.denominators()[from][to]), MathContext.DECIMAL64)
+                .round(new MathContext(10, RoundingMode.HALF_UP));
+        return Optional.of(rate.stripTrailingZeros());
+    }
+
+    /**
+     * Gibt die Version der aktuellen Matrix zurück (steigt mit jeder Kursänderung).
+     *
+     * @return Version (0 = noch nicht aufgebaut)
+     */
+    public long getVersion() {
+        return matrix.get().version();
+    }
+
+    /**
+     * Gibt die Anzahl Währungen in der Matrix zurück.
+     *
+     * @return Anzahl
+     */
+    public int getCurrencyCount() {
+        return matrix.get().index().size();
+    }
+
+    /**
+     * Gibt die Standard-Rundung zurück.
+     *
+     * @return RoundingMode
+     */
+    public RoundingMode getDefaultRounding() {
+        return defaultRounding;
+    }
+
+    /**
+     * Setzt die Standard-Rundung.
+     *
+     * @param defaultRounding RoundingMode
+     */
+    public void setDefaultRounding(RoundingMode defaultRounding) {
+        this.defaultRounding = defaultRounding;
+    }
+
+    /**
+     * Gibt den Matrix-Index einer Währung zurück.
+     */
+    private static int indexOf(ExchangeMatrix matrix, String currencyId) {
+        Integer index = matrix.index().get(currencyId);
+        if (index == null) {
+            throw new IllegalArgumentException("Währung nicht registriert: " + currencyId);
+        }
+        return index;
+    }
+}
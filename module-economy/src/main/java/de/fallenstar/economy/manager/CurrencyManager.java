@@ -1,16 +1,30 @@
 package de.fallenstar.economy.manager;
 
-import de.fallenstar.core.provider.EconomyProvider;
+import de.fallenstar.core.economy.Money;
 import de.fallenstar.core.provider.ItemProvider;
+import de.fallenstar.core.transaction.InventoryLeg;
+import de.fallenstar.core.transaction.TransactionCoordinator;
+import de.fallenstar.core.transaction.TransactionKeys;
+import de.fallenstar.core.transaction.TransactionLeg;
+import de.fallenstar.core.transaction.TransactionResult;
+import de.fallenstar.economy.model.CoinBreakdown;
+import de.fallenstar.economy.model.CoinReceipt;
 import de.fallenstar.economy.model.CurrencyItemSet;
+import de.fallenstar.economy.provider.VaultBridge;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
@@ -19,19 +33,32 @@ import java.util.logging.Logger;
  * Funktionen:
  * - Registrierung von Währungen (CurrencyItemSet)
  * - Auszahlung von Münzen an Spieler
- * - Wechselkurs-Berechnungen
+ * - Wechselkurs-Berechnungen (Festkomma via Money, Münzkosten vorberechnet)
+ * - Umrechnung zwischen beliebigen Währungen (CurrencyExchange, unveränderliche Kursmatrix)
  * - Integration mit ItemProvider (Core-Interface)
+ * - Vault-Buchungen asynchron über die VaultBridge (Inventar-Arbeit auf dem Main-Thread)
+ * - Ein-/Auszahlungen als Transaktionen (TransactionCoordinator, Kompensations-Journal)
+ * - Sammel-Buchungen: alle Münzen einzahlen / Betrag in optimaler Stückelung auszahlen
+ *   (ein Inventar-Durchlauf, ein Vault-Aufruf, CoinReceipt als Beleg)
+ * - Geldfluss-Metriken (EconomyMetrics): jede Münz-Aus- und -Einzahlung wird gezählt
  *
  * @author FallenStar
- * @version 2.0 - Refactored: SpecialItemManager → ItemProvider (eliminiert Module-Dependency)
+ * @version 2.4 - Geldfluss-Metriken (EconomyMetrics)
  */
 public class CurrencyManager {
 
     private final Logger logger;
     private final ItemProvider itemProvider;
     private final Map<String, CurrencyItemSet> currencies;
+    private final Map<String, Map<CurrencyItemSet.CurrencyTier, Money>> coinCosts;  // Währung → Tier → Kosten in Basiswährung
+    private final CoinRecognizer coinRecognizer;
+    private final CoinDenominationEngine denominationEngine;
+    private final CurrencyExchange exchange;
+    private final EconomyMetrics metrics;
     private CurrencyItemSet baseCurrency;
-    private EconomyProvider economyProvider;
+    private VaultBridge vaultBridge;
+    private TransactionCoordinator transactionCoordinator;
+    private RefundQueue refundQueue; // Setter-injected (optional)
 
     /**
      * Konstruktor für CurrencyManager.
@@ -42,20 +69,43 @@ public class CurrencyManager {
     public CurrencyManager(Logger logger, ItemProvider itemProvider) {
         this.logger = logger;
         this.itemProvider = itemProvider;
-        this.currencies = new HashMap<>();
+        this.currencies = new ConcurrentHashMap<>();
+        this.coinCosts = new ConcurrentHashMap<>();
+        this.coinRecognizer = new CoinRecognizer(logger, itemProvider);
+        this.denominationEngine = new CoinDenominationEngine();
+        this.exchange = new CurrencyExchange(RoundingMode.HALF_UP);
+        this.metrics = new EconomyMetrics(logger, exchange);
 
         logger.info("CurrencyManager initialisiert");
     }
 
     /**
-     * Setzt den EconomyProvider (für Vault-Integration).
+     * Setzt die VaultBridge (für Vault-Integration).
      *
-     * @param economyProvider EconomyProvider
+     * @param vaultBridge VaultBridge, oder null wenn Vault nicht verfügbar
      */
-    public void setEconomyProvider(EconomyProvider economyProvider) {
-        this.economyProvider = economyProvider;
-        logger.info("EconomyProvider für CurrencyManager gesetzt: " +
-                (economyProvider.isAvailable() ? "verfügbar" : "nicht verfügbar"));
+    public void setVaultBridge(VaultBridge vaultBridge) {
+        this.vaultBridge = vaultBridge;
+        logger.info("VaultBridge für CurrencyManager gesetzt: " +
+                (vaultBridge != null ? "verfügbar" : "nicht verfügbar"));
+    }
+
+    /**
+     * Setzt den TransactionCoordinator (Core) für Ein-/Auszahlungen.
+     *
+     * @param transactionCoordinator TransactionCoordinator
+     */
+    public void setTransactionCoordinator(TransactionCoordinator transactionCoordinator) {
+        this.transactionCoordinator = transactionCoordinator;
+    }
+
+    /**
+     * Setzt die Warteschlange für Rückerstattungen (Kompensation von Abbuchungen).
+     *
+     * @param refundQueue RefundQueue
+     */
+    public void setRefundQueue(RefundQueue refundQueue) {
+        this.refundQueue = refundQueue;
     }
 
     /**
@@ -65,6 +115,8 @@ public class CurrencyManager {
      */
     public void registerCurrency(CurrencyItemSet currency) {
         currencies.put(currency.currencyId(), currency);
+        precompute(currency);
+        coinRecognizer.register(currency);
 
         // Setze Basiswährung (Wechselkurs = 1.0)
         if (currency.isBaseCurrency()) {
@@ -76,6 +128,50 @@ public class CurrencyManager {
         }
     }
 
+    /**
+     * Ändert den Wechselkurs einer Währung.
+     *
+     * Münzkosten, Stückelungs-Tabellen und die Umrechnungsmatrix werden neu
+     * berechnet; die Matrix wird atomar ausgetauscht.
+     *
+     * @param currencyId Währungs-ID
+     * @param exchangeRate Neuer Wechselkurs zur Basiswährung (&gt; 0)
+     * @return true wenn geändert, false wenn Währung unbekannt oder Basiswährung
+     * @throws IllegalArgumentException wenn exchangeRate &lt;= 0
+     */
+    public boolean updateExchangeRate(String currencyId, BigDecimal exchangeRate) {
+        CurrencyItemSet current = currencies.get(currencyId);
+        if (current == null || current.isBaseCurrency()) {
+            return false;
+        }
+
+        CurrencyItemSet updated = new CurrencyItemSet(current.currencyId(), current.displayName(),
+                current.nameSingular(), current.namePlural(), current.bronzeItemId(),
+                current.silverItemId(), current.goldItemId(), exchangeRate);
+        currencies.put(currencyId, updated);
+        precompute(updated);
+
+        logger.info("✓ Wechselkurs geändert: " + updated.displayName() + " " +
+                current.exchangeRate() + " → " + exchangeRate + " (Matrix v" + exchange.getVersion() + ")");
+        return true;
+    }
+
+    /**
+     * Berechnet kursabhängige Daten einer Währung vor (Münzkosten, Stückelung, Matrix).
+     *
+     * @param currency Währung
+     */
+    private void precompute(CurrencyItemSet currency) {
+        // Münzkosten einmalig vorberechnen (Wechselkurs-Multiplikation nur hier)
+        Map<CurrencyItemSet.CurrencyTier, Money> costs = new EnumMap<>(CurrencyItemSet.CurrencyTier.class);
+        for (CurrencyItemSet.CurrencyTier tier : CurrencyItemSet.CurrencyTier.values()) {
+            costs.put(tier, currency.getCoinCostInBase(tier));
+        }
+        coinCosts.put(currency.currencyId(), costs);
+        denominationEngine.register(currency);
+        exchange.rebuild(currencies.values());
+    }
+
     /**
      * Zahlt Münzen an einen Spieler aus (ohne Vault-Abbuchung).
      *
@@ -95,6 +191,30 @@ public class CurrencyManager {
         }
 
         CurrencyItemSet currency = currencyOpt.get();
+        Optional<ItemStack> coins = createPayoutCoins(currency, tier, amount);
+        if (coins.isEmpty()) {
+            return false;
+        }
+
+        // Gebe Items an Spieler
+        player.getInventory().addItem(coins.get());
+        metrics.record(EconomyMetrics.Category.MINT, EconomyMetrics.PAYOUT, calculateCoinCost(currency, tier).times(amount));
+        logger.fine("Ausgezahlt: " + amount + "x " + tier + " " + currency.displayName() +
+                " an " + player.getName());
+
+        return true;
+    }
+
+    /**
+     * Erstellt Münzen zur Auszahlung via ItemProvider (ohne Vanilla-Fallback).
+     *
+     * @param currency Währung
+     * @param tier Münz-Tier
+     * @param amount Anzahl
+     * @return Münzen, oder empty wenn nicht erstellbar
+     */
+    private Optional<ItemStack> createPayoutCoins(CurrencyItemSet currency,
+                                                  CurrencyItemSet.CurrencyTier tier, int amount) {
         String itemId = currency.getItemId(tier);
 
         // Erstelle Münzen via ItemProvider (eliminiert Items-Modul Dependency!)
@@ -103,131 +223,239 @@ public class CurrencyManager {
             coins = itemProvider.getSpecialItem(itemId, amount);
         } catch (Exception e) {
             logger.warning("Fehler beim Erstellen von Münzen: " + e.getMessage());
-            return false;
+            return Optional.empty();
         }
 
         if (coins.isEmpty()) {
             logger.warning("Konnte Münzen nicht erstellen: " + itemId);
-            return false;
         }
-
-        // Gebe Items an Spieler
-        player.getInventory().addItem(coins.get());
-        logger.fine("Ausgezahlt: " + amount + "x " + tier + " " + currency.displayName() +
-                " an " + player.getName());
-
-        return true;
+        return coins;
     }
 
     /**
      * Zieht Münzen vom Vault-Konto ab und zahlt sie als Items aus.
      *
      * Falls das Konto nicht genug enthält, wird der höchstmögliche Betrag ausgezahlt.
+     * Guthaben-Prüfung und Abbuchung laufen in einem Task auf dem Vault-Thread,
+     * die Auszahlung ins Inventar danach auf dem Main-Thread. Schlägt die
+     * Auszahlung fehl (z.B. Inventar voll), kompensiert der TransactionCoordinator
+     * die Abbuchung - auch wiederholt, falls die Rückbuchung zunächst scheitert.
      *
      * @param player Spieler
      * @param currencyId Währungs-ID
      * @param tier Münz-Tier (BRONZE, SILVER, GOLD)
      * @param requestedAmount Gewünschte Anzahl
-     * @return Ausgezahlte Anzahl (0 wenn fehlgeschlagen)
+     * @return Future mit ausgezahlter Anzahl (0 wenn fehlgeschlagen), wird auf dem Main-Thread abgeschlossen
      */
-    public int withdrawCoins(Player player, String currencyId,
-                              CurrencyItemSet.CurrencyTier tier, int requestedAmount) {
-        // Prüfe ob EconomyProvider verfügbar
-        if (economyProvider == null || !economyProvider.isAvailable()) {
-            logger.warning("EconomyProvider nicht verfügbar - Auszahlung nicht möglich!");
-            return 0;
+    public CompletableFuture<Integer> withdrawCoins(Player player, String currencyId,
+                                                    CurrencyItemSet.CurrencyTier tier, int requestedAmount) {
+        // Prüfe ob VaultBridge verfügbar
+        if (vaultBridge == null) {
+            logger.warning("VaultBridge nicht verfügbar - Auszahlung nicht möglich!");
+            return CompletableFuture.completedFuture(0);
         }
 
         // Prüfe ob Währung existiert
         Optional<CurrencyItemSet> currencyOpt = getCurrency(currencyId);
         if (currencyOpt.isEmpty()) {
             logger.warning("Währung nicht gefunden: " + currencyId);
-            return 0;
+            return CompletableFuture.completedFuture(0);
         }
 
         CurrencyItemSet currency = currencyOpt.get();
 
-        // Berechne Kosten in Basiswährung
-        BigDecimal costPerCoin = calculateCoinCost(currency, tier);
-        BigDecimal totalCost = costPerCoin.multiply(BigDecimal.valueOf(requestedAmount));
+        // Kosten in Basiswährung (vorberechnet)
+        Money costPerCoin = calculateCoinCost(currency, tier);
 
-        // Hole Vault-Balance
-        double balance;
-        try {
-            balance = economyProvider.getBalance(player);
-        } catch (Exception e) {
-            logger.warning("Fehler beim Abrufen der Balance: " + e.getMessage());
-            return 0;
-        }
+        // Prüfe Guthaben und ziehe höchstmögliche Menge ab (ein Vault-Task)
+        return vaultBridge.withdrawUpTo(player, costPerCoin, requestedAmount)
+                .handleAsync((actualAmount, error) -> {
+                    if (error != null) {
+                        logger.warning("Fehler bei Vault-Abbuchung: " + error.getMessage());
+                        return 0;
+                    }
+
+                    if (actualAmount <= 0) {
+                        logger.fine("Nicht genug Guthaben für " + player.getName() +
+                                " (benötigt: " + costPerCoin.times(requestedAmount).toPlainString() + ")");
+                        return 0;
+                    }
 
-        // Prüfe ob genug Guthaben vorhanden
-        int actualAmount = requestedAmount;
-        BigDecimal actualCost = totalCost;
+                    if (actualAmount < requestedAmount) {
+                        logger.fine("Guthaben reicht nur für " + actualAmount + " statt " +
+                                requestedAmount + " Münzen");
+                    }
 
-        if (balance < totalCost.doubleValue()) {
-            // Berechne höchstmögliche Menge
-            actualAmount = (int) (balance / costPerCoin.doubleValue());
-            actualCost = costPerCoin.multiply(BigDecimal.valueOf(actualAmount));
+                    Money actualCost = costPerCoin.times(actualAmount);
+                    String transactionId = "withdraw-coins:" + UUID.randomUUID();
+                    TransactionLeg vaultLeg = TransactionLeg.applied(
+                            TransactionKeys.economy(player.getUniqueId()),
+                            "WITHDRAW " + actualCost + " @ " + player.getName(),
+                            () -> refund(player, actualCost, "Münz-Auszahlung"));
+
+                    // Zahle Münzen aus (Main-Thread) - nur vollständig, sonst Rückbuchung
+                    Optional<ItemStack> coins = player.isOnline()
+                            ? createPayoutCoins(currency, tier, actualAmount)
+                            : Optional.empty();
+                    TransactionResult payout = coins
+                            .map(stack -> transactionCoordinator.execute(transactionId, List.of(InventoryLeg.add(
+                                    TransactionKeys.inventory(player.getUniqueId()), player.getInventory(), stack))))
+                            .orElse(null);
+
+                    if (payout == null || !payout.isCommitted()) {
+                        TransactionResult rollback = transactionCoordinator.compensate(transactionId, List.of(vaultLeg),
+                                "PAYOUT " + actualAmount + "x " + tier + " @ " + player.getName());
+                        logger.warning("Münz-Auszahlung fehlgeschlagen - Abbuchung " +
+                                (rollback.status() == TransactionResult.Status.ROLLED_BACK
+                                        ? "wird zurückerstattet" : "wird nachgeholt (Journal)"));
+                        return 0;
+                    }
 
-            if (actualAmount <= 0) {
-                logger.fine("Nicht genug Guthaben für " + player.getName() +
-                        " (benötigt: " + totalCost + ", hat: " + balance + ")");
-                return 0;
-            }
+                    metrics.record(EconomyMetrics.Category.MINT, EconomyMetrics.VAULT_WITHDRAW, actualCost);
+                    logger.info("Ausgezahlt an " + player.getName() + ": " + actualAmount + "x " +
+                            tier + " " + currency.displayName() + " (Kosten: " + actualCost.toPlainString() + ")");
 
-            logger.fine("Guthaben reicht nur für " + actualAmount + " statt " +
-                    requestedAmount + " Münzen");
+                    return actualAmount;
+                }, vaultBridge.mainThread());
+    }
+
+    /**
+     * Zieht einen Betrag vom Vault-Konto ab und zahlt ihn in möglichst wenigen Münzen aus.
+     *
+     * Der Betrag wird in ganze Münz-Einheiten der Währung umgerechnet (abgerundet),
+     * in einem Vault-Task soweit das Guthaben reicht abgebucht und dann als
+     * Gold/Silber/Bronze in einer Transaktion ins Inventar gelegt. Passt nicht
+     * alles ins Inventar, kompensiert der TransactionCoordinator die gesamte Abbuchung.
+     *
+     * @param player Spieler
+     * @param currencyId Währungs-ID
+     * @param amount Gewünschter Betrag (Basiswährung oder Währung currencyId, &gt; 0)
+     * @return Future mit Beleg (value in Basiswährung), wird auf dem Main-Thread abgeschlossen
+     */
+    public CompletableFuture<CoinReceipt> withdrawAmount(Player player, String currencyId, Money amount) {
+        if (vaultBridge == null) {
+            logger.warning("VaultBridge nicht verfügbar - Auszahlung nicht möglich!");
+            return CompletableFuture.completedFuture(
+                    CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.FAILED, currencyId, amount));
         }
 
-        // Ziehe von Vault ab
-        try {
-            boolean success = economyProvider.withdraw(player, actualCost.doubleValue());
-            if (!success) {
-                logger.warning("Vault-Abbuchung fehlgeschlagen für " + player.getName());
-                return 0;
-            }
-        } catch (Exception e) {
-            logger.warning("Fehler bei Vault-Abbuchung: " + e.getMessage());
-            return 0;
+        Optional<CurrencyItemSet> currencyOpt = getCurrency(currencyId);
+        if (currencyOpt.isEmpty() || !amount.isPositive()) {
+            logger.warning("Währung nicht gefunden oder Betrag ungültig: " + currencyId + " / " + amount);
+            return CompletableFuture.completedFuture(
+                    CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.FAILED, currencyId, amount));
         }
 
-        // Zahle Münzen aus
-        boolean payoutSuccess = payoutCoins(player, currencyId, tier, actualAmount);
-
-        if (!payoutSuccess) {
-            // Rollback: Geld zurückerstatten
-            try {
-                economyProvider.deposit(player, actualCost.doubleValue());
-                logger.warning("Münz-Auszahlung fehlgeschlagen - Geld zurückerstattet");
-            } catch (Exception e) {
-                logger.severe("KRITISCH: Rollback fehlgeschlagen! Spieler " + player.getName() +
-                        " hat " + actualCost + " verloren!");
-            }
-            return 0;
+        CurrencyItemSet currency = currencyOpt.get();
+        long requestedUnits;
+        try {
+            requestedUnits = denominationEngine.toCoinUnits(currencyId, amount, RoundingMode.DOWN);
+        } catch (IllegalArgumentException e) {
+            logger.warning("Betrag nicht in " + currencyId + " auszahlbar: " + e.getMessage());
+            return CompletableFuture.completedFuture(
+                    CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.FAILED, currencyId, amount));
         }
 
-        logger.info("Ausgezahlt an " + player.getName() + ": " + actualAmount + "x " +
-                tier + " " + currency.displayName() + " (Kosten: " + actualCost + ")");
+        // Eine Einheit = eine Bronze-Münze (Kosten vorberechnet)
+        Money unitCost = calculateCoinCost(currency, CurrencyItemSet.CurrencyTier.BRONZE);
+        int maxUnits = (int) Math.min(requestedUnits, BankAccountHandler.MAX_WITHDRAW_UNITS);
+
+        return vaultBridge.withdrawUpTo(player, unitCost, maxUnits)
+                .handleAsync((units, error) -> {
+                    if (error != null) {
+                        logger.warning("Fehler bei Vault-Abbuchung: " + error.getMessage());
+                        return CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.FAILED,
+                                currencyId, amount);
+                    }
+                    if (units <= 0) {
+                        logger.fine("Nicht genug Guthaben für " + player.getName() +
+                                " (benötigt: " + amount.toPlainString() + ")");
+                        return CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.NOTHING,
+                                currencyId, amount);
+                    }
+
+                    Money cost = unitCost.times(units);
+                    CoinBreakdown breakdown = denominationEngine.breakdown(currencyId, units);
+                    String transactionId = "withdraw-amount:" + UUID.randomUUID();
+                    TransactionLeg vaultLeg = TransactionLeg.applied(
+                            TransactionKeys.economy(player.getUniqueId()),
+                            "WITHDRAW " + cost + " @ " + player.getName(),
+                            () -> refund(player, cost, "Betrags-Auszahlung"));
+
+                    // Ein Inventar-Leg pro Tier, alle in einer Transaktion (alles oder nichts)
+                    String inventoryKey = TransactionKeys.inventory(player.getUniqueId());
+                    List<TransactionLeg> legs = new ArrayList<>();
+                    CurrencyItemSet.CurrencyTier[] tiers = CurrencyItemSet.CurrencyTier.values();
+                    for (int t = tiers.length - 1; t >= 0 && player.isOnline(); t--) {
+                        long count = breakdown.count(tiers[t]);
+                        if (count == 0) {
+                            continue;
+                        }
+                        Optional<ItemStack> coins = createPayoutCoins(currency, tiers[t], (int) count);
+                        if (coins.isEmpty()) {
+                            legs.clear();
+                            break;
+                        }
+                        legs.add(InventoryLeg.add(inventoryKey, player.getInventory(), coins.get()));
+                    }
 
-        return actualAmount;
+                    TransactionResult payout = legs.isEmpty() ? null : transactionCoordinator.execute(transactionId, legs);
+                    if (payout == null || !payout.isCommitted()) {
+                        TransactionResult rollback = transactionCoordinator.compensate(transactionId, List.of(vaultLeg),
+                                "PAYOUT " + cost + " @ " + player.getName());
+                        logger.warning("Münz-Auszahlung fehlgeschlagen - Abbuchung " +
+                                (rollback.status() == TransactionResult.Status.ROLLED_BACK
+                                        ? "wird zurückerstattet" : "wird nachgeholt (Journal)"));
+                        return CoinReceipt.empty(CoinReceipt.Operation.WITHDRAW, CoinReceipt.Status.FAILED,
+                                currencyId, amount);
+                    }
+
+                    // Vollständig nur wenn der Betrag exakt in ganzen Münzen ausgezahlt wurde
+                    boolean complete = denominationEngine.toCoinUnits(currencyId, amount, RoundingMode.UP) == units;
+                    CoinReceipt receipt = new CoinReceipt(CoinReceipt.Operation.WITHDRAW,
+                            complete ? CoinReceipt.Status.COMPLETED : CoinReceipt.Status.PARTIAL,
+                            breakdown, cost, amount, vaultBridge.getCachedBalance(player.getUniqueId()).orElse(null));
+                    metrics.record(EconomyMetrics.Category.MINT, EconomyMetrics.VAULT_WITHDRAW, cost);
+                    logger.info("Ausgezahlt an " + player.getName() + " (" + currency.displayName() + "): " +
+                            receipt.summary());
+                    return receipt;
+                }, vaultBridge.mainThread());
     }
 
     /**
-     * Berechnet die Kosten einer einzelnen Münze in Basiswährung.
+     * Kompensation einer Abbuchung: Geld zurückerstatten (blockiert nicht).
      *
-     * @param currency Währung
-     * @param tier Münz-Tier
-     * @return Kosten in Basiswährung
+     * Die Rückerstattung wird in der RefundQueue vorgemerkt (persistiert) und
+     * über den Vault-Thread gebucht; schlägt die Buchung fehl, wiederholt die
+     * Queue sie - auch nach einem Neustart. Ohne Queue wird die Buchung nur
+     * angestoßen und ein Fehlschlag protokolliert.
+     *
+     * @return true wenn die Rückerstattung vorgemerkt bzw. angestoßen ist
      */
-    private BigDecimal calculateCoinCost(CurrencyItemSet currency, CurrencyItemSet.CurrencyTier tier) {
-        // Tier-Wert (1, 10, 100)
-        BigDecimal tierValue = BigDecimal.valueOf(currency.getTierValue(tier));
+    private boolean refund(Player player, Money amount, String reason) {
+        if (refundQueue != null) {
+            return refundQueue.enqueue(player.getUniqueId(), amount, reason + " @ " + player.getName());
+        }
 
-        // Wechselkurs zur Basiswährung
-        BigDecimal exchangeRate = currency.exchangeRate();
+        vaultBridge.deposit(player, amount).whenComplete((paid, error) -> {
+            if (error != null || !Boolean.TRUE.equals(paid)) {
+                logger.severe("✗ Rückbuchung fehlgeschlagen: " + amount.toPlainString() + " an " + player.getName()
+                        + (error != null ? " - " + error.getMessage() : ""));
+            }
+        });
+        return true;
+    }
 
-        // Kosten = Tier-Wert * Wechselkurs
-        return tierValue.multiply(exchangeRate);
+    /**
+     * Gibt die Kosten einer einzelnen Münze in Basiswährung zurück.
+     *
+     * @param currency Währung
+     * @param tier Münz-Tier
+     * @return Kosten in Basiswährung (Tier-Wert × Wechselkurs)
+     */
+    private Money calculateCoinCost(CurrencyItemSet currency, CurrencyItemSet.CurrencyTier tier) {
+        Map<CurrencyItemSet.CurrencyTier, Money> costs = coinCosts.get(currency.currencyId());
+        return costs != null ? costs.get(tier) : currency.getCoinCostInBase(tier);
     }
 
     /**
@@ -240,6 +468,67 @@ public class CurrencyManager {
         return Optional.ofNullable(currencies.get(currencyId));
     }
 
+    /**
+     * Gibt die Münz-Erkennung für alle registrierten Währungen zurück.
+     *
+     * @return CoinRecognizer
+     */
+    public CoinRecognizer getCoinRecognizer() {
+        return coinRecognizer;
+    }
+
+    /**
+     * Gibt die Stückelungs-Engine (Wechselgeld) für alle registrierten Währungen zurück.
+     *
+     * @return CoinDenominationEngine
+     */
+    public CoinDenominationEngine getDenominationEngine() {
+        return denominationEngine;
+    }
+
+    /**
+     * Gibt die Geldfluss-Metriken zurück.
+     *
+     * @return EconomyMetrics
+     */
+    public EconomyMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gibt den Wert eines Münz-Stacks in Basiswährung zurück.
+     *
+     * @param stack ItemStack (beliebige registrierte Währung)
+     * @return Wert (Tier-Kosten × Anzahl), oder 0 wenn keine Münze
+     */
+    public Money getCoinValue(ItemStack stack) {
+        return coinRecognizer.recognize(stack)
+                .flatMap(coin -> getCurrency(coin.currencyId())
+                        .map(currency -> calculateCoinCost(currency, coin.tier()).times(stack.getAmount())))
+                .orElse(Money.zero(Money.BASE_CURRENCY_ID));
+    }
+
+    /**
+     * Gibt die Umrechnung zwischen allen registrierten Währungen zurück.
+     *
+     * @return CurrencyExchange
+     */
+    public CurrencyExchange getExchange() {
+        return exchange;
+    }
+
+    /**
+     * Rechnet einen Betrag in eine andere Währung um (Standard-Rundung).
+     *
+     * @param amount Betrag
+     * @param targetCurrencyId Zielwährung
+     * @return Betrag in der Zielwährung
+     * @throws IllegalArgumentException wenn eine Währung nicht registriert ist
+     */
+    public Money convert(Money amount, String targetCurrencyId) {
+        return exchange.convert(amount, targetCurrencyId);
+    }
+
     /**
      * Gibt die Basiswährung zurück.
      *
@@ -308,6 +597,34 @@ public class CurrencyManager {
         return coins.get();
     }
 
+    /**
+     * Erstellt die Münz-Stacks einer Stückelung (Gold → Silber → Bronze).
+     *
+     * Tiers mit mehr als maxStackSize Münzen werden auf mehrere Stacks verteilt.
+     *
+     * @param breakdown Stückelung (z.B. vom CoinDenominationEngine)
+     * @param maxStackSize Maximale Stack-Größe
+     * @return Münz-Stacks, oder leere Liste wenn eine Münze nicht erstellbar ist
+     */
+    public List<ItemStack> createCoinStacks(CoinBreakdown breakdown, int maxStackSize) {
+        List<ItemStack> stacks = new ArrayList<>(breakdown.stackCount(maxStackSize));
+        CurrencyItemSet.CurrencyTier[] tiers = CurrencyItemSet.CurrencyTier.values();
+
+        for (int t = tiers.length - 1; t >= 0; t--) {
+            long remaining = breakdown.count(tiers[t]);
+            while (remaining > 0) {
+                int amount = (int) Math.min(remaining, maxStackSize);
+                ItemStack coins = createCoin(breakdown.currencyId(), tiers[t], amount);
+                if (coins == null) {
+                    return List.of();
+                }
+                stacks.add(coins);
+                remaining -= amount;
+            }
+        }
+        return stacks;
+    }
+
     /**
      * Erstellt Vanilla-Münzen als Fallback wenn kein Custom-Item-Plugin verfügbar ist.
      *
@@ -364,115 +681,224 @@ public class CurrencyManager {
      * 3. Zahlt den Wert auf Vault-Konto ein
      *
      * Falls nicht genug Münzen im Inventar sind, wird der maximal mögliche Betrag eingezahlt.
+     * Schritt 1-2 laufen sofort (Main-Thread), die Vault-Einzahlung auf dem Vault-Thread.
      *
-     * @param player Spieler
+     * @param player Spieler (Aufruf vom Main-Thread)
      * @param currencyId Währungs-ID
      * @param tier Münz-Tier (BRONZE, SILVER, GOLD)
      * @param requestedAmount Gewünschte Anzahl
-     * @return Eingezahlte Anzahl (0 wenn fehlgeschlagen)
+     * @return Future mit eingezahlter Anzahl (0 wenn fehlgeschlagen), wird auf dem Main-Thread abgeschlossen
      */
-    public int depositCoins(Player player, String currencyId,
-                             CurrencyItemSet.CurrencyTier tier, int requestedAmount) {
-        // Prüfe ob EconomyProvider verfügbar
-        if (economyProvider == null || !economyProvider.isAvailable()) {
-            logger.warning("EconomyProvider nicht verfügbar - Einzahlung nicht möglich!");
-            return 0;
+    public CompletableFuture<Integer> depositCoins(Player player, String currencyId,
+                                                   CurrencyItemSet.CurrencyTier tier, int requestedAmount) {
+        // Prüfe ob VaultBridge verfügbar
+        if (vaultBridge == null) {
+            logger.warning("VaultBridge nicht verfügbar - Einzahlung nicht möglich!");
+            return CompletableFuture.completedFuture(0);
         }
 
         // Prüfe ob Währung existiert
         Optional<CurrencyItemSet> currencyOpt = getCurrency(currencyId);
         if (currencyOpt.isEmpty()) {
             logger.warning("Währung nicht gefunden: " + currencyId);
-            return 0;
+            return CompletableFuture.completedFuture(0);
         }
 
         CurrencyItemSet currency = currencyOpt.get();
 
-        // Suche Münzen im Inventar
-        CurrencyItemSet.InventoryCoinResult coinResult = currency.findCoinsInInventory(
-                player.getInventory(),
-                tier,
-                (stack, itemId) -> {
-                    try {
-                        return itemProvider.isCustomItem(stack);
-                    } catch (Exception e) {
-                        logger.fine("Fehler beim Prüfen von Custom-Item: " + e.getMessage());
-                        return false;
-                    }
-                }
-        );
+        // Suche Münzen im Inventar (ein Durchlauf für alle Tiers)
+        CurrencyItemSet.InventoryCoinResult coinResult =
+                currency.findAllCoinsInInventory(player.getInventory(), coinRecognizer).get(tier);
 
         if (!coinResult.hasCoins()) {
             logger.fine("Keine " + tier + " " + currency.namePlural() + " im Inventar von " + player.getName());
-            return 0;
+            return CompletableFuture.completedFuture(0);
         }
 
         // Berechne tatsächlichen Betrag (kann weniger sein als gewünscht)
         int actualAmount = Math.min(requestedAmount, coinResult.totalAmount());
 
-        // Entferne Münzen aus Inventar
-        int remainingToRemove = actualAmount;
-        for (CurrencyItemSet.InventorySlotStack slotStack : coinResult.stacks()) {
-            if (remainingToRemove <= 0) break;
+        // Entferne Münzen aus Inventar (Transaktions-Leg; Kompensation gibt dieselben Münzen zurück)
+        String inventoryKey = TransactionKeys.inventory(player.getUniqueId());
+        ItemStack removedCoins = coinResult.stacks().get(0).stack().clone();
+        removedCoins.setAmount(actualAmount);
+        InventoryLeg giveBack = InventoryLeg.add(inventoryKey, player.getInventory(), removedCoins);
+
+        TransactionLeg takeCoins = TransactionLeg.of(inventoryKey,
+                "REMOVE " + actualAmount + "x " + tier + " " + currency.currencyId() + " @ " + player.getName(),
+                () -> removeCoins(player, coinResult, actualAmount),
+                giveBack::apply);
+
+        String transactionId = "deposit-coins:" + UUID.randomUUID();
+        if (!transactionCoordinator.execute(transactionId, List.of(takeCoins)).isCommitted()) {
+            logger.fine("Münzen von " + player.getName() + " konnten nicht entnommen werden");
+            return CompletableFuture.completedFuture(0);
+        }
 
-            ItemStack stack = slotStack.stack();
-            int stackAmount = stack.getAmount();
+        // Berechne Wert in Basiswährung
+        Money depositValue = calculateCoinCost(currency, tier).times(actualAmount);
+
+        // Zahle auf Vault ein (Vault-Thread), Rollback auf dem Main-Thread
+        return vaultBridge.deposit(player, depositValue)
+                .handleAsync((success, error) -> {
+                    if (error != null || !success) {
+                        logger.warning("Vault-Einzahlung fehlgeschlagen für " + player.getName() +
+                                (error != null ? ": " + error.getMessage() : ""));
+                        // Rollback: Münzen zurückgeben (bei vollem Inventar über das Journal nachgeholt)
+                        transactionCoordinator.compensate(transactionId, List.of(takeCoins),
+                                "DEPOSIT " + depositValue + " @ " + player.getName());
+                        return 0;
+                    }
 
-            if (stackAmount <= remainingToRemove) {
-                // Ganzen Stack entfernen
-                player.getInventory().setItem(slotStack.slot(), null);
-                remainingToRemove -= stackAmount;
-            } else {
-                // Teilmenge entfernen
-                stack.setAmount(stackAmount - remainingToRemove);
-                remainingToRemove = 0;
-            }
+                    metrics.record(EconomyMetrics.Category.BURN, EconomyMetrics.VAULT_DEPOSIT, depositValue);
+                    logger.info("Eingezahlt von " + player.getName() + ": " + actualAmount + "x " +
+                            tier + " " + currency.namePlural() + " (Wert: " + depositValue.toPlainString() + ")");
+
+                    return actualAmount;
+                }, vaultBridge.mainThread());
+    }
+
+    /**
+     * Nimmt alle Münzen einer Währung aus dem Inventar und zahlt den Gegenwert auf Vault ein.
+     *
+     * Ein Inventar-Durchlauf für alle Tiers, eine Transaktion zum Entnehmen und
+     * ein Vault-Aufruf für den Gesamtwert. Schlägt die Einzahlung fehl, werden
+     * alle Münzen zurückgegeben.
+     *
+     * @param player Spieler (Aufruf vom Main-Thread)
+     * @param currencyId Währungs-ID
+     * @return Future mit Beleg (value in Basiswährung), wird auf dem Main-Thread abgeschlossen
+     */
+    public CompletableFuture<CoinReceipt> depositAllCoins(Player player, String currencyId) {
+        Money none = Money.zero(Money.BASE_CURRENCY_ID);
+        if (vaultBridge == null) {
+            logger.warning("VaultBridge nicht verfügbar - Einzahlung nicht möglich!");
+            return CompletableFuture.completedFuture(
+                    CoinReceipt.empty(CoinReceipt.Operation.DEPOSIT_ALL, CoinReceipt.Status.FAILED, currencyId, none));
         }
 
-        // Berechne Wert in Basiswährung
-        BigDecimal depositValue = calculateDepositValue(currency, tier, actualAmount);
+        Optional<CurrencyItemSet> currencyOpt = getCurrency(currencyId);
+        if (currencyOpt.isEmpty()) {
+            logger.warning("Währung nicht gefunden: " + currencyId);
+            return CompletableFuture.completedFuture(
+                    CoinReceipt.empty(CoinReceipt.Operation.DEPOSIT_ALL, CoinReceipt.Status.FAILED, currencyId, none));
+        }
 
-        // Zahle auf Vault ein
-        try {
-            boolean success = economyProvider.deposit(player, depositValue.doubleValue());
-            if (!success) {
-                logger.warning("Vault-Einzahlung fehlgeschlagen für " + player.getName());
-                // Rollback: Münzen zurückgeben
-                payoutCoins(player, currencyId, tier, actualAmount);
-                return 0;
+        CurrencyItemSet currency = currencyOpt.get();
+
+        // Ein Durchlauf für alle Tiers
+        Map<CurrencyItemSet.CurrencyTier, CurrencyItemSet.InventoryCoinResult> found =
+                currency.findAllCoinsInInventory(player.getInventory(), coinRecognizer);
+        CoinBreakdown coins = new CoinBreakdown(currencyId,
+                found.get(CurrencyItemSet.CurrencyTier.BRONZE).totalAmount(),
+                found.get(CurrencyItemSet.CurrencyTier.SILVER).totalAmount(),
+                found.get(CurrencyItemSet.CurrencyTier.GOLD).totalAmount());
+
+        if (coins.isEmpty()) {
+            logger.fine("Keine " + currency.namePlural() + " im Inventar von " + player.getName());
+            return CompletableFuture.completedFuture(
+                    CoinReceipt.empty(CoinReceipt.Operation.DEPOSIT_ALL, CoinReceipt.Status.NOTHING, currencyId, none));
+        }
+
+        // Wert in Basiswährung und Rückgabe-Legs (dieselben Münzen) pro Tier
+        String inventoryKey = TransactionKeys.inventory(player.getUniqueId());
+        Money depositValue = none;
+        List<InventoryLeg> giveBack = new ArrayList<>();
+        for (Map.Entry<CurrencyItemSet.CurrencyTier, CurrencyItemSet.InventoryCoinResult> entry : found.entrySet()) {
+            CurrencyItemSet.InventoryCoinResult result = entry.getValue();
+            if (!result.hasCoins()) {
+                continue;
             }
-        } catch (Exception e) {
-            logger.warning("Fehler bei Vault-Einzahlung: " + e.getMessage());
-            // Rollback: Münzen zurückgeben
-            payoutCoins(player, currencyId, tier, actualAmount);
-            return 0;
+            depositValue = depositValue.plus(calculateCoinCost(currency, entry.getKey()).times(result.totalAmount()));
+
+            ItemStack removed = result.stacks().get(0).stack().clone();
+            removed.setAmount(result.totalAmount());
+            giveBack.add(InventoryLeg.add(inventoryKey, player.getInventory(), removed));
+        }
+
+        // Kompensation gibt jedes Tier höchstens einmal zurück (auch bei Journal-Retries)
+        boolean[] returned = new boolean[giveBack.size()];
+        TransactionLeg takeCoins = TransactionLeg.of(inventoryKey,
+                "REMOVE ALL " + currency.currencyId() + " (" + coins.coinCount() + " Münzen) @ " + player.getName(),
+                () -> removeAllCoins(player, found),
+                () -> {
+                    boolean complete = true;
+                    for (int i = 0; i < returned.length; i++) {
+                        if (!returned[i]) {
+                            returned[i] = giveBack.get(i).apply();
+                            complete &= returned[i];
+                        }
+                    }
+                    return complete;
+                });
+
+        String transactionId = "deposit-all:" + UUID.randomUUID();
+        if (!transactionCoordinator.execute(transactionId, List.of(takeCoins)).isCommitted()) {
+            logger.fine("Münzen von " + player.getName() + " konnten nicht entnommen werden");
+            return CompletableFuture.completedFuture(
+                    CoinReceipt.empty(CoinReceipt.Operation.DEPOSIT_ALL, CoinReceipt.Status.FAILED, currencyId, none));
         }
 
-        logger.info("Eingezahlt von " + player.getName() + ": " + actualAmount + "x " +
-                tier + " " + currency.namePlural() + " (Wert: " + depositValue + ")");
+        // Eine Vault-Einzahlung für den Gesamtwert, Rollback auf dem Main-Thread
+        Money value = depositValue;
+        return vaultBridge.deposit(player, value)
+                .handleAsync((success, error) -> {
+                    if (error != null || !success) {
+                        logger.warning("Vault-Einzahlung fehlgeschlagen für " + player.getName() +
+                                (error != null ? ": " + error.getMessage() : ""));
+                        transactionCoordinator.compensate(transactionId, List.of(takeCoins),
+                                "DEPOSIT " + value + " @ " + player.getName());
+                        return CoinReceipt.empty(CoinReceipt.Operation.DEPOSIT_ALL, CoinReceipt.Status.FAILED,
+                                currencyId, value);
+                    }
 
-        return actualAmount;
+                    CoinReceipt receipt = new CoinReceipt(CoinReceipt.Operation.DEPOSIT_ALL,
+                            CoinReceipt.Status.COMPLETED, coins, value, value, null);
+                    metrics.record(EconomyMetrics.Category.BURN, EconomyMetrics.VAULT_DEPOSIT, value);
+                    logger.info("Eingezahlt von " + player.getName() + " (alle " + currency.namePlural() + "): " +
+                            receipt.summary());
+                    return receipt;
+                }, vaultBridge.mainThread());
     }
 
     /**
-     * Berechnet den Wert einer Anzahl von Münzen für Vault-Deposit.
+     * Leert alle Slots eines Sammel-Scans (Ergebnis von findAllCoinsInInventory).
      *
-     * @param currency Währung
-     * @param tier Münz-Tier
-     * @param amount Anzahl
-     * @return Wert in Basiswährung
+     * @return true (die Slots wurden unmittelbar vorher ermittelt)
      */
-    private BigDecimal calculateDepositValue(CurrencyItemSet currency, CurrencyItemSet.CurrencyTier tier, int amount) {
-        // Tier-Wert (1, 10, 100)
-        BigDecimal tierValue = BigDecimal.valueOf(currency.getTierValue(tier));
+    private boolean removeAllCoins(Player player,
+                                   Map<CurrencyItemSet.CurrencyTier, CurrencyItemSet.InventoryCoinResult> found) {
+        for (CurrencyItemSet.InventoryCoinResult result : found.values()) {
+            for (CurrencyItemSet.InventorySlotStack slotStack : result.stacks()) {
+                player.getInventory().setItem(slotStack.slot(), null);
+            }
+        }
+        return true;
+    }
 
-        // Anzahl
-        BigDecimal amountDecimal = BigDecimal.valueOf(amount);
+    /**
+     * Entfernt Münzen slot-genau aus dem Inventar (Ergebnis von findAllCoinsInInventory).
+     *
+     * @return true (die Slots wurden unmittelbar vorher ermittelt)
+     */
+    private boolean removeCoins(Player player, CurrencyItemSet.InventoryCoinResult coinResult, int amount) {
+        int remainingToRemove = amount;
+        for (CurrencyItemSet.InventorySlotStack slotStack : coinResult.stacks()) {
+            if (remainingToRemove <= 0) break;
 
-        // Wechselkurs zur Basiswährung
-        BigDecimal exchangeRate = currency.exchangeRate();
+            ItemStack stack = slotStack.stack();
+            int stackAmount = stack.getAmount();
 
-        // Wert = Tier-Wert * Anzahl * Wechselkurs
-        return tierValue.multiply(amountDecimal).multiply(exchangeRate);
+            if (stackAmount <= remainingToRemove) {
+                // Ganzen Stack entfernen
+                player.getInventory().setItem(slotStack.slot(), null);
+                remainingToRemove -= stackAmount;
+            } else {
+                // Teilmenge entfernen
+                stack.setAmount(stackAmount - remainingToRemove);
+                remainingToRemove = 0;
+            }
+        }
+        return true;
     }
 }
@@ -0,0 +1,462 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Kennzahlen zum Geldfluss im Economy-System.
+ *
+ * Zählt jede Münz-Ausgabe (Mint), jede Münz-Einzahlung (Burn), jede direkte
+ * Vault-Buchung und jeden abgeschlossenen Handel - pro Kanal (z.B.
+ * "mint:vault-withdraw") mit Anzahl und Volumen in Basiswährung.
+ *
+ * Features:
+ * - Gestreifte Zähler (LongAdder): Buchungen von Main- und Vault-Thread ohne Contention
+ * - Münz-Geldmenge = Summe Mint - Summe Burn (seit Einführung der Metriken)
+ * - Rollierendes Fenster aus periodischen Stichproben: Raten pro Stunde pro Kanal,
+ *   Umlaufgeschwindigkeit, Spitzen-Abfluss der Banken
+ * - Periodischer Snapshot in den DataStore (ein Eintrag, wird überschrieben)
+ *
+ * **DataStore-Layout** (Namespace "economy_metrics"):
+ * <pre>
+ * snapshot      → SnapshotData (Zählerstände, wird beim Start wiederhergestellt)
+ * </pre>
+ *
+ * **Verwendung:**
+ * <pre>
+ * metrics.record(EconomyMetrics.Category.MINT, EconomyMetrics.VAULT_WITHDRAW, cost);
+ * EconomyMetrics.Report report = metrics.report();
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Zähler sind thread-sicher und schwach konsistent (eine laufende Buchung
+ * kann in einem Report fehlen). Stichproben und Reports sind serialisiert.
+ *
+ * @author FallenStar
+ * @version 1.1
+ */
+public class EconomyMetrics {
+
+    /** Kanal: kostenlose Münz-Ausgabe (Admin). */
+    public static final String PAYOUT = "payout";
+    /** Kanal: Vault-Guthaben → Münzen. */
+    public static final String VAULT_WITHDRAW = "vault-withdraw";
+    /** Kanal: Münzen → Vault-Guthaben. */
+    public static final String VAULT_DEPOSIT = "vault-deposit";
+    /** Kanal: Bank-Konto → Münzen. */
+    public static final String BANK_WITHDRAW = "bank-withdraw";
+    /** Kanal: Münzen → Bank-Konto. */
+    public static final String BANK_DEPOSIT = "bank-deposit";
+
+    private static final String NAMESPACE = "economy_metrics";
+    private static final String SNAPSHOT_KEY = "snapshot";
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MIN_SPAN_MILLIS = 60_000L;   // Kürzere Zeiträume werden nicht weiter hochgerechnet
+
+    private final Logger logger;
+    private final CurrencyExchange exchange;
+    private final Map<String, Counter> counters;    // "kategorie:kanal" → Zähler
+    private final Deque<Sample> samples;            // Älteste zuerst, nur unter synchronized(samples)
+
+    private DataStore dataStore;
+    private BukkitTask sampleTask;
+    private int windowSamples = 60;
+    private int snapshotEvery = 5;
+    private int samplesSinceSnapshot = 0;
+
+    /**
+     * Kategorie eines Geldflusses.
+     */
+    public enum Category {
+        MINT,   // Münzen entstehen (Quelle der Münz-Geldmenge)
+        BURN,   // Münzen verschwinden (Senke der Münz-Geldmenge)
+        VAULT,  // Direkte Vault-Buchung (EconomyProvider)
+        TRADE;  // Abgeschlossener Handel (Münzen wechseln den Besitzer)
+
+        /**
+         * Gibt das Präfix für Zähler-Schlüssel zurück.
+         *
+         * @return z.B. "mint"
+         */
+        public String prefix() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Zähler eines Kanals.
+     */
+    private static final class Counter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder volume = new LongAdder();   // Minor Units Basiswährung
+    }
+
+    /**
+     * Stichprobe aller Zählerstände.
+     *
+     * @param timestamp Zeitpunkt
+     * @param totals Schlüssel → {Anzahl, Volumen}
+     */
+    private record Sample(long timestamp, Map<String, long[]> totals) {
+
+        long volume(String key) {
+            long[] values = totals.get(key);
+            return values != null ? values[1] : 0L;
+        }
+
+        long categoryVolume(Category category) {
+            String prefix = category.prefix() + ":";
+            long sum = 0;
+            for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    sum += entry.getValue()[1];
+                }
+            }
+            return sum;
+        }
+
+        long coinSupply() {
+            return categoryVolume(Category.MINT) - categoryVolume(Category.BURN);
+        }
+    }
+
+    /**
+     * Rate eines Kanals im Fenster.
+     *
+     * @param category Kategorie
+     * @param channel Kanal
+     * @param totalCount Anzahl Buchungen gesamt
+     * @param totalVolume Volumen gesamt (Basiswährung)
+     * @param countPerHour Buchungen pro Stunde im Fenster
+     * @param volumePerHour Volumen pro Stunde im Fenster (Basiswährung)
+     */
+    public record Rate(Category category, String channel, long totalCount, Money totalVolume,
+                       double countPerHour, Money volumePerHour) {
+    }
+
+    /**
+     * Momentaufnahme der Kennzahlen.
+     *
+     * @param coinSupply Münz-Geldmenge (Mint - Burn, Basiswährung)
+     * @param supplyChangePerHour Veränderung der Münz-Geldmenge pro Stunde im Fenster
+     * @param velocityPerHour Handelsvolumen pro Stunde / durchschnittliche Münz-Geldmenge
+     * @param bankNetOutflowPerHour Netto-Abfluss aller Banken pro Stunde (Auszahlungen - Einzahlungen)
+     * @param bankPeakOutflowPerHour Höchster Netto-Abfluss zwischen zwei Stichproben (hochgerechnet pro Stunde)
+     * @param windowMillis Länge des Fensters
+     * @param rates Raten pro Kanal (nach Volumen absteigend)
+     */
+    public record Report(Money coinSupply, Money supplyChangePerHour, double velocityPerHour,
+                         Money bankNetOutflowPerHour, Money bankPeakOutflowPerHour,
+                         long windowMillis, List<Rate> rates) {
+
+        /**
+         * Gibt die Raten einer Kategorie zurück.
+         *
+         * @param category Kategorie
+         * @return Raten (nach Volumen absteigend)
+         */
+        public List<Rate> ratesOf(Category category) {
+            return rates.stream().filter(rate -> rate.category() == category).toList();
+        }
+    }
+
+    /**
+     * Persistierter Zählerstand.
+     */
+    public static class SnapshotData {
+        public long createdAt;
+        public Map<String, Long> counts = new HashMap<>();
+        public Map<String, Long> volumes = new HashMap<>();
+
+        public SnapshotData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Konstruktor für EconomyMetrics.
+     *
+     * @param logger Logger
+     * @param exchange Umrechnung (Beträge in Fremdwährung werden in Basiswährung gezählt)
+     */
+    public EconomyMetrics(Logger logger, CurrencyExchange exchange) {
+        this.logger = logger;
+        this.exchange = exchange;
+        this.counters = new ConcurrentHashMap<>();
+        this.samples = new ArrayDeque<>();
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Stellt die Zählerstände aus dem DataStore wieder her und startet die Stichproben.
+     *
+     * @param plugin Plugin für Scheduler
+     * @param dataStore DataStore für Snapshots (null = nur In-Memory)
+     * @param sampleIntervalTicks Intervall zwischen Stichproben
+     * @param windowSamples Anzahl Stichproben im rollierenden Fenster
+     * @param snapshotEverySamples Snapshot nach so vielen Stichproben
+     */
+    public void start(Plugin plugin, DataStore dataStore, long sampleIntervalTicks,
+                      int windowSamples, int snapshotEverySamples) {
+        stop();
+        this.dataStore = dataStore;
+        this.windowSamples = Math.max(2, windowSamples);
+        this.snapshotEvery = Math.max(1, snapshotEverySamples);
+
+        restore();
+        sample();
+
+        long interval = Math.max(1L, sampleIntervalTicks);
+        sampleTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::tick, interval, interval);
+    }
+
+    /**
+     * Stoppt die Stichproben und schreibt einen finalen Snapshot.
+     *
+     * Synchron - für onDisable gedacht.
+     */
+    public void shutdown() {
+        stop();
+        snapshot();
+    }
+
+    /**
+     * Stoppt den Stichproben-Task.
+     */
+    private void stop() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+    }
+
+    // ==================== Zählen ====================
+
+    /**
+     * Zählt einen Geldfluss.
+     *
+     * @param category Kategorie
+     * @param channel Kanal (z.B. VAULT_WITHDRAW, "guild-trader")
+     * @param value Betrag (beliebige registrierte Währung, wird in Basiswährung gezählt)
+     */
+    public void record(Category category, String channel, Money value) {
+        if (value == null || !value.isPositive()) {
+            return;
+        }
+
+        long minorUnits = toBase(value);
+        if (minorUnits <= 0) {
+            return;
+        }
+
+        Counter counter = counters.computeIfAbsent(category.prefix() + ":" + channel, key -> new Counter());
+        counter.count.increment();
+        counter.volume.add(minorUnits);
+    }
+
+    /**
+     * Gibt die aktuelle Münz-Geldmenge zurück (Mint - Burn).
+     *
+     * @return Münz-Geldmenge in Basiswährung
+     */
+    public Money getCoinSupply() {
+        return Money.of(current().coinSupply(), Money.BASE_CURRENCY_ID);
+    }
+
+    /**
+     * Rechnet einen Betrag in Minor Units der Basiswährung um.
+     *
+     * @return Minor Units, oder 0 wenn die Währung nicht umrechenbar ist
+     */
+    private long toBase(Money value) {
+        if (value.currencyId().equals(Money.BASE_CURRENCY_ID)) {
+            return value.minorUnits();
+        }
+        try {
+            return exchange.convert(value, Money.BASE_CURRENCY_ID, RoundingMode.HALF_UP).minorUnits();
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            logger.fine("Metrik nicht umrechenbar: " + value + " (" + e.getMessage() + ")");
+            return 0L;
+        }
+    }
+
+    // ==================== Stichproben & Report ====================
+
+    /**
+     * Periodischer Task: Stichprobe nehmen, ggf. Snapshot schreiben.
+     */
+    private void tick() {
+        sample();
+        if (++samplesSinceSnapshot >= snapshotEvery) {
+            samplesSinceSnapshot = 0;
+            snapshot();
+        }
+    }
+
+    /**
+     * Nimmt eine Stichprobe und kürzt das Fenster.
+     */
+    private void sample() {
+        Sample sample = current();
+        synchronized (samples) {
+            samples.addLast(sample);
+            while (samples.size() > windowSamples + 1) {
+                samples.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Liest alle Zählerstände.
+     *
+     * @return Stichprobe (jetzt)
+     */
+    private Sample current() {
+        Map<String, long[]> totals = new HashMap<>();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            totals.put(entry.getKey(), new long[]{counter.count.sum(), counter.volume.sum()});
+        }
+        return new Sample(System.currentTimeMillis(), totals);
+    }
+
+    /**
+     * Berechnet die Kennzahlen über das rollierende Fenster.
+     *
+     * @return Report
+     */
+    public Report report() {
+        Sample now = current();
+        List<Sample> window;
+        synchronized (samples) {
+            window = new ArrayList<>(samples);
+        }
+        Sample oldest = window.isEmpty() ? now : window.get(0);
+        long elapsed = Math.max(MIN_SPAN_MILLIS, now.timestamp() - oldest.timestamp());
+
+        // Raten pro Kanal
+        List<Rate> rates = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : now.totals().entrySet()) {
+            String key = entry.getKey();
+            int separator = key.indexOf(':');
+            Category category = Category.valueOf(key.substring(0, separator).toUpperCase());
+            long[] before = oldest.totals().getOrDefault(key, new long[2]);
+            long[] after = entry.getValue();
+
+            rates.add(new Rate(category, key.substring(separator + 1), after[0],
+                    Money.of(after[1], Money.BASE_CURRENCY_ID),
+                    (after[0] - before[0]) * (double) MILLIS_PER_HOUR / elapsed,
+                    perHour(after[1] - before[1], elapsed)));
+        }
+        rates.sort(Comparator.comparingLong((Rate rate) -> rate.volumePerHour().minorUnits()).reversed());
+
+        // Umlaufgeschwindigkeit: Handelsvolumen / durchschnittliche Münz-Geldmenge
+        long tradePerHour = perHour(now.categoryVolume(Category.TRADE) - oldest.categoryVolume(Category.TRADE), elapsed)
+                .minorUnits();
+        long averageSupply = (now.coinSupply() + oldest.coinSupply()) / 2;
+        double velocity = averageSupply > 0 ? (double) tradePerHour / averageSupply : 0.0;
+
+        // Banken: Netto-Abfluss im Fenster und Spitze zwischen zwei Stichproben
+        long peak = 0;
+        window.add(now);
+        Iterator<Sample> iterator = window.iterator();
+        Sample previous = iterator.next();
+        while (iterator.hasNext()) {
+            Sample next = iterator.next();
+            long span = Math.max(MIN_SPAN_MILLIS, next.timestamp() - previous.timestamp());
+            peak = Math.max(peak, perHour(bankOutflow(next) - bankOutflow(previous), span).minorUnits());
+            previous = next;
+        }
+
+        return new Report(
+                Money.of(now.coinSupply(), Money.BASE_CURRENCY_ID),
+                perHour(now.coinSupply() - oldest.coinSupply(), elapsed),
+                velocity,
+                perHour(bankOutflow(now) - bankOutflow(oldest), elapsed),
+                Money.of(peak, Money.BASE_CURRENCY_ID),
+                now.timestamp() - oldest.timestamp(),
+                List.copyOf(rates));
+    }
+
+    /**
+     * Kumulierter Netto-Abfluss aller Banken (Auszahlungen - Einzahlungen).
+     */
+    private static long bankOutflow(Sample sample) {
+        return sample.volume(Category.MINT.prefix() + ":" + BANK_WITHDRAW)
+                - sample.volume(Category.BURN.prefix() + ":" + BANK_DEPOSIT);
+    }
+
+    /**
+     * Rechnet ein Volumen über einen Zeitraum auf eine Stunde hoch.
+     */
+    private static Money perHour(long minorUnits, long elapsedMillis) {
+        return Money.of(Math.round(minorUnits * (double) MILLIS_PER_HOUR / elapsedMillis), Money.BASE_CURRENCY_ID);
+    }
+
+    // ==================== Persistierung ====================
+
+    /**
+     * Stellt die Zählerstände aus dem letzten Snapshot wieder her.
+     */
+    private void restore() {
+        if (dataStore == null) {
+            return;
+        }
+
+        try {
+            Optional<SnapshotData> snapshot = dataStore.loadSync(NAMESPACE, SNAPSHOT_KEY, SnapshotData.class);
+            if (snapshot.isEmpty()) {
+                return;
+            }
+
+            SnapshotData data = snapshot.get();
+            for (Map.Entry<String, Long> entry : data.counts.entrySet()) {
+                Counter counter = counters.computeIfAbsent(entry.getKey(), key -> new Counter());
+                counter.count.add(entry.getValue());
+                counter.volume.add(data.volumes.getOrDefault(entry.getKey(), 0L));
+            }
+            logger.info("✓ Economy-Metriken wiederhergestellt (" + data.counts.size() + " Kanäle, Münz-Geldmenge: " +
+                    getCoinSupply().toPlainString() + ")");
+        } catch (Exception e) {
+            logger.warning("✗ Economy-Metriken konnten nicht geladen werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Schreibt den aktuellen Zählerstand in den DataStore.
+     */
+    private void snapshot() {
+        if (dataStore == null) {
+            return;
+        }
+
+        Sample sample = current();
+        SnapshotData data = new SnapshotData();
+        data.createdAt = sample.timestamp();
+        for (Map.Entry<String, long[]> entry : sample.totals().entrySet()) {
+            data.counts.put(entry.getKey(), entry.getValue()[0]);
+            data.volumes.put(entry.getKey(), entry.getValue()[1]);
+        }
+
+        if (!dataStore.saveSync(NAMESPACE, SNAPSHOT_KEY, data)) {
+            logger.warning("Economy-Metriken: Snapshot nicht geschrieben");
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.provider.VaultBridge;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Persistente Warteschlange für Vault-Rückerstattungen.
+ *
+ * Kompensiert Abbuchungen, deren Folgeschritt fehlgeschlagen ist (z.B. Münzen
+ * passen nicht ins Inventar). Eine Rückerstattung wird zuerst mit Spieler,
+ * Betrag und Währung vorgemerkt und dann über den Vault-Thread gebucht - der
+ * aufrufende Thread wartet nie auf Vault.
+ *
+ * Features:
+ * - Nicht blockierend: enqueue() merkt vor und stößt die Buchung nur an
+ * - Fehlgeschlagene Buchungen werden periodisch wiederholt
+ * - Offene Rückerstattungen überleben einen Neustart (DataStore) und werden beim Start nachgeholt
+ * - Funktioniert auch für Offline-Spieler (OfflinePlayer über die VaultBridge)
+ *
+ * **DataStore-Layout** (Namespace "vault_refunds"):
+ * <pre>
+ * state → StateData (nächste ID, offene Rückerstattungen)
+ * </pre>
+ *
+ * **Verwendung:**
+ * <pre>
+ * TransactionLeg vaultLeg = TransactionLeg.applied(key, "WITHDRAW " + cost,
+ *         () -&gt; refundQueue.enqueue(player.getUniqueId(), cost, "Münz-Auszahlung"));
+ * </pre>
+ *
+ * **Konsistenz:**
+ * enqueue() und Wiederholungen laufen auf dem Main-Thread, Buchungsergebnisse
+ * kommen vom Vault-Thread; der Zustand ist über den Monitor der Queue geschützt.
+ * Eine Rückerstattung ist nie gleichzeitig mehrfach in Arbeit.
+ *
+ * **Dauerhaftigkeit:**
+ * Jede Änderung wird geschrieben (höchstens ein Schreibvorgang gleichzeitig,
+ * weitere Änderungen werden zusammengefasst - keine Umsortierung alter Stände).
+ * shutdown() muss nach dem Beenden der VaultBridge aufgerufen werden, damit
+ * laufende Buchungen abgeschlossen sind und nicht doppelt erstattet werden.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class RefundQueue {
+
+    private static final String NAMESPACE = "vault_refunds";
+    private static final String STATE_KEY = "state";
+
+    private final Logger logger;
+    private final VaultBridge bridge;
+
+    // Nur unter synchronized(this)
+    private final Map<Long, RefundData> pending;
+    private final Set<Long> inFlight;
+    private long nextId = 1;
+    private boolean saving;
+    private boolean dirty;
+
+    private Plugin plugin;
+    private DataStore dataStore;
+    private BukkitTask retryTask;
+
+    /**
+     * Persistierter Zustand der Warteschlange.
+     */
+    public static class StateData {
+        public long nextId;
+        public List<RefundData> refunds = new ArrayList<>();
+
+        public StateData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Offene Rückerstattung.
+     */
+    public static class RefundData {
+        public long id;
+        public String playerId;
+        public long amountMinor;
+        public String currencyId;
+        public String reason;
+        public long createdAt;
+
+        public RefundData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Konstruktor für RefundQueue.
+     *
+     * @param logger Logger
+     * @param bridge VaultBridge (Buchungen auf dem Vault-Thread)
+     */
+    public RefundQueue(Logger logger, VaultBridge bridge) {
+        this.logger = logger;
+        this.bridge = bridge;
+        this.pending = new LinkedHashMap<>();
+        this.inFlight = new HashSet<>();
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Stellt offene Rückerstattungen wieder her, bucht sie erneut und startet die Wiederholung.
+     *
+     * @param plugin Plugin (für Scheduling und Offline-Spieler)
+     * @param dataStore DataStore (oder null = keine Persistierung)
+     * @param retryIntervalTicks Wiederholungs-Intervall in Ticks
+     */
+    public void start(Plugin plugin, DataStore dataStore, long retryIntervalTicks) {
+        stop();
+        this.plugin = plugin;
+        this.dataStore = dataStore;
+        restore();
+        retryPending();
+
+        long interval = Math.max(1L, retryIntervalTicks);
+        retryTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::retryPending, interval, interval);
+    }
+
+    /**
+     * Stoppt die Wiederholung und schreibt offene Rückerstattungen.
+     *
+     * Synchron - für onDisable gedacht, nach dem Beenden der VaultBridge.
+     */
+    public void shutdown() {
+        stop();
+
+        StateData data;
+        synchronized (this) {
+            if (!pending.isEmpty()) {
+                logger.warning("✗ " + pending.size() + " Rückerstattung(en) beim Shutdown offen - werden beim Start nachgeholt");
+            }
+            data = toStateData();
+        }
+        if (dataStore != null && !dataStore.saveSync(NAMESPACE, STATE_KEY, data)) {
+            logger.severe("✗ Offene Rückerstattungen konnten nicht gespeichert werden!");
+        }
+    }
+
+    /**
+     * Stoppt den Wiederholungs-Task.
+     */
+    private void stop() {
+        if (retryTask != null) {
+            retryTask.cancel();
+            retryTask = null;
+        }
+    }
+
+    // ==================== Rückerstattungen ====================
+
+    /**
+     * Merkt eine Rückerstattung vor und stößt die Buchung an (blockiert nicht).
+     *
+     * Liefert true, sobald die Rückerstattung vorgemerkt ist - die Buchung
+     * selbst wird bis zum Erfolg wiederholt (auch über Neustarts hinweg).
+     *
+     * @param playerId Spieler-UUID
+     * @param amount Betrag (&gt; 0)
+     * @param reason Grund (für Logs)
+     * @return true wenn vorgemerkt
+     */
+    public boolean enqueue(UUID playerId, Money amount, String reason) {
+        if (!amount.isPositive()) {
+            return true;
+        }
+
+        RefundData entry = new RefundData();
+        synchronized (this) {
+            entry.id = nextId++;
+            entry.playerId = playerId.toString();
+            entry.amountMinor = amount.minorUnits();
+            entry.currencyId = amount.currencyId();
+            entry.reason = reason;
+            entry.createdAt = System.currentTimeMillis();
+            pending.put(entry.id, entry);
+        }
+
+        persist();
+        dispatch(entry);
+        return true;
+    }
+
+    /**
+     * Bucht alle offenen, nicht laufenden Rückerstattungen erneut (Main-Thread).
+     */
+    public void retryPending() {
+        List<RefundData> open;
+        synchronized (this) {
+            open = new ArrayList<>(pending.values());
+        }
+        open.forEach(this::dispatch);
+    }
+
+    /**
+     * @return Anzahl offener Rückerstattungen
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stößt die Vault-Buchung einer Rückerstattung an (höchstens einmal gleichzeitig).
+     */
+    private void dispatch(RefundData entry) {
+        synchronized (this) {
+            if (plugin == null || !pending.containsKey(entry.id) || !inFlight.add(entry.id)) {
+                return;
+            }
+        }
+
+        Money amount = Money.of(entry.amountMinor, entry.currencyId);
+        bridge.deposit(plugin.getServer().getOfflinePlayer(UUID.fromString(entry.playerId)), amount)
+                .whenComplete((paid, error) -> complete(entry, error == null && Boolean.TRUE.equals(paid), error));
+    }
+
+    /**
+     * Verarbeitet das Ergebnis einer Buchung (Vault-Thread).
+     */
+    private void complete(RefundData entry, boolean paid, Throwable error) {
+        synchronized (this) {
+            inFlight.remove(entry.id);
+            if (paid) {
+                pending.remove(entry.id);
+            }
+        }
+
+        Money amount = Money.of(entry.amountMinor, entry.currencyId);
+        if (paid) {
+            logger.fine("✓ Zurückerstattet: " + amount.toPlainString() + " an " + entry.playerId + " (" + entry.reason + ")");
+            persist();
+        } else {
+            logger.warning("✗ Rückerstattung fehlgeschlagen: " + amount.toPlainString() + " an " + entry.playerId
+                    + " (" + entry.reason + ")" + (error != null ? " - " + error.getMessage() : "")
+                    + " - wird wiederholt");
+        }
+    }
+
+    // ==================== Persistierung ====================
+
+    /**
+     * Schreibt den Zustand (höchstens ein Schreibvorgang gleichzeitig, Änderungen werden zusammengefasst).
+     */
+    private void persist() {
+        StateData data;
+        synchronized (this) {
+            if (dataStore == null) {
+                return;
+            }
+            if (saving) {
+                dirty = true;
+                return;
+            }
+            saving = true;
+            dirty = false;
+            data = toStateData();
+        }
+
+        dataStore.save(NAMESPACE, STATE_KEY, data).whenComplete((saved, error) -> {
+            boolean again;
+            synchronized (this) {
+                saving = false;
+                again = dirty;
+            }
+            if (error != null || !Boolean.TRUE.equals(saved)) {
+                logger.warning("✗ Offene Rückerstattungen konnten nicht gespeichert werden"
+                        + (error != null ? ": " + error.getMessage() : ""));
+            }
+            if (again) {
+                persist();
+            }
+        });
+    }
+
+    /**
+     * Stellt offene Rückerstattungen aus dem DataStore wieder her.
+     */
+    private void restore() {
+        if (dataStore == null) {
+            return;
+        }
+
+        try {
+            Optional<StateData> loaded = dataStore.loadSync(NAMESPACE, STATE_KEY, StateData.class);
+            if (loaded.isEmpty()) {
+                return;
+            }
+
+            synchronized (this) {
+                nextId = Math.max(nextId, loaded.get().nextId);
+                for (RefundData entry : loaded.get().refunds) {
+                    pending.put(entry.id, entry);
+                    nextId = Math.max(nextId, entry.id + 1);
+                }
+                if (!pending.isEmpty()) {
+                    logger.info("✓ " + pending.size() + " offene Rückerstattung(en) wiederhergestellt - werden nachgeholt");
+                }
+            }
+        } catch (Exception e) {
+            logger.warning("✗ Offene Rückerstattungen konnten nicht geladen werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Erstellt den persistierbaren Zustand (Aufrufer hält den Monitor).
+     */
+    private StateData toStateData() {
+        StateData data = new StateData();
+        data.nextId = nextId;
+        data.refunds.addAll(pending.values());
+        return data;
+    }
+}
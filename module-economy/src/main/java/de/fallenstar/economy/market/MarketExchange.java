@@ -0,0 +1,988 @@
+package de.fallenstar.economy.market;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.core.provider.PlotProvider;
+import de.fallenstar.core.provider.PlotStorageProvider;
+import de.fallenstar.core.registry.ProviderRegistry;
+import de.fallenstar.core.transaction.InventoryLeg;
+import de.fallenstar.core.transaction.TransactionCoordinator;
+import de.fallenstar.core.transaction.TransactionKeys;
+import de.fallenstar.core.transaction.TransactionResult;
+import de.fallenstar.economy.manager.EconomyMetrics;
+import de.fallenstar.economy.market.MarketOrder.Side;
+import de.fallenstar.economy.provider.VaultBridge;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * Börse für Plot-Händler: Hinterlegung, Abrechnung und Persistierung
+ * rund um die {@link MatchingEngine}.
+ *
+ * Gebote hinterlegen Geld (Vault, über die VaultBridge), Angebote hinterlegen
+ * Ware (Output-Truhen des Plots). Dadurch kann eine Ausführung nicht mehr
+ * scheitern: die Abrechnung zahlt nur noch aus.
+ *
+ * Features:
+ * - Gebot: Limit × Menge wird beim Einstellen abgebucht
+ * - Angebot: Ware wird beim Einstellen aus den Output-Truhen entnommen
+ * - Fill: Verkäufer erhält Preis × Menge, Käufer die Preisverbesserung zurück,
+ *   Ware geht in die Input-Truhen des Käufer-Plots
+ * - Stornierung: Restmenge (Geld oder Ware) wird zurückgegeben
+ * - Lieferungen, für die kein Platz ist, werden pro Tick erneut versucht
+ * - Auszahlungen bleiben bis zur Bestätigung durch Vault vorgemerkt und werden
+ *   bei Fehlschlag pro Tick erneut versucht
+ * - Offene Orders, Lieferungen und Auszahlungen überleben einen Neustart (DataStore)
+ * - Existiert der Plot einer Order oder Lieferung nach einem Neustart nicht mehr,
+ *   geht die Ware ins Inventar des Händlers (sobald er online ist und Platz hat)
+ *
+ * **DataStore-Layout** (Namespace "market"):
+ * <pre>
+ * state → StateData (nächste Order-ID, offene Orders, ausstehende Lieferungen und Auszahlungen)
+ * </pre>
+ *
+ * **Verwendung:**
+ * <pre>
+ * exchange.placeSellOrder(player, plot, Material.DIAMOND, 16, Money.ofMajor(90, "sterne"));
+ * exchange.placeBuyOrder(player, plot, Material.DIAMOND, 8, Money.ofMajor(95, "sterne"));
+ * exchange.getSnapshot(Material.DIAMOND).bestAsk();
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Hinterlegung, Abrechnung und alle Zustandsänderungen laufen auf dem
+ * Main-Thread; nur das Matching läuft auf dem Markt-Thread. Events werden in
+ * Sequenz-Reihenfolge abgerechnet. Auszahlungen laufen über den Vault-Thread
+ * und funktionieren auch für Offline-Spieler; ihre Ergebnisse werden auf dem
+ * Main-Thread verbucht.
+ *
+ * **Dauerhaftigkeit:**
+ * Eine Auszahlung wird erst nach Bestätigung durch Vault aus dem Zustand
+ * entfernt. shutdown() wartet begrenzt auf laufende Auszahlungen; nach einem
+ * Absturz wird eine unbestätigte Auszahlung im Zweifel erneut gebucht, nie gar nicht.
+ *
+ * @author FallenStar
+ * @version 1.3
+ */
+public class MarketExchange {
+
+    private static final String NAMESPACE = "market";
+    private static final String STATE_KEY = "state";
+    private static final int MAX_DELIVERIES_PER_TICK = 20;
+    private static final int MAX_PAYOUTS_PER_TICK = 20;
+    private static final long SHUTDOWN_PAYOUT_WAIT_MS = 5000L;
+
+    private final Logger logger;
+    private final MatchingEngine engine;
+    private final VaultBridge bridge;
+    private final ProviderRegistry providers;
+    private final TransactionCoordinator transactionCoordinator;
+    private final int maxOpenOrders;
+
+    // Nur Main-Thread
+    private final Map<Long, OrderData> openOrders;
+    private final Deque<Delivery> deliveries;
+    private final Map<Long, Payout> payouts;
+    private final List<DeliveryData> unresolvedDeliveries;   // Item unbekannt - bleibt gespeichert
+    private long nextOrderId = 1;
+    private long nextPayoutId = 1;
+    private long transferSequence;
+    private boolean dirty;
+
+    // Vault-Thread → Main-Thread
+    private final Queue<PayoutResult> payoutResults;
+
+    private EconomyMetrics metrics; // Setter-injected (optional)
+    private Plugin plugin;
+    private DataStore dataStore;
+    private BukkitTask settleTask;
+
+    /**
+     * Ausstehende Warenlieferung in die Input-Truhen eines Plots.
+     *
+     * @param plot Ziel-Plot (null = Inventar des Empfängers, Plot existiert nicht mehr)
+     * @param material Item
+     * @param amount Menge
+     * @param recipientId Empfänger (für Benachrichtigungen)
+     */
+    private record Delivery(Plot plot, Material material, int amount, UUID recipientId) {
+    }
+
+    /**
+     * Vorgemerkte Auszahlung auf ein Vault-Konto.
+     */
+    private static final class Payout {
+        private final long id;
+        private final UUID playerId;
+        private final Money amount;
+        private final String reason;
+        private CompletableFuture<?> inFlight;   // null = wartet auf (erneuten) Versuch
+        private int attempts;
+
+        private Payout(long id, UUID playerId, Money amount, String reason) {
+            this.id = id;
+            this.playerId = playerId;
+            this.amount = amount;
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * Ergebnis einer Vault-Buchung (vom Vault-Thread an den Main-Thread).
+     *
+     * @param payoutId ID der Auszahlung
+     * @param paid true wenn gebucht
+     */
+    private record PayoutResult(long payoutId, boolean paid) {
+    }
+
+    /**
+     * Persistierter Zustand der Börse.
+     */
+    public static class StateData {
+        public long nextOrderId;
+        public List<OrderData> orders = new ArrayList<>();
+        public List<DeliveryData> deliveries = new ArrayList<>();
+        public List<PayoutData> payouts = new ArrayList<>();
+
+        public StateData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Offene Order (Restmenge ist hinterlegt).
+     */
+    public static class OrderData {
+        public long orderId;
+        public String side;
+        public String material;
+        public String traderId;
+        public String world;
+        public double x;
+        public double y;
+        public double z;
+        public long limitPriceMinor;
+        public int quantity;
+        public int remaining;
+
+        public OrderData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Ausstehende Lieferung.
+     */
+    public static class DeliveryData {
+        public String world;
+        public double x;
+        public double y;
+        public double z;
+        public String material;
+        public int amount;
+        public String recipientId;
+        public boolean toInventory;
+
+        public DeliveryData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Vorgemerkte Auszahlung.
+     */
+    public static class PayoutData {
+        public String playerId;
+        public long amountMinor;
+        public String currencyId;
+        public String reason;
+
+        public PayoutData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Konstruktor für MarketExchange.
+     *
+     * @param logger Logger
+     * @param engine Matching-Engine
+     * @param bridge VaultBridge (Hinterlegung und Auszahlung)
+     * @param providers ProviderRegistry (Plot- und Lager-Zugriff)
+     * @param transactionCoordinator Koordinator für Truhen-Buchungen
+     * @param maxOpenOrders Maximale Anzahl offener Orders pro Spieler
+     */
+    public MarketExchange(Logger logger, MatchingEngine engine, VaultBridge bridge, ProviderRegistry providers,
+                          TransactionCoordinator transactionCoordinator, int maxOpenOrders) {
+        this.logger = logger;
+        this.engine = engine;
+        this.bridge = bridge;
+        this.providers = providers;
+        this.transactionCoordinator = transactionCoordinator;
+        this.maxOpenOrders = Math.max(1, maxOpenOrders);
+        this.openOrders = new LinkedHashMap<>();
+        this.deliveries = new ArrayDeque<>();
+        this.payouts = new LinkedHashMap<>();
+        this.unresolvedDeliveries = new ArrayList<>();
+        this.payoutResults = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Setzt die Economy-Metriken (Ausführungen zählen als Handel).
+     *
+     * @param metrics EconomyMetrics
+     */
+    public void setMetrics(EconomyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Stellt offene Orders wieder her und startet Matching und Abrechnung.
+     *
+     * @param plugin Plugin (für Scheduling und Offline-Spieler)
+     * @param dataStore DataStore (oder null = keine Persistierung)
+     * @param settleIntervalTicks Abrechnungs-Intervall in Ticks
+     */
+    public void start(Plugin plugin, DataStore dataStore, long settleIntervalTicks) {
+        stop();
+        this.plugin = plugin;
+        this.dataStore = dataStore;
+
+        engine.start();
+        restore();
+
+        long interval = Math.max(1L, settleIntervalTicks);
+        settleTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, interval, interval);
+    }
+
+    /**
+     * Stoppt Matching und Abrechnung und schreibt den Zustand.
+     *
+     * Synchron - für onDisable gedacht. Muss vor dem Beenden der VaultBridge
+     * aufgerufen werden, damit letzte Auszahlungen noch gebucht werden.
+     */
+    public void shutdown() {
+        stop();
+        engine.shutdown();
+        engine.drainEvents(this::settle);
+        awaitPayouts();
+
+        if (!payouts.isEmpty()) {
+            logger.warning("✗ " + payouts.size() + " Markt-Auszahlung(en) beim Shutdown offen - werden beim Start nachgeholt");
+        }
+        if (dataStore != null && !dataStore.saveSync(NAMESPACE, STATE_KEY, toStateData())) {
+            logger.warning("✗ Markt-Zustand konnte nicht gespeichert werden!");
+        }
+    }
+
+    /**
+     * Stoppt den Abrechnungs-Task.
+     */
+    private void stop() {
+        if (settleTask != null) {
+            settleTask.cancel();
+            settleTask = null;
+        }
+    }
+
+    /**
+     * Abrechnungs-Tick (Main-Thread): Events abrechnen, Lieferungen und Auszahlungen nachholen, Zustand sichern.
+     */
+    void tick() {
+        engine.drainEvents(this::settle);
+        applyPayoutResults();
+        retryDeliveries();
+        retryPayouts();
+
+        if (dirty && dataStore != null) {
+            dirty = false;
+            dataStore.save(NAMESPACE, STATE_KEY, toStateData());
+        }
+    }
+
+    // ==================== Orders ====================
+
+    /**
+     * Stellt ein Angebot ein; die Ware wird sofort aus den Output-Truhen entnommen.
+     *
+     * @param player Verkäufer (muss Zugriff auf den Plot haben)
+     * @param plot Plot mit der Ware
+     * @param material Item
+     * @param quantity Menge
+     * @param limitPrice Mindestpreis pro Stück (Basiswährung)
+     * @return true wenn eingestellt
+     */
+    public boolean placeSellOrder(Player player, Plot plot, Material material, int quantity, Money limitPrice) {
+        if (!validate(player, plot, material, quantity, limitPrice)) {
+            return false;
+        }
+
+        ItemStack goods = new ItemStack(material, quantity);
+        TransactionResult escrow = transactionCoordinator.execute(nextTransferId("escrow"),
+                List.of(InventoryLeg.across(chestInventories(outputChests(plot)), goods, InventoryLeg.Direction.REMOVE)));
+        if (!escrow.isCommitted()) {
+            player.sendMessage("§cNicht genug " + material.name() + " in den Output-Truhen des Plots!");
+            return false;
+        }
+
+        MarketOrder order = new MarketOrder(nextOrderId++, Side.SELL, material, player.getUniqueId(), plot,
+                limitPrice.minorUnits(), quantity, quantity);
+        return accept(player, order);
+    }
+
+    /**
+     * Stellt ein Gebot ein; Limit × Menge wird sofort vom Vault-Konto abgebucht.
+     *
+     * @param player Käufer (muss Zugriff auf den Plot haben)
+     * @param plot Plot, in dessen Input-Truhen geliefert wird
+     * @param material Item
+     * @param quantity Menge
+     * @param limitPrice Höchstpreis pro Stück (Basiswährung)
+     * @return Future mit true wenn eingestellt (wird auf dem Main-Thread abgeschlossen)
+     */
+    public CompletableFuture<Boolean> placeBuyOrder(Player player, Plot plot, Material material, int quantity,
+                                                    Money limitPrice) {
+        if (!validate(player, plot, material, quantity, limitPrice)) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        Money escrow = limitPrice.times(quantity);
+        return bridge.withdraw(player, escrow).thenApplyAsync(withdrawn -> {
+            if (!withdrawn) {
+                player.sendMessage("§cNicht genug Guthaben! Benötigt: " + escrow.toPlainString());
+                return false;
+            }
+
+            MarketOrder order = new MarketOrder(nextOrderId++, Side.BUY, material, player.getUniqueId(), plot,
+                    limitPrice.minorUnits(), quantity, quantity);
+            return accept(player, order);
+        }, bridge.mainThread());
+    }
+
+    /**
+     * Storniert eine eigene offene Order.
+     *
+     * @param player Spieler
+     * @param orderId Order-ID
+     * @return Future mit true wenn storniert
+     */
+    public CompletableFuture<Boolean> cancelOrder(Player player, long orderId) {
+        return engine.cancel(orderId, player.getUniqueId()).thenApplyAsync(cancelled -> {
+            player.sendMessage(cancelled
+                    ? "§a✓ Order #" + orderId + " storniert - Hinterlegung wird zurückgegeben."
+                    : "§cOrder #" + orderId + " ist nicht offen oder gehört dir nicht!");
+            return cancelled;
+        }, bridge.mainThread());
+    }
+
+    /**
+     * Storniert eine offene Order ohne Eigentümer-Prüfung (Admin).
+     *
+     * @param orderId Order-ID
+     * @return Future mit true wenn storniert
+     */
+    public CompletableFuture<Boolean> cancelOrder(long orderId) {
+        return engine.cancel(orderId, null);
+    }
+
+    // ==================== Abfragen ====================
+
+    /**
+     * Gibt die Markttiefe eines Items zurück.
+     *
+     * @param material Item
+     * @return Snapshot (Stand des Markt-Threads)
+     */
+    public OrderBook.Snapshot getSnapshot(Material material) {
+        return engine.getSnapshot(material);
+    }
+
+    /**
+     * @return Alle Items mit offenen Orders
+     */
+    public List<Material> getActiveMaterials() {
+        return engine.getActiveMaterials();
+    }
+
+    /**
+     * Gibt die offenen Orders eines Spielers zurück (Main-Thread).
+     *
+     * @param traderId Spieler-UUID
+     * @return Offene Orders (älteste zuerst)
+     */
+    public List<OrderData> getOpenOrders(UUID traderId) {
+        String id = traderId.toString();
+        return openOrders.values().stream()
+                .filter(order -> order.traderId.equals(id))
+                .toList();
+    }
+
+    /**
+     * @return Anzahl ausstehender Lieferungen
+     */
+    public int getPendingDeliveryCount() {
+        return deliveries.size();
+    }
+
+    /**
+     * @return Anzahl vorgemerkter (noch nicht bestätigter) Auszahlungen
+     */
+    public int getPendingPayoutCount() {
+        return payouts.size();
+    }
+
+    // ==================== Abrechnung ====================
+
+    /**
+     * Rechnet ein Event des Markt-Threads ab (Main-Thread).
+     *
+     * @param event Fill oder Stornierung
+     */
+    void settle(OrderEvent event) {
+        if (event instanceof OrderEvent.Fill fill) {
+            settleFill(fill);
+        } else if (event instanceof OrderEvent.Cancelled cancelled) {
+            release(cancelled.order(), cancelled.remaining());
+            openOrders.remove(cancelled.order().getOrderId());
+            dirty = true;
+        }
+    }
+
+    /**
+     * Rechnet eine Ausführung ab: Auszahlung, Erstattung, Lieferung.
+     */
+    private void settleFill(OrderEvent.Fill fill) {
+        Money total = fill.total();
+        pay(fill.sellerId(), total, "Verkauf #" + fill.sellOrderId());
+
+        Money refund = fill.buyerRefund();
+        if (refund.isPositive()) {
+            pay(fill.buyerId(), refund, "Preisverbesserung #" + fill.buyOrderId());
+        }
+
+        deliver(new Delivery(fill.buyerPlot(), fill.material(), fill.quantity(), fill.buyerId()));
+        reduce(fill.buyOrderId(), fill.quantity());
+        reduce(fill.sellOrderId(), fill.quantity());
+
+        if (metrics != null) {
+            metrics.record(EconomyMetrics.Category.TRADE, "orderbook", total);
+        }
+
+        String summary = fill.quantity() + "x " + fill.material().name() + " à "
+                + Money.of(fill.priceMinor(), Money.BASE_CURRENCY_ID).toPlainString();
+        notify(fill.buyerId(), "§a✓ Gekauft: " + summary + " (Order #" + fill.buyOrderId() + ")");
+        notify(fill.sellerId(), "§a✓ Verkauft: " + summary + " (Order #" + fill.sellOrderId() + ")");
+    }
+
+    /**
+     * Gibt die hinterlegte Restmenge einer stornierten Order zurück.
+     */
+    private void release(MarketOrder order, int remaining) {
+        if (order.getSide() == Side.BUY) {
+            pay(order.getTraderId(), order.getLimitPrice().times(remaining), "Stornierung #" + order.getOrderId());
+        } else {
+            deliver(new Delivery(order.getPlot(), order.getMaterial(), remaining, order.getTraderId()));
+        }
+    }
+
+    /**
+     * Verringert die Restmenge einer offenen Order (entfernt sie bei 0).
+     */
+    private void reduce(long orderId, int quantity) {
+        OrderData order = openOrders.get(orderId);
+        if (order != null) {
+            order.remaining -= quantity;
+            if (order.remaining <= 0) {
+                openOrders.remove(orderId);
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * Zahlt einen Betrag auf das Vault-Konto eines (ggf. offline) Spielers.
+     *
+     * Die Auszahlung bleibt vorgemerkt, bis Vault sie bestätigt (bei Fehlschlag später erneut).
+     */
+    private void pay(UUID playerId, Money amount, String reason) {
+        Payout payout = new Payout(nextPayoutId++, playerId, amount, reason);
+        payouts.put(payout.id, payout);
+        dirty = true;
+        dispatch(payout);
+    }
+
+    /**
+     * Stößt die Vault-Buchung einer Auszahlung an; das Ergebnis wird im nächsten Tick verbucht.
+     */
+    private void dispatch(Payout payout) {
+        int attempt = ++payout.attempts;
+        payout.inFlight = bridge.deposit(plugin.getServer().getOfflinePlayer(payout.playerId), payout.amount)
+                .whenComplete((paid, error) -> {
+                    boolean booked = error == null && Boolean.TRUE.equals(paid);
+                    if (!booked && attempt == 1) {
+                        logger.severe("✗ Markt-Auszahlung fehlgeschlagen: " + payout.amount.toPlainString()
+                                + " an " + payout.playerId + " (" + payout.reason + ")"
+                                + (error != null ? " - " + error.getMessage() : "") + " - wird wiederholt");
+                    }
+                    payoutResults.add(new PayoutResult(payout.id, booked));
+                });
+    }
+
+    /**
+     * Verbucht die Ergebnisse laufender Auszahlungen (Main-Thread).
+     */
+    private void applyPayoutResults() {
+        PayoutResult result;
+        while ((result = payoutResults.poll()) != null) {
+            Payout payout = payouts.get(result.payoutId());
+            if (payout == null) {
+                continue;
+            }
+
+            payout.inFlight = null;
+            if (result.paid()) {
+                payouts.remove(payout.id);
+                dirty = true;
+                if (payout.attempts > 1) {
+                    logger.info("✓ Markt-Auszahlung nachgeholt: " + payout.amount.toPlainString()
+                            + " an " + payout.playerId + " (" + payout.reason + ")");
+                }
+            }
+        }
+    }
+
+    /**
+     * Versucht fehlgeschlagene Auszahlungen erneut (begrenzt pro Tick).
+     */
+    private void retryPayouts() {
+        int retried = 0;
+        for (Payout payout : payouts.values()) {
+            if (retried >= MAX_PAYOUTS_PER_TICK) {
+                break;
+            }
+            if (payout.inFlight == null) {
+                dispatch(payout);
+                retried++;
+            }
+        }
+    }
+
+    /**
+     * Wartet begrenzt auf laufende Auszahlungen, damit nur unbestätigte gespeichert werden.
+     */
+    private void awaitPayouts() {
+        CompletableFuture<?>[] running = payouts.values().stream()
+                .map(payout -> payout.inFlight)
+                .filter(Objects::nonNull)
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(running).get(SHUTDOWN_PAYOUT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warning("✗ Markt-Auszahlungen nicht rechtzeitig bestätigt - bleiben vorgemerkt");
+        } catch (ExecutionException e) {
+            // Einzelne Fehlschläge bleiben vorgemerkt
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        applyPayoutResults();
+    }
+
+    /**
+     * Liefert Ware in die Input-Truhen eines Plots (bei Platzmangel später erneut).
+     */
+    private void deliver(Delivery delivery) {
+        if (!tryDeliver(delivery)) {
+            deliveries.addLast(delivery);
+            dirty = true;
+            notify(delivery.recipientId(), (delivery.plot() != null
+                    ? "§eKein Platz in den Input-Truhen von " + delivery.plot().getIdentifier()
+                    : "§eKein Platz in deinem Inventar")
+                    + " - " + delivery.amount() + "x " + delivery.material().name() + " wird nachgeliefert.");
+        }
+    }
+
+    /**
+     * Versucht ausstehende Lieferungen erneut (begrenzt pro Tick).
+     */
+    private void retryDeliveries() {
+        for (int i = 0, size = Math.min(deliveries.size(), MAX_DELIVERIES_PER_TICK); i < size; i++) {
+            Delivery delivery = deliveries.pollFirst();
+            if (tryDeliver(delivery)) {
+                dirty = true;
+            } else {
+                deliveries.addLast(delivery);
+            }
+        }
+    }
+
+    /**
+     * Legt Ware vollständig in die Input-Truhen (bzw. das Inventar des Empfängers) oder gar nicht.
+     */
+    private boolean tryDeliver(Delivery delivery) {
+        if (delivery.plot() == null) {
+            return tryDeliverToInventory(delivery);
+        }
+
+        PlotStorageProvider storageProvider = providers.getPlotStorageProvider();
+        if (storageProvider == null || !storageProvider.isAvailable()) {
+            return false;
+        }
+
+        try {
+            List<Map.Entry<String, Inventory>> inputChests = chestInventories(
+                    storageProvider.getInputChestLocations(delivery.plot()));
+            if (inputChests.isEmpty()) {
+                return false;
+            }
+
+            TransactionResult result = transactionCoordinator.execute(nextTransferId("delivery"),
+                    List.of(InventoryLeg.across(inputChests, new ItemStack(delivery.material(), delivery.amount()),
+                            InventoryLeg.Direction.ADD)));
+            return result.isCommitted();
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Legt Ware vollständig ins Inventar des Empfängers oder gar nicht (nur wenn er online ist).
+     */
+    private boolean tryDeliverToInventory(Delivery delivery) {
+        Player recipient = plugin.getServer().getPlayer(delivery.recipientId());
+        if (recipient == null) {
+            return false;
+        }
+
+        TransactionResult result = transactionCoordinator.execute(nextTransferId("delivery"),
+                List.of(InventoryLeg.add(TransactionKeys.inventory(recipient.getUniqueId()), recipient.getInventory(),
+                        new ItemStack(delivery.material(), delivery.amount()))));
+        if (result.isCommitted()) {
+            recipient.sendMessage("§a✓ " + delivery.amount() + "x " + delivery.material().name()
+                    + " aus der Börse erhalten (Plot existiert nicht mehr).");
+        }
+        return result.isCommitted();
+    }
+
+    // ==================== Intern ====================
+
+    /**
+     * Prüft Eingaben, Order-Limit und Plot-Zugriff; meldet Fehler dem Spieler.
+     */
+    private boolean validate(Player player, Plot plot, Material material, int quantity, Money limitPrice) {
+        if (!engine.isRunning()) {
+            player.sendMessage("§cDie Börse ist derzeit geschlossen!");
+            return false;
+        }
+        if (material == null || !material.isItem() || material.isAir()) {
+            player.sendMessage("§cDieses Item kann nicht gehandelt werden!");
+            return false;
+        }
+        if (quantity <= 0 || limitPrice == null || !limitPrice.isPositive()
+                || !Money.BASE_CURRENCY_ID.equals(limitPrice.currencyId())) {
+            player.sendMessage("§cMenge und Preis müssen positiv sein (Basiswährung)!");
+            return false;
+        }
+        if (getOpenOrders(player.getUniqueId()).size() >= maxOpenOrders) {
+            player.sendMessage("§cDu hast bereits " + maxOpenOrders + " offene Orders!");
+            return false;
+        }
+        if (!hasAccess(player, plot)) {
+            player.sendMessage("§cDu hast keinen Zugriff auf das Lager dieses Plots!");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prüft ob ein Spieler Eigentümer oder Mitglied eines Plots ist.
+     */
+    private boolean hasAccess(Player player, Plot plot) {
+        PlotProvider plotProvider = providers.getPlotProvider();
+        if (plot == null || plotProvider == null || !plotProvider.isAvailable()) {
+            return false;
+        }
+
+        try {
+            return plotProvider.isOwner(plot, player) || plotProvider.isAssociate(plot, player.getUniqueId());
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Übernimmt eine hinterlegte Order und reiht sie zum Matching ein.
+     */
+    private boolean accept(Player player, MarketOrder order) {
+        if (!engine.submit(order)) {
+            release(order, order.getQuantity());
+            player.sendMessage("§cDie Börse ist derzeit geschlossen - Hinterlegung wird zurückgegeben.");
+            return false;
+        }
+
+        openOrders.put(order.getOrderId(), toOrderData(order));
+        dirty = true;
+        player.sendMessage("§a✓ Order #" + order.getOrderId() + " eingestellt: "
+                + (order.getSide() == Side.BUY ? "Kaufe " : "Verkaufe ") + order.getQuantity() + "x "
+                + order.getMaterial().name() + " à " + order.getLimitPrice().toPlainString());
+        return true;
+    }
+
+    /**
+     * Gibt die Output-Truhen eines Plots zurück (leer wenn nicht verfügbar).
+     */
+    private List<Location> outputChests(Plot plot) {
+        PlotStorageProvider storageProvider = providers.getPlotStorageProvider();
+        if (storageProvider == null || !storageProvider.isAvailable()) {
+            return List.of();
+        }
+
+        try {
+            return storageProvider.getOutputChestLocations(plot);
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Wandelt Truhen-Positionen in Inventare mit Transaktions-Schlüsseln um.
+     */
+    private static List<Map.Entry<String, Inventory>> chestInventories(List<Location> locations) {
+        List<Map.Entry<String, Inventory>> chests = new ArrayList<>(locations.size());
+        for (Location location : locations) {
+            if (location.getBlock().getState() instanceof org.bukkit.block.Chest chest) {
+                chests.add(Map.entry(TransactionKeys.container(location), chest.getInventory()));
+            }
+        }
+        return chests;
+    }
+
+    /**
+     * Erzeugt eine neue Transaktions-ID für Truhen-Buchungen.
+     *
+     * Jeder Versuch braucht eine eigene ID - der Coordinator spielt Ergebnisse
+     * bekannter IDs nur noch ab (auch Fehlschläge).
+     */
+    private String nextTransferId(String kind) {
+        return "market-" + kind + ":" + (++transferSequence);
+    }
+
+    /**
+     * Sendet einem Spieler eine Nachricht, falls er online ist.
+     */
+    private void notify(UUID playerId, String message) {
+        Player player = plugin.getServer().getPlayer(playerId);
+        if (player != null) {
+            player.sendMessage(message);
+        }
+    }
+
+    // ==================== Persistierung ====================
+
+    /**
+     * Stellt offene Orders und Lieferungen wieder her (Orders in ID-Reihenfolge → gleiche Zeit-Priorität).
+     */
+    private void restore() {
+        if (dataStore == null) {
+            return;
+        }
+
+        try {
+            Optional<StateData> loaded = dataStore.loadSync(NAMESPACE, STATE_KEY, StateData.class);
+            if (loaded.isEmpty()) {
+                return;
+            }
+
+            StateData data = loaded.get();
+            nextOrderId = Math.max(nextOrderId, data.nextOrderId);
+
+            int restored = 0;
+            for (OrderData entry : data.orders) {
+                Optional<Plot> plot = resolvePlot(entry.world, entry.x, entry.y, entry.z);
+                Material material = Material.matchMaterial(entry.material);
+                UUID traderId = UUID.fromString(entry.traderId);
+                Side side = Side.valueOf(entry.side);
+
+                if (plot.isEmpty() || material == null) {
+                    // Plot existiert nicht mehr: Gebote erstatten, Ware an den Händler zurückgeben
+                    if (side == Side.BUY) {
+                        pay(traderId, Money.of(entry.limitPriceMinor, Money.BASE_CURRENCY_ID).times(entry.remaining),
+                                "Plot entfernt #" + entry.orderId);
+                    } else {
+                        logger.warning("○ Markt-Order #" + entry.orderId + " aufgelöst (Plot/Item unbekannt): "
+                                + entry.remaining + "x " + entry.material + " geht an " + traderId);
+                        restoreDelivery(null, material, entry.material, entry.remaining, traderId);
+                    }
+                    dirty = true;
+                    continue;
+                }
+
+                MarketOrder order = new MarketOrder(entry.orderId, side, material, traderId, plot.get(),
+                        entry.limitPriceMinor, entry.quantity, entry.remaining);
+                engine.submit(order);
+                openOrders.put(order.getOrderId(), entry);
+                restored++;
+            }
+
+            for (DeliveryData entry : data.deliveries) {
+                Optional<Plot> plot = entry.toInventory
+                        ? Optional.empty()
+                        : resolvePlot(entry.world, entry.x, entry.y, entry.z);
+                if (plot.isEmpty() && !entry.toInventory) {
+                    logger.warning("○ Markt-Lieferung umgeleitet (Plot unbekannt): " + entry.amount + "x "
+                            + entry.material + " geht ins Inventar von " + entry.recipientId);
+                    dirty = true;
+                }
+                restoreDelivery(plot.orElse(null), Material.matchMaterial(entry.material), entry.material,
+                        entry.amount, UUID.fromString(entry.recipientId));
+            }
+
+            for (PayoutData entry : data.payouts) {
+                Payout payout = new Payout(nextPayoutId++, UUID.fromString(entry.playerId),
+                        Money.of(entry.amountMinor, entry.currencyId), entry.reason);
+                payout.attempts = 1;   // bereits versucht - Erfolg wird protokolliert
+                payouts.put(payout.id, payout);
+            }
+
+            logger.info("✓ Börse wiederhergestellt: " + restored + " offene Orders, "
+                    + deliveries.size() + " ausstehende Lieferungen, " + payouts.size() + " ausstehende Auszahlungen");
+        } catch (Exception e) {
+            logger.warning("✗ Markt-Zustand konnte nicht geladen werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stellt eine Lieferung wieder her; ist das Item unbekannt (z.B. nach einem
+     * Versions-Wechsel), bleibt sie unverändert gespeichert statt verworfen zu werden.
+     *
+     * @param plot Ziel-Plot (null = Inventar des Empfängers)
+     */
+    private void restoreDelivery(Plot plot, Material material, String materialName, int amount, UUID recipientId) {
+        if (material != null) {
+            deliveries.addLast(new Delivery(plot, material, amount, recipientId));
+            return;
+        }
+
+        logger.warning("✗ Markt-Lieferung zurückgestellt (Item unbekannt): " + amount + "x " + materialName
+                + " für " + recipientId + " - bleibt gespeichert");
+        DeliveryData parked = new DeliveryData();
+        parked.material = materialName;
+        parked.amount = amount;
+        parked.recipientId = recipientId.toString();
+        parked.toInventory = true;
+        unresolvedDeliveries.add(parked);
+    }
+
+    /**
+     * Findet einen Plot über seine gespeicherte Position.
+     */
+    private Optional<Plot> resolvePlot(String worldName, double x, double y, double z) {
+        PlotProvider plotProvider = providers.getPlotProvider();
+        World world = worldName != null ? plugin.getServer().getWorld(worldName) : null;
+        if (world == null || plotProvider == null || !plotProvider.isAvailable()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.ofNullable(plotProvider.getPlot(new Location(world, x, y, z)));
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Erstellt den persistierbaren Zustand (Kopie, darf asynchron geschrieben werden).
+     */
+    private StateData toStateData() {
+        StateData data = new StateData();
+        data.nextOrderId = nextOrderId;
+        for (OrderData order : openOrders.values()) {
+            OrderData copy = new OrderData();
+            copy.orderId = order.orderId;
+            copy.side = order.side;
+            copy.material = order.material;
+            copy.traderId = order.traderId;
+            copy.world = order.world;
+            copy.x = order.x;
+            copy.y = order.y;
+            copy.z = order.z;
+            copy.limitPriceMinor = order.limitPriceMinor;
+            copy.quantity = order.quantity;
+            copy.remaining = order.remaining;
+            data.orders.add(copy);
+        }
+        for (Delivery delivery : deliveries) {
+            DeliveryData entry = new DeliveryData();
+            if (delivery.plot() != null) {
+                Location location = delivery.plot().getLocation();
+                entry.world = location.getWorld() != null ? location.getWorld().getName() : null;
+                entry.x = location.getX();
+                entry.y = location.getY();
+                entry.z = location.getZ();
+            } else {
+                entry.toInventory = true;
+            }
+            entry.material = delivery.material().name();
+            entry.amount = delivery.amount();
+            entry.recipientId = delivery.recipientId().toString();
+            data.deliveries.add(entry);
+        }
+        data.deliveries.addAll(unresolvedDeliveries);
+        for (Payout payout : payouts.values()) {
+            PayoutData entry = new PayoutData();
+            entry.playerId = payout.playerId.toString();
+            entry.amountMinor = payout.amount.minorUnits();
+            entry.currencyId = payout.amount.currencyId();
+            entry.reason = payout.reason;
+            data.payouts.add(entry);
+        }
+        return data;
+    }
+
+    /**
+     * Erstellt den Persistierungs-Eintrag einer neuen Order.
+     */
+    private static OrderData toOrderData(MarketOrder order) {
+        OrderData data = new OrderData();
+        Location location = order.getPlot().getLocation();
+        data.orderId = order.getOrderId();
+        data.side = order.getSide().name();
+        data.material = order.getMaterial().name();
+        data.traderId = order.getTraderId().toString();
+        data.world = location.getWorld() != null ? location.getWorld().getName() : null;
+        data.x = location.getX();
+        data.y = location.getY();
+        data.z = location.getZ();
+        data.limitPriceMinor = order.getLimitPriceMinor();
+        data.quantity = order.getQuantity();
+        data.remaining = order.getQuantity();
+        return data;
+    }
+}
@@ -0,0 +1,185 @@
+package de.fallenstar.economy.market;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.provider.Plot;
+import org.bukkit.Material;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Limit-Order im Orderbuch eines Items.
+ *
+ * Eine Order ist entweder ein Gebot (BUY, Bid) oder ein Angebot (SELL, Ask)
+ * zu einem Limit-Preis in Minor Units der Basiswährung. Teilausführungen
+ * verringern die Restmenge, bis die Order vollständig ausgeführt ist.
+ *
+ * **Konsistenz:**
+ * Alle Felder außer der Restmenge sind unveränderlich. Die Restmenge wird
+ * ausschließlich vom Matching-Thread der {@link MatchingEngine} verändert;
+ * andere Threads sehen eine Order nur über {@link OrderEvent}-Kopien.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public final class MarketOrder {
+
+    /**
+     * Seite einer Order.
+     */
+    public enum Side {
+        /** Gebot: Käufer hat Geld hinterlegt */
+        BUY,
+        /** Angebot: Verkäufer hat Ware hinterlegt */
+        SELL;
+
+        /**
+         * Gibt die Gegenseite zurück.
+         *
+         * @return Gegenseite
+         */
+        public Side opposite() {
+            return this == BUY ? SELL : BUY;
+        }
+    }
+
+    private final long orderId;
+    private final Side side;
+    private final Material material;
+    private final UUID traderId;
+    private final Plot plot;
+    private final long limitPriceMinor;
+    private final int quantity;
+    private int remaining;
+
+    /**
+     * Konstruktor für MarketOrder.
+     *
+     * @param orderId Eindeutige Order-ID
+     * @param side Seite (BUY/SELL)
+     * @param material Gehandeltes Item
+     * @param traderId Spieler-UUID des Händlers
+     * @param plot Plot, über dessen Lager die Ware geliefert bzw. entnommen wird
+     * @param limitPriceMinor Limit-Preis pro Stück (Minor Units, &gt; 0)
+     * @param quantity Ursprüngliche Menge (&gt; 0)
+     * @param remaining Offene Restmenge (1..quantity)
+     */
+    public MarketOrder(long orderId, Side side, Material material, UUID traderId, Plot plot,
+                       long limitPriceMinor, int quantity, int remaining) {
+        this.orderId = orderId;
+        this.side = Objects.requireNonNull(side, "Side darf nicht null sein");
+        this.material = Objects.requireNonNull(material, "Material darf nicht null sein");
+        this.traderId = Objects.requireNonNull(traderId, "Händler darf nicht null sein");
+        this.plot = Objects.requireNonNull(plot, "Plot darf nicht null sein");
+
+        if (limitPriceMinor <= 0) {
+            throw new IllegalArgumentException("Limit-Preis muss positiv sein: " + limitPriceMinor);
+        }
+        if (quantity <= 0 || remaining <= 0 || remaining > quantity) {
+            throw new IllegalArgumentException("Ungültige Menge: " + remaining + "/" + quantity);
+        }
+
+        this.limitPriceMinor = limitPriceMinor;
+        this.quantity = quantity;
+        this.remaining = remaining;
+    }
+
+    /**
+     * @return Order-ID
+     */
+    public long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * @return Seite (BUY/SELL)
+     */
+    public Side getSide() {
+        return side;
+    }
+
+    /**
+     * @return Gehandeltes Item
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * @return Spieler-UUID des Händlers
+     */
+    public UUID getTraderId() {
+        return traderId;
+    }
+
+    /**
+     * @return Plot für Lieferung bzw. Entnahme der Ware
+     */
+    public Plot getPlot() {
+        return plot;
+    }
+
+    /**
+     * @return Limit-Preis pro Stück in Minor Units
+     */
+    public long getLimitPriceMinor() {
+        return limitPriceMinor;
+    }
+
+    /**
+     * Gibt den Limit-Preis als Money zurück.
+     *
+     * @return Limit-Preis pro Stück (Basiswährung)
+     */
+    public Money getLimitPrice() {
+        return Money.of(limitPriceMinor, Money.BASE_CURRENCY_ID);
+    }
+
+    /**
+     * @return Ursprüngliche Menge
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * @return Offene Restmenge
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Prüft ob ein Preis das Limit dieser Order erfüllt.
+     *
+     * @param priceMinor Preis der Gegenseite (Minor Units)
+     * @return true wenn handelbar
+     */
+    public boolean crosses(long priceMinor) {
+        return side == Side.BUY ? priceMinor <= limitPriceMinor : priceMinor >= limitPriceMinor;
+    }
+
+    /**
+     * Verringert die Restmenge nach einer (Teil-)Ausführung (nur Matching-Thread).
+     *
+     * @param amount Ausgeführte Menge
+     */
+    void fill(int amount) {
+        remaining -= amount;
+    }
+
+    /**
+     * Prüft ob die Order vollständig ausgeführt ist.
+     *
+     * @return true wenn keine Restmenge mehr offen ist
+     */
+    public boolean isFilled() {
+        return remaining == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "MarketOrder{#" + orderId + " " + side + " " + remaining + "/" + quantity + "x "
+                + material + " @ " + getLimitPrice().toPlainString() + "}";
+    }
+}
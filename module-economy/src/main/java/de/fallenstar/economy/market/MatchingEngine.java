@@ -0,0 +1,316 @@
+package de.fallenstar.economy.market;
+
+import org.bukkit.Material;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Matching-Engine mit Single-Writer-Event-Loop.
+ *
+ * Alle Orderbücher gehören einem einzigen Thread ("FallenStar-Market").
+ * Aufrufer reihen Befehle (Order einstellen, stornieren) lock-frei in eine
+ * Multi-Producer-Queue ein; der Matching-Thread arbeitet sie strikt der Reihe
+ * nach ab. Ergebnisse verlassen den Thread als {@link OrderEvent}s über eine
+ * zweite Queue, die der Main-Thread abrechnet.
+ *
+ * Features:
+ * - Ein {@link OrderBook} pro Item (Preis-Zeit-Priorität, Teilausführungen)
+ * - Lock-freie Ein- und Ausgangs-Queues (ConcurrentLinkedQueue + park/unpark)
+ * - Fortlaufende Sequenznummern für alle Events
+ * - Veröffentlichte Markttiefe-Snapshots für beliebige Leser-Threads
+ *
+ * **Verwendung:**
+ * <pre>
+ * engine.start();
+ * engine.submit(order);                 // beliebiger Thread
+ * engine.drainEvents(exchange::settle); // Main-Thread
+ * engine.getSnapshot(Material.DIAMOND); // beliebiger Thread
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Da nur ein Thread die Bücher verändert, ist das Matching deterministisch:
+ * dieselbe Befehlsfolge ergibt dieselben Fills mit denselben Sequenznummern.
+ * Hinterlegungen (Geld/Ware) erfolgen vor dem Einreihen; die Engine selbst
+ * bucht nichts.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class MatchingEngine {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Logger logger;
+    private final int snapshotDepth;
+    private final Queue<Command> inbox;
+    private final Queue<OrderEvent> outbox;
+    private final Map<Material, OrderBook.Snapshot> snapshots;
+
+    // Nur Matching-Thread
+    private final Map<Material, OrderBook> books;
+    private final Map<Long, Material> orderIndex;
+    private long sequence;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    /**
+     * Befehl an den Matching-Thread.
+     */
+    private sealed interface Command {
+    }
+
+    /**
+     * Order einstellen.
+     */
+    private record Submit(MarketOrder order) implements Command {
+    }
+
+    /**
+     * Order stornieren (requesterId null = ohne Eigentümer-Prüfung).
+     */
+    private record Cancel(long orderId, UUID requesterId, CompletableFuture<Boolean> result) implements Command {
+    }
+
+    /**
+     * Konstruktor für MatchingEngine.
+     *
+     * @param logger Logger
+     * @param snapshotDepth Preisstufen pro Seite in veröffentlichten Snapshots
+     */
+    public MatchingEngine(Logger logger, int snapshotDepth) {
+        this.logger = logger;
+        this.snapshotDepth = Math.max(1, snapshotDepth);
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.outbox = new ConcurrentLinkedQueue<>();
+        this.snapshots = new ConcurrentHashMap<>();
+        this.books = new EnumMap<>(Material.class);
+        this.orderIndex = new HashMap<>();
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Startet den Matching-Thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        Thread worker = new Thread(this::run, "FallenStar-Market");
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+    }
+
+    /**
+     * Beendet den Matching-Thread.
+     *
+     * Bereits eingereihte Befehle werden noch abgearbeitet (max. 5 Sekunden).
+     * Offene Orders bleiben unberührt; ihre Hinterlegungen verwaltet der Aufrufer.
+     */
+    public synchronized void shutdown() {
+        Thread worker = thread;
+        if (!running || worker == null) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(5000L);
+            if (worker.isAlive()) {
+                logger.warning("✗ Markt-Thread nicht rechtzeitig beendet - offene Befehle werden verworfen!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * @return true wenn der Matching-Thread läuft
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ==================== Befehle ====================
+
+    /**
+     * Reiht eine Order zum Matching ein.
+     *
+     * Die Hinterlegung (Geld für Gebote, Ware für Angebote) muss bereits
+     * erfolgt sein. Fills erscheinen anschließend in {@link #drainEvents}.
+     *
+     * @param order Order mit vollständiger Restmenge
+     * @return true wenn eingereiht (false wenn die Engine nicht läuft)
+     */
+    public boolean submit(MarketOrder order) {
+        return enqueue(new Submit(order));
+    }
+
+    /**
+     * Storniert eine offene Order.
+     *
+     * Bei Erfolg erscheint ein {@link OrderEvent.Cancelled} mit der Restmenge
+     * in {@link #drainEvents}.
+     *
+     * @param orderId Order-ID
+     * @param requesterId Spieler, der storniert (null = ohne Eigentümer-Prüfung)
+     * @return Future mit true wenn storniert (false wenn nicht offen oder fremd)
+     */
+    public CompletableFuture<Boolean> cancel(long orderId, UUID requesterId) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (!enqueue(new Cancel(orderId, requesterId, result))) {
+            result.complete(false);
+        }
+        return result;
+    }
+
+    /**
+     * Übergibt alle bisher entstandenen Events in Reihenfolge an einen Consumer.
+     *
+     * @param consumer Abrechnung (typischerweise auf dem Main-Thread)
+     * @return Anzahl verarbeiteter Events
+     */
+    public int drainEvents(Consumer<OrderEvent> consumer) {
+        int count = 0;
+        OrderEvent event;
+        while ((event = outbox.poll()) != null) {
+            consumer.accept(event);
+            count++;
+        }
+        return count;
+    }
+
+    // ==================== Abfragen ====================
+
+    /**
+     * Gibt die zuletzt veröffentlichte Markttiefe eines Items zurück.
+     *
+     * @param material Item
+     * @return Snapshot (leer wenn keine Orders)
+     */
+    public OrderBook.Snapshot getSnapshot(Material material) {
+        return snapshots.getOrDefault(material, OrderBook.Snapshot.empty(material));
+    }
+
+    /**
+     * @return Alle Items mit mindestens einer ruhenden Order
+     */
+    public List<Material> getActiveMaterials() {
+        return snapshots.values().stream()
+                .filter(snapshot -> !snapshot.bids().isEmpty() || !snapshot.asks().isEmpty())
+                .map(OrderBook.Snapshot::material)
+                .sorted()
+                .toList();
+    }
+
+    // ==================== Matching-Thread ====================
+
+    /**
+     * Reiht einen Befehl ein und weckt den Matching-Thread.
+     */
+    private boolean enqueue(Command command) {
+        Thread worker = thread;
+        if (!running || worker == null) {
+            return false;
+        }
+
+        inbox.offer(command);
+        LockSupport.unpark(worker);
+        return true;
+    }
+
+    /**
+     * Event-Loop: arbeitet Befehle ab, bis die Engine gestoppt und die Queue leer ist.
+     */
+    private void run() {
+        while (running || !inbox.isEmpty()) {
+            Command command = inbox.poll();
+            if (command == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            try {
+                process(command);
+            } catch (RuntimeException e) {
+                logger.severe("✗ Markt-Befehl fehlgeschlagen: " + command + " - " + e.getMessage());
+                if (command instanceof Cancel cancel) {
+                    cancel.result().complete(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verarbeitet einen Befehl (nur Matching-Thread).
+     */
+    private void process(Command command) {
+        if (command instanceof Submit submit) {
+            MarketOrder order = submit.order();
+            OrderBook book = books.computeIfAbsent(order.getMaterial(), OrderBook::new);
+
+            for (OrderEvent.Fill fill : book.submit(order, () -> ++sequence)) {
+                if (fill.buyCompleted()) {
+                    orderIndex.remove(fill.buyOrderId());
+                }
+                if (fill.sellCompleted()) {
+                    orderIndex.remove(fill.sellOrderId());
+                }
+                outbox.offer(fill);
+            }
+            if (!order.isFilled()) {
+                orderIndex.put(order.getOrderId(), order.getMaterial());
+            }
+            publish(book);
+        } else if (command instanceof Cancel cancel) {
+            cancel.result().complete(processCancel(cancel));
+        }
+    }
+
+    /**
+     * Storniert eine Order (nur Matching-Thread).
+     */
+    private boolean processCancel(Cancel cancel) {
+        Material material = orderIndex.get(cancel.orderId());
+        if (material == null) {
+            return false;
+        }
+
+        OrderBook book = books.get(material);
+        MarketOrder order = book.getOrder(cancel.orderId()).orElse(null);
+        if (order == null || (cancel.requesterId() != null && !order.getTraderId().equals(cancel.requesterId()))) {
+            return false;
+        }
+
+        book.cancel(order.getOrderId());
+        orderIndex.remove(order.getOrderId());
+        outbox.offer(new OrderEvent.Cancelled(++sequence, order, order.getRemaining()));
+        publish(book);
+        return true;
+    }
+
+    /**
+     * Veröffentlicht die Markttiefe eines Buchs.
+     */
+    private void publish(OrderBook book) {
+        snapshots.put(book.getMaterial(), book.snapshot(snapshotDepth, sequence));
+    }
+}
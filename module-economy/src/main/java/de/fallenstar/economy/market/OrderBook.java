@@ -0,0 +1,274 @@
+package de.fallenstar.economy.market;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.market.MarketOrder.Side;
+import org.bukkit.Material;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Orderbuch eines Items mit Preis-Zeit-Priorität.
+ *
+ * Gebote (Bids) und Angebote (Asks) liegen in Preisstufen: pro Preis eine
+ * FIFO-Queue der ruhenden Orders. Eine eingehende Order wird gegen die beste
+ * Stufe der Gegenseite ausgeführt, solange ihr Limit kreuzt; der Rest ruht
+ * anschließend im Buch.
+ *
+ * Features:
+ * - Preisstufen als TreeMap (beste Stufe in O(log n))
+ * - FIFO innerhalb einer Preisstufe (Zeit-Priorität)
+ * - Teilausführungen auf beiden Seiten
+ * - Ausführung zum Preis der ruhenden Order (Preisverbesserung für den Aggressor)
+ * - Stornierung per Order-ID
+ *
+ * **Konsistenz:**
+ * Nicht thread-safe. Ein Orderbuch gehört exklusiv dem Matching-Thread der
+ * {@link MatchingEngine}; andere Threads lesen nur {@link Snapshot}s.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class OrderBook {
+
+    private final Material material;
+    private final NavigableMap<Long, ArrayDeque<MarketOrder>> bids;
+    private final NavigableMap<Long, ArrayDeque<MarketOrder>> asks;
+    private final Map<Long, MarketOrder> ordersById;
+    private long lastPriceMinor;
+
+    /**
+     * Aggregierte Preisstufe.
+     *
+     * @param priceMinor Preis pro Stück (Minor Units)
+     * @param quantity Summe der Restmengen
+     * @param orders Anzahl ruhender Orders
+     */
+    public record Level(long priceMinor, long quantity, int orders) {
+
+        /**
+         * @return Preis pro Stück als Money
+         */
+        public Money price() {
+            return Money.of(priceMinor, Money.BASE_CURRENCY_ID);
+        }
+    }
+
+    /**
+     * Unveränderliche Markttiefe für Leser außerhalb des Matching-Threads.
+     *
+     * @param material Item
+     * @param bids Gebots-Stufen (bester Preis zuerst)
+     * @param asks Angebots-Stufen (bester Preis zuerst)
+     * @param lastPriceMinor Preis der letzten Ausführung (0 wenn noch keine)
+     * @param sequence Sequenznummer des Engine-Stands
+     */
+    public record Snapshot(Material material, List<Level> bids, List<Level> asks,
+                           long lastPriceMinor, long sequence) {
+
+        /**
+         * @return Bestes Gebot, oder empty
+         */
+        public Optional<Level> bestBid() {
+            return bids.isEmpty() ? Optional.empty() : Optional.of(bids.get(0));
+        }
+
+        /**
+         * @return Bestes Angebot, oder empty
+         */
+        public Optional<Level> bestAsk() {
+            return asks.isEmpty() ? Optional.empty() : Optional.of(asks.get(0));
+        }
+
+        /**
+         * Leerer Snapshot für ein Item ohne Orders.
+         *
+         * @param material Item
+         * @return Leerer Snapshot
+         */
+        public static Snapshot empty(Material material) {
+            return new Snapshot(material, List.of(), List.of(), 0L, 0L);
+        }
+    }
+
+    /**
+     * Konstruktor für OrderBook.
+     *
+     * @param material Gehandeltes Item
+     */
+    public OrderBook(Material material) {
+        this.material = material;
+        this.bids = new TreeMap<>(Comparator.reverseOrder());
+        this.asks = new TreeMap<>();
+        this.ordersById = new HashMap<>();
+    }
+
+    /**
+     * Führt eine eingehende Order gegen das Buch aus und legt den Rest ab.
+     *
+     * @param incoming Eingehende Order (Item dieses Buchs)
+     * @param sequences Quelle der Sequenznummern für die entstehenden Fills
+     * @return Fills in Ausführungsreihenfolge (leer wenn nichts kreuzt)
+     */
+    public List<OrderEvent.Fill> submit(MarketOrder incoming, LongSupplier sequences) {
+        if (incoming.getMaterial() != material) {
+            throw new IllegalArgumentException("Order für " + incoming.getMaterial() + " im Buch von " + material);
+        }
+        if (ordersById.containsKey(incoming.getOrderId())) {
+            throw new IllegalArgumentException("Order-ID bereits im Buch: " + incoming.getOrderId());
+        }
+
+        NavigableMap<Long, ArrayDeque<MarketOrder>> opposite = levels(incoming.getSide().opposite());
+        List<OrderEvent.Fill> fills = new ArrayList<>();
+
+        while (!incoming.isFilled() && !opposite.isEmpty()) {
+            Map.Entry<Long, ArrayDeque<MarketOrder>> best = opposite.firstEntry();
+            if (!incoming.crosses(best.getKey())) {
+                break;
+            }
+
+            ArrayDeque<MarketOrder> queue = best.getValue();
+            MarketOrder resting = queue.peekFirst();
+            int quantity = Math.min(incoming.getRemaining(), resting.getRemaining());
+
+            incoming.fill(quantity);
+            resting.fill(quantity);
+            lastPriceMinor = best.getKey();
+            fills.add(toFill(sequences.getAsLong(), incoming, resting, quantity, best.getKey()));
+
+            if (resting.isFilled()) {
+                queue.pollFirst();
+                ordersById.remove(resting.getOrderId());
+                if (queue.isEmpty()) {
+                    opposite.pollFirstEntry();
+                }
+            }
+        }
+
+        if (!incoming.isFilled()) {
+            levels(incoming.getSide())
+                    .computeIfAbsent(incoming.getLimitPriceMinor(), price -> new ArrayDeque<>())
+                    .addLast(incoming);
+            ordersById.put(incoming.getOrderId(), incoming);
+        }
+
+        return fills;
+    }
+
+    /**
+     * Entfernt eine ruhende Order aus dem Buch.
+     *
+     * @param orderId Order-ID
+     * @return Entfernte Order (mit Restmenge), oder empty wenn nicht im Buch
+     */
+    public Optional<MarketOrder> cancel(long orderId) {
+        MarketOrder order = ordersById.remove(orderId);
+        if (order == null) {
+            return Optional.empty();
+        }
+
+        NavigableMap<Long, ArrayDeque<MarketOrder>> side = levels(order.getSide());
+        ArrayDeque<MarketOrder> queue = side.get(order.getLimitPriceMinor());
+        queue.remove(order);
+        if (queue.isEmpty()) {
+            side.remove(order.getLimitPriceMinor());
+        }
+        return Optional.of(order);
+    }
+
+    /**
+     * Gibt eine ruhende Order zurück.
+     *
+     * @param orderId Order-ID
+     * @return Order, oder empty
+     */
+    public Optional<MarketOrder> getOrder(long orderId) {
+        return Optional.ofNullable(ordersById.get(orderId));
+    }
+
+    /**
+     * Erstellt einen Snapshot der Markttiefe.
+     *
+     * @param depth Maximale Anzahl Preisstufen pro Seite
+     * @param sequence Aktuelle Sequenznummer der Engine
+     * @return Snapshot
+     */
+    public Snapshot snapshot(int depth, long sequence) {
+        return new Snapshot(material, aggregate(bids, depth), aggregate(asks, depth), lastPriceMinor, sequence);
+    }
+
+    /**
+     * @return Gehandeltes Item
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * @return Anzahl ruhender Orders (beide Seiten)
+     */
+    public int getOrderCount() {
+        return ordersById.size();
+    }
+
+    /**
+     * @return true wenn keine Order im Buch ruht
+     */
+    public boolean isEmpty() {
+        return ordersById.isEmpty();
+    }
+
+    // ==================== Intern ====================
+
+    /**
+     * Gibt die Preisstufen einer Seite zurück.
+     */
+    private NavigableMap<Long, ArrayDeque<MarketOrder>> levels(Side side) {
+        return side == Side.BUY ? bids : asks;
+    }
+
+    /**
+     * Erstellt das Fill-Event aus eingehender und ruhender Order.
+     */
+    private OrderEvent.Fill toFill(long sequence, MarketOrder incoming, MarketOrder resting,
+                                   int quantity, long priceMinor) {
+        MarketOrder buy = incoming.getSide() == Side.BUY ? incoming : resting;
+        MarketOrder sell = incoming.getSide() == Side.BUY ? resting : incoming;
+
+        return new OrderEvent.Fill(sequence, material, quantity, priceMinor, incoming.getSide(),
+                buy.getOrderId(), buy.getTraderId(), buy.getPlot(), buy.getLimitPriceMinor(), buy.isFilled(),
+                sell.getOrderId(), sell.getTraderId(), sell.getPlot(), sell.isFilled());
+    }
+
+    /**
+     * Aggregiert die besten Preisstufen einer Seite.
+     */
+    private static List<Level> aggregate(NavigableMap<Long, ArrayDeque<MarketOrder>> side, int depth) {
+        if (side.isEmpty() || depth <= 0) {
+            return List.of();
+        }
+
+        List<Level> levels = new ArrayList<>(Math.min(depth, side.size()));
+        for (Map.Entry<Long, ArrayDeque<MarketOrder>> entry : side.entrySet()) {
+            if (levels.size() >= depth) {
+                break;
+            }
+
+            long quantity = 0;
+            for (MarketOrder order : entry.getValue()) {
+                quantity += order.getRemaining();
+            }
+            levels.add(new Level(entry.getKey(), quantity, entry.getValue().size()));
+        }
+        return Collections.unmodifiableList(levels);
+    }
+}
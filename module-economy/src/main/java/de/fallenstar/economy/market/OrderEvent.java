@@ -0,0 +1,83 @@
+package de.fallenstar.economy.market;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.economy.market.MarketOrder.Side;
+import org.bukkit.Material;
+
+import java.util.UUID;
+
+/**
+ * Ergebnis des Matching-Threads, das auf dem Main-Thread abgerechnet wird.
+ *
+ * Events sind unveränderliche Kopien und tragen eine fortlaufende
+ * Sequenznummer der {@link MatchingEngine}. Sie werden in genau der
+ * Reihenfolge abgerechnet, in der sie entstanden sind.
+ *
+ * Arten:
+ * - FILL: Zwei Orders wurden (teilweise) gegeneinander ausgeführt
+ * - CANCELLED: Eine offene Order wurde storniert (Hinterlegung freigeben)
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public sealed interface OrderEvent {
+
+    /**
+     * Gibt die Sequenznummer des Events zurück.
+     *
+     * @return Fortlaufende Sequenznummer (eindeutig pro Engine)
+     */
+    long sequence();
+
+    /**
+     * (Teil-)Ausführung zweier Orders zum Preis der ruhenden Order.
+     *
+     * @param sequence Sequenznummer
+     * @param material Gehandeltes Item
+     * @param quantity Ausgeführte Menge
+     * @param priceMinor Ausführungspreis pro Stück (Minor Units)
+     * @param aggressor Seite der eingehenden Order
+     * @param buyOrderId Order-ID des Gebots
+     * @param buyerId Käufer
+     * @param buyerPlot Lieferziel des Käufers
+     * @param buyLimitMinor Limit des Gebots (für die Erstattung der Preisverbesserung)
+     * @param buyCompleted true wenn das Gebot damit vollständig ausgeführt ist
+     * @param sellOrderId Order-ID des Angebots
+     * @param sellerId Verkäufer
+     * @param sellerPlot Lager des Verkäufers
+     * @param sellCompleted true wenn das Angebot damit vollständig ausgeführt ist
+     */
+    record Fill(long sequence, Material material, int quantity, long priceMinor, Side aggressor,
+                long buyOrderId, UUID buyerId, Plot buyerPlot, long buyLimitMinor, boolean buyCompleted,
+                long sellOrderId, UUID sellerId, Plot sellerPlot, boolean sellCompleted) implements OrderEvent {
+
+        /**
+         * Gibt den Gesamtbetrag der Ausführung zurück (Auszahlung an den Verkäufer).
+         *
+         * @return Preis × Menge
+         */
+        public Money total() {
+            return Money.of(priceMinor, Money.BASE_CURRENCY_ID).times(quantity);
+        }
+
+        /**
+         * Gibt die Erstattung an den Käufer zurück (hinterlegtes Limit minus Ausführungspreis).
+         *
+         * @return (Limit - Preis) × Menge, 0 bei Ausführung zum Limit
+         */
+        public Money buyerRefund() {
+            return Money.of(buyLimitMinor - priceMinor, Money.BASE_CURRENCY_ID).times(quantity);
+        }
+    }
+
+    /**
+     * Stornierte Order mit ihrer Restmenge.
+     *
+     * @param sequence Sequenznummer
+     * @param order Stornierte Order (Restmenge zum Zeitpunkt der Stornierung)
+     * @param remaining Freizugebende Restmenge
+     */
+    record Cancelled(long sequence, MarketOrder order, int remaining) implements OrderEvent {
+    }
+}
@@ -1,6 +1,7 @@
 package de.fallenstar.economy.model;
 
-import java.math.BigDecimal;
+import de.fallenstar.core.economy.Money;
+
 import java.util.UUID;
 
 /**
@@ -9,7 +10,7 @@ import java.util.UUID;
  * Ein BankAccount ist gebunden an:
  * - Einen Spieler (UUID)
  * - Eine Währung (CurrencyItemSet)
- * - Einen Kontostand (BigDecimal)
+ * - Einen Kontostand (Money, Festkomma in Minor Units)
  *
  * Bank-Konten werden von BankAccountHandler verwaltet und sind unabhängig
  * vom Vault-Economy-System. Sie ermöglichen Ingame-Banken mit eigener
@@ -25,7 +26,7 @@ import java.util.UUID;
 public record BankAccount(
         UUID playerId,
         String currencyId,
-        BigDecimal balance
+        Money balance
 ) {
 
     /**
@@ -34,12 +35,15 @@ public record BankAccount(
      * @param playerId Spieler-UUID
      * @param currencyId Währungs-ID
      * @param balance Kontostand
-     * @throws IllegalArgumentException wenn balance negativ
+     * @throws IllegalArgumentException wenn balance negativ oder in falscher Währung
      */
     public BankAccount {
-        if (balance.compareTo(BigDecimal.ZERO) < 0) {
+        if (balance.isNegative()) {
             throw new IllegalArgumentException("Kontostand darf nicht negativ sein!");
         }
+        if (!balance.currencyId().equals(currencyId)) {
+            throw new IllegalArgumentException("Kontostand muss in " + currencyId + " geführt werden!");
+        }
     }
 
     /**
@@ -50,7 +54,7 @@ public record BankAccount(
      * @return Neues BankAccount mit Balance 0
      */
     public static BankAccount createEmpty(UUID playerId, String currencyId) {
-        return new BankAccount(playerId, currencyId, BigDecimal.ZERO);
+        return new BankAccount(playerId, currencyId, Money.zero(currencyId));
     }
 
     /**
@@ -59,7 +63,7 @@ public record BankAccount(
      * @param newBalance Neue Balance
      * @return Neues BankAccount mit aktualisierter Balance
      */
-    public BankAccount withBalance(BigDecimal newBalance) {
+    public BankAccount withBalance(Money newBalance) {
         return new BankAccount(playerId, currencyId, newBalance);
     }
 
@@ -69,8 +73,8 @@ public record BankAccount(
      * @param amount Gewünschter Betrag
      * @return true wenn balance >= amount
      */
-    public boolean hasEnough(BigDecimal amount) {
-        return balance.compareTo(amount) >= 0;
+    public boolean hasEnough(Money amount) {
+        return balance.isAtLeast(amount);
     }
 
     /**
@@ -79,6 +83,6 @@ public record BankAccount(
      * @return true wenn Balance 0
      */
     public boolean isEmpty() {
-        return balance.compareTo(BigDecimal.ZERO) == 0;
+        return balance.isZero();
     }
 }
@@ -0,0 +1,104 @@
+package de.fallenstar.economy.model;
+
+/**
+ * Stückelung eines Betrags in Münzen einer Währung (Bronze/Silber/Gold).
+ *
+ * Ergebnis des CoinDenominationEngine. Beträge werden in Münz-Einheiten der
+ * Währung gezählt (1 Einheit = 1 Bronze-Münze, Silber = 10, Gold = 100).
+ *
+ * Beispiel: 115 Einheiten = 1x Gold + 1x Silber + 5x Bronze
+ *
+ * @param currencyId Währungs-ID
+ * @param bronze Anzahl Bronze-Münzen (1er)
+ * @param silver Anzahl Silber-Münzen (10er)
+ * @param gold Anzahl Gold-Münzen (100er)
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public record CoinBreakdown(
+        String currencyId,
+        long bronze,
+        long silver,
+        long gold
+) {
+
+    /**
+     * Erstellt eine CoinBreakdown.
+     *
+     * @throws IllegalArgumentException wenn eine Anzahl negativ ist
+     */
+    public CoinBreakdown {
+        if (bronze < 0 || silver < 0 || gold < 0) {
+            throw new IllegalArgumentException("Münzanzahl darf nicht negativ sein!");
+        }
+    }
+
+    /**
+     * Erstellt eine leere Stückelung.
+     *
+     * @param currencyId Währungs-ID
+     * @return CoinBreakdown ohne Münzen
+     */
+    public static CoinBreakdown empty(String currencyId) {
+        return new CoinBreakdown(currencyId, 0, 0, 0);
+    }
+
+    /**
+     * Gibt die Anzahl Münzen eines Tiers zurück.
+     *
+     * @param tier Münz-Tier
+     * @return Anzahl Münzen
+     */
+    public long count(CurrencyItemSet.CurrencyTier tier) {
+        return switch (tier) {
+            case BRONZE -> bronze;
+            case SILVER -> silver;
+            case GOLD -> gold;
+        };
+    }
+
+    /**
+     * Gibt den Gesamtwert in Münz-Einheiten (Bronze-Äquivalent) zurück.
+     *
+     * @return Wert in Einheiten
+     */
+    public long totalUnits() {
+        return bronze + silver * 10 + gold * 100;
+    }
+
+    /**
+     * Gibt die Gesamtanzahl Münzen zurück.
+     *
+     * @return Anzahl Münzen
+     */
+    public long coinCount() {
+        return bronze + silver + gold;
+    }
+
+    /**
+     * Gibt die Anzahl benötigter Stacks zurück.
+     *
+     * @param maxStackSize Maximale Stack-Größe
+     * @return Anzahl Stacks (pro Tier aufgerundet)
+     */
+    public int stackCount(int maxStackSize) {
+        return (int) (stacksFor(bronze, maxStackSize) + stacksFor(silver, maxStackSize) + stacksFor(gold, maxStackSize));
+    }
+
+    /**
+     * Prüft ob keine Münzen enthalten sind.
+     *
+     * @return true wenn leer
+     */
+    public boolean isEmpty() {
+        return coinCount() == 0;
+    }
+
+    /**
+     * Stacks für eine Münzanzahl (aufgerundet).
+     */
+    private static long stacksFor(long coins, int maxStackSize) {
+        return (coins + maxStackSize - 1) / maxStackSize;
+    }
+}
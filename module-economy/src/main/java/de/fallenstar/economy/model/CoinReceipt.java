@@ -0,0 +1,116 @@
+package de.fallenstar.economy.model;
+
+import de.fallenstar.core.economy.Money;
+
+/**
+ * Beleg einer Sammel-Ein- oder -Auszahlung (alle Tiers in einer Buchung).
+ *
+ * Wird von BankAccountHandler (Bank-Konto) und CurrencyManager (Vault)
+ * zurückgegeben und enthält die bewegten Münzen pro Tier, den gebuchten
+ * Wert und - falls bekannt - den neuen Kontostand.
+ *
+ * Beispiel: "2x Gold, 1x Silber, 5x Bronze = 215.00 (Stand: 1215.00)"
+ *
+ * @param operation Art der Buchung
+ * @param status Ergebnis der Buchung
+ * @param coins Bewegte Münzen (leer wenn nichts gebucht)
+ * @param value Gebuchter Wert (Bank: Bank-Währung, Vault: Basiswährung)
+ * @param requested Gewünschter Wert (Einzahlung: Wert der gefundenen Münzen)
+ * @param balanceAfter Kontostand nach der Buchung, oder null wenn unbekannt (Vault)
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public record CoinReceipt(
+        Operation operation,
+        Status status,
+        CoinBreakdown coins,
+        Money value,
+        Money requested,
+        Money balanceAfter
+) {
+
+    /**
+     * Art der Buchung.
+     */
+    public enum Operation {
+        DEPOSIT_ALL,  // Alle Münzen einer Währung einzahlen
+        WITHDRAW      // Betrag in möglichst wenigen Münzen auszahlen
+    }
+
+    /**
+     * Ergebnis der Buchung.
+     */
+    public enum Status {
+        COMPLETED,  // Vollständig gebucht
+        PARTIAL,    // Teilweise gebucht (Guthaben/Liquidität/Rundung)
+        NOTHING,    // Nichts zu buchen (keine Münzen, kein Guthaben)
+        FAILED      // Fehlgeschlagen und zurückgebucht
+    }
+
+    /**
+     * Erstellt einen Beleg ohne Buchung.
+     *
+     * @param operation Art der Buchung
+     * @param status NOTHING oder FAILED
+     * @param currencyId Münz-Währung
+     * @param requested Gewünschter Wert
+     * @return CoinReceipt ohne Münzen
+     */
+    public static CoinReceipt empty(Operation operation, Status status, String currencyId, Money requested) {
+        return new CoinReceipt(operation, status, CoinBreakdown.empty(currencyId),
+                Money.zero(requested.currencyId()), requested, null);
+    }
+
+    /**
+     * Prüft ob etwas gebucht wurde.
+     *
+     * @return true bei COMPLETED oder PARTIAL
+     */
+    public boolean isSuccessful() {
+        return status == Status.COMPLETED || status == Status.PARTIAL;
+    }
+
+    /**
+     * Prüft ob nur ein Teil des gewünschten Werts gebucht wurde.
+     *
+     * @return true bei PARTIAL
+     */
+    public boolean isPartial() {
+        return status == Status.PARTIAL;
+    }
+
+    /**
+     * Gibt eine einzeilige Zusammenfassung zurück (für Log und Chat).
+     *
+     * @return z.B. "2x Gold, 5x Bronze = 205.00 (Stand: 1205.00)"
+     */
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        appendTier(builder, coins.gold(), "Gold");
+        appendTier(builder, coins.silver(), "Silber");
+        appendTier(builder, coins.bronze(), "Bronze");
+        if (builder.isEmpty()) {
+            builder.append("keine Münzen");
+        }
+
+        builder.append(" = ").append(value.toPlainString());
+        if (balanceAfter != null) {
+            builder.append(" (Stand: ").append(balanceAfter.toPlainString()).append(")");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Hängt "Nx Tier" an, falls Münzen vorhanden.
+     */
+    private static void appendTier(StringBuilder builder, long count, String name) {
+        if (count <= 0) {
+            return;
+        }
+        if (!builder.isEmpty()) {
+            builder.append(", ");
+        }
+        builder.append(count).append("x ").append(name);
+    }
+}
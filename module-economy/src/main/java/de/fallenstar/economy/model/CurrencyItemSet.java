@@ -1,11 +1,15 @@
 package de.fallenstar.economy.model;
 
+import de.fallenstar.core.economy.Money;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Repräsentiert eine Währung mit 3 Tiers (Bronze/Silber/Gold) und Wechselkurs.
@@ -105,6 +109,34 @@ public record CurrencyItemSet(
         return baseAmount.divide(exchangeRate, 2, java.math.RoundingMode.HALF_UP);
     }
 
+    /**
+     * Konvertiert einen Festkomma-Betrag in dieser Währung zur Basiswährung.
+     *
+     * Bruchteile von Minor Units werden kaufmännisch gerundet (HALF_UP).
+     *
+     * @param amount Betrag in dieser Währung
+     * @return Äquivalenter Betrag in Basiswährung
+     * @throws IllegalArgumentException wenn amount nicht in dieser Währung ist
+     */
+    public Money toBaseCurrency(Money amount) {
+        if (!currencyId.equals(amount.currencyId())) {
+            throw new IllegalArgumentException("Betrag ist nicht in " + currencyId + ": " + amount);
+        }
+        return Money.of(amount.minorUnits(), Money.BASE_CURRENCY_ID).times(exchangeRate, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Berechnet die Kosten einer Münze in Basiswährung (Tier-Wert × Wechselkurs).
+     *
+     * Beispiel: Silber-Dukat (10) mit Wechselkurs 1.2 = 12.00 Sterne
+     *
+     * @param tier Münz-Tier
+     * @return Kosten einer Münze in Basiswährung
+     */
+    public Money getCoinCostInBase(CurrencyTier tier) {
+        return toBaseCurrency(Money.ofMajor(getTierValue(tier), currencyId));
+    }
+
     /**
      * Gibt den Wert eines Tiers in Basiseinheiten zurück.
      *
@@ -166,6 +198,7 @@ public record CurrencyItemSet(
      * @param tier Münz-Tier (BRONZE, SILVER, GOLD)
      * @param itemChecker Funktion zum Prüfen ob ItemStack eine Münze ist (SpecialItem-Check)
      * @return InventoryCoinResult mit gefundenen Münzen
+     * @see #findAllCoinsInInventory(Inventory, CoinTierResolver)
      */
     public InventoryCoinResult findCoinsInInventory(Inventory inventory, CurrencyTier tier,
                                                       CoinItemChecker itemChecker) {
@@ -191,6 +224,47 @@ public record CurrencyItemSet(
         return new InventoryCoinResult(foundStacks, totalAmount);
     }
 
+    /**
+     * Sucht Münzen aller Tiers dieser Währung in einem Durchlauf.
+     *
+     * Jeder Stack wird genau einmal geprüft; der Resolver liefert direkt das
+     * Tier (z.B. CoinRecognizer mit PDC-Schnellpfad und Meta-Cache).
+     *
+     * @param inventory Inventar zum Durchsuchen
+     * @param resolver Ordnet einem Stack das Tier dieser Währung zu
+     * @return Ergebnis pro Tier (alle Tiers enthalten, ggf. leer)
+     */
+    public Map<CurrencyTier, InventoryCoinResult> findAllCoinsInInventory(Inventory inventory,
+                                                                           CoinTierResolver resolver) {
+        CurrencyTier[] tiers = CurrencyTier.values();
+        List<List<InventorySlotStack>> foundStacks = new ArrayList<>(tiers.length);
+        int[] totals = new int[tiers.length];
+        for (int t = 0; t < tiers.length; t++) {
+            foundStacks.add(new ArrayList<>());
+        }
+
+        ItemStack[] contents = inventory.getContents();
+        for (int i = 0; i < contents.length; i++) {
+            ItemStack stack = contents[i];
+            if (stack == null || stack.getType().isAir()) {
+                continue;
+            }
+
+            CurrencyTier tier = resolver.resolveTier(stack, currencyId);
+            if (tier != null) {
+                int amount = stack.getAmount();
+                foundStacks.get(tier.ordinal()).add(new InventorySlotStack(i, stack, amount));
+                totals[tier.ordinal()] += amount;
+            }
+        }
+
+        Map<CurrencyTier, InventoryCoinResult> results = new EnumMap<>(CurrencyTier.class);
+        for (CurrencyTier tier : tiers) {
+            results.put(tier, new InventoryCoinResult(foundStacks.get(tier.ordinal()), totals[tier.ordinal()]));
+        }
+        return results;
+    }
+
     /**
      * Berechnet den Wert einer Anzahl von Münzen in Basiseinheiten.
      *
@@ -203,6 +277,18 @@ public record CurrencyItemSet(
         return BigDecimal.valueOf(tierValue).multiply(BigDecimal.valueOf(amount));
     }
 
+    /**
+     * Berechnet den Wert einer Anzahl von Münzen als Festkomma-Betrag in dieser Währung.
+     *
+     * @param tier Münz-Tier
+     * @param amount Anzahl der Münzen
+     * @return Wert in dieser Währung
+     * @throws ArithmeticException bei Überlauf
+     */
+    public Money calculateMoney(CurrencyTier tier, int amount) {
+        return Money.ofMajor(getTierValue(tier), currencyId).times(amount);
+    }
+
     /**
      * Functional Interface zum Prüfen ob ein ItemStack eine Münze ist.
      *
@@ -220,6 +306,23 @@ public record CurrencyItemSet(
         boolean isCoin(ItemStack stack, String itemId);
     }
 
+    /**
+     * Functional Interface zum Zuordnen eines ItemStacks zu einem Münz-Tier.
+     *
+     * Wird vom CoinRecognizer bereitgestellt.
+     */
+    @FunctionalInterface
+    public interface CoinTierResolver {
+        /**
+         * Ermittelt das Tier eines ItemStacks innerhalb einer Währung.
+         *
+         * @param stack ItemStack zum Prüfen
+         * @param currencyId Währungs-ID
+         * @return Tier, oder null wenn der Stack keine Münze dieser Währung ist
+         */
+        CurrencyTier resolveTier(ItemStack stack, String currencyId);
+    }
+
     /**
      * Ergebnis einer Inventar-Münzsuche.
      *
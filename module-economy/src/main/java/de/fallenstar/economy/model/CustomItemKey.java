@@ -0,0 +1,136 @@
+package de.fallenstar.economy.model;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Internierter Schlüssel eines Custom-Items (TYPE:ID, z.B. MMOItems "SWORD:EXCALIBUR").
+ *
+ * Pro Type/ID-Kombination existiert genau eine Instanz. Gleichheit ist damit
+ * Referenz-Gleichheit, der Hash wird einmal berechnet, und ein Preis-Lookup
+ * kostet wie bei Vanilla-Items nur einen Map-Zugriff - ohne String-Verkettung
+ * oder toUpperCase() pro Aufruf.
+ *
+ * Features:
+ * - Normalisierung (Großschreibung) nur beim ersten Auftreten einer Schreibweise
+ * - Zweistufiger Intern-Pool Type → ID → Schlüssel (Treffer ohne Allokation)
+ * - Thread-sicher (ConcurrentHashMap)
+ *
+ * **Verwendung:**
+ * <pre>
+ * CustomItemKey key = CustomItemKey.of("sword", "excalibur"); // == CustomItemKey.of("SWORD", "EXCALIBUR")
+ * Optional&lt;BigDecimal&gt; price = priceProvider.getCustomPrice(key);
+ * </pre>
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public final class CustomItemKey {
+
+    /**
+     * Intern-Pool: Schreibweise des Types → Schreibweise der ID → kanonischer Schlüssel.
+     */
+    private static final Map<String, Map<String, CustomItemKey>> POOL = new ConcurrentHashMap<>();
+
+    /**
+     * Kanonische Schlüssel nach normalisiertem "TYPE:ID".
+     */
+    private static final Map<String, CustomItemKey> CANONICAL = new ConcurrentHashMap<>();
+
+    private final String type;
+    private final String id;
+    private final String identifier;
+    private final int hash;
+
+    private CustomItemKey(String type, String id, String identifier) {
+        this.type = type;
+        this.id = id;
+        this.identifier = identifier;
+        this.hash = identifier.hashCode();
+    }
+
+    /**
+     * Gibt den internierten Schlüssel für Type und ID zurück.
+     *
+     * Groß-/Kleinschreibung wird ignoriert.
+     *
+     * @param type Item-Type (z.B. "SWORD")
+     * @param id Item-ID (z.B. "EXCALIBUR")
+     * @return Kanonischer Schlüssel
+     * @throws NullPointerException wenn type oder id null
+     */
+    public static CustomItemKey of(String type, String id) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(id, "id");
+
+        Map<String, CustomItemKey> ids = POOL.get(type);
+        if (ids != null) {
+            CustomItemKey key = ids.get(id);
+            if (key != null) {
+                return key;
+            }
+        }
+
+        // Erste Verwendung dieser Schreibweise: normalisieren und auf den kanonischen Schlüssel abbilden
+        String normalizedType = type.toUpperCase(Locale.ROOT);
+        String normalizedId = id.toUpperCase(Locale.ROOT);
+        String identifier = normalizedType + ":" + normalizedId;
+        CustomItemKey canonical = CANONICAL.computeIfAbsent(identifier,
+                ignored -> new CustomItemKey(normalizedType, normalizedId, identifier));
+
+        POOL.computeIfAbsent(type, ignored -> new ConcurrentHashMap<>()).putIfAbsent(id, canonical);
+        return canonical;
+    }
+
+    /**
+     * Parst einen Identifier der Form "TYPE:ID".
+     *
+     * @param identifier Identifier
+     * @return Schlüssel, oder null wenn kein gültiges "TYPE:ID"
+     */
+    public static CustomItemKey parse(String identifier) {
+        int separator = identifier.indexOf(':');
+        if (separator <= 0 || separator == identifier.length() - 1) {
+            return null;
+        }
+        return of(identifier.substring(0, separator), identifier.substring(separator + 1));
+    }
+
+    /**
+     * @return Item-Type (Großschreibung)
+     */
+    public String type() {
+        return type;
+    }
+
+    /**
+     * @return Item-ID (Großschreibung)
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * @return "TYPE:ID" (Großschreibung, Format der Config und des Preis-Speichers)
+     */
+    public String identifier() {
+        return identifier;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return identifier;
+    }
+}
@@ -1,5 +1,6 @@
 package de.fallenstar.economy.model;
 
+import de.fallenstar.core.economy.Money;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.MerchantRecipe;
 
@@ -11,7 +12,7 @@ import java.util.UUID;
  *
  * Features:
  * - Ankauf und Verkauf-Preise
- * - Münz-basierte Preise (in Basiswährung)
+ * - Münz-basierte Preise (in Basiswährung, Festkomma via Money)
  * - Mehrere Inputs (Input1 + Input2 optional)
  * - Output-Item
  * - MerchantRecipe-Konvertierung
@@ -38,8 +39,8 @@ public class TradeSet {
     private final ItemStack input1;          // Haupt-Input (erforderlich)
     private final ItemStack input2;          // Optionaler zweiter Input
     private final ItemStack output;          // Output-Item
-    private final BigDecimal buyPrice;       // Ankaufpreis (Spieler verkauft an NPC)
-    private final BigDecimal sellPrice;      // Verkaufspreis (Spieler kauft von NPC)
+    private final Money buyPrice;            // Ankaufpreis (Spieler verkauft an NPC)
+    private final Money sellPrice;           // Verkaufspreis (Spieler kauft von NPC)
     private final int maxUses;               // Maximale Anzahl Trades (-1 = unbegrenzt)
 
     /**
@@ -59,6 +60,30 @@ public class TradeSet {
             BigDecimal buyPrice,
             BigDecimal sellPrice,
             int maxUses
+    ) {
+        this(input1, input2, output,
+                Money.fromBigDecimal(buyPrice, Money.BASE_CURRENCY_ID),
+                Money.fromBigDecimal(sellPrice, Money.BASE_CURRENCY_ID),
+                maxUses);
+    }
+
+    /**
+     * Konstruktor für TradeSet mit Festkomma-Preisen.
+     *
+     * @param input1 Haupt-Input (erforderlich)
+     * @param input2 Optionaler zweiter Input (kann null sein)
+     * @param output Output-Item
+     * @param buyPrice Ankaufpreis (Spieler verkauft an NPC)
+     * @param sellPrice Verkaufspreis (Spieler kauft von NPC)
+     * @param maxUses Maximale Anzahl Trades (-1 = unbegrenzt)
+     */
+    public TradeSet(
+            ItemStack input1,
+            ItemStack input2,
+            ItemStack output,
+            Money buyPrice,
+            Money sellPrice,
+            int maxUses
     ) {
         this.tradeId = UUID.randomUUID();
         this.input1 = input1.clone();
@@ -111,6 +136,15 @@ public class TradeSet {
      * @return Preis in Basiswährung
      */
     public BigDecimal getBuyPrice() {
+        return buyPrice.toBigDecimal();
+    }
+
+    /**
+     * Gibt den Ankaufpreis als Festkomma-Betrag zurück.
+     *
+     * @return Preis in Basiswährung
+     */
+    public Money getBuyMoney() {
         return buyPrice;
     }
 
@@ -120,6 +154,15 @@ public class TradeSet {
      * @return Preis in Basiswährung
      */
     public BigDecimal getSellPrice() {
+        return sellPrice.toBigDecimal();
+    }
+
+    /**
+     * Gibt den Verkaufspreis als Festkomma-Betrag zurück.
+     *
+     * @return Preis in Basiswährung
+     */
+    public Money getSellMoney() {
         return sellPrice;
     }
 
@@ -178,8 +221,8 @@ public class TradeSet {
         }
 
         sb.append(", output=").append(output.getType()).append("x").append(output.getAmount());
-        sb.append(", buyPrice=").append(buyPrice);
-        sb.append(", sellPrice=").append(sellPrice);
+        sb.append(", buyPrice=").append(buyPrice.toPlainString());
+        sb.append(", sellPrice=").append(sellPrice.toPlainString());
         sb.append(", maxUses=").append(maxUses == -1 ? "∞" : maxUses);
         sb.append('}');
 
@@ -0,0 +1,156 @@
+package de.fallenstar.economy.pricing;
+
+import de.fallenstar.core.provider.ItemProvider;
+import de.fallenstar.economy.manager.CoinRecognizer;
+import de.fallenstar.economy.model.CustomItemKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Ermittelt den {@link CustomItemKey} eines ItemStacks für den Preis-Lookup.
+ *
+ * Die Identität eines Custom-Items wird einmal pro ItemMeta bestimmt und
+ * gecacht; weitere Lookups desselben Items kosten einen Map-Zugriff.
+ *
+ * Features:
+ * - Stacks ohne ItemMeta sind sofort Vanilla (kein Cache, kein Provider)
+ * - PDC-Schnellpfad: SpecialItems des Items-Moduls → Schlüssel "SPECIAL:&lt;id&gt;"
+ * - MMOItems (über den ItemProvider) → Schlüssel "TYPE:ID"
+ * - Meta-Cache (LRU) inkl. negativer Treffer (Vanilla-Items mit Meta)
+ * - Über {@link de.fallenstar.core.provider.EconomyProvider#getCustomItemKey} auch
+ *   für andere Module (z.B. Plot-Preise) nutzbar
+ *
+ * Wie beim {@link CoinRecognizer} ist der Cache nach dem Wert der ItemMeta
+ * geschlüsselt, da Bukkit bei jedem Zugriff Kopien liefert.
+ *
+ * **Verwendung:**
+ * <pre>
+ * priceProvider.setKeyResolver(new CustomItemKeyResolver(logger, itemProvider));
+ * Optional&lt;BigDecimal&gt; price = priceProvider.getPrice(stack); // Custom- oder Vanilla-Preis
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Thread-sicher: der Meta-Cache ist über seinen Monitor geschützt (Preis-Abfragen
+ * anderer Module dürfen von jedem Thread kommen).
+ *
+ * @author FallenStar
+ * @version 1.1
+ */
+public class CustomItemKeyResolver {
+
+    /**
+     * Item-Type für SpecialItems des Items-Moduls (PDC-ID).
+     */
+    public static final String SPECIAL_TYPE = "SPECIAL";
+
+    /**
+     * Maximale Anzahl gecachter ItemMetas.
+     */
+    public static final int META_CACHE_SIZE = 1024;
+
+    /** Negativer Treffer "kein Custom-Item" im Meta-Cache (nicht im Intern-Pool). */
+    private static final Optional<CustomItemKey> NOT_CUSTOM = Optional.empty();
+
+    private final Logger logger;
+    private final ItemProvider itemProvider;
+    private final Map<ItemMeta, Optional<CustomItemKey>> metaCache;   // Nur unter synchronized(metaCache)
+
+    /**
+     * Konstruktor für CustomItemKeyResolver.
+     *
+     * @param logger Logger
+     * @param itemProvider ItemProvider (für MMOItems-Identität, darf nicht verfügbar sein)
+     */
+    public CustomItemKeyResolver(Logger logger, ItemProvider itemProvider) {
+        this.logger = logger;
+        this.itemProvider = itemProvider;
+        this.metaCache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ItemMeta, Optional<CustomItemKey>> eldest) {
+                return size() > META_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Ermittelt den Custom-Item-Schlüssel eines ItemStacks.
+     *
+     * @param stack ItemStack
+     * @return Schlüssel, oder empty bei Vanilla-Items
+     */
+    public Optional<CustomItemKey> resolve(ItemStack stack) {
+        if (stack == null || stack.getType().isAir() || !stack.hasItemMeta()) {
+            return NOT_CUSTOM;
+        }
+
+        ItemMeta meta = stack.getItemMeta();
+        synchronized (metaCache) {
+            Optional<CustomItemKey> cached = metaCache.get(meta);
+            if (cached == null) {
+                cached = Optional.ofNullable(extract(stack, meta));
+                metaCache.put(meta, cached.isPresent() ? cached : NOT_CUSTOM);
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * Ermittelt den Custom-Item-Schlüssel (null bei Vanilla-Items).
+     *
+     * @param stack ItemStack
+     * @return Schlüssel oder null
+     */
+    public CustomItemKey lookup(ItemStack stack) {
+        return resolve(stack).orElse(null);
+    }
+
+    /**
+     * Leert den Meta-Cache (z.B. nach Reload der Custom-Items).
+     */
+    public void clearCache() {
+        synchronized (metaCache) {
+            metaCache.clear();
+        }
+    }
+
+    /**
+     * @return Anzahl gecachter ItemMetas
+     */
+    public int getCacheSize() {
+        synchronized (metaCache) {
+            return metaCache.size();
+        }
+    }
+
+    /**
+     * Liest die Identität eines Custom-Items (PDC → ItemProvider).
+     */
+    private CustomItemKey extract(ItemStack stack, ItemMeta meta) {
+        String specialId = meta.getPersistentDataContainer()
+                .get(CoinRecognizer.SPECIAL_ITEM_ID_KEY, PersistentDataType.STRING);
+        if (specialId != null) {
+            return CustomItemKey.of(SPECIAL_TYPE, specialId);
+        }
+
+        if (itemProvider == null || !itemProvider.isAvailable()) {
+            return null;
+        }
+
+        try {
+            Optional<String> type = itemProvider.getItemType(stack);
+            Optional<String> id = itemProvider.getItemId(stack);
+            if (type.isPresent() && id.isPresent()) {
+                return CustomItemKey.of(type.get(), id.get());
+            }
+        } catch (Exception e) {
+            logger.fine("Fehler beim Prüfen von Custom-Item: " + e.getMessage());
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package de.fallenstar.economy.pricing;
 
+import de.fallenstar.economy.model.CustomItemKey;
 import de.fallenstar.economy.model.ItemBasePrice;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
@@ -8,6 +9,7 @@ import org.bukkit.inventory.ItemStack;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
@@ -20,8 +22,10 @@ import java.util.logging.Logger;
  *
  * Features:
  * - Vanilla-Item-Preise (Material → Preis)
- * - Custom-Item-Preise (Type:ID → Preis)
- * - Config-basierte Preisdefinition
+ * - Custom-Item-Preise (Type:ID → Preis, internierte {@link CustomItemKey}s)
+ * - ItemStack-Lookup erkennt Custom-Items über {@link CustomItemKeyResolver} (gecacht)
+ * - Config-basierte Preisdefinition (Erst-Befüllung)
+ * - Persistierung pro Eintrag über {@link ItemPriceStore} (statt kompletter config.yml)
  * - Fallback-Preise für fehlende Einträge
  *
  * Verwendung:
@@ -30,19 +34,37 @@ import java.util.logging.Logger;
  * Optional<BigDecimal> diamondPrice = priceProvider.getVanillaPrice(Material.DIAMOND);
  *
  * // Preis für Custom-Item abrufen
- * Optional<BigDecimal> swordPrice = priceProvider.getCustomPrice("SWORD", "EXCALIBUR");
+ * Optional<BigDecimal> swordPrice = priceProvider.getCustomPrice(CustomItemKey.of("SWORD", "EXCALIBUR"));
+ *
+ * // Preis für beliebigen ItemStack (Custom-Preis, sonst Vanilla-Preis)
+ * Optional<BigDecimal> stackPrice = priceProvider.getPrice(stack);
+ *
+ * // Preis ändern und persistieren (schreibt nur diesen Eintrag)
+ * priceProvider.updateVanillaPrice(Material.DIAMOND, buy, sell);
+ *
+ * // Viele Preise auf einmal (z.B. Import) - ein Flush, eine Invalidierung beim Aufrufer
+ * priceProvider.applyPrices(List.of(new ItemBasePrice.VanillaItemPrice(Material.STONE, buy, sell)));
  * </pre>
  *
+ * **Konsistenz:**
+ * Preise liegen in ConcurrentHashMaps, Default-Preise in volatile Feldern:
+ * Abfragen sind von jedem Thread möglich (z.B. Plot-Preise, Vault-Thread) und
+ * sehen jeden Preis vollständig alt oder neu. Änderungen laufen auf dem
+ * Main-Thread; eine Abfrage während applyPrices() kann bereits einen Teil der
+ * neuen Preise sehen.
+ *
  * @author FallenStar
- * @version 1.0
+ * @version 1.4
  */
 public class ItemBasePriceProvider {
 
     private final Logger logger;
     private final Map<Material, ItemBasePrice.VanillaItemPrice> vanillaPrices;
-    private final Map<String, ItemBasePrice.CustomItemPrice> customPrices;
-    private BigDecimal defaultVanillaPrice;
-    private BigDecimal defaultCustomPrice;
+    private final Map<CustomItemKey, ItemBasePrice.CustomItemPrice> customPrices;
+    private volatile BigDecimal defaultVanillaPrice;
+    private volatile BigDecimal defaultCustomPrice;
+    private ItemPriceStore priceStore; // Setter-injected (optional)
+    private CustomItemKeyResolver keyResolver; // Setter-injected (optional)
 
     /**
      * Konstruktor für ItemBasePriceProvider.
@@ -51,14 +73,48 @@ public class ItemBasePriceProvider {
      */
     public ItemBasePriceProvider(Logger logger) {
         this.logger = logger;
-        this.vanillaPrices = new HashMap<>();
-        this.customPrices = new HashMap<>();
+        this.vanillaPrices = new ConcurrentHashMap<>();
+        this.customPrices = new ConcurrentHashMap<>();
         this.defaultVanillaPrice = BigDecimal.ONE;
         this.defaultCustomPrice = BigDecimal.TEN;
 
         logger.info("ItemBasePriceProvider initialisiert");
     }
 
+    /**
+     * Setzt den Preis-Speicher für die Persistierung einzelner Änderungen.
+     *
+     * @param priceStore ItemPriceStore (oder null = keine Persistierung)
+     */
+    public void setPriceStore(ItemPriceStore priceStore) {
+        this.priceStore = priceStore;
+    }
+
+    /**
+     * Gibt den Preis-Speicher zurück.
+     *
+     * @return ItemPriceStore oder null
+     */
+    public ItemPriceStore getPriceStore() {
+        return priceStore;
+    }
+
+    /**
+     * Setzt den Resolver für Custom-Items in {@link #getPrice(ItemStack)}.
+     *
+     * @param keyResolver CustomItemKeyResolver (oder null = nur Vanilla-Preise)
+     */
+    public void setKeyResolver(CustomItemKeyResolver keyResolver) {
+        this.keyResolver = keyResolver;
+    }
+
+    /**
+     * @return Resolver für Custom-Items, oder null wenn nicht gesetzt
+     */
+    public CustomItemKeyResolver getKeyResolver() {
+        return keyResolver;
+    }
+
     /**
      * Lädt Preise aus einer Config.
      *
@@ -205,6 +261,23 @@ public class ItemBasePriceProvider {
         logger.fine("Vanilla-Preis registriert: " + material + " (Buy: " + buyPrice + ", Sell: " + sellPrice + ")");
     }
 
+    /**
+     * Ändert die Buy/Sell-Preise eines Vanilla-Items und persistiert nur diesen Eintrag.
+     *
+     * @param material Material
+     * @param buyPrice Ankaufspreis in Sternen
+     * @param sellPrice Verkaufspreis in Sternen
+     * @return true wenn über den Preis-Speicher persistiert (false = nur im Speicher)
+     */
+    public boolean updateVanillaPrice(Material material, BigDecimal buyPrice, BigDecimal sellPrice) {
+        registerVanillaPrice(material, buyPrice, sellPrice);
+        if (priceStore == null) {
+            return false;
+        }
+        priceStore.putVanilla(vanillaPrices.get(material));
+        return true;
+    }
+
     /**
      * Registriert einen Basispreis für ein Custom-Item (Legacy).
      *
@@ -227,12 +300,64 @@ public class ItemBasePriceProvider {
      * @param sellPrice Verkaufspreis in Sternen
      */
     public void registerCustomPrice(String itemType, String itemId, BigDecimal buyPrice, BigDecimal sellPrice) {
-        String key = (itemType + ":" + itemId).toUpperCase();
+        CustomItemKey key = CustomItemKey.of(itemType, itemId);
         ItemBasePrice.CustomItemPrice itemPrice = new ItemBasePrice.CustomItemPrice(itemType, itemId, buyPrice, sellPrice);
         customPrices.put(key, itemPrice);
         logger.fine("Custom-Preis registriert: " + key + " (Buy: " + buyPrice + ", Sell: " + sellPrice + ")");
     }
 
+    /**
+     * Ändert die Buy/Sell-Preise eines Custom-Items und persistiert nur diesen Eintrag.
+     *
+     * @param itemType Item-Type (z.B. "SWORD")
+     * @param itemId Item-ID (z.B. "EXCALIBUR")
+     * @param buyPrice Ankaufspreis in Sternen
+     * @param sellPrice Verkaufspreis in Sternen
+     * @return true wenn über den Preis-Speicher persistiert (false = nur im Speicher)
+     */
+    public boolean updateCustomPrice(String itemType, String itemId, BigDecimal buyPrice, BigDecimal sellPrice) {
+        registerCustomPrice(itemType, itemId, buyPrice, sellPrice);
+        if (priceStore == null) {
+            return false;
+        }
+        priceStore.putCustom(customPrices.get(CustomItemKey.of(itemType, itemId)));
+        return true;
+    }
+
+    /**
+     * Übernimmt viele Preise in einem Schritt.
+     *
+     * Die Preis-Objekte sind bereits validiert (nicht-negativ), daher kann die
+     * Übernahme nicht auf halbem Weg scheitern. Mit Preis-Speicher landen alle
+     * Einträge im selben Flush; ohne Preis-Speicher muss der Aufrufer die
+     * Config einmal speichern.
+     *
+     * @param prices Neue Preise (Vanilla und/oder Custom)
+     * @return true wenn über den Preis-Speicher persistiert (false = nur im Speicher)
+     */
+    public boolean applyPrices(Collection<? extends ItemBasePrice> prices) {
+        for (ItemBasePrice price : prices) {
+            if (price instanceof ItemBasePrice.VanillaItemPrice vanilla) {
+                vanillaPrices.put(vanilla.material(), vanilla);
+            } else if (price instanceof ItemBasePrice.CustomItemPrice custom) {
+                customPrices.put(CustomItemKey.of(custom.itemType(), custom.itemId()), custom);
+            }
+        }
+        logger.info("✓ " + prices.size() + " Item-Basispreise übernommen");
+
+        if (priceStore == null) {
+            return false;
+        }
+        for (ItemBasePrice price : prices) {
+            if (price instanceof ItemBasePrice.VanillaItemPrice vanilla) {
+                priceStore.putVanilla(vanilla);
+            } else if (price instanceof ItemBasePrice.CustomItemPrice custom) {
+                priceStore.putCustom(custom);
+            }
+        }
+        return true;
+    }
+
     /**
      * Gibt das Preis-Objekt für ein Vanilla-Item zurück.
      *
@@ -283,9 +408,28 @@ public class ItemBasePriceProvider {
      * @return Optional mit Preis, oder empty wenn nicht definiert
      */
     public Optional<BigDecimal> getCustomPrice(String itemType, String itemId) {
-        String key = (itemType + ":" + itemId).toUpperCase();
+        return getCustomPrice(CustomItemKey.of(itemType, itemId));
+    }
+
+    /**
+     * Gibt den Basispreis für ein Custom-Item zurück.
+     *
+     * @param key Internierter Custom-Item-Schlüssel
+     * @return Optional mit Preis, oder empty wenn nicht definiert
+     */
+    public Optional<BigDecimal> getCustomPrice(CustomItemKey key) {
         ItemBasePrice.CustomItemPrice price = customPrices.get(key);
-        return Optional.ofNullable(price).map(ItemBasePrice.CustomItemPrice::getPrice);
+        return price != null ? Optional.of(price.sellPrice()) : Optional.empty();
+    }
+
+    /**
+     * Gibt das Preis-Objekt für ein Custom-Item zurück.
+     *
+     * @param key Internierter Custom-Item-Schlüssel
+     * @return Optional mit CustomItemPrice, oder empty wenn nicht definiert
+     */
+    public Optional<ItemBasePrice.CustomItemPrice> getCustomItemPrice(CustomItemKey key) {
+        return Optional.ofNullable(customPrices.get(key));
     }
 
     /**
@@ -302,8 +446,9 @@ public class ItemBasePriceProvider {
     /**
      * Gibt den Basispreis für einen ItemStack zurück.
      *
-     * Diese Methode prüft zunächst ob es ein Custom-Item ist (via PDC),
-     * und falls nicht, nutzt sie das Material.
+     * Diese Methode prüft zunächst ob es ein Custom-Item ist (PDC/MMOItems,
+     * gecacht über den {@link CustomItemKeyResolver}); Custom-Items haben nur
+     * ihren Custom-Preis. Alle anderen Items nutzen den Preis des Materials.
      *
      * @param stack ItemStack
      * @return Optional mit Preis
@@ -313,8 +458,10 @@ public class ItemBasePriceProvider {
             return Optional.empty();
         }
 
-        // TODO: Check for Custom-Item (PDC-based)
-        // Für jetzt nur Vanilla-Preise
+        CustomItemKey key = keyResolver != null ? keyResolver.lookup(stack) : null;
+        if (key != null) {
+            return getCustomPrice(key);
+        }
 
         return getVanillaPrice(stack.getType())
                 .map(ItemBasePrice.VanillaItemPrice::getSellPrice);
@@ -324,10 +471,18 @@ public class ItemBasePriceProvider {
      * Gibt den Basispreis für einen ItemStack zurück, oder Default-Preis.
      *
      * @param stack ItemStack
-     * @return Preis (oder Default-Preis)
+     * @return Preis (oder Default-Preis für Custom- bzw. Vanilla-Items)
      */
     public BigDecimal getPriceOrDefault(ItemStack stack) {
-        return getPrice(stack).orElse(defaultVanillaPrice);
+        if (stack == null || stack.getType().isAir()) {
+            return defaultVanillaPrice;
+        }
+
+        CustomItemKey key = keyResolver != null ? keyResolver.lookup(stack) : null;
+        if (key != null) {
+            return getCustomPrice(key).orElse(defaultCustomPrice);
+        }
+        return getVanillaPriceOrDefault(stack.getType());
     }
 
     /**
@@ -341,6 +496,9 @@ public class ItemBasePriceProvider {
             return;
         }
         this.defaultVanillaPrice = price;
+        if (priceStore != null) {
+            priceStore.putDefaults(defaultVanillaPrice, defaultCustomPrice);
+        }
         logger.info("Default Vanilla-Preis geändert: " + price);
     }
 
@@ -355,9 +513,30 @@ public class ItemBasePriceProvider {
             return;
         }
         this.defaultCustomPrice = price;
+        if (priceStore != null) {
+            priceStore.putDefaults(defaultVanillaPrice, defaultCustomPrice);
+        }
         logger.info("Default Custom-Preis geändert: " + price);
     }
 
+    /**
+     * Gibt den Default-Preis für Vanilla-Items zurück.
+     *
+     * @return Default-Preis
+     */
+    public BigDecimal getDefaultVanillaPrice() {
+        return defaultVanillaPrice;
+    }
+
+    /**
+     * Gibt den Default-Preis für Custom-Items zurück.
+     *
+     * @return Default-Preis
+     */
+    public BigDecimal getDefaultCustomPrice() {
+        return defaultCustomPrice;
+    }
+
     /**
      * Gibt die Anzahl registrierter Vanilla-Preise zurück.
      *
@@ -398,7 +577,8 @@ public class ItemBasePriceProvider {
      * Speichert alle Preise in eine Config zurück.
      *
      * Diese Methode schreibt die aktuellen In-Memory-Preise
-     * zurück in die FileConfiguration.
+     * zurück in die FileConfiguration. Nur noch Fallback ohne
+     * {@link ItemPriceStore} (z.B. ohne DataStore).
      *
      * Config-Struktur:
      * <pre>
@@ -434,8 +614,8 @@ public class ItemBasePriceProvider {
         }
 
         // Speichere Custom-Preise (Buy/Sell-Format)
-        for (Map.Entry<String, ItemBasePrice.CustomItemPrice> entry : customPrices.entrySet()) {
-            String key = entry.getKey();
+        for (Map.Entry<CustomItemKey, ItemBasePrice.CustomItemPrice> entry : customPrices.entrySet()) {
+            String key = entry.getKey().identifier();
             ItemBasePrice.CustomItemPrice price = entry.getValue();
             String path = "item-base-prices.custom." + key;
 
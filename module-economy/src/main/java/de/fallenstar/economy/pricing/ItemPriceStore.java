@@ -0,0 +1,351 @@
+package de.fallenstar.economy.pricing;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.model.CustomItemKey;
+import de.fallenstar.economy.model.ItemBasePrice;
+import org.bukkit.Material;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Persistenter Speicher für Item-Basispreise mit Schreiben pro Eintrag.
+ *
+ * Jeder Preis ist ein eigener DataStore-Eintrag. Eine Preisänderung markiert
+ * nur diesen Eintrag als geändert; ein Async-Task schreibt alle geänderten
+ * Einträge gebündelt weg. Mehrere Änderungen desselben Preises innerhalb eines
+ * Intervalls ergeben einen einzigen Write. Die config.yml wird dabei nicht
+ * mehr angefasst.
+ *
+ * Features:
+ * - Ein Record pro Preis (Festkomma, Minor Units) statt kompletter Config-Serialisierung
+ * - Coalescing: nur der letzte Stand eines Eintrags wird geschrieben
+ * - Index aller Einträge (wird nur bei neuen Einträgen neu geschrieben)
+ * - Einmalige Migration aus config.yml (item-base-prices), wenn noch kein Index existiert
+ *
+ * **DataStore-Layout** (Namespace "item_prices"):
+ * <pre>
+ * index              → IndexData (Schlüssel aller Preis-Einträge)
+ * defaults           → DefaultsData (Default-Preise Vanilla/Custom)
+ * vanilla_&lt;MATERIAL&gt; → PriceData
+ * custom_&lt;TYPE:ID&gt;   → PriceData
+ * </pre>
+ *
+ * **Verwendung:**
+ * <pre>
+ * if (!store.load(priceProvider)) {
+ *     priceProvider.loadFromConfig(getConfig());
+ *     store.importAll(priceProvider);
+ * }
+ * priceProvider.setPriceStore(store);
+ * store.start(plugin, 20L);
+ * </pre>
+ *
+ * **Dauerhaftigkeit:**
+ * Änderungen sind nach dem nächsten Flush (Standard: 1 Sekunde) persistiert.
+ * Beim Shutdown wird synchron geflusht.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class ItemPriceStore {
+
+    private static final String NAMESPACE = "item_prices";
+    private static final String INDEX_KEY = "index";
+    private static final String DEFAULTS_KEY = "defaults";
+    private static final String VANILLA_PREFIX = "vanilla_";
+    private static final String CUSTOM_PREFIX = "custom_";
+
+    private final Logger logger;
+    private final DataStore dataStore;
+    private final Map<String, Object> pending;
+    private final Set<String> indexedKeys;
+    private final AtomicBoolean indexDirty;
+
+    private BukkitTask flushTask;
+
+    /**
+     * Index aller Preis-Einträge.
+     */
+    public static class IndexData {
+        public List<String> keys = new ArrayList<>();
+
+        public IndexData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Ein Preis-Eintrag (Vanilla: item = Material, Custom: item = TYPE:ID).
+     */
+    public static class PriceData {
+        public String item;
+        public long buyMinor;
+        public long sellMinor;
+        public long updatedAt;
+
+        public PriceData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Default-Preise.
+     */
+    public static class DefaultsData {
+        public long vanillaMinor;
+        public long customMinor;
+
+        public DefaultsData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Konstruktor für ItemPriceStore.
+     *
+     * @param logger Logger
+     * @param dataStore DataStore
+     */
+    public ItemPriceStore(Logger logger, DataStore dataStore) {
+        this.logger = logger;
+        this.dataStore = dataStore;
+        this.pending = new ConcurrentHashMap<>();
+        this.indexedKeys = ConcurrentHashMap.newKeySet();
+        this.indexDirty = new AtomicBoolean(false);
+    }
+
+    // ==================== Laden ====================
+
+    /**
+     * Lädt alle gespeicherten Preise in den Provider.
+     *
+     * @param provider Ziel-Provider
+     * @return true wenn ein Index existiert (false = noch nicht migriert)
+     */
+    public boolean load(ItemBasePriceProvider provider) {
+        Optional<IndexData> index;
+        try {
+            index = dataStore.loadSync(NAMESPACE, INDEX_KEY, IndexData.class);
+        } catch (Exception e) {
+            logger.warning("✗ Preis-Index konnte nicht geladen werden: " + e.getMessage());
+            return false;
+        }
+        if (index.isEmpty()) {
+            return false;
+        }
+
+        dataStore.loadSync(NAMESPACE, DEFAULTS_KEY, DefaultsData.class).ifPresent(defaults -> {
+            provider.setDefaultVanillaPrice(toBigDecimal(defaults.vanillaMinor));
+            provider.setDefaultCustomPrice(toBigDecimal(defaults.customMinor));
+        });
+
+        int vanilla = 0;
+        int custom = 0;
+        for (String key : index.get().keys) {
+            Optional<PriceData> entry = dataStore.loadSync(NAMESPACE, key, PriceData.class);
+            if (entry.isEmpty()) {
+                logger.warning("✗ Preis-Eintrag fehlt: " + key);
+                continue;
+            }
+
+            PriceData data = entry.get();
+            BigDecimal buy = toBigDecimal(data.buyMinor);
+            BigDecimal sell = toBigDecimal(data.sellMinor);
+
+            if (key.startsWith(VANILLA_PREFIX)) {
+                Material material = Material.getMaterial(data.item);
+                if (material == null) {
+                    logger.warning("✗ Unbekanntes Material im Preis-Speicher: " + data.item);
+                    continue;
+                }
+                provider.registerVanillaPrice(material, buy, sell);
+                vanilla++;
+            } else {
+                int separator = data.item.indexOf(':');
+                if (separator <= 0) {
+                    logger.warning("✗ Ungültiger Custom-Item-Identifier im Preis-Speicher: " + data.item);
+                    continue;
+                }
+                provider.registerCustomPrice(data.item.substring(0, separator), data.item.substring(separator + 1),
+                        buy, sell);
+                custom++;
+            }
+            indexedKeys.add(key);
+        }
+
+        logger.info("✓ Item-Basispreise aus dem Preis-Speicher geladen: " + vanilla + " Vanilla, " + custom + " Custom");
+        return true;
+    }
+
+    /**
+     * Übernimmt alle Preise des Providers (einmalige Migration aus der Config).
+     *
+     * @param provider Quell-Provider
+     * @return Anzahl übernommener Preise
+     */
+    public int importAll(ItemBasePriceProvider provider) {
+        putDefaults(provider.getDefaultVanillaPrice(), provider.getDefaultCustomPrice());
+        provider.getAllVanillaPrices().forEach(this::putVanilla);
+        provider.getAllCustomPrices().forEach(this::putCustom);
+
+        // Index auch ohne Einträge schreiben - markiert die Migration als erledigt
+        indexDirty.set(true);
+
+        int count = provider.getVanillaPriceCount() + provider.getCustomPriceCount();
+        logger.info("✓ " + count + " Item-Basispreise aus config.yml in den Preis-Speicher übernommen");
+        return count;
+    }
+
+    // ==================== Ändern ====================
+
+    /**
+     * Markiert einen Vanilla-Preis zum Schreiben.
+     *
+     * @param price Neuer Preis
+     */
+    public void putVanilla(ItemBasePrice.VanillaItemPrice price) {
+        put(VANILLA_PREFIX + price.material().name(), price.material().name(), price.buyPrice(), price.sellPrice());
+    }
+
+    /**
+     * Markiert einen Custom-Preis zum Schreiben.
+     *
+     * @param price Neuer Preis
+     */
+    public void putCustom(ItemBasePrice.CustomItemPrice price) {
+        String item = CustomItemKey.of(price.itemType(), price.itemId()).identifier();
+        put(CUSTOM_PREFIX + item, item, price.buyPrice(), price.sellPrice());
+    }
+
+    /**
+     * Markiert die Default-Preise zum Schreiben.
+     *
+     * @param vanilla Default-Preis Vanilla
+     * @param custom Default-Preis Custom
+     */
+    public void putDefaults(BigDecimal vanilla, BigDecimal custom) {
+        DefaultsData data = new DefaultsData();
+        data.vanillaMinor = toMinor(vanilla);
+        data.customMinor = toMinor(custom);
+        pending.put(DEFAULTS_KEY, data);
+    }
+
+    /**
+     * @return Anzahl noch nicht geschriebener Einträge
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Startet den periodischen Flush.
+     *
+     * @param plugin Plugin (für Scheduling)
+     * @param flushIntervalTicks Intervall in Ticks
+     */
+    public void start(Plugin plugin, long flushIntervalTicks) {
+        stop();
+        long interval = Math.max(1L, flushIntervalTicks);
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush, interval, interval);
+    }
+
+    /**
+     * Stoppt den Flush-Task und schreibt alle offenen Änderungen.
+     *
+     * Synchron - für onDisable gedacht.
+     */
+    public void shutdown() {
+        stop();
+        flush();
+    }
+
+    /**
+     * Stoppt den Flush-Task.
+     */
+    private void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+    }
+
+    /**
+     * Schreibt alle geänderten Einträge (und ggf. den Index) in den DataStore.
+     *
+     * @return Anzahl geschriebener Einträge
+     */
+    synchronized int flush() {
+        int written = 0;
+        for (Map.Entry<String, Object> entry : pending.entrySet()) {
+            String key = entry.getKey();
+            Object data = entry.getValue();
+
+            // Nur entfernen, wenn seitdem keine neuere Änderung kam
+            if (!pending.remove(key, data)) {
+                continue;
+            }
+            if (dataStore.saveSync(NAMESPACE, key, data)) {
+                written++;
+            } else {
+                pending.putIfAbsent(key, data);
+                logger.warning("✗ Preis-Eintrag nicht geschrieben: " + key);
+            }
+        }
+
+        if (indexDirty.getAndSet(false)) {
+            IndexData index = new IndexData();
+            index.keys.addAll(indexedKeys);
+            index.keys.sort(null);
+            if (!dataStore.saveSync(NAMESPACE, INDEX_KEY, index)) {
+                indexDirty.set(true);
+                logger.warning("✗ Preis-Index nicht geschrieben");
+            }
+        }
+        return written;
+    }
+
+    // ==================== Intern ====================
+
+    /**
+     * Markiert einen Preis-Eintrag zum Schreiben.
+     */
+    private void put(String key, String item, BigDecimal buy, BigDecimal sell) {
+        PriceData data = new PriceData();
+        data.item = item;
+        data.buyMinor = toMinor(buy);
+        data.sellMinor = toMinor(sell);
+        data.updatedAt = System.currentTimeMillis();
+
+        pending.put(key, data);
+        if (indexedKeys.add(key)) {
+            indexDirty.set(true);
+        }
+    }
+
+    /**
+     * Konvertiert einen Preis in Minor Units (2 Nachkommastellen, HALF_UP).
+     */
+    private static long toMinor(BigDecimal price) {
+        return Money.fromBigDecimal(price, Money.BASE_CURRENCY_ID).minorUnits();
+    }
+
+    /**
+     * Konvertiert Minor Units zurück in einen Preis.
+     */
+    private static BigDecimal toBigDecimal(long minorUnits) {
+        return Money.of(minorUnits, Money.BASE_CURRENCY_ID).toBigDecimal();
+    }
+}
@@ -1,12 +1,16 @@
 package de.fallenstar.economy.provider;
 
+import de.fallenstar.core.economy.Money;
 import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
 import de.fallenstar.core.provider.CoinProvider;
 import de.fallenstar.economy.manager.CurrencyManager;
+import de.fallenstar.economy.model.CoinBreakdown;
 import de.fallenstar.economy.model.CurrencyItemSet;
 import org.bukkit.inventory.ItemStack;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -17,13 +21,14 @@ import java.util.logging.Logger;
  * - Type-Safe Bridge zwischen Core-Interface und Economy-Manager
  * - Eliminiert Reflection-Aufrufe aus anderen Modulen
  * - Delegiert an CurrencyManager für tatsächliche Münz-Erstellung
+ * - Exaktes Wechselgeld über CoinDenominationEngine (mehrere Tiers und Stacks)
  *
  * **Verwendung:**
  * - Wird vom Economy-Modul in ProviderRegistry registriert
  * - Andere Module nutzen CoinProvider via registry.getCoinProvider()
  *
  * @author FallenStar
- * @version 1.0
+ * @version 1.1
  */
 public class CoinProviderImpl implements CoinProvider {
 
@@ -57,48 +62,97 @@ public class CoinProviderImpl implements CoinProvider {
             );
         }
 
+        return createCoinsForPrice(
+                Money.fromBigDecimal(price, currencyManager.getBaseCurrency().currencyId()), maxStackSize);
+    }
+
+    @Override
+    public Optional<ItemStack> createCoinsForPrice(Money price, int maxStackSize)
+            throws ProviderFunctionalityNotFoundException {
+        if (!isAvailable()) {
+            throw new ProviderFunctionalityNotFoundException(
+                "CoinProvider",
+                "createCoinsForPrice",
+                "Basiswährung nicht verfügbar"
+            );
+        }
+
         CurrencyItemSet baseCurrency = currencyManager.getBaseCurrency();
+        long units = toCoinUnits(baseCurrency, price);
+        if (units <= 0) {
+            logger.warning("Coin amount is 0 or negative for price " + price.toPlainString());
+            return Optional.empty();
+        }
 
-        // Tier-Auswahl basierend auf Preis
-        CurrencyItemSet.CurrencyTier tier;
-        BigDecimal amount;
-
-        if (price.compareTo(BigDecimal.valueOf(10)) < 0) {
-            // 0.01 - 9.99 Sterne → Bronze (1er Münzen)
-            tier = CurrencyItemSet.CurrencyTier.BRONZE;
-            amount = price;
-        } else if (price.compareTo(BigDecimal.valueOf(1000)) < 0) {
-            // 10 - 999 Sterne → Silber (10er Münzen)
-            tier = CurrencyItemSet.CurrencyTier.SILVER;
-            amount = price.divide(BigDecimal.TEN);
-        } else {
-            // 1000+ Sterne → Gold (100er Münzen)
-            tier = CurrencyItemSet.CurrencyTier.GOLD;
-            amount = price.divide(BigDecimal.valueOf(100));
+        // Exakt in einem Stack darstellbar? (wenigste Münzen, z.B. 15 → 15x Bronze, 500 → 5x Gold)
+        Optional<CoinBreakdown> exact = currencyManager.getDenominationEngine()
+                .breakdown(baseCurrency.currencyId(), units, maxStackSize, 1);
+        if (exact.isPresent()) {
+            List<ItemStack> stacks = currencyManager.createCoinStacks(exact.get(), maxStackSize);
+            return stacks.isEmpty() ? Optional.empty() : Optional.of(stacks.get(0));
         }
 
-        // Prüfe Stack-Size und runde AUF (mindestens 1 Münze bei Preisen > 0)
-        int coinAmount = amount.intValue();
+        // Sonst: kleinstes Tier, das den gerundeten Betrag in einem Stack fasst
+        for (CurrencyItemSet.CurrencyTier tier : CurrencyItemSet.CurrencyTier.values()) {
+            long tierValue = baseCurrency.getTierValue(tier);
+            long coinAmount = Math.max(1, (units + tierValue / 2) / tierValue);
+            if (coinAmount <= maxStackSize) {
+                logger.fine("Preis " + price.toPlainString() + " nicht exakt in einem Stack darstellbar - " +
+                        coinAmount + "x " + tier);
+                return Optional.ofNullable(
+                        currencyManager.createCoin(baseCurrency.currencyId(), tier, (int) coinAmount));
+            }
+        }
+
+        logger.warning("Preis " + price.toPlainString() + " passt nicht in einen Stack (max " + maxStackSize + ")");
+        return Optional.empty();
+    }
 
-        // Wenn Preis > 0 aber coinAmount = 0 (wegen Rundung), setze auf 1
-        if (price.compareTo(BigDecimal.ZERO) > 0 && coinAmount == 0) {
-            coinAmount = 1; // Mindestens 1 Münze
-            logger.fine("Preis " + price + " zu klein für Tier " + tier + " - verwende 1 Münze");
+    @Override
+    public List<ItemStack> createCoinStacksForPrice(Money price, int maxStackSize, int maxStacks)
+            throws ProviderFunctionalityNotFoundException {
+        if (!isAvailable()) {
+            throw new ProviderFunctionalityNotFoundException(
+                "CoinProvider",
+                "createCoinStacksForPrice",
+                "Basiswährung nicht verfügbar"
+            );
         }
 
-        if (coinAmount > maxStackSize) {
-            logger.warning("Coin amount " + coinAmount + " exceeds max stack size " + maxStackSize);
-            coinAmount = maxStackSize;
+        CurrencyItemSet baseCurrency = currencyManager.getBaseCurrency();
+        long units = toCoinUnits(baseCurrency, price);
+        if (units <= 0) {
+            logger.warning("Coin amount is 0 or negative for price " + price.toPlainString());
+            return List.of();
         }
 
-        if (coinAmount <= 0) {
-            logger.warning("Coin amount is 0 or negative for price " + price);
-            return Optional.empty();
+        Optional<CoinBreakdown> change = currencyManager.getDenominationEngine()
+                .breakdown(baseCurrency.currencyId(), units, maxStackSize, maxStacks);
+        if (change.isEmpty()) {
+            logger.warning("Preis " + price.toPlainString() + " passt nicht in " + maxStacks +
+                    " Stacks (max " + maxStackSize + ")");
+            return List.of();
         }
 
-        // Delegiere an CurrencyManager
-        ItemStack coins = currencyManager.createCoin(baseCurrency.currencyId(), tier, coinAmount);
-        return Optional.ofNullable(coins);
+        return currencyManager.createCoinStacks(change.get(), maxStackSize);
+    }
+
+    /**
+     * Rechnet einen Preis in Münz-Einheiten um (kaufmännisch gerundet).
+     *
+     * Positive Preise unter einer halben Münze ergeben mindestens 1 Münze.
+     *
+     * @return Anzahl Einheiten (Bronze-Äquivalent)
+     */
+    private long toCoinUnits(CurrencyItemSet currency, Money price) {
+        long units = currencyManager.getDenominationEngine()
+                .toCoinUnits(currency.currencyId(), price, RoundingMode.HALF_UP);
+
+        if (price.isPositive() && units == 0) {
+            logger.fine("Preis " + price.toPlainString() + " kleiner als eine Münze - verwende 1 Münze");
+            return 1;
+        }
+        return units;
     }
 
     @Override
@@ -0,0 +1,296 @@
+package de.fallenstar.economy.provider;
+
+import de.fallenstar.core.economy.Money;
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Asynchrone Brücke zur Vault Economy API.
+ *
+ * Vault-Implementierungen (Essentials, CMI, ...) lesen und schreiben Konten
+ * oft direkt aus Datei oder Datenbank. Damit diese Roundtrips nicht den
+ * Main-Thread blockieren, laufen alle Vault-Aufrufe auf einem eigenen
+ * Executor-Thread. Ein einzelner Thread serialisiert die Aufrufe - die
+ * meisten Vault-Implementierungen sind nicht für parallele Zugriffe gebaut.
+ *
+ * Features:
+ * - Dedizierter Vault-Thread ("FallenStar-Vault")
+ * - CompletableFuture-API (getBalance, withdraw, withdrawUpTo, deposit, setBalance)
+ * - Kurzlebiger Balance-Cache pro Online-Spieler (TTL in Millisekunden)
+ * - Prüfen + Abbuchen in einem einzigen Vault-Task (kein Check-then-Act über Threads)
+ * - Main-Thread-Executor für Inventar-Arbeit nach Vault-Aufrufen
+ *
+ * **Verwendung:**
+ * <pre>
+ * bridge.withdrawUpTo(player, costPerCoin, 10)
+ *       .thenAcceptAsync(units -&gt; giveCoins(player, units), bridge.mainThread());
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Der Cache ist nur ein Lese-Hinweis (Anzeigen, Vorab-Prüfungen). Abbuchungen
+ * lesen den Kontostand immer frisch aus Vault. Nach eigenen Buchungen wird der
+ * Cache mit dem erwarteten neuen Stand aktualisiert; Änderungen durch andere
+ * Plugins werden spätestens nach Ablauf der TTL sichtbar.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class VaultBridge {
+
+    private final Logger logger;
+    private final Economy vaultEconomy;
+    private final long cacheTtlMillis;
+    private final ExecutorService executor;
+    private final Executor mainThread;
+    private final Map<UUID, CachedBalance> balanceCache;
+
+    /**
+     * Gecachter Kontostand.
+     *
+     * @param balance Kontostand
+     * @param fetchedAt Zeitpunkt des Abrufs (System.currentTimeMillis)
+     */
+    private record CachedBalance(Money balance, long fetchedAt) {
+    }
+
+    /**
+     * Konstruktor für VaultBridge.
+     *
+     * @param logger Logger
+     * @param plugin Plugin (für Main-Thread-Scheduling)
+     * @param vaultEconomy Vault Economy Implementation
+     * @param cacheTtlMillis Lebensdauer gecachter Kontostände in Millisekunden (0 = kein Cache)
+     */
+    public VaultBridge(Logger logger, Plugin plugin, Economy vaultEconomy, long cacheTtlMillis) {
+        this.logger = logger;
+        this.vaultEconomy = vaultEconomy;
+        this.cacheTtlMillis = Math.max(0L, cacheTtlMillis);
+        this.balanceCache = new ConcurrentHashMap<>();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "FallenStar-Vault");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mainThread = task -> plugin.getServer().getScheduler().runTask(plugin, task);
+    }
+
+    // ==================== Abfragen ====================
+
+    /**
+     * Gibt den Kontostand zurück (aus dem Cache, falls noch frisch).
+     *
+     * @param player Spieler
+     * @return Future mit Kontostand
+     */
+    public CompletableFuture<Money> getBalance(OfflinePlayer player) {
+        Optional<Money> cached = getCachedBalance(player.getUniqueId());
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        return submit(() -> fetchBalance(player));
+    }
+
+    /**
+     * Gibt den gecachten Kontostand zurück, ohne Vault aufzurufen.
+     *
+     * @param playerId Spieler-UUID
+     * @return Kontostand, oder empty wenn nicht gecacht oder abgelaufen
+     */
+    public Optional<Money> getCachedBalance(UUID playerId) {
+        CachedBalance cached = balanceCache.get(playerId);
+        if (cached == null || System.currentTimeMillis() - cached.fetchedAt() > cacheTtlMillis) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.balance());
+    }
+
+    // ==================== Buchungen ====================
+
+    /**
+     * Bucht einen Betrag ab, falls das Guthaben reicht.
+     *
+     * @param player Spieler
+     * @param amount Betrag (Basiswährung, &gt; 0)
+     * @return Future mit true wenn abgebucht
+     */
+    public CompletableFuture<Boolean> withdraw(OfflinePlayer player, Money amount) {
+        return submit(() -> {
+            Money balance = fetchBalance(player);
+            if (!balance.isAtLeast(amount)) {
+                return false;
+            }
+            return book(player, vaultEconomy.withdrawPlayer(player, amount.toVault()), balance.minus(amount));
+        });
+    }
+
+    /**
+     * Bucht bis zu maxUnits Einheiten à unitCost ab, soweit das Guthaben reicht.
+     *
+     * Kontostand lesen und Abbuchung erfolgen im selben Vault-Task.
+     *
+     * @param player Spieler
+     * @param unitCost Kosten pro Einheit (Basiswährung, &gt; 0)
+     * @param maxUnits Maximale Anzahl Einheiten
+     * @return Future mit tatsächlich abgebuchten Einheiten (0 wenn nichts)
+     */
+    public CompletableFuture<Integer> withdrawUpTo(OfflinePlayer player, Money unitCost, int maxUnits) {
+        return submit(() -> {
+            Money balance = fetchBalance(player);
+            int units = (int) Math.min(maxUnits, balance.fits(unitCost));
+            if (units <= 0) {
+                return 0;
+            }
+
+            Money cost = unitCost.times(units);
+            return book(player, vaultEconomy.withdrawPlayer(player, cost.toVault()), balance.minus(cost)) ? units : 0;
+        });
+    }
+
+    /**
+     * Zahlt einen Betrag ein.
+     *
+     * @param player Spieler
+     * @param amount Betrag (Basiswährung, &gt; 0)
+     * @return Future mit true wenn eingezahlt
+     */
+    public CompletableFuture<Boolean> deposit(OfflinePlayer player, Money amount) {
+        // Neuer Stand unbekannt ohne weiteren Roundtrip - Cache wird verworfen
+        return submit(() -> book(player, vaultEconomy.depositPlayer(player, amount.toVault()), null));
+    }
+
+    /**
+     * Setzt den Kontostand (Differenz per Einzahlung/Abbuchung).
+     *
+     * @param player Spieler
+     * @param target Neuer Kontostand (Basiswährung, &gt;= 0)
+     * @return Future mit true wenn erfolgreich
+     */
+    public CompletableFuture<Boolean> setBalance(OfflinePlayer player, Money target) {
+        return submit(() -> {
+            Money difference = target.minus(fetchBalance(player));
+
+            if (difference.isPositive()) {
+                return book(player, vaultEconomy.depositPlayer(player, difference.toVault()), target);
+            } else if (difference.isNegative()) {
+                return book(player, vaultEconomy.withdrawPlayer(player, difference.negate().toVault()), target);
+            }
+            return true;
+        });
+    }
+
+    // ==================== Cache & Lifecycle ====================
+
+    /**
+     * Aktualisiert den Cache nach einer synchronen Vault-Buchung.
+     *
+     * @param playerId Spieler-UUID
+     * @param balance Neuer Kontostand
+     */
+    public void updateCachedBalance(UUID playerId, Money balance) {
+        if (cacheTtlMillis > 0) {
+            balanceCache.put(playerId, new CachedBalance(balance, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Entfernt den gecachten Kontostand eines Spielers.
+     *
+     * @param playerId Spieler-UUID
+     */
+    public void invalidate(UUID playerId) {
+        balanceCache.remove(playerId);
+    }
+
+    /**
+     * Leert den kompletten Balance-Cache.
+     */
+    public void invalidateAll() {
+        balanceCache.clear();
+    }
+
+    /**
+     * Gibt einen Executor zurück, der Tasks auf dem Server-Main-Thread ausführt.
+     *
+     * Für Inventar-Änderungen und Nachrichten nach einem Vault-Aufruf.
+     *
+     * @return Main-Thread-Executor
+     */
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * Beendet den Vault-Thread.
+     *
+     * Bereits eingereihte Buchungen werden noch ausgeführt (max. 5 Sekunden).
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("✗ Vault-Thread nicht rechtzeitig beendet - offene Buchungen werden verworfen!");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        balanceCache.clear();
+    }
+
+    // ==================== Intern ====================
+
+    /**
+     * Führt einen Vault-Aufruf auf dem Vault-Thread aus.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RuntimeException e) {
+            // RejectedExecutionException nach shutdown()
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Liest den Kontostand frisch aus Vault und cacht ihn (nur auf dem Vault-Thread).
+     */
+    private Money fetchBalance(OfflinePlayer player) {
+        Money balance = Money.fromVault(vaultEconomy.getBalance(player), Money.BASE_CURRENCY_ID);
+        updateCachedBalance(player.getUniqueId(), balance);
+        return balance;
+    }
+
+    /**
+     * Wertet eine Vault-Antwort aus und aktualisiert den Cache (expectedBalance null = verwerfen).
+     */
+    private boolean book(OfflinePlayer player, EconomyResponse response, Money expectedBalance) {
+        if (response.transactionSuccess() && expectedBalance != null) {
+            updateCachedBalance(player.getUniqueId(), expectedBalance);
+            return true;
+        }
+        if (response.transactionSuccess()) {
+            invalidate(player.getUniqueId());
+            return true;
+        }
+
+        invalidate(player.getUniqueId());
+        logger.fine("Vault-Buchung abgelehnt für " + player.getName() + ": " + response.errorMessage);
+        return false;
+    }
+}
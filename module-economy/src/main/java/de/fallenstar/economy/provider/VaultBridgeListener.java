@@ -0,0 +1,33 @@
+package de.fallenstar.economy.provider;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listener der gecachte Kontostände der VaultBridge beim Logout verwirft.
+ *
+ * Der Balance-Cache gilt nur für Online-Spieler.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class VaultBridgeListener implements Listener {
+
+    private final VaultBridge bridge;
+
+    /**
+     * Konstruktor für VaultBridgeListener.
+     *
+     * @param bridge VaultBridge
+     */
+    public VaultBridgeListener(VaultBridge bridge) {
+        this.bridge = bridge;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        bridge.invalidate(event.getPlayer().getUniqueId());
+    }
+}
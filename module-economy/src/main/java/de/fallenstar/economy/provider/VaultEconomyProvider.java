@@ -1,13 +1,19 @@
 package de.fallenstar.economy.provider;
 
+import de.fallenstar.core.economy.Money;
 import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
 import de.fallenstar.core.provider.EconomyProvider;
+import de.fallenstar.economy.manager.EconomyMetrics;
+import de.fallenstar.economy.model.CustomItemKey;
+import de.fallenstar.economy.model.ItemBasePrice;
+import de.fallenstar.economy.pricing.CustomItemKeyResolver;
 import de.fallenstar.economy.pricing.ItemBasePriceProvider;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
 import java.math.BigDecimal;
@@ -25,13 +31,23 @@ import java.util.stream.Collectors;
  *
  * Features:
  * - Spieler-Balances (getBalance, withdraw, deposit, setBalance)
+ * - Festkomma-Beträge (Money) - exakte Vergleiche statt double-Drift
+ * - Asynchrone VaultBridge (eigener Vault-Thread, Balance-Cache für Online-Spieler)
+ * - Direkte Buchungen (withdraw/deposit) werden in EconomyMetrics gezählt
  * - Konten-Verwaltung (hasAccount, createAccount)
  * - Währungs-Formatierung (format, getCurrencyName)
+ * - Custom-Item-Preise über den gecachten CustomItemKeyResolver (eine Identitäts-Prüfung pro ItemMeta)
  * - Fraktions-/Stadt-Konten (future)
  * - Vault-Kompatibilität
  *
+ * **Konsistenz:**
+ * Die synchronen Methoden (getBalance, withdraw, deposit, setBalance) rufen Vault
+ * direkt auf dem Thread des Aufrufers auf - sie warten nie hinter Aufträgen des
+ * Vault-Threads (Auszahlungen, Rückerstattungen). Nach jeder Buchung wird der
+ * gecachte Kontostand der Bridge verworfen; die nächste Abfrage liest frisch.
+ *
  * @author FallenStar
- * @version 2.0
+ * @version 2.4
  */
 public class VaultEconomyProvider implements EconomyProvider {
 
@@ -40,6 +56,8 @@ public class VaultEconomyProvider implements EconomyProvider {
     private boolean available;
     private ItemBasePriceProvider priceProvider; // Setter-injected
     private de.fallenstar.economy.EconomyModule plugin; // Setter-injected (für Config-Speicherung)
+    private VaultBridge bridge; // Erst nach enableBridge() verfügbar
+    private EconomyMetrics metrics; // Setter-injected (optional)
 
     /**
      * Konstruktor für VaultEconomyProvider.
@@ -71,6 +89,56 @@ public class VaultEconomyProvider implements EconomyProvider {
         logger.fine("EconomyModule injected into VaultEconomyProvider");
     }
 
+    /**
+     * Setzt die Geldfluss-Metriken (Setter-Injection).
+     *
+     * @param metrics EconomyMetrics-Instanz
+     */
+    public void setMetrics(EconomyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Startet die asynchrone VaultBridge.
+     *
+     * Danach lesen auch die synchronen Methoden den Balance-Cache der Bridge;
+     * ihre Buchungen laufen weiterhin direkt und verwerfen den Cache-Eintrag.
+     *
+     * @param owner Plugin (für Main-Thread-Scheduling)
+     * @param cacheTtlMillis Lebensdauer gecachter Kontostände in Millisekunden
+     * @return VaultBridge, oder null wenn Vault nicht verfügbar
+     */
+    public VaultBridge enableBridge(org.bukkit.plugin.Plugin owner, long cacheTtlMillis) {
+        if (!isAvailable()) {
+            return null;
+        }
+
+        if (bridge == null) {
+            bridge = new VaultBridge(logger, owner, vaultEconomy, cacheTtlMillis);
+            logger.info("✓ VaultBridge gestartet (Balance-Cache: " + cacheTtlMillis + "ms)");
+        }
+        return bridge;
+    }
+
+    /**
+     * Gibt die asynchrone VaultBridge zurück.
+     *
+     * @return VaultBridge, oder null wenn nicht gestartet
+     */
+    public VaultBridge getBridge() {
+        return bridge;
+    }
+
+    /**
+     * Beendet die VaultBridge (offene Buchungen werden noch ausgeführt).
+     */
+    public void shutdownBridge() {
+        if (bridge != null) {
+            bridge.shutdown();
+            bridge = null;
+        }
+    }
+
     /**
      * Initialisiert die Vault Economy API.
      *
@@ -111,11 +179,37 @@ public class VaultEconomyProvider implements EconomyProvider {
             );
         }
 
-        return vaultEconomy.getBalance(player);
+        if (bridge != null) {
+            Optional<Money> cached = bridge.getCachedBalance(player.getUniqueId());
+            if (cached.isPresent()) {
+                return cached.get().toVault();
+            }
+        }
+
+        double balance = vaultEconomy.getBalance(player);
+        if (bridge != null) {
+            bridge.updateCachedBalance(player.getUniqueId(), Money.fromVault(balance, Money.BASE_CURRENCY_ID));
+        }
+        return balance;
     }
 
     @Override
     public boolean withdraw(Player player, double amount) throws ProviderFunctionalityNotFoundException {
+        return withdraw(player, toMoney(amount));
+    }
+
+    @Override
+    public boolean deposit(Player player, double amount) throws ProviderFunctionalityNotFoundException {
+        return deposit(player, toMoney(amount));
+    }
+
+    @Override
+    public Money getBalanceMoney(Player player) throws ProviderFunctionalityNotFoundException {
+        return Money.fromVault(getBalance(player), Money.BASE_CURRENCY_ID);
+    }
+
+    @Override
+    public boolean withdraw(Player player, Money amount) throws ProviderFunctionalityNotFoundException {
         if (!isAvailable()) {
             throw new ProviderFunctionalityNotFoundException(
                     "EconomyProvider",
@@ -124,21 +218,27 @@ public class VaultEconomyProvider implements EconomyProvider {
             );
         }
 
-        if (amount <= 0) {
-            logger.warning("Versuch, negativen/null Betrag abzuheben: " + amount);
+        if (amount == null || !amount.isPositive() || !isVaultCurrency(amount)) {
+            logger.warning("Versuch, ungültigen Betrag abzuheben: " + amount);
             return false;
         }
 
-        if (vaultEconomy.getBalance(player) < amount) {
+        // Exakter Vergleich in Minor Units (kein double-Drift) - immer frisch, nie aus dem Cache
+        Money balance = Money.fromVault(vaultEconomy.getBalance(player), Money.BASE_CURRENCY_ID);
+        if (!balance.isAtLeast(amount)) {
             return false; // Nicht genug Guthaben
         }
 
-        net.milkbowl.vault.economy.EconomyResponse response = vaultEconomy.withdrawPlayer(player, amount);
+        net.milkbowl.vault.economy.EconomyResponse response = vaultEconomy.withdrawPlayer(player, amount.toVault());
+        invalidateCachedBalance(player);
+        if (response.transactionSuccess() && metrics != null) {
+            metrics.record(EconomyMetrics.Category.VAULT, "withdraw", amount);
+        }
         return response.transactionSuccess();
     }
 
     @Override
-    public boolean deposit(Player player, double amount) throws ProviderFunctionalityNotFoundException {
+    public boolean deposit(Player player, Money amount) throws ProviderFunctionalityNotFoundException {
         if (!isAvailable()) {
             throw new ProviderFunctionalityNotFoundException(
                     "EconomyProvider",
@@ -147,12 +247,16 @@ public class VaultEconomyProvider implements EconomyProvider {
             );
         }
 
-        if (amount <= 0) {
-            logger.warning("Versuch, negativen/null Betrag einzuzahlen: " + amount);
+        if (amount == null || !amount.isPositive() || !isVaultCurrency(amount)) {
+            logger.warning("Versuch, ungültigen Betrag einzuzahlen: " + amount);
             return false;
         }
 
-        net.milkbowl.vault.economy.EconomyResponse response = vaultEconomy.depositPlayer(player, amount);
+        net.milkbowl.vault.economy.EconomyResponse response = vaultEconomy.depositPlayer(player, amount.toVault());
+        invalidateCachedBalance(player);
+        if (response.transactionSuccess() && metrics != null) {
+            metrics.record(EconomyMetrics.Category.VAULT, "deposit", amount);
+        }
         return response.transactionSuccess();
     }
 
@@ -199,22 +303,35 @@ public class VaultEconomyProvider implements EconomyProvider {
         }
 
         // Vault hat keine direkte setBalance-Methode, wir nutzen withdraw/deposit
-        double currentBalance = vaultEconomy.getBalance(player);
-        double difference = amount - currentBalance;
+        Money target = Money.fromVault(amount, Money.BASE_CURRENCY_ID);
+        Money currentBalance = Money.fromVault(vaultEconomy.getBalance(player), Money.BASE_CURRENCY_ID);
+        Money difference = target.minus(currentBalance);
 
-        if (difference > 0) {
+        if (difference.isPositive()) {
             // Einzahlen
-            net.milkbowl.vault.economy.EconomyResponse response = vaultEconomy.depositPlayer(player, difference);
+            net.milkbowl.vault.economy.EconomyResponse response = vaultEconomy.depositPlayer(player, difference.toVault());
+            invalidateCachedBalance(player);
             return response.transactionSuccess();
-        } else if (difference < 0) {
+        } else if (difference.isNegative()) {
             // Abheben
-            net.milkbowl.vault.economy.EconomyResponse response = vaultEconomy.withdrawPlayer(player, Math.abs(difference));
+            net.milkbowl.vault.economy.EconomyResponse response = vaultEconomy.withdrawPlayer(player, difference.negate().toVault());
+            invalidateCachedBalance(player);
             return response.transactionSuccess();
         }
 
         return true; // Kontostand ist bereits korrekt
     }
 
+    /**
+     * Verwirft den gecachten Kontostand nach einer direkten Buchung.
+     */
+    private void invalidateCachedBalance(OfflinePlayer player) {
+        VaultBridge activeBridge = bridge;
+        if (activeBridge != null) {
+            activeBridge.invalidate(player.getUniqueId());
+        }
+    }
+
     @Override
     public boolean hasAccount(OfflinePlayer player) throws ProviderFunctionalityNotFoundException {
         if (!isAvailable()) {
@@ -293,6 +410,27 @@ public class VaultEconomyProvider implements EconomyProvider {
         return vaultEconomy.currencyNamePlural();
     }
 
+    /**
+     * Konvertiert einen Vault-Double in Money (Basiswährung).
+     *
+     * Ungültige Werte (NaN/Infinity) werden auf 0 abgebildet und anschließend
+     * von withdraw/deposit abgelehnt.
+     */
+    private Money toMoney(double amount) {
+        try {
+            return Money.fromVault(amount, Money.BASE_CURRENCY_ID);
+        } catch (ArithmeticException e) {
+            return Money.zero(Money.BASE_CURRENCY_ID);
+        }
+    }
+
+    /**
+     * Prüft ob ein Betrag in der Vault-Währung (Basiswährung) angegeben ist.
+     */
+    private boolean isVaultCurrency(Money amount) {
+        return Money.BASE_CURRENCY_ID.equals(amount.currencyId());
+    }
+
     // ================== Item-Preis-Verwaltung (delegiert an ItemBasePriceProvider) ==================
 
     @Override
@@ -329,10 +467,12 @@ public class VaultEconomyProvider implements EconomyProvider {
             return false;
         }
 
-        // Delegiere an ItemBasePriceProvider
-        priceProvider.registerVanillaPrice(material, buyPrice, sellPrice);
+        // Delegiere an ItemBasePriceProvider (Preis-Speicher schreibt nur diesen Eintrag)
+        if (priceProvider.updateVanillaPrice(material, buyPrice, sellPrice)) {
+            return true;
+        }
 
-        // Speichere Config automatisch (eliminiert Reflection in PlotPriceCommand!)
+        // Fallback ohne Preis-Speicher: komplette Config speichern
         if (plugin != null) {
             plugin.saveConfiguration();
             logger.fine("Config automatisch nach setItemPrice() gespeichert");
@@ -356,4 +496,40 @@ public class VaultEconomyProvider implements EconomyProvider {
                 .map(price -> price.material())
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public Optional<String> getCustomItemKey(ItemStack item) throws ProviderFunctionalityNotFoundException {
+        CustomItemKeyResolver keyResolver = priceProvider != null ? priceProvider.getKeyResolver() : null;
+        if (keyResolver == null) {
+            throw new ProviderFunctionalityNotFoundException(
+                    "EconomyProvider",
+                    "getCustomItemKey",
+                    "CustomItemKeyResolver nicht verfügbar"
+            );
+        }
+
+        return keyResolver.resolve(item).map(CustomItemKey::identifier);
+    }
+
+    @Override
+    public Optional<BigDecimal> getCustomBuyPrice(String customItemKey) throws ProviderFunctionalityNotFoundException {
+        return customItemPrice(customItemKey).map(ItemBasePrice.CustomItemPrice::getBuyPrice);
+    }
+
+    @Override
+    public Optional<BigDecimal> getCustomSellPrice(String customItemKey) throws ProviderFunctionalityNotFoundException {
+        return customItemPrice(customItemKey).map(ItemBasePrice.CustomItemPrice::getSellPrice);
+    }
+
+    /**
+     * Gibt den Preis eines Custom-Items nach "TYPE:ID" zurück.
+     */
+    private Optional<ItemBasePrice.CustomItemPrice> customItemPrice(String customItemKey) {
+        if (priceProvider == null || customItemKey == null) {
+            return Optional.empty();
+        }
+
+        CustomItemKey key = CustomItemKey.parse(customItemKey);
+        return key != null ? priceProvider.getCustomItemPrice(key) : Optional.empty();
+    }
 }
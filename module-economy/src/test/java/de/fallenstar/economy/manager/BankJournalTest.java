@@ -0,0 +1,133 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.database.DataStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für BankJournal.
+ *
+ * Testet:
+ * - Wiederherstellung aus Snapshot und folgenden Journal-Segmenten
+ * - Fehlgeschlagener Segment-Write bleibt offen und wird wiederholt
+ * - Abgleich (reconcile) erkennt Abweichungen außerhalb des Journals
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("BankJournal Tests")
+class BankJournalTest {
+
+    private static final String NAMESPACE = "bank_journal_sterne";
+
+    private Map<String, Object> entries;
+    private DataStore dataStore;
+    private BankLedger ledger;
+    private BankJournal journal;
+    private UUID playerId;
+
+    @BeforeEach
+    void setUp() {
+        entries = new HashMap<>();
+        dataStore = mock(DataStore.class);
+        when(dataStore.saveSync(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            entries.put(invocation.getArgument(0) + "/" + invocation.getArgument(1), invocation.getArgument(2));
+            return true;
+        });
+        when(dataStore.loadSync(anyString(), anyString(), any())).thenAnswer(invocation ->
+                Optional.ofNullable(entries.get(invocation.getArgument(0) + "/" + invocation.getArgument(1))));
+        when(dataStore.delete(anyString(), anyString())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(
+                        entries.remove(invocation.getArgument(0) + "/" + invocation.getArgument(1)) != null));
+
+        ledger = new BankLedger(1000);
+        journal = new BankJournal(Logger.getLogger("test"), dataStore, "sterne", ledger);
+        journal.recover();
+        playerId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Neustart sollte Snapshot und alle folgenden Segmente wiederherstellen")
+    void testRecover_SnapshotAndSegments() {
+        journal.open(playerId);
+        journal.deposit(playerId, 500);
+        journal.commit();
+        assertTrue(journal.snapshot());
+        assertFalse(entries.containsKey(NAMESPACE + "/segment_1"), "Vom Snapshot abgedecktes Segment gelöscht");
+
+        journal.deposit(playerId, 200);
+        journal.commit();
+        assertEquals(3, journal.withdrawUpTo(playerId, 100, 3));
+        journal.commit();
+        assertTrue(entries.containsKey(NAMESPACE + "/segment_2"));
+        assertTrue(entries.containsKey(NAMESPACE + "/segment_3"));
+
+        BankLedger restored = new BankLedger(0);
+        BankJournal recovered = new BankJournal(Logger.getLogger("test"), dataStore, "sterne", restored);
+
+        assertEquals(2, recovered.recover());
+        assertEquals(400, restored.balance(playerId));
+        assertEquals(1400, restored.bankBalance());
+        assertTrue(recovered.reconcile().isBalanced());
+
+        // Neue Buchungen setzen die Segment-Nummerierung fort
+        recovered.deposit(playerId, 50);
+        recovered.commit();
+        assertTrue(entries.containsKey(NAMESPACE + "/segment_4"));
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagener Segment-Write sollte offen bleiben und wiederholt werden")
+    void testCommit_FailedWriteStaysPending() {
+        doReturn(false).when(dataStore).saveSync(anyString(), anyString(), any());
+        journal.open(playerId);
+        journal.deposit(playerId, 500);
+
+        journal.commit();
+        assertEquals(2, journal.getPendingCount());
+        assertTrue(entries.isEmpty());
+
+        doAnswer(invocation -> {
+            entries.put(invocation.getArgument(0) + "/" + invocation.getArgument(1), invocation.getArgument(2));
+            return true;
+        }).when(dataStore).saveSync(anyString(), anyString(), any());
+        journal.deposit(playerId, 100);
+        journal.commit();
+
+        assertEquals(0, journal.getPendingCount());
+        BankJournal.SegmentData segment = (BankJournal.SegmentData) entries.get(NAMESPACE + "/segment_1");
+        assertEquals(3, segment.entries.size());
+        assertEquals(BankJournal.Operation.OPEN, segment.entries.get(0).operation());
+    }
+
+    @Test
+    @DisplayName("Abgleich sollte Änderungen am Ledger ohne Journal als Drift melden")
+    void testReconcile_ReportsDrift() {
+        journal.open(playerId);
+        journal.deposit(playerId, 500);
+        journal.setBankBalance(2000);
+        assertTrue(journal.reconcile().isBalanced());
+
+        // Liquidität am Journal vorbei verändert
+        ledger.setBankBalance(1950);
+
+        BankJournal.Reconciliation reconciliation = journal.reconcile();
+        assertFalse(reconciliation.isBalanced());
+        assertEquals(-50, reconciliation.drift());
+        assertEquals(500, reconciliation.totalAccounts());
+        assertEquals(1950, reconciliation.bankBalance());
+        assertEquals(1500, reconciliation.expectedReserve());
+    }
+}
@@ -0,0 +1,191 @@
+package de.fallenstar.economy.manager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für BankLedger.
+ *
+ * Testet:
+ * - Gutschrift und Teil-Belastung eines Kontos
+ * - Parallele Belastungen desselben Kontos (kein Überziehen)
+ * - Parallele Ein-/Auszahlungen auf mehreren Konten (Gesamtsumme erhalten,
+ *   kein negativer Konto- oder Bankstand)
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("BankLedger Tests")
+class BankLedgerTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 20_000;
+
+    private BankLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new BankLedger(10_000, 4);
+    }
+
+    @Test
+    @DisplayName("Belastung sollte nur so viele Einheiten abbuchen, wie das Guthaben deckt")
+    void testDebitUpTo_PartialUnits() {
+        UUID playerId = UUID.randomUUID();
+        assertEquals(-1, ledger.credit(playerId, 100));
+
+        assertTrue(ledger.open(playerId));
+        assertFalse(ledger.open(playerId));
+        assertEquals(250, ledger.credit(playerId, 250));
+        assertEquals(10_250, ledger.bankBalance());
+
+        assertEquals(2, ledger.debitUpTo(playerId, 100, 5));
+        assertEquals(50, ledger.balance(playerId));
+        assertEquals(0, ledger.debitUpTo(playerId, 100, 5));
+        assertEquals(0, ledger.debitUpTo(UUID.randomUUID(), 100, 5));
+    }
+
+    @Test
+    @DisplayName("Parallele Belastungen desselben Kontos sollten nie mehr als das Guthaben abbuchen")
+    void testDebitUpTo_ConcurrentSameAccount() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        ledger.open(playerId);
+        ledger.credit(playerId, 5_000);
+
+        AtomicLong debited = new AtomicLong();
+        runConcurrently(thread -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                debited.addAndGet(ledger.debitUpTo(playerId, 7, 3) * 7);
+            }
+        });
+
+        assertEquals(5_000 - 5_000 % 7, debited.get());
+        assertEquals(5_000 % 7, ledger.balance(playerId));
+    }
+
+    @Test
+    @DisplayName("Parallele Ein- und Auszahlungen sollten die Gesamtsumme erhalten und nie negativ werden")
+    void testCreditAndWithdraw_ConcurrentConservesTotal() throws Exception {
+        List<UUID> accounts = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            UUID playerId = UUID.randomUUID();
+            ledger.open(playerId);
+            ledger.credit(playerId, 1_000);
+            accounts.add(playerId);
+        }
+        long initialAccounts = ledger.totalAccountBalance();
+        long initialBank = ledger.bankBalance();
+
+        AtomicLong credited = new AtomicLong();
+        AtomicLong withdrawn = new AtomicLong();
+        AtomicBoolean negativeSeen = new AtomicBoolean(false);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // Beobachter: kein Konto und keine Liquidität darf je negativ sichtbar sein
+        Thread observer = new Thread(() -> {
+            while (running.get()) {
+                if (ledger.bankBalance() < 0) {
+                    negativeSeen.set(true);
+                }
+                for (UUID playerId : accounts) {
+                    if (ledger.balance(playerId) < 0) {
+                        negativeSeen.set(true);
+                    }
+                }
+            }
+        });
+        observer.start();
+
+        try {
+            runConcurrently(thread -> {
+                Random random = new Random(thread);
+                for (int i = 0; i < OPERATIONS; i++) {
+                    UUID playerId = accounts.get(random.nextInt(accounts.size()));
+                    if (random.nextInt(3) == 0) {
+                        long amount = 1 + random.nextInt(50);
+                        ledger.credit(playerId, amount);
+                        credited.addAndGet(amount);
+                    } else {
+                        withdrawn.addAndGet(withdraw(playerId, 1 + random.nextInt(20), 1 + random.nextInt(10)));
+                    }
+                }
+            });
+        } finally {
+            running.set(false);
+            observer.join();
+        }
+
+        assertFalse(negativeSeen.get(), "Negativer Konto- oder Bankstand beobachtet");
+        assertTrue(withdrawn.get() > 0, "Es sollten Auszahlungen stattgefunden haben");
+        assertEquals(initialAccounts + credited.get() - withdrawn.get(), ledger.totalAccountBalance());
+        assertEquals(initialBank + credited.get() - withdrawn.get(), ledger.bankBalance());
+        for (UUID playerId : accounts) {
+            assertTrue(ledger.balance(playerId) >= 0);
+        }
+    }
+
+    /**
+     * Hilfsmethode: Auszahlung wie im BankJournal (Konto, dann Liquidität, Rest zurückbuchen).
+     *
+     * @return Ausgezahlter Betrag in Minor Units
+     */
+    private long withdraw(UUID playerId, long unitCost, long maxUnits) {
+        long units = ledger.debitUpTo(playerId, unitCost, maxUnits);
+        if (units <= 0) {
+            return 0;
+        }
+        long liquid = ledger.reserveLiquidityUpTo(unitCost, units);
+        if (liquid < units) {
+            ledger.refund(playerId, (units - liquid) * unitCost);
+        }
+        return liquid * unitCost;
+    }
+
+    /**
+     * Hilfsmethode: Startet alle Threads gleichzeitig und wartet auf ihr Ende.
+     */
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Arbeit eines Test-Threads.
+     */
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
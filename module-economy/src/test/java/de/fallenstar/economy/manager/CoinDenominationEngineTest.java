@@ -0,0 +1,157 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.model.CoinBreakdown;
+import de.fallenstar.economy.model.CurrencyItemSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für CoinDenominationEngine.
+ *
+ * Testet:
+ * - Greedy-Stückelung (Lookup-Tabelle und große Beträge)
+ * - Stückelung unter Stack-Limit
+ * - Umrechnung von Preisen in Münz-Einheiten inkl. Rundung
+ * - Rückrechnung in Basiswährung
+ * - Neu-Registrierung nach Kursänderung
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("CoinDenominationEngine Tests")
+class CoinDenominationEngineTest {
+
+    private CoinDenominationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new CoinDenominationEngine();
+        engine.register(CurrencyItemSet.createBaseCurrency());
+        engine.register(currency("dukaten", "1.2"));
+        engine.register(currency("kronen", "0.8"));
+    }
+
+    @Test
+    @DisplayName("Greedy-Stückelung sollte möglichst wenige Münzen verwenden")
+    void testBreakdown_Greedy() {
+        assertBreakdown(engine.breakdown("sterne", 115), 5, 1, 1);
+        assertBreakdown(engine.breakdown("sterne", 0), 0, 0, 0);
+        assertBreakdown(engine.breakdown("sterne", CoinDenominationEngine.COMMON_UNITS + 23), 3, 2, 10);
+    }
+
+    @Test
+    @DisplayName("Stack-Limit sollte eine Stückelung mit weniger Stacks erzwingen")
+    void testBreakdown_StackLimit() {
+        // 1/1/5 braucht 3 Stacks - in 2 Stacks passt 1x Gold + 15x Bronze
+        Optional<CoinBreakdown> change = engine.breakdown("sterne", 115, 64, 2);
+
+        assertTrue(change.isPresent());
+        assertBreakdown(change.get(), 15, 0, 1);
+        assertEquals(2, change.get().stackCount(64));
+    }
+
+    @Test
+    @DisplayName("Betrag über der Stack-Kapazität sollte nicht darstellbar sein")
+    void testBreakdown_TooLargeForStacks() {
+        assertTrue(engine.breakdown("sterne", 100L * 64 * 2, 64, 2).isPresent());
+        assertTrue(engine.breakdown("sterne", 100L * 64 * 2 + 1, 64, 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ungültige Eingaben sollten abgelehnt werden")
+    void testBreakdown_InvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> engine.breakdown("sterne", -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.breakdown("taler", 10));
+        assertThrows(IllegalArgumentException.class, () -> engine.breakdown("sterne", 10, 0, 2));
+    }
+
+    @Test
+    @DisplayName("Preis in Basiswährung sollte über den Wechselkurs umgerechnet werden")
+    void testToCoinUnits_FromBaseCurrency() {
+        // 12 Sterne = 10 Dukaten (Kurs 1.2)
+        assertEquals(10, engine.toCoinUnits("dukaten", Money.ofMajor(12, "sterne"), RoundingMode.UNNECESSARY));
+        // 12 Sterne = 15 Kronen (Kurs 0.8)
+        assertEquals(15, engine.toCoinUnits("kronen", Money.ofMajor(12, "sterne"), RoundingMode.UNNECESSARY));
+        // Preis in der Zielwährung selbst
+        assertEquals(7, engine.toCoinUnits("dukaten", Money.ofMajor(7, "dukaten"), RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    @DisplayName("Bruchteile einer Münze sollten nach der Rundungsregel gerundet werden")
+    void testToCoinUnits_Rounding() {
+        // 1 Stern = 0.833 Dukaten
+        Money oneStern = Money.ofMajor(1, "sterne");
+        assertEquals(1, engine.toCoinUnits("dukaten", oneStern, RoundingMode.HALF_UP));
+        assertEquals(0, engine.toCoinUnits("dukaten", oneStern, RoundingMode.DOWN));
+        assertEquals(1, engine.toCoinUnits("dukaten", oneStern, RoundingMode.UP));
+        assertThrows(ArithmeticException.class,
+                () -> engine.toCoinUnits("dukaten", oneStern, RoundingMode.UNNECESSARY));
+
+        // 0.50 Sterne = 0.5 Münzen - HALF_EVEN rundet auf die gerade Zahl
+        Money half = Money.of(50, "sterne");
+        assertEquals(1, engine.toCoinUnits("sterne", half, RoundingMode.HALF_UP));
+        assertEquals(0, engine.toCoinUnits("sterne", half, RoundingMode.HALF_EVEN));
+        assertEquals(0, engine.toCoinUnits("sterne", half, RoundingMode.HALF_DOWN));
+    }
+
+    @Test
+    @DisplayName("Preis in einer Fremdwährung sollte abgelehnt werden")
+    void testToCoinUnits_ForeignCurrency() {
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.toCoinUnits("dukaten", Money.ofMajor(5, "kronen"), RoundingMode.HALF_UP));
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.toCoinUnits("sterne", Money.ofMajor(-1, "sterne"), RoundingMode.HALF_UP));
+    }
+
+    @Test
+    @DisplayName("Stückelung sollte in Basiswährung zurückgerechnet werden")
+    void testToBase() {
+        assertEquals(Money.ofMajor(12, "sterne"), engine.toBase(new CoinBreakdown("dukaten", 0, 1, 0)));
+        assertEquals(Money.ofMajor(115, "sterne"), engine.toBase(new CoinBreakdown("sterne", 5, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("forPrice sollte umrechnen und stückeln")
+    void testForPrice() {
+        Optional<CoinBreakdown> change = engine.forPrice("sterne", Money.ofMajor(15, "sterne"),
+                RoundingMode.HALF_UP, 64, 2);
+
+        assertTrue(change.isPresent());
+        assertBreakdown(change.get(), 5, 1, 0);
+    }
+
+    @Test
+    @DisplayName("Neu-Registrierung sollte den Kurs ersetzen, ohne andere Währungen zu verändern")
+    void testRegister_ReplacesExchangeRate() {
+        engine.register(currency("dukaten", "2"));
+
+        assertEquals(6, engine.toCoinUnits("dukaten", Money.ofMajor(12, "sterne"), RoundingMode.UNNECESSARY));
+        assertEquals(15, engine.toCoinUnits("kronen", Money.ofMajor(12, "sterne"), RoundingMode.UNNECESSARY));
+        assertTrue(engine.isRegistered("sterne"));
+    }
+
+    /**
+     * Hilfsmethode: Erstellt eine Währung mit Wechselkurs.
+     */
+    private static CurrencyItemSet currency(String id, String rate) {
+        return new CurrencyItemSet(id, id, id, id, "bronze_" + id, "silver_" + id, "gold_" + id,
+                new BigDecimal(rate));
+    }
+
+    /**
+     * Hilfsmethode: Vergleicht eine Stückelung.
+     */
+    private static void assertBreakdown(CoinBreakdown breakdown, long bronze, long silver, long gold) {
+        assertEquals(bronze, breakdown.bronze(), "Bronze");
+        assertEquals(silver, breakdown.silver(), "Silber");
+        assertEquals(gold, breakdown.gold(), "Gold");
+    }
+}
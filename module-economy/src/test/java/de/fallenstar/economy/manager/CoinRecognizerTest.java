@@ -0,0 +1,186 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.provider.ItemProvider;
+import de.fallenstar.economy.model.CurrencyItemSet;
+import de.fallenstar.economy.model.CurrencyItemSet.CurrencyTier;
+import de.fallenstar.economy.model.CurrencyItemSet.InventoryCoinResult;
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für CoinRecognizer.
+ *
+ * Testet:
+ * - PDC-Schnellpfad (ohne ItemProvider-Aufruf)
+ * - Meta-Cache für den Provider-Pfad (positive und negative Treffer)
+ * - Verwerfen des Caches bei neuer Währung
+ * - Zählung aller Tiers in einem Inventar-Durchlauf
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("CoinRecognizer Tests")
+class CoinRecognizerTest {
+
+    private ItemProvider itemProvider;
+    private CoinRecognizer recognizer;
+    private CurrencyItemSet sterne;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        itemProvider = mock(ItemProvider.class);
+        recognizer = new CoinRecognizer(Logger.getLogger("CoinRecognizerTest"), itemProvider);
+        sterne = CurrencyItemSet.createBaseCurrency();
+        recognizer.register(sterne);
+        recognizer.register(new CurrencyItemSet("dukaten", "Dukaten", "Dukat", "Dukaten",
+                "bronze_dukat", "silver_dukat", "gold_dukat", new BigDecimal("1.2")));
+
+        // Alle Münzen außer Goldstern tragen ihre ID im PDC; Goldstern ist ein MMOItem
+        when(itemProvider.getSpecialItem(anyString(), eq(1))).thenAnswer(invocation ->
+                Optional.of(invocation.getArgument(0).equals("gold_stern")
+                        ? providerStack(1, mock(ItemMeta.class))
+                        : pdcStack(invocation.getArgument(0), 1)));
+        when(itemProvider.getItemId(any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("Münzen mit PDC-ID sollten ohne ItemProvider erkannt werden")
+    void testRecognize_PdcFastPath() throws Exception {
+        assertEquals(new CoinRecognizer.Coin("sterne", CurrencyTier.SILVER),
+                recognizer.recognize(pdcStack("silver_stern", 3)).orElseThrow());
+        assertEquals(new CoinRecognizer.Coin("dukaten", CurrencyTier.BRONZE),
+                recognizer.recognize(pdcStack("bronze_dukat", 1)).orElseThrow());
+        assertTrue(recognizer.recognize(pdcStack("ui_confirm", 1)).isEmpty());
+
+        verify(itemProvider, never()).getItemId(any());
+        verify(itemProvider, never()).getSpecialItem(anyString(), anyInt());
+        assertEquals(0, recognizer.getCacheSize());
+    }
+
+    @Test
+    @DisplayName("Stacks ohne ItemMeta sollten ohne weitere Prüfung verworfen werden")
+    void testRecognize_NoMeta() throws Exception {
+        ItemStack plain = mock(ItemStack.class);
+        when(plain.getType()).thenReturn(Material.DIAMOND);
+        when(plain.hasItemMeta()).thenReturn(false);
+
+        assertTrue(recognizer.recognize(plain).isEmpty());
+        assertTrue(recognizer.recognize(null).isEmpty());
+        verifyNoInteractions(itemProvider);
+    }
+
+    @Test
+    @DisplayName("Provider-Münzen sollten pro ItemMeta nur einmal aufgelöst werden")
+    void testRecognize_MetaCache() throws Exception {
+        ItemMeta goldMeta = mock(ItemMeta.class);
+        ItemMeta swordMeta = mock(ItemMeta.class);
+        ItemStack gold = providerStack(5, goldMeta);
+        ItemStack moreGold = providerStack(12, goldMeta);
+        ItemStack sword = providerStack(1, swordMeta);
+        when(itemProvider.getItemId(any())).thenAnswer(invocation -> {
+            ItemMeta meta = invocation.<ItemStack>getArgument(0).getItemMeta();
+            return Optional.of(meta == swordMeta ? "SWORD:EXCALIBUR" : "COIN:GOLD_STERN");
+        });
+
+        CoinRecognizer.Coin expected = new CoinRecognizer.Coin("sterne", CurrencyTier.GOLD);
+        assertEquals(expected, recognizer.recognize(gold).orElseThrow());
+        assertEquals(expected, recognizer.recognize(moreGold).orElseThrow());
+        assertTrue(recognizer.recognize(sword).isEmpty());
+        assertTrue(recognizer.recognize(sword).isEmpty());
+
+        // Gleiche Meta (beliebige Stackgröße) teilt sich einen Eintrag, negative Treffer inklusive
+        assertEquals(2, recognizer.getCacheSize());
+        verify(itemProvider, times(1)).getItemId(gold);
+        verify(itemProvider, never()).getItemId(moreGold);
+        verify(itemProvider, times(1)).getItemId(sword);
+        assertEquals(CurrencyTier.GOLD, recognizer.resolveTier(moreGold, "sterne"));
+        assertNull(recognizer.resolveTier(moreGold, "dukaten"));
+    }
+
+    @Test
+    @DisplayName("Neue Währung sollte den Meta-Cache verwerfen")
+    void testRegister_ClearsCache() throws Exception {
+        ItemStack sword = providerStack(1, mock(ItemMeta.class));
+        when(itemProvider.getItemId(any())).thenReturn(Optional.of("SWORD:EXCALIBUR"));
+        recognizer.recognize(sword);
+        assertEquals(1, recognizer.getCacheSize());
+
+        recognizer.register(sterne);
+
+        assertEquals(0, recognizer.getCacheSize());
+    }
+
+    @Test
+    @DisplayName("Alle Tiers einer Währung sollten in einem Inventar-Durchlauf gezählt werden")
+    void testFindAllCoins_SingleScan() {
+        ItemStack[] contents = {
+                pdcStack("bronze_stern", 10),
+                null,
+                pdcStack("gold_stern", 2),
+                pdcStack("bronze_dukat", 7),
+                pdcStack("bronze_stern", 5),
+                pdcStack("ui_confirm", 1)
+        };
+        Inventory inventory = mock(Inventory.class);
+        when(inventory.getContents()).thenReturn(contents);
+
+        Map<CurrencyTier, InventoryCoinResult> coins = sterne.findAllCoinsInInventory(inventory, recognizer);
+
+        verify(inventory, times(1)).getContents();
+        assertEquals(15, coins.get(CurrencyTier.BRONZE).totalAmount());
+        assertEquals(2, coins.get(CurrencyTier.BRONZE).stacks().size());
+        assertEquals(4, coins.get(CurrencyTier.BRONZE).stacks().get(1).slot());
+        assertEquals(0, coins.get(CurrencyTier.SILVER).totalAmount());
+        assertTrue(coins.get(CurrencyTier.SILVER).stacks().isEmpty());
+        assertEquals(2, coins.get(CurrencyTier.GOLD).totalAmount());
+    }
+
+    /**
+     * Hilfsmethode: Erstellt einen Stack mit SpecialItem-ID im PDC.
+     */
+    private static ItemStack pdcStack(String specialId, int amount) {
+        PersistentDataContainer pdc = mock(PersistentDataContainer.class);
+        when(pdc.get(eq(CoinRecognizer.SPECIAL_ITEM_ID_KEY), any())).thenReturn(specialId);
+        when(pdc.has(eq(CoinRecognizer.SPECIAL_ITEM_ID_KEY), any())).thenReturn(true);
+        ItemMeta meta = mock(ItemMeta.class);
+        when(meta.getPersistentDataContainer()).thenReturn(pdc);
+        return stack(amount, meta);
+    }
+
+    /**
+     * Hilfsmethode: Erstellt einen Stack ohne PDC-ID (Erkennung über den ItemProvider).
+     */
+    private static ItemStack providerStack(int amount, ItemMeta meta) {
+        if (meta.getPersistentDataContainer() == null) {
+            when(meta.getPersistentDataContainer()).thenReturn(mock(PersistentDataContainer.class));
+        }
+        return stack(amount, meta);
+    }
+
+    /**
+     * Hilfsmethode: Erstellt einen Stack mit ItemMeta.
+     */
+    private static ItemStack stack(int amount, ItemMeta meta) {
+        ItemStack stack = mock(ItemStack.class);
+        when(stack.getType()).thenReturn(Material.GOLD_NUGGET);
+        when(stack.getAmount()).thenReturn(amount);
+        when(stack.hasItemMeta()).thenReturn(true);
+        when(stack.getItemMeta()).thenReturn(meta);
+        return stack;
+    }
+}
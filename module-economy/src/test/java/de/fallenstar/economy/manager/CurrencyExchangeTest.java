@@ -0,0 +1,115 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.model.CurrencyItemSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit-Tests für CurrencyExchange.
+ *
+ * Testet:
+ * - Exakte Umrechnung zwischen Basis- und Fremdwährungen
+ * - Rundung von Bruchteilen (pro Aufruf und Standard-Rundung)
+ * - Neuaufbau der Matrix bei Kursänderung
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("CurrencyExchange Tests")
+class CurrencyExchangeTest {
+
+    private CurrencyExchange exchange;
+
+    @BeforeEach
+    void setUp() {
+        exchange = new CurrencyExchange(RoundingMode.HALF_UP);
+        exchange.rebuild(List.of(
+                CurrencyItemSet.createBaseCurrency(),
+                currency("dukaten", "1.2"),
+                currency("kronen", "0.8")));
+    }
+
+    @Test
+    @DisplayName("Umrechnung sollte exakt über den Kurs-Bruch erfolgen")
+    void testConvert_Exact() {
+        Money dukaten = exchange.convert(Money.ofMajor(12, "sterne"), "dukaten");
+        assertEquals(Money.ofMajor(10, "dukaten"), dukaten);
+
+        // Fremdwährung → Fremdwährung: 1.2 / 0.8 = 1.5
+        assertEquals(Money.ofMajor(15, "kronen"), exchange.convert(dukaten, "kronen", RoundingMode.UNNECESSARY));
+        assertEquals(Money.ofMajor(12, "sterne"), exchange.convert(dukaten, "sterne", RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    @DisplayName("Gleiche Währung sollte unverändert zurückgegeben werden")
+    void testConvert_SameCurrency() {
+        Money amount = Money.of(12345, "dukaten");
+        assertSame(amount, exchange.convert(amount, "dukaten"));
+    }
+
+    @Test
+    @DisplayName("Bruchteile von Minor Units sollten nach der Rundungsregel gerundet werden")
+    void testConvert_Rounding() {
+        // 0.03 Sterne = 0.025 Dukaten
+        Money amount = Money.of(3, "sterne");
+        assertEquals(3, exchange.convert(amount, "dukaten", RoundingMode.HALF_UP).minorUnits());
+        assertEquals(2, exchange.convert(amount, "dukaten", RoundingMode.HALF_EVEN).minorUnits());
+        assertEquals(2, exchange.convert(amount, "dukaten", RoundingMode.DOWN).minorUnits());
+        assertThrows(ArithmeticException.class,
+                () -> exchange.convert(amount, "dukaten", RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    @DisplayName("Standard-Rundung sollte für convert() ohne Rundungsangabe gelten")
+    void testConvert_DefaultRounding() {
+        Money amount = Money.of(3, "sterne");
+        assertEquals(3, exchange.convert(amount, "dukaten").minorUnits());
+
+        exchange.setDefaultRounding(RoundingMode.DOWN);
+        assertEquals(RoundingMode.DOWN, exchange.getDefaultRounding());
+        assertEquals(2, exchange.convert(amount, "dukaten").minorUnits());
+    }
+
+    @Test
+    @DisplayName("Unbekannte Währung sollte abgelehnt werden")
+    void testConvert_UnknownCurrency() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exchange.convert(Money.ofMajor(1, "sterne"), "taler"));
+        assertTrue(exchange.getRate("sterne", "taler").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Kurs sollte auf 10 signifikante Stellen angezeigt werden")
+    void testGetRate() {
+        assertEquals(0, new BigDecimal("1.5").compareTo(exchange.getRate("dukaten", "kronen").orElseThrow()));
+        assertEquals(0, new BigDecimal("0.8333333333").compareTo(exchange.getRate("sterne", "dukaten").orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Neuaufbau sollte neue Kurse übernehmen und die Version erhöhen")
+    void testRebuild_UpdatesRatesAndVersion() {
+        long version = exchange.getVersion();
+
+        exchange.rebuild(List.of(CurrencyItemSet.createBaseCurrency(), currency("dukaten", "2")));
+
+        assertEquals(version + 1, exchange.getVersion());
+        assertEquals(2, exchange.getCurrencyCount());
+        assertEquals(Money.ofMajor(6, "dukaten"), exchange.convert(Money.ofMajor(12, "sterne"), "dukaten"));
+    }
+
+    /**
+     * Hilfsmethode: Erstellt eine Währung mit Wechselkurs.
+     */
+    private static CurrencyItemSet currency(String id, String rate) {
+        return new CurrencyItemSet(id, id, id, id, "bronze_" + id, "silver_" + id, "gold_" + id,
+                new BigDecimal(rate));
+    }
+}
@@ -0,0 +1,118 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.provider.ItemProvider;
+import de.fallenstar.core.transaction.TransactionCoordinator;
+import de.fallenstar.economy.model.CurrencyItemSet;
+import de.fallenstar.economy.provider.VaultBridge;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für die Münz-Auszahlung des CurrencyManager.
+ *
+ * Testet:
+ * - Rückerstattung der Vault-Abbuchung, wenn die Münz-Auszahlung scheitert
+ * - Keine Rückerstattung bei erfolgreicher Auszahlung
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("CurrencyManager Tests")
+class CurrencyManagerTest {
+
+    private static final Money BRONZE_COST = Money.of(100, Money.BASE_CURRENCY_ID);
+
+    private CurrencyManager currencyManager;
+    private ItemProvider itemProvider;
+    private VaultBridge bridge;
+    private RefundQueue refundQueue;
+    private Player player;
+    private OfflinePlayer offlinePlayer;
+
+    @BeforeEach
+    void setUp() {
+        Logger logger = Logger.getLogger("CurrencyManagerTest");
+        UUID playerId = UUID.randomUUID();
+
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(playerId);
+        when(player.getName()).thenReturn("Händler");
+        offlinePlayer = mock(OfflinePlayer.class);
+
+        bridge = mock(VaultBridge.class);
+        when(bridge.mainThread()).thenReturn(Runnable::run);
+        when(bridge.deposit(any(), any())).thenReturn(CompletableFuture.completedFuture(true));
+
+        Plugin plugin = mock(Plugin.class);
+        Server server = mock(Server.class);
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        when(plugin.getServer()).thenReturn(server);
+        when(server.getScheduler()).thenReturn(scheduler);
+        when(server.getOfflinePlayer(playerId)).thenReturn(offlinePlayer);
+        when(scheduler.runTaskTimer(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+                .thenReturn(mock(BukkitTask.class));
+
+        refundQueue = new RefundQueue(logger, bridge);
+        refundQueue.start(plugin, null, 20L);
+
+        itemProvider = mock(ItemProvider.class);
+        currencyManager = new CurrencyManager(logger, itemProvider);
+        currencyManager.registerCurrency(CurrencyItemSet.createBaseCurrency());
+        currencyManager.setVaultBridge(bridge);
+        currencyManager.setTransactionCoordinator(new TransactionCoordinator(logger, null, 50L));
+        currencyManager.setRefundQueue(refundQueue);
+    }
+
+    @Test
+    @DisplayName("withdrawCoins() sollte die Abbuchung erstatten, wenn die Auszahlung scheitert")
+    void testWithdrawCoins_PayoutFails_RefundsVault() throws Exception {
+        when(bridge.withdrawUpTo(player, BRONZE_COST, 5)).thenReturn(CompletableFuture.completedFuture(5));
+        when(player.isOnline()).thenReturn(true);
+        when(itemProvider.getSpecialItem(anyString(), anyInt())).thenReturn(Optional.empty());
+
+        int paid = currencyManager.withdrawCoins(player, Money.BASE_CURRENCY_ID,
+                CurrencyItemSet.CurrencyTier.BRONZE, 5).join();
+
+        assertEquals(0, paid);
+        verify(bridge).deposit(offlinePlayer, BRONZE_COST.times(5));
+        assertEquals(0, refundQueue.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("withdrawCoins() sollte bei offline gegangenem Spieler erstatten")
+    void testWithdrawCoins_PlayerOffline_RefundsVault() {
+        when(bridge.withdrawUpTo(player, BRONZE_COST, 3)).thenReturn(CompletableFuture.completedFuture(3));
+        when(player.isOnline()).thenReturn(false);
+
+        assertEquals(0, currencyManager.withdrawCoins(player, Money.BASE_CURRENCY_ID,
+                CurrencyItemSet.CurrencyTier.BRONZE, 3).join());
+        verify(bridge).deposit(offlinePlayer, BRONZE_COST.times(3));
+    }
+
+    @Test
+    @DisplayName("withdrawCoins() sollte ohne Abbuchung nichts erstatten")
+    void testWithdrawCoins_NoFunds_NoRefund() {
+        when(bridge.withdrawUpTo(player, BRONZE_COST, 5)).thenReturn(CompletableFuture.completedFuture(0));
+
+        assertEquals(0, currencyManager.withdrawCoins(player, Money.BASE_CURRENCY_ID,
+                CurrencyItemSet.CurrencyTier.BRONZE, 5).join());
+        verify(bridge, never()).deposit(any(), any());
+    }
+}
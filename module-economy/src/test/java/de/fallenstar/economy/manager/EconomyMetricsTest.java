@@ -0,0 +1,164 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.model.CurrencyItemSet;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für EconomyMetrics.
+ *
+ * Testet:
+ * - Aggregation paralleler Buchungen (LongAdder-Zähler)
+ * - Umrechnung von Fremdwährungen in Basiswährung
+ * - Münz-Geldmenge und Raten im Report
+ * - Snapshot in den DataStore und Wiederherstellung beim Start
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("EconomyMetrics Tests")
+class EconomyMetricsTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 10_000;
+
+    private CurrencyExchange exchange;
+    private EconomyMetrics metrics;
+    private Map<String, Object> entries;
+    private DataStore dataStore;
+    private Plugin plugin;
+    private BukkitTask sampleTask;
+
+    @BeforeEach
+    void setUp() {
+        exchange = new CurrencyExchange(RoundingMode.HALF_UP);
+        exchange.rebuild(List.of(
+                CurrencyItemSet.createBaseCurrency(),
+                new CurrencyItemSet("dukaten", "Dukaten", "Dukat", "Dukaten",
+                        "bronze_dukat", "silver_dukat", "gold_dukat", new BigDecimal("1.2"))));
+        metrics = new EconomyMetrics(Logger.getLogger("EconomyMetricsTest"), exchange);
+
+        entries = new HashMap<>();
+        dataStore = mock(DataStore.class);
+        when(dataStore.saveSync(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            entries.put(invocation.getArgument(0) + "/" + invocation.getArgument(1), invocation.getArgument(2));
+            return true;
+        });
+        when(dataStore.loadSync(anyString(), anyString(), any())).thenAnswer(invocation ->
+                Optional.ofNullable(entries.get(invocation.getArgument(0) + "/" + invocation.getArgument(1))));
+
+        plugin = mock(Plugin.class);
+        Server server = mock(Server.class);
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        sampleTask = mock(BukkitTask.class);
+        when(plugin.getServer()).thenReturn(server);
+        when(server.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskTimerAsynchronously(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+                .thenReturn(sampleTask);
+    }
+
+    @Test
+    @DisplayName("Parallele Buchungen sollten vollständig aufsummiert werden")
+    void testRecord_ConcurrentAggregation() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        metrics.record(EconomyMetrics.Category.MINT, EconomyMetrics.VAULT_WITHDRAW, Money.of(3, "sterne"));
+                        metrics.record(EconomyMetrics.Category.BURN, EconomyMetrics.VAULT_DEPOSIT, Money.of(1, "sterne"));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long total = (long) THREADS * OPERATIONS;
+        assertEquals(Money.of(total * 2, "sterne"), metrics.getCoinSupply());
+
+        EconomyMetrics.Report report = metrics.report();
+        EconomyMetrics.Rate mint = report.ratesOf(EconomyMetrics.Category.MINT).get(0);
+        assertEquals(EconomyMetrics.VAULT_WITHDRAW, mint.channel());
+        assertEquals(total, mint.totalCount());
+        assertEquals(Money.of(total * 3, "sterne"), mint.totalVolume());
+        assertEquals(total, report.ratesOf(EconomyMetrics.Category.BURN).get(0).totalCount());
+    }
+
+    @Test
+    @DisplayName("Fremdwährung sollte in Basiswährung gezählt, Nullbeträge ignoriert werden")
+    void testRecord_ConvertsToBaseCurrency() {
+        // 10 Dukaten = 12 Sterne (Kurs 1.2)
+        metrics.record(EconomyMetrics.Category.TRADE, "guild-trader", Money.ofMajor(10, "dukaten"));
+        metrics.record(EconomyMetrics.Category.TRADE, "guild-trader", Money.of(0, "sterne"));
+        metrics.record(EconomyMetrics.Category.TRADE, "guild-trader", null);
+        metrics.record(EconomyMetrics.Category.TRADE, "guild-trader", Money.ofMajor(5, "taler"));
+
+        List<EconomyMetrics.Rate> trades = metrics.report().ratesOf(EconomyMetrics.Category.TRADE);
+        assertEquals(1, trades.size());
+        assertEquals(1, trades.get(0).totalCount());
+        assertEquals(Money.ofMajor(12, "sterne"), trades.get(0).totalVolume());
+    }
+
+    @Test
+    @DisplayName("Zählerstände sollten per Snapshot einen Neustart überdauern")
+    void testShutdown_SnapshotRoundTrip() {
+        metrics.start(plugin, dataStore, 1200L, 60, 5);
+        metrics.record(EconomyMetrics.Category.MINT, EconomyMetrics.BANK_WITHDRAW, Money.ofMajor(40, "sterne"));
+        metrics.record(EconomyMetrics.Category.BURN, EconomyMetrics.BANK_DEPOSIT, Money.ofMajor(15, "sterne"));
+        metrics.record(EconomyMetrics.Category.BURN, EconomyMetrics.BANK_DEPOSIT, Money.ofMajor(5, "sterne"));
+
+        metrics.shutdown();
+        verify(sampleTask).cancel();
+
+        EconomyMetrics.SnapshotData data = (EconomyMetrics.SnapshotData) entries.get("economy_metrics/snapshot");
+        assertNotNull(data);
+        assertEquals(2L, data.counts.get("burn:" + EconomyMetrics.BANK_DEPOSIT));
+        assertEquals(2000L, data.volumes.get("burn:" + EconomyMetrics.BANK_DEPOSIT));
+
+        EconomyMetrics restored = new EconomyMetrics(Logger.getLogger("EconomyMetricsTest"), exchange);
+        restored.start(plugin, dataStore, 1200L, 60, 5);
+
+        assertEquals(Money.ofMajor(20, "sterne"), restored.getCoinSupply());
+        EconomyMetrics.Rate deposits = restored.report().ratesOf(EconomyMetrics.Category.BURN).get(0);
+        assertEquals(2, deposits.totalCount());
+        assertEquals(Money.ofMajor(20, "sterne"), deposits.totalVolume());
+
+        // Wiederhergestellte Zähler zählen weiter
+        restored.record(EconomyMetrics.Category.MINT, EconomyMetrics.BANK_WITHDRAW, Money.ofMajor(1, "sterne"));
+        assertEquals(Money.ofMajor(21, "sterne"), restored.getCoinSupply());
+    }
+}
@@ -0,0 +1,116 @@
+package de.fallenstar.economy.manager;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.economy.provider.VaultBridge;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für RefundQueue.
+ *
+ * Testet:
+ * - Wiederholung fehlgeschlagener Rückerstattungen
+ * - Persistierung (Spieler, Betrag, Währung) und Nachholen nach Neustart
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("RefundQueue Tests")
+class RefundQueueTest {
+
+    private static final Money AMOUNT = Money.of(1234, Money.BASE_CURRENCY_ID);
+
+    private VaultBridge bridge;
+    private DataStore dataStore;
+    private Plugin plugin;
+    private OfflinePlayer offlinePlayer;
+    private UUID playerId;
+
+    @BeforeEach
+    void setUp() {
+        playerId = UUID.randomUUID();
+        offlinePlayer = mock(OfflinePlayer.class);
+        bridge = mock(VaultBridge.class);
+
+        dataStore = mock(DataStore.class);
+        when(dataStore.save(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        when(dataStore.saveSync(anyString(), anyString(), any())).thenReturn(true);
+        when(dataStore.loadSync(anyString(), anyString(), eq(RefundQueue.StateData.class))).thenReturn(Optional.empty());
+
+        plugin = mock(Plugin.class);
+        Server server = mock(Server.class);
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        when(plugin.getServer()).thenReturn(server);
+        when(server.getScheduler()).thenReturn(scheduler);
+        when(server.getOfflinePlayer(playerId)).thenReturn(offlinePlayer);
+        when(scheduler.runTaskTimer(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+                .thenReturn(mock(BukkitTask.class));
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagene Rückerstattung sollte offen bleiben und wiederholt werden")
+    void testEnqueue_RetriesUntilPaid() {
+        when(bridge.deposit(offlinePlayer, AMOUNT))
+                .thenReturn(CompletableFuture.completedFuture(false))
+                .thenReturn(CompletableFuture.completedFuture(true));
+
+        RefundQueue queue = new RefundQueue(Logger.getLogger("test"), bridge);
+        queue.start(plugin, dataStore, 20L);
+
+        assertTrue(queue.enqueue(playerId, AMOUNT, "Test"));
+        assertEquals(1, queue.getPendingCount());
+
+        queue.retryPending();
+        assertEquals(0, queue.getPendingCount());
+        verify(bridge, times(2)).deposit(offlinePlayer, AMOUNT);
+
+        queue.retryPending();
+        verify(bridge, times(2)).deposit(offlinePlayer, AMOUNT);
+    }
+
+    @Test
+    @DisplayName("Offene Rückerstattungen sollten gespeichert und nach Neustart nachgeholt werden")
+    void testShutdown_PersistsAndReplaysOnStart() {
+        when(bridge.deposit(offlinePlayer, AMOUNT)).thenReturn(CompletableFuture.completedFuture(false));
+
+        RefundQueue queue = new RefundQueue(Logger.getLogger("test"), bridge);
+        queue.start(plugin, dataStore, 20L);
+        queue.enqueue(playerId, AMOUNT, "Test");
+        queue.shutdown();
+
+        ArgumentCaptor<RefundQueue.StateData> saved = ArgumentCaptor.forClass(RefundQueue.StateData.class);
+        verify(dataStore).saveSync(eq("vault_refunds"), eq("state"), saved.capture());
+        RefundQueue.RefundData entry = saved.getValue().refunds.get(0);
+        assertEquals(playerId.toString(), entry.playerId);
+        assertEquals(AMOUNT.minorUnits(), entry.amountMinor);
+        assertEquals(Money.BASE_CURRENCY_ID, entry.currencyId);
+
+        // Neustart: Zustand laden und sofort nachbuchen
+        when(dataStore.loadSync("vault_refunds", "state", RefundQueue.StateData.class))
+                .thenReturn(Optional.of(saved.getValue()));
+        when(bridge.deposit(offlinePlayer, AMOUNT)).thenReturn(CompletableFuture.completedFuture(true));
+
+        RefundQueue restarted = new RefundQueue(Logger.getLogger("test"), bridge);
+        restarted.start(plugin, dataStore, 20L);
+
+        assertEquals(0, restarted.getPendingCount());
+        verify(bridge, times(2)).deposit(offlinePlayer, AMOUNT);
+    }
+}
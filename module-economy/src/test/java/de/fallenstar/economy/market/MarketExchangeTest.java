@@ -0,0 +1,182 @@
+package de.fallenstar.economy.market;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.core.registry.ProviderRegistry;
+import de.fallenstar.core.transaction.TransactionCoordinator;
+import de.fallenstar.economy.market.MarketOrder.Side;
+import de.fallenstar.economy.provider.VaultBridge;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für die Abrechnung und Wiederherstellung der MarketExchange.
+ *
+ * Testet:
+ * - Fehlgeschlagene Auszahlungen bleiben vorgemerkt und werden wiederholt
+ * - Offene Auszahlungen werden gespeichert
+ * - Angebote ohne auflösbaren Plot werden zur Lieferung an den Händler
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("MarketExchange Tests")
+class MarketExchangeTest {
+
+    private static final Money LIMIT = Money.of(250, Money.BASE_CURRENCY_ID);
+
+    private MarketExchange exchange;
+    private VaultBridge bridge;
+    private DataStore dataStore;
+    private Plugin plugin;
+    private OfflinePlayer offlinePlayer;
+    private UUID traderId;
+
+    @BeforeEach
+    void setUp() {
+        Logger logger = Logger.getLogger("MarketExchangeTest");
+        traderId = UUID.randomUUID();
+        offlinePlayer = mock(OfflinePlayer.class);
+        bridge = mock(VaultBridge.class);
+
+        dataStore = mock(DataStore.class);
+        when(dataStore.save(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(true));
+        when(dataStore.saveSync(anyString(), anyString(), any())).thenReturn(true);
+        when(dataStore.loadSync(anyString(), anyString(), eq(MarketExchange.StateData.class)))
+                .thenReturn(Optional.empty());
+
+        plugin = mock(Plugin.class);
+        Server server = mock(Server.class);
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        when(plugin.getServer()).thenReturn(server);
+        when(server.getScheduler()).thenReturn(scheduler);
+        when(server.getOfflinePlayer(traderId)).thenReturn(offlinePlayer);
+        when(scheduler.runTaskTimer(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+                .thenReturn(mock(BukkitTask.class));
+
+        exchange = new MarketExchange(logger, new MatchingEngine(logger, 10), bridge, mock(ProviderRegistry.class),
+                new TransactionCoordinator(logger, null, 50L), 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        exchange.shutdown();
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagene Erstattung sollte vorgemerkt bleiben und im nächsten Tick wiederholt werden")
+    void testSettle_FailedPayout_RetriedOnTick() {
+        when(bridge.deposit(offlinePlayer, LIMIT.times(4)))
+                .thenReturn(CompletableFuture.completedFuture(false))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        exchange.start(plugin, dataStore, 5L);
+
+        exchange.settle(new OrderEvent.Cancelled(1L, buyOrder(7L, 4), 4));
+        assertEquals(1, exchange.getPendingPayoutCount());
+
+        exchange.tick();   // Fehlschlag verbuchen, erneut versuchen
+        exchange.tick();   // Erfolg verbuchen
+        assertEquals(0, exchange.getPendingPayoutCount());
+        verify(bridge, times(2)).deposit(offlinePlayer, LIMIT.times(4));
+
+        exchange.tick();
+        verify(bridge, times(2)).deposit(offlinePlayer, LIMIT.times(4));
+    }
+
+    @Test
+    @DisplayName("Offene Auszahlungen sollten beim Shutdown gespeichert werden")
+    void testShutdown_PersistsPendingPayouts() {
+        when(bridge.deposit(any(), any())).thenReturn(CompletableFuture.completedFuture(false));
+        exchange.start(plugin, dataStore, 5L);
+
+        exchange.settle(new OrderEvent.Cancelled(1L, buyOrder(7L, 2), 2));
+        exchange.shutdown();
+
+        ArgumentCaptor<MarketExchange.StateData> saved = ArgumentCaptor.forClass(MarketExchange.StateData.class);
+        verify(dataStore).saveSync(eq("market"), eq("state"), saved.capture());
+        assertEquals(1, saved.getValue().payouts.size());
+        MarketExchange.PayoutData payout = saved.getValue().payouts.get(0);
+        assertEquals(traderId.toString(), payout.playerId);
+        assertEquals(LIMIT.times(2).minorUnits(), payout.amountMinor);
+    }
+
+    @Test
+    @DisplayName("Angebot mit unbekanntem Plot sollte als Lieferung an den Händler wiederhergestellt werden")
+    void testRestore_SellOrderWithoutPlot_BecomesDelivery() {
+        MarketExchange.OrderData order = new MarketExchange.OrderData();
+        order.orderId = 3L;
+        order.side = Side.SELL.name();
+        order.material = Material.DIAMOND.name();
+        order.traderId = traderId.toString();
+        order.world = "abgerissen";
+        order.limitPriceMinor = 9000L;
+        order.quantity = 16;
+        order.remaining = 12;
+
+        MarketExchange.StateData state = new MarketExchange.StateData();
+        state.nextOrderId = 4L;
+        state.orders.add(order);
+        when(dataStore.loadSync("market", "state", MarketExchange.StateData.class)).thenReturn(Optional.of(state));
+
+        exchange.start(plugin, dataStore, 5L);
+        assertEquals(1, exchange.getPendingDeliveryCount());
+        exchange.shutdown();
+
+        ArgumentCaptor<MarketExchange.StateData> saved = ArgumentCaptor.forClass(MarketExchange.StateData.class);
+        verify(dataStore).saveSync(eq("market"), eq("state"), saved.capture());
+        assertTrue(saved.getValue().orders.isEmpty());
+        MarketExchange.DeliveryData delivery = saved.getValue().deliveries.get(0);
+        assertTrue(delivery.toInventory);
+        assertEquals(12, delivery.amount);
+        assertEquals(traderId.toString(), delivery.recipientId);
+    }
+
+    @Test
+    @DisplayName("Lieferung mit unbekanntem Item sollte gespeichert bleiben")
+    void testRestore_UnknownMaterial_KeptInState() {
+        MarketExchange.DeliveryData delivery = new MarketExchange.DeliveryData();
+        delivery.material = "ENTFERNTES_ITEM";
+        delivery.amount = 5;
+        delivery.recipientId = traderId.toString();
+        delivery.toInventory = true;
+
+        MarketExchange.StateData state = new MarketExchange.StateData();
+        state.deliveries.add(delivery);
+        when(dataStore.loadSync("market", "state", MarketExchange.StateData.class)).thenReturn(Optional.of(state));
+
+        exchange.start(plugin, dataStore, 5L);
+        exchange.shutdown();
+
+        ArgumentCaptor<MarketExchange.StateData> saved = ArgumentCaptor.forClass(MarketExchange.StateData.class);
+        verify(dataStore).saveSync(eq("market"), eq("state"), saved.capture());
+        assertEquals(1, saved.getValue().deliveries.size());
+        assertEquals("ENTFERNTES_ITEM", saved.getValue().deliveries.get(0).material);
+    }
+
+    /**
+     * Erstellt ein Gebot des Test-Händlers.
+     */
+    private MarketOrder buyOrder(long orderId, int quantity) {
+        return new MarketOrder(orderId, Side.BUY, Material.DIAMOND, traderId, mock(Plot.class),
+                LIMIT.minorUnits(), quantity, quantity);
+    }
+}
@@ -0,0 +1,206 @@
+package de.fallenstar.economy.market;
+
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.economy.market.MarketOrder.Side;
+import org.bukkit.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit-Tests für OrderBook.
+ *
+ * Testet:
+ * - Preis-Zeit-Priorität (bester Preis zuerst, FIFO innerhalb einer Stufe)
+ * - Teilausführungen und Ausführungspreis der ruhenden Order
+ * - Stornierung
+ * - Wiederherstellung mit Restmengen (gleiche Priorität in ID-Reihenfolge)
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("OrderBook Tests")
+class OrderBookTest {
+
+    private OrderBook book;
+    private AtomicLong sequences;
+    private Plot plot;
+
+    @BeforeEach
+    void setUp() {
+        book = new OrderBook(Material.DIAMOND);
+        sequences = new AtomicLong();
+        plot = mock(Plot.class);
+    }
+
+    @Test
+    @DisplayName("Nicht kreuzende Orders sollten im Buch ruhen")
+    void testSubmit_NoCross_Rests() {
+        assertTrue(submit(order(1, Side.SELL, 1000, 5)).isEmpty());
+        assertTrue(submit(order(2, Side.BUY, 900, 3)).isEmpty());
+
+        OrderBook.Snapshot snapshot = book.snapshot(10, 0);
+        assertEquals(900L, snapshot.bestBid().orElseThrow().priceMinor());
+        assertEquals(1000L, snapshot.bestAsk().orElseThrow().priceMinor());
+        assertEquals(2, book.getOrderCount());
+    }
+
+    @Test
+    @DisplayName("Bester Preis sollte zuerst ausgeführt werden, zum Preis der ruhenden Order")
+    void testSubmit_PricePriority() {
+        submit(order(1, Side.SELL, 1100, 5));
+        submit(order(2, Side.SELL, 1000, 5));
+
+        List<OrderEvent.Fill> fills = submit(order(3, Side.BUY, 1200, 7));
+
+        assertEquals(2, fills.size());
+        assertEquals(2L, fills.get(0).sellOrderId());
+        assertEquals(1000L, fills.get(0).priceMinor());
+        assertEquals(5, fills.get(0).quantity());
+        assertEquals(1L, fills.get(1).sellOrderId());
+        assertEquals(1100L, fills.get(1).priceMinor());
+        assertEquals(2, fills.get(1).quantity());
+        assertTrue(fills.get(1).buyCompleted());
+        assertFalse(fills.get(1).sellCompleted());
+    }
+
+    @Test
+    @DisplayName("Innerhalb einer Preisstufe sollte die ältere Order zuerst ausgeführt werden")
+    void testSubmit_TimePriority() {
+        submit(order(1, Side.BUY, 1000, 2));
+        submit(order(2, Side.BUY, 1000, 2));
+
+        List<OrderEvent.Fill> fills = submit(order(3, Side.SELL, 1000, 3));
+
+        assertEquals(List.of(1L, 2L), fills.stream().map(OrderEvent.Fill::buyOrderId).toList());
+        assertEquals(1, book.getOrder(2).orElseThrow().getRemaining());
+    }
+
+    @Test
+    @DisplayName("Teilausführung sollte den Rest der eingehenden Order ins Buch legen")
+    void testSubmit_PartialFill_RestRests() {
+        submit(order(1, Side.SELL, 1000, 3));
+
+        List<OrderEvent.Fill> fills = submit(order(2, Side.BUY, 1000, 10));
+
+        assertEquals(1, fills.size());
+        assertEquals(3, fills.get(0).quantity());
+        assertTrue(fills.get(0).sellCompleted());
+        assertFalse(fills.get(0).buyCompleted());
+        assertTrue(book.getOrder(1).isEmpty());
+        assertEquals(7, book.getOrder(2).orElseThrow().getRemaining());
+        assertEquals(7L, book.snapshot(10, 0).bestBid().orElseThrow().quantity());
+        assertEquals(1000L, book.snapshot(10, 0).lastPriceMinor());
+    }
+
+    @Test
+    @DisplayName("Preisverbesserung sollte dem Käufer erstattet werden")
+    void testSubmit_BuyerRefund() {
+        submit(order(1, Side.SELL, 800, 4));
+
+        OrderEvent.Fill fill = submit(order(2, Side.BUY, 1000, 4)).get(0);
+
+        assertEquals(3200L, fill.total().minorUnits());
+        assertEquals(800L, fill.buyerRefund().minorUnits());
+    }
+
+    @Test
+    @DisplayName("Sequenznummern sollten in Ausführungsreihenfolge vergeben werden")
+    void testSubmit_SequencesAscending() {
+        submit(order(1, Side.SELL, 1000, 1));
+        submit(order(2, Side.SELL, 1001, 1));
+
+        List<OrderEvent.Fill> fills = submit(order(3, Side.BUY, 1001, 2));
+
+        assertTrue(fills.get(0).sequence() < fills.get(1).sequence());
+    }
+
+    @Test
+    @DisplayName("Stornierung sollte die Order mit Restmenge entfernen")
+    void testCancel_RemovesOrder() {
+        submit(order(1, Side.SELL, 1000, 5));
+        submit(order(2, Side.BUY, 1000, 2));
+
+        MarketOrder cancelled = book.cancel(1).orElseThrow();
+
+        assertEquals(3, cancelled.getRemaining());
+        assertTrue(book.isEmpty());
+        assertTrue(book.snapshot(10, 0).asks().isEmpty());
+        assertTrue(book.cancel(1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Stornierte Order sollte nicht mehr ausgeführt werden")
+    void testCancel_NotMatchedAfterwards() {
+        submit(order(1, Side.SELL, 1000, 5));
+        submit(order(2, Side.SELL, 1000, 5));
+        book.cancel(1);
+
+        List<OrderEvent.Fill> fills = submit(order(3, Side.BUY, 1000, 5));
+
+        assertEquals(1, fills.size());
+        assertEquals(2L, fills.get(0).sellOrderId());
+    }
+
+    @Test
+    @DisplayName("Wiederhergestellte Orders sollten mit Restmenge und Zeit-Priorität gelten")
+    void testRestore_RemainingAndPriority() {
+        // Wiederherstellung: Orders in ID-Reihenfolge mit gespeicherter Restmenge
+        submit(new MarketOrder(4, Side.SELL, Material.DIAMOND, UUID.randomUUID(), plot, 1000, 10, 3));
+        submit(new MarketOrder(9, Side.SELL, Material.DIAMOND, UUID.randomUUID(), plot, 1000, 8, 8));
+
+        List<OrderEvent.Fill> fills = submit(order(12, Side.BUY, 1000, 5));
+
+        assertEquals(2, fills.size());
+        assertEquals(4L, fills.get(0).sellOrderId());
+        assertEquals(3, fills.get(0).quantity());
+        assertTrue(fills.get(0).sellCompleted());
+        assertEquals(9L, fills.get(1).sellOrderId());
+        assertEquals(6, book.getOrder(9).orElseThrow().getRemaining());
+    }
+
+    @Test
+    @DisplayName("Doppelte Order-ID und fremdes Item sollten abgelehnt werden")
+    void testSubmit_InvalidOrders_Rejected() {
+        submit(order(1, Side.SELL, 1000, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> submit(order(1, Side.SELL, 1000, 5)));
+        assertThrows(IllegalArgumentException.class, () -> submit(
+                new MarketOrder(2, Side.SELL, Material.STONE, UUID.randomUUID(), plot, 1000, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Snapshot sollte Preisstufen aggregieren und auf die Tiefe begrenzen")
+    void testSnapshot_AggregatesLevels() {
+        submit(order(1, Side.BUY, 900, 2));
+        submit(order(2, Side.BUY, 900, 3));
+        submit(order(3, Side.BUY, 800, 1));
+
+        OrderBook.Snapshot snapshot = book.snapshot(1, 42);
+
+        assertEquals(1, snapshot.bids().size());
+        assertEquals(new OrderBook.Level(900, 5, 2), snapshot.bids().get(0));
+        assertEquals(42L, snapshot.sequence());
+    }
+
+    /**
+     * Erstellt eine neue Order ohne Teilausführung.
+     */
+    private MarketOrder order(long orderId, Side side, long priceMinor, int quantity) {
+        return new MarketOrder(orderId, side, Material.DIAMOND, UUID.randomUUID(), plot, priceMinor, quantity, quantity);
+    }
+
+    /**
+     * Reicht eine Order ein.
+     */
+    private List<OrderEvent.Fill> submit(MarketOrder order) {
+        return book.submit(order, sequences::incrementAndGet);
+    }
+}
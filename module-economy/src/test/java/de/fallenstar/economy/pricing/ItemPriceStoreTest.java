@@ -0,0 +1,123 @@
+package de.fallenstar.economy.pricing;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.economy.model.CustomItemKey;
+import de.fallenstar.economy.model.ItemBasePrice;
+import org.bukkit.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit-Tests für ItemPriceStore.
+ *
+ * Testet:
+ * - Coalescing mehrerer Änderungen eines Preises zu einem Write
+ * - Round-Trip Schreiben → Laden (Vanilla, Custom, Defaults)
+ * - Erkennung der noch ausstehenden Migration (kein Index)
+ * - Wiederholung fehlgeschlagener Writes
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+@DisplayName("ItemPriceStore Tests")
+class ItemPriceStoreTest {
+
+    private Map<String, Object> entries;
+    private DataStore dataStore;
+    private ItemPriceStore store;
+
+    @BeforeEach
+    void setUp() {
+        entries = new HashMap<>();
+        dataStore = mock(DataStore.class);
+        when(dataStore.saveSync(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            entries.put(invocation.getArgument(1), invocation.getArgument(2));
+            return true;
+        });
+        when(dataStore.loadSync(anyString(), anyString(), any())).thenAnswer(invocation ->
+                Optional.ofNullable(entries.get(invocation.<String>getArgument(1))));
+
+        store = new ItemPriceStore(Logger.getLogger("test"), dataStore);
+    }
+
+    @Test
+    @DisplayName("Mehrere Änderungen eines Preises sollten nur einmal geschrieben werden")
+    void testPut_CoalescesChanges() {
+        store.putVanilla(new ItemBasePrice.VanillaItemPrice(Material.DIAMOND, BigDecimal.valueOf(90), BigDecimal.valueOf(100)));
+        store.putVanilla(new ItemBasePrice.VanillaItemPrice(Material.DIAMOND, BigDecimal.valueOf(95), BigDecimal.valueOf(110)));
+        assertEquals(1, store.getPendingCount());
+
+        assertEquals(1, store.flush());
+        assertEquals(0, store.getPendingCount());
+        verify(dataStore, times(1)).saveSync(eq("item_prices"), eq("vanilla_DIAMOND"), any());
+
+        ItemPriceStore.PriceData data = (ItemPriceStore.PriceData) entries.get("vanilla_DIAMOND");
+        assertEquals(9500, data.buyMinor);
+        assertEquals(11000, data.sellMinor);
+    }
+
+    @Test
+    @DisplayName("Geschriebene Preise sollten vollständig wieder geladen werden")
+    void testFlushAndLoad_RoundTrip() {
+        ItemBasePriceProvider source = new ItemBasePriceProvider(Logger.getLogger("test"));
+        source.registerVanillaPrice(Material.DIAMOND, new BigDecimal("90.50"), new BigDecimal("100"));
+        source.registerCustomPrice("sword", "excalibur", new BigDecimal("800"), new BigDecimal("1000.25"));
+        source.setDefaultVanillaPrice(new BigDecimal("2"));
+        source.setDefaultCustomPrice(new BigDecimal("20"));
+
+        store.importAll(source);
+        store.flush();
+
+        ItemBasePriceProvider target = new ItemBasePriceProvider(Logger.getLogger("test"));
+        assertTrue(new ItemPriceStore(Logger.getLogger("test"), dataStore).load(target));
+
+        assertPrice("90.50", target.getVanillaBuyPrice(Material.DIAMOND));
+        assertPrice("100", target.getVanillaSellPrice(Material.DIAMOND));
+        ItemBasePrice.CustomItemPrice custom = target.getCustomItemPrice(CustomItemKey.of("SWORD", "EXCALIBUR"))
+                .orElseThrow();
+        assertEquals(0, new BigDecimal("800").compareTo(custom.buyPrice()));
+        assertEquals(0, new BigDecimal("1000.25").compareTo(custom.sellPrice()));
+        assertEquals(0, new BigDecimal("2").compareTo(target.getDefaultVanillaPrice()));
+        assertEquals(0, new BigDecimal("20").compareTo(target.getDefaultCustomPrice()));
+    }
+
+    @Test
+    @DisplayName("Ohne Index sollte load() false liefern (Migration ausstehend)")
+    void testLoad_WithoutIndex() {
+        assertFalse(store.load(new ItemBasePriceProvider(Logger.getLogger("test"))));
+    }
+
+    @Test
+    @DisplayName("Fehlgeschlagener Write sollte beim nächsten Flush wiederholt werden")
+    void testFlush_RetriesFailedWrite() {
+        when(dataStore.saveSync(anyString(), anyString(), any())).thenReturn(false);
+        store.putVanilla(new ItemBasePrice.VanillaItemPrice(Material.DIAMOND, BigDecimal.ONE, BigDecimal.ONE));
+
+        assertEquals(0, store.flush());
+        assertEquals(1, store.getPendingCount());
+
+        when(dataStore.saveSync(anyString(), anyString(), any())).thenReturn(true);
+        assertEquals(1, store.flush());
+        assertEquals(0, store.getPendingCount());
+    }
+
+    /**
+     * Hilfsmethode: Vergleicht Preise unabhängig von der Skala.
+     */
+    private static void assertPrice(String expected, Optional<BigDecimal> actual) {
+        assertTrue(actual.isPresent(), "Preis sollte vorhanden sein");
+        assertEquals(0, new BigDecimal(expected).compareTo(actual.get()),
+                "Erwartet " + expected + ", war " + actual.get());
+    }
+}
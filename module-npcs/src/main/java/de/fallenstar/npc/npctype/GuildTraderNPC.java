@@ -1,9 +1,18 @@
 package de.fallenstar.npc.npctype;
 
+import de.fallenstar.core.economy.Money;
 import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
 import de.fallenstar.core.provider.Plot;
 import de.fallenstar.core.provider.PlotProvider;
 import de.fallenstar.core.provider.TradingEntity;
+import de.fallenstar.core.transaction.InventoryLeg;
+import de.fallenstar.core.transaction.TransactionCoordinator;
+import de.fallenstar.core.transaction.TransactionKeys;
+import de.fallenstar.core.transaction.TransactionLeg;
+import de.fallenstar.core.transaction.TransactionResult;
+import de.fallenstar.economy.EconomyModule;
+import de.fallenstar.economy.manager.CurrencyManager;
+import de.fallenstar.economy.manager.EconomyMetrics;
 import de.fallenstar.npc.manager.NPCManager;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -30,6 +39,7 @@ import java.util.logging.Logger;
  * - Automatische Preis-Berechnung via ItemBasePriceProvider
  * - Output-Chests → verkaufbare Items
  * - Input-Chest → Einnahmen
+ * - Handel als atomare Transaktion (TransactionCoordinator) - nie halb ausgeführt
  *
  * Implementiert:
  * - NPCType (für NPC-Management)
@@ -40,12 +50,18 @@ import java.util.logging.Logger;
  * - EconomyProvider (für Preise)
  * - CoinProvider (für Münz-Erstellung)
  * - PlotStorageProvider via Reflection (Plots-Modul) - TODO: Type-Safe Provider
+ * - EconomyMetrics (optional, zählt abgeschlossene Handelsgeschäfte)
  *
  * @author FallenStar
  * @version 2.0 - Refactored: Reflection → CoinProvider (Type-Safe)
  */
 public class GuildTraderNPC implements NPCType, TradingEntity {
 
+    /**
+     * Maximale Anzahl Münz-Stacks pro Trade (Villager-Trades haben 2 Zutaten).
+     */
+    private static final int MAX_COIN_INPUTS = 2;
+
     private final NPCManager npcManager;
     private final PlotProvider plotProvider;
     private final FileConfiguration config;
@@ -255,15 +271,20 @@ public class GuildTraderNPC implements NPCType, TradingEntity {
             // Hole TradeSet-Daten via Reflection
             var tradeClass = trade.getClass();
             var getInput1 = tradeClass.getMethod("getInput1");
+            var getInput2 = tradeClass.getMethod("getInput2");
             var getOutput = tradeClass.getMethod("getOutput");
 
             ItemStack input = (ItemStack) getInput1.invoke(trade);
+            ItemStack input2 = (ItemStack) getInput2.invoke(trade);
             ItemStack output = (ItemStack) getOutput.invoke(trade);
 
             // Prüfe ob Spieler genug Input-Items hat
             if (!player.getInventory().containsAtLeast(input, input.getAmount())) {
                 return false;
             }
+            if (input2 != null && !player.getInventory().containsAtLeast(input2, input2.getAmount())) {
+                return false;
+            }
 
             // Prüfe ob genug Platz im Spieler-Inventar für Output
             if (player.getInventory().firstEmpty() == -1) {
@@ -300,9 +321,11 @@ public class GuildTraderNPC implements NPCType, TradingEntity {
             // Hole TradeSet-Daten
             var tradeClass = trade.getClass();
             var getInput1 = tradeClass.getMethod("getInput1");
+            var getInput2 = tradeClass.getMethod("getInput2");
             var getOutput = tradeClass.getMethod("getOutput");
 
             ItemStack input = (ItemStack) getInput1.invoke(trade);
+            ItemStack input2 = (ItemStack) getInput2.invoke(trade);
             ItemStack output = (ItemStack) getOutput.invoke(trade);
 
             // Hole NPC-ID aus Kontext - WORKAROUND für Single-NPC
@@ -321,26 +344,71 @@ public class GuildTraderNPC implements NPCType, TradingEntity {
                 return false;
             }
 
-            // 1. Entferne Input aus Spieler-Inventar (Münzen)
-            player.getInventory().removeItem(input);
+            // Truhen des Plots (Output = Ware, Input = Einnahmen)
+            de.fallenstar.core.provider.PlotStorageProvider storageProvider = resolveStorageProvider();
+            if (storageProvider == null) {
+                player.sendMessage("§cFehler: Händler-Lager nicht verfügbar!");
+                return false;
+            }
 
-            // 2. Füge Output zu Spieler-Inventar hinzu (gekauftes Item)
-            player.getInventory().addItem(output);
+            List<Map.Entry<String, Inventory>> outputChests = chestInventories(storageProvider.getOutputChestLocations(plot));
+            List<Map.Entry<String, Inventory>> inputChests = chestInventories(storageProvider.getInputChestLocations(plot));
+            String playerKey = TransactionKeys.inventory(player.getUniqueId());
 
-            // 3. Füge Input zu Plot-Storage hinzu (Münzen ins Input-Chest)
-            addItemToPlotInputChest(plot, input);
+            // Alle Schritte als eine Transaktion (Rollback bei jedem Fehlschlag)
+            List<TransactionLeg> legs = new ArrayList<>();
+            // 1. Entferne Input aus Spieler-Inventar (Münzen, ggf. zweiter Münz-Stack)
+            legs.add(InventoryLeg.remove(playerKey, player.getInventory(), input));
+            if (input2 != null) {
+                legs.add(InventoryLeg.remove(playerKey, player.getInventory(), input2));
+            }
+            // 2. Entferne Output aus Plot-Storage (Item aus Output-Chests)
+            legs.add(InventoryLeg.across(outputChests, output, InventoryLeg.Direction.REMOVE));
+            // 3. Füge Output zu Spieler-Inventar hinzu (gekauftes Item)
+            legs.add(InventoryLeg.add(playerKey, player.getInventory(), output));
+            // 4. Füge Input zu Plot-Storage hinzu (Münzen ins Input-Chest)
+            legs.add(InventoryLeg.across(inputChests, input, InventoryLeg.Direction.ADD));
+            if (input2 != null) {
+                legs.add(InventoryLeg.across(inputChests, input2, InventoryLeg.Direction.ADD));
+            }
 
-            // 4. Entferne Output aus Plot-Storage (Item aus Output-Chest)
-            removeItemFromPlotOutputChest(plot, output);
+            // Gleicher Spieler + gleiches TradeSet im selben Tick = derselbe Handel (Doppelklick)
+            String transactionId = "guild-trade:" + npcId + ":" + player.getUniqueId() + ":" +
+                    System.identityHashCode(trade) + ":" + Bukkit.getCurrentTick();
+
+            TransactionResult result = getTransactionCoordinator().execute(transactionId, legs);
+            if (!result.isCommitted()) {
+                logger.info("Trade " + transactionId + " not executed: " + result.status() +
+                        (result.failedLeg() != null ? " (" + result.failedLeg() + ")" : ""));
+                player.sendMessage(switch (result.status()) {
+                    case LOCK_TIMEOUT, IN_PROGRESS -> "§cDer Händler ist gerade beschäftigt - bitte erneut versuchen!";
+                    case COMPENSATION_PENDING -> "§cHandel fehlgeschlagen! Rückbuchung läuft - bitte kurz warten.";
+                    default -> "§cHandel fehlgeschlagen: Münzen, Ware oder Platz im Inventar/Lager fehlen!";
+                });
+                return false;
+            }
+            if (result.replayed()) {
+                return true; // Doppelklick - bereits ausgeführt
+            }
 
             // Cache invalidieren (TradeSets haben sich geändert)
             invalidateCache(npcId);
 
+            // Handel in den Economy-Metriken zählen (Wert der bezahlten Münzen)
+            recordTradeMetric(input, input2);
+
+            // Nachfrage-Signal für dynamische Preise (Neuberechnung asynchron)
+            de.fallenstar.core.provider.PriceResolutionProvider resolver = providers.getPriceResolutionProvider();
+            if (resolver != null) {
+                resolver.recordTrade(plot, output.getType(), output.getAmount());
+            }
+
             // Erfolgs-Nachricht
+            int coinCount = input.getAmount() + (input2 != null ? input2.getAmount() : 0);
             player.sendMessage("§a✓ Handel erfolgreich! Du hast " + output.getAmount() + "x " +
-                             output.getType() + " für " + input.getAmount() + " Münzen gekauft.");
+                             output.getType() + " für " + coinCount + " Münzen gekauft.");
 
-            logger.info("Player " + player.getName() + " traded " + input.getAmount() +
+            logger.info("Player " + player.getName() + " traded " + coinCount +
                        " coins for " + output.getAmount() + "x " + output.getType() +
                        " at plot " + plot.getIdentifier());
 
@@ -529,8 +597,8 @@ public class GuildTraderNPC implements NPCType, TradingEntity {
 
                 logger.info("Processing item: " + item.getType() + " x" + item.getAmount());
 
-                // Hole Verkaufspreis für Item (aus EconomyProvider!)
-                BigDecimal price = getItemSellPrice(economyProvider, item);
+                // Hole effektiven Verkaufspreis (Plot → Town → Basis → Custom)
+                BigDecimal price = getItemSellPrice(plot, economyProvider, item);
 
                 logger.info("  Price for " + item.getType() + ": " + price);
 
@@ -539,9 +607,9 @@ public class GuildTraderNPC implements NPCType, TradingEntity {
                     continue;
                 }
 
-                // Erstelle Münzen für den Preis (Type-Safe via CoinProvider!)
-                ItemStack coinStack = createCoinsForPrice(coinProvider, price);
-                if (coinStack == null) {
+                // Erstelle exaktes Wechselgeld für den Preis (max. 2 Stacks = 2 Trade-Zutaten)
+                List<ItemStack> coinStacks = createCoinsForPrice(coinProvider, price);
+                if (coinStacks.isEmpty()) {
                     logger.warning("Failed to create coins for price " + price);
                     continue;
                 }
@@ -560,8 +628,8 @@ public class GuildTraderNPC implements NPCType, TradingEntity {
                     // Spieler kauft Item vom NPC: Münzen → Item
                     // Input: Münzen, Output: Item
                     Object tradeSet = constructor.newInstance(
-                        coinStack,              // Input1: Münzen (Spieler zahlt)
-                        null,                   // Input2: Keiner
+                        coinStacks.get(0),      // Input1: Münzen (Spieler zahlt)
+                        coinStacks.size() > 1 ? coinStacks.get(1) : null, // Input2: Wechselgeld-Rest
                         item.clone(),           // Output: Item (Spieler erhält)
                         price,                  // Buy Price (nicht verwendet für Verkauf)
                         price,                  // Sell Price (Spieler zahlt)
@@ -585,24 +653,26 @@ public class GuildTraderNPC implements NPCType, TradingEntity {
     }
 
     /**
-     * Holt den Verkaufspreis für ein Item aus dem EconomyProvider.
+     * Holt den effektiven Verkaufspreis für ein Item.
      *
      * Der Verkaufspreis ist der Preis, den der Spieler zahlt um das Item vom NPC zu kaufen.
+     * Nutzt den PriceResolutionProvider (Plot → Town → Basis → Custom, gecacht);
+     * ohne Plots-Modul wird der globale Basispreis des EconomyProviders verwendet.
      *
-     * @param economyProvider EconomyProvider-Instanz
+     * @param plot Das Grundstück
+     * @param economyProvider EconomyProvider-Instanz (Fallback)
      * @param item Das Item
      * @return Verkaufspreis in Basiswährung
      */
-    private BigDecimal getItemSellPrice(de.fallenstar.core.provider.EconomyProvider economyProvider, ItemStack item) {
+    private BigDecimal getItemSellPrice(Plot plot, de.fallenstar.core.provider.EconomyProvider economyProvider,
+                                        ItemStack item) {
         try {
-            Material material = item.getType();
-
-            logger.info("    getItemSellPrice: material=" + material);
+            de.fallenstar.core.provider.PriceResolutionProvider resolver = providers.getPriceResolutionProvider();
+            Optional<BigDecimal> priceOpt = resolver != null && resolver.isAvailable()
+                    ? resolver.getSellPrice(plot, item)
+                    : economyProvider.getSellPrice(item.getType());
 
-            // Hole Verkaufspreis vom EconomyProvider (Type-Safe!)
-            Optional<BigDecimal> priceOpt = economyProvider.getSellPrice(material);
-
-            logger.info("    getSellPrice returned: " + priceOpt);
+            logger.fine("    Sell price for " + item.getType() + ": " + priceOpt);
 
             return priceOpt.orElse(BigDecimal.ZERO);
 
@@ -614,134 +684,105 @@ public class GuildTraderNPC implements NPCType, TradingEntity {
     }
 
     /**
-     * Erstellt Münz-ItemStack für einen Preis.
+     * Erstellt Münz-Stacks für einen Preis.
      *
-     * Nutzt CoinProvider (Type-Safe Interface) statt Reflection.
+     * Nutzt CoinProvider (Type-Safe Interface) statt Reflection. Der Preis wird
+     * exakt auf höchstens 2 Stacks gestückelt (z.B. 15 → 1x Silber + 5x Bronze).
      *
      * @param coinProvider CoinProvider-Instanz
      * @param price Preis in Basiswährung
-     * @return ItemStack mit Münzen oder null bei Fehler
+     * @return Münz-Stacks (1 oder 2), leer bei Fehler
      */
-    private ItemStack createCoinsForPrice(de.fallenstar.core.provider.CoinProvider coinProvider, BigDecimal price) {
+    private List<ItemStack> createCoinsForPrice(de.fallenstar.core.provider.CoinProvider coinProvider, BigDecimal price) {
         try {
             // Delegiere an CoinProvider (Type-Safe!)
-            Optional<ItemStack> coins = coinProvider.createCoinsForPrice(price, 64);
+            List<ItemStack> coins = coinProvider.createCoinStacksForPrice(
+                    Money.fromBigDecimal(price, coinProvider.getBaseCurrencyId()), 64, MAX_COIN_INPUTS);
 
             if (coins.isEmpty()) {
                 logger.warning("CoinProvider konnte keine Münzen für Preis " + price + " erstellen");
-                return null;
             }
-
-            return coins.get();
+            return coins;
 
         } catch (Exception e) {
             logger.warning("Failed to create coins: " + e.getMessage());
-            return null;
+            return List.of();
         }
     }
 
     /**
-     * Fügt ein Item zur Input-Chest eines Plots hinzu (Münzen vom Kauf).
+     * Holt den PlotStorageProvider des Plots-Moduls (Core-Interface).
      *
-     * @param plot Der Plot
-     * @param item Das Item
+     * @return PlotStorageProvider oder null wenn Plots-Modul nicht geladen
      */
-    private void addItemToPlotInputChest(Plot plot, ItemStack item) {
+    private de.fallenstar.core.provider.PlotStorageProvider resolveStorageProvider() {
         try {
             var plotsPlugin = Bukkit.getPluginManager().getPlugin("FallenStar-Plots");
             if (plotsPlugin == null) {
-                logger.warning("Plots module not loaded - cannot add item to input chest");
-                return;
+                logger.warning("Plots module not loaded - plot storage not available");
+                return null;
             }
 
-            // Reflection: hole PlotStorageProvider
-            var getStorageProvider = plotsPlugin.getClass().getMethod("getPlotStorageProvider");
-            var storageProvider = getStorageProvider.invoke(plotsPlugin);
-
-            // Reflection: addToInputChests(Plot, ItemStack)
-            var addMethod = storageProvider.getClass().getMethod("addToInputChests", Plot.class, ItemStack.class);
-            boolean success = (boolean) addMethod.invoke(storageProvider, plot, item);
-
-            if (success) {
-                logger.fine("Added " + item.getAmount() + "x " + item.getType() + " to input chest");
-            } else {
-                logger.warning("Failed to add item to input chest - no chest configured?");
+            // Reflection nur für den Getter - der Provider selbst implementiert das Core-Interface
+            var storageProvider = plotsPlugin.getClass().getMethod("getStorageProvider").invoke(plotsPlugin);
+            if (storageProvider instanceof de.fallenstar.core.provider.PlotStorageProvider provider) {
+                return provider;
             }
 
+            logger.warning("Plot storage provider does not implement core PlotStorageProvider");
+            return null;
+
         } catch (Exception e) {
-            logger.warning("Failed to add item to input chest: " + e.getMessage());
+            logger.warning("Failed to get plot storage provider: " + e.getMessage());
+            return null;
         }
     }
 
     /**
-     * Entfernt ein Item aus den Output-Chests eines Plots (verkauftes Item).
+     * Löst Truhen-Positionen in Inventare auf (fehlende Truhen werden übersprungen).
      *
-     * @param plot Der Plot
-     * @param item Das Item (type + amount werden geprüft)
+     * @param locations Truhen-Positionen
+     * @return Paare aus Ressourcen-Schlüssel und Truhen-Inventar
      */
-    private void removeItemFromPlotOutputChest(Plot plot, ItemStack item) {
-        try {
-            var plotsPlugin = Bukkit.getPluginManager().getPlugin("FallenStar-Plots");
-            if (plotsPlugin == null) {
-                logger.warning("Plots module not loaded - cannot remove item from output chest");
-                return;
-            }
+    private List<Map.Entry<String, Inventory>> chestInventories(List<org.bukkit.Location> locations) {
+        List<Map.Entry<String, Inventory>> chests = new ArrayList<>(locations.size());
 
-            // Reflection: hole PlotStorageProvider
-            var getStorageProvider = plotsPlugin.getClass().getMethod("getPlotStorageProvider");
-            var storageProvider = getStorageProvider.invoke(plotsPlugin);
-
-            // Reflection: hole PlotStorage
-            var getStorage = storageProvider.getClass().getMethod("getPlotStorage", Plot.class);
-            var plotStorage = getStorage.invoke(storageProvider, plot);
-
-            if (plotStorage == null) {
-                logger.warning("No storage found for plot " + plot.getIdentifier());
-                return;
+        for (org.bukkit.Location location : locations) {
+            if (location.getBlock().getState() instanceof org.bukkit.block.Chest chest) {
+                chests.add(Map.entry(TransactionKeys.container(location), chest.getInventory()));
             }
+        }
+        return chests;
+    }
 
-            // Reflection: getOutputChests()
-            var getOutputChests = plotStorage.getClass().getMethod("getOutputChests");
-            @SuppressWarnings("unchecked")
-            var outputChests = (java.util.List<?>) getOutputChests.invoke(plotStorage);
-
-            // Durchsuche Output-Chests und entferne Item
-            int remainingAmount = item.getAmount();
-
-            for (Object chestDataObj : outputChests) {
-                if (remainingAmount <= 0) break;
-
-                // Hole Location der Chest
-                var getLocation = chestDataObj.getClass().getMethod("getLocation");
-                org.bukkit.Location chestLocation = (org.bukkit.Location) getLocation.invoke(chestDataObj);
-
-                // Prüfe ob Truhe vorhanden
-                if (chestLocation.getBlock().getState() instanceof org.bukkit.block.Chest) {
-                    org.bukkit.block.Chest chest = (org.bukkit.block.Chest) chestLocation.getBlock().getState();
-                    org.bukkit.inventory.Inventory inv = chest.getInventory();
-
-                    // Entferne Item aus dieser Chest
-                    ItemStack toRemove = item.clone();
-                    toRemove.setAmount(remainingAmount);
-
-                    var removed = inv.removeItem(toRemove);
-
-                    // Berechne wie viel entfernt wurde
-                    int removedAmount = remainingAmount - (removed.isEmpty() ? 0 : removed.values().iterator().next().getAmount());
-                    remainingAmount -= removedAmount;
-
-                    logger.fine("Removed " + removedAmount + "x " + item.getType() + " from output chest");
-                }
-            }
+    /**
+     * Gibt den TransactionCoordinator des Core-Plugins zurück.
+     *
+     * @return TransactionCoordinator
+     */
+    private TransactionCoordinator getTransactionCoordinator() {
+        var core = (de.fallenstar.core.FallenStarCore) Bukkit.getPluginManager().getPlugin("FallenStar-Core");
+        return core.getTransactionCoordinator();
+    }
 
-            if (remainingAmount > 0) {
-                logger.warning("Could only remove " + (item.getAmount() - remainingAmount) + "/" + item.getAmount() + " items from output chests");
-            }
+    /**
+     * Zählt einen abgeschlossenen Handel in den Economy-Metriken.
+     *
+     * @param input Bezahlte Münzen
+     * @param input2 Zweiter Münz-Stack (oder null)
+     */
+    private void recordTradeMetric(ItemStack input, ItemStack input2) {
+        if (!(Bukkit.getPluginManager().getPlugin("FallenStar-Economy") instanceof EconomyModule economy)
+                || economy.getCurrencyManager() == null) {
+            return;
+        }
 
-        } catch (Exception e) {
-            logger.warning("Failed to remove item from output chest: " + e.getMessage());
-            e.printStackTrace();
+        CurrencyManager currencyManager = economy.getCurrencyManager();
+        Money value = currencyManager.getCoinValue(input);
+        if (input2 != null) {
+            value = value.plus(currencyManager.getCoinValue(input2));
         }
+        currencyManager.getMetrics().record(EconomyMetrics.Category.TRADE, "guild-trader", value);
     }
 
     /**
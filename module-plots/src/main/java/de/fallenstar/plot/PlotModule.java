@@ -58,9 +58,15 @@ public class PlotModule extends JavaPlugin implements Listener {
     private NPCManager npcManager;
     private de.fallenstar.plot.manager.PlotNameManager plotNameManager;
     private de.fallenstar.plot.manager.PlotPriceManager plotPriceManager;
+    private de.fallenstar.plot.manager.PlotPriceResolver plotPriceResolver;
+    private de.fallenstar.plot.manager.DynamicPricingEngine dynamicPricingEngine;
+    private de.fallenstar.plot.manager.MarketHistory marketHistory;
+    private de.fallenstar.plot.manager.MarketIndex marketIndex;
     private de.fallenstar.plot.manager.PlotBoundNPCRegistry npcRegistry;
     private de.fallenstar.plot.command.PlotCommand plotCommand;
     private de.fallenstar.plot.registry.PlotRegistry plotRegistry;
+    private de.fallenstar.plot.registry.TownBlockRegistry townBlockRegistry;
+    private de.fallenstar.plot.provider.PlotLookupService plotLookupService;
     private de.fallenstar.plot.factory.TradeguildPlotFactory tradeguildPlotFactory;
 
     private boolean plotSystemEnabled = false;
@@ -105,6 +111,31 @@ public class PlotModule extends JavaPlugin implements Listener {
             saveConfiguration();
         }
 
+        // Stoppe PlotLookupService-Tasks
+        if (plotLookupService != null) {
+            plotLookupService.stop();
+        }
+
+        // Stoppe dynamische Preisbildung
+        if (dynamicPricingEngine != null) {
+            dynamicPricingEngine.stop();
+        }
+
+        // Stoppe Markt-Suchindex
+        if (marketIndex != null) {
+            marketIndex.stop();
+        }
+
+        // Schreibe Markt-Verlauf synchron (Server-Shutdown)
+        if (marketHistory != null) {
+            marketHistory.shutdown();
+        }
+
+        // Speichere PlotRegistry synchron (Server-Shutdown)
+        if (plotRegistry != null) {
+            plotRegistry.saveSync();
+        }
+
         // Speichere alle TradeguildPlots synchron (Server-Shutdown)
         if (tradeguildPlotFactory != null) {
             int saved = tradeguildPlotFactory.saveAllSync();
@@ -129,9 +160,6 @@ public class PlotModule extends JavaPlugin implements Listener {
         if (plotNameManager != null) {
             plotNameManager.saveToConfig(getConfig());
         }
-        if (plotRegistry != null) {
-            plotRegistry.saveToConfig(getConfig());
-        }
         if (plotPriceManager != null) {
             plotPriceManager.saveToConfig(getConfig());
         }
@@ -180,6 +208,15 @@ public class PlotModule extends JavaPlugin implements Listener {
         // Storage-System initialisieren (jetzt Teil des Plot-Moduls)
         initializeStorageSystem();
 
+        // Dynamische Preise initialisieren (benötigt Storage + PriceResolver)
+        initializeDynamicPricing();
+
+        // Markt-Verlauf initialisieren (benötigt PriceResolver)
+        initializeMarketHistory();
+
+        // Markt-Suchindex initialisieren (benötigt Storage + PriceResolver)
+        initializeMarketIndex();
+
         // Plot-Slot-System initialisieren
         initializeSlotSystem();
 
@@ -205,14 +242,51 @@ public class PlotModule extends JavaPlugin implements Listener {
         }
 
         try {
+            // TownBlockRegistry (vorberechnete Plot-UUIDs/Identifier)
+            this.townBlockRegistry = new de.fallenstar.plot.registry.TownBlockRegistry(getLogger());
+            this.townBlockRegistry.rebuild();
+            getServer().getPluginManager().registerEvents(
+                new de.fallenstar.plot.registry.TownBlockRegistryListener(townBlockRegistry),
+                this
+            );
+
+            // PlotPermissionCache (Admin-/Owner-Entscheidungen mit kurzer TTL)
+            de.fallenstar.plot.provider.PlotPermissionCache permissionCache =
+                new de.fallenstar.plot.provider.PlotPermissionCache(
+                    getConfig().getLong("towny.permission-cache-ttl",
+                        de.fallenstar.plot.provider.PlotPermissionCache.DEFAULT_TTL_MILLIS)
+                );
+            getServer().getPluginManager().registerEvents(
+                new de.fallenstar.plot.provider.PlotPermissionCacheListener(permissionCache, townBlockRegistry),
+                this
+            );
+
+            // TownResidentCache (unveränderliche Bewohner-Mengen pro Town)
+            de.fallenstar.plot.provider.TownResidentCache residentCache =
+                new de.fallenstar.plot.provider.TownResidentCache();
+            getServer().getPluginManager().registerEvents(
+                new de.fallenstar.plot.provider.TownResidentCacheListener(residentCache),
+                this
+            );
+
             // Erstelle TownyPlotProvider (Modul-eigene Implementierung)
             de.fallenstar.plot.provider.TownyPlotProvider townyProvider =
-                new de.fallenstar.plot.provider.TownyPlotProvider();
+                new de.fallenstar.plot.provider.TownyPlotProvider(townBlockRegistry, permissionCache, residentCache);
 
             // Registriere in ProviderRegistry
             providers.setPlotProvider(townyProvider);
 
             getLogger().info("✓ TownyPlotProvider (Plots-Modul) registriert");
+            getLogger().info("  TownBlocks indiziert: " + townBlockRegistry.size());
+
+            // PlotLookupService (Snapshot der Claim-Map für Async-Worker)
+            this.plotLookupService = new de.fallenstar.plot.provider.PlotLookupService(getLogger(), townBlockRegistry);
+            this.plotLookupService.start(this, getConfig().getLong("towny.lookup-refresh-interval", 300) * 20L);
+            getServer().getPluginManager().registerEvents(
+                new de.fallenstar.plot.provider.PlotLookupServiceListener(plotLookupService),
+                this
+            );
+            getLogger().info("✓ PlotLookupService gestartet (" + plotLookupService.size() + " Plots im Snapshot)");
 
         } catch (Exception e) {
             getLogger().warning("✗ Fehler beim Registrieren von TownyPlotProvider: " + e.getMessage());
@@ -360,8 +434,13 @@ public class PlotModule extends JavaPlugin implements Listener {
      */
     private void initializePlotRegistry() {
         try {
-            this.plotRegistry = new de.fallenstar.plot.registry.PlotRegistry(getLogger());
-            this.plotRegistry.loadFromConfig(getConfig());
+            this.plotRegistry = new de.fallenstar.plot.registry.PlotRegistry(getLogger(), corePlugin.getDataStore());
+            this.plotRegistry.load();
+
+            // Einmalige Migration der alten YAML-Listen (plot-types.<type>)
+            if (plotRegistry.migrateFromConfig(getConfig(), townBlockRegistry) > 0) {
+                saveConfig();
+            }
 
             getLogger().info("✓ PlotRegistry initialisiert");
             getLogger().info("  Registrierte Handelsgilden: " + plotRegistry.getPlotIdsByType(de.fallenstar.plot.registry.PlotRegistry.PlotType.MERCHANT_GUILD).size());
@@ -390,7 +469,19 @@ public class PlotModule extends JavaPlugin implements Listener {
             this.plotPriceManager.loadFromConfig(getConfig());
 
             getLogger().info("✓ PlotPriceManager initialisiert");
-            getLogger().info("  Preise für " + plotPriceManager.getPlotCount() + " Plots geladen");
+            getLogger().info("  Preise für " + plotPriceManager.getPlotCount() + " Plots und "
+                    + plotPriceManager.getTownCount() + " Towns geladen");
+
+            // Preis-Auflösung (Plot → Town → Basis → Custom) mit Cache
+            this.plotPriceResolver = new de.fallenstar.plot.manager.PlotPriceResolver(
+                    plotPriceManager, providers, getLogger());
+            this.plotPriceManager.setPriceResolver(plotPriceResolver);
+            providers.setPriceResolutionProvider(plotPriceResolver);
+
+            // Town-Auflösung aus dem Claim-Snapshot (erlaubt asynchrones Neu-Indizieren)
+            if (plotLookupService != null) {
+                this.plotPriceResolver.setPlotLookupService(plotLookupService);
+            }
 
         } catch (Exception e) {
             getLogger().warning("✗ PlotPriceManager konnte nicht initialisiert werden: " + e.getMessage());
@@ -398,6 +489,83 @@ public class PlotModule extends JavaPlugin implements Listener {
         }
     }
 
+    /**
+     * Initialisiert die dynamische Preisbildung (Angebot/Nachfrage).
+     */
+    private void initializeDynamicPricing() {
+        if (!getConfig().getBoolean("dynamic-pricing.enabled", false)) {
+            getLogger().info("○ Dynamische Preise deaktiviert (Config)");
+            return;
+        }
+        if (!storageSystemEnabled || plotPriceResolver == null) {
+            getLogger().info("○ Dynamische Preise deaktiviert (Storage oder PriceResolver nicht verfügbar)");
+            return;
+        }
+
+        try {
+            var settings = de.fallenstar.plot.manager.DynamicPricingEngine.Settings.fromConfig(
+                    getConfig().getConfigurationSection("dynamic-pricing"));
+            long interval = Math.max(20L, getConfig().getLong("dynamic-pricing.update-interval-ticks", 200L));
+
+            this.dynamicPricingEngine = new de.fallenstar.plot.manager.DynamicPricingEngine(
+                    settings, storageProvider, getLogger());
+            this.dynamicPricingEngine.setPriceResolver(plotPriceResolver);
+            this.plotPriceResolver.setDynamicPricing(dynamicPricingEngine);
+            this.storageProvider.addChangeListener(dynamicPricingEngine::markDirty);
+            this.dynamicPricingEngine.start(this, interval);
+
+            getLogger().info("✓ Dynamische Preise aktiviert (Intervall: " + interval + " Ticks, Faktor "
+                    + settings.floor() + " - " + settings.ceiling() + ")");
+
+        } catch (IllegalArgumentException e) {
+            getLogger().warning("✗ Dynamische Preise: ungültige Config - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Initialisiert den Markt-Verlauf (Preis/Volumen für Markt-Statistiken).
+     */
+    private void initializeMarketHistory() {
+        if (!getConfig().getBoolean("market-history.enabled", true)) {
+            getLogger().info("○ Markt-Verlauf deaktiviert (Config)");
+            return;
+        }
+        if (plotPriceResolver == null) {
+            getLogger().info("○ Markt-Verlauf deaktiviert (PriceResolver nicht verfügbar)");
+            return;
+        }
+
+        try {
+            this.marketHistory = new de.fallenstar.plot.manager.MarketHistory(getLogger());
+            this.marketHistory.start(this, corePlugin.getDataStore(),
+                    getConfig().getLong("market-history.flush-interval-ticks", 1200L));
+            this.plotPriceResolver.setMarketHistory(marketHistory);
+
+            getLogger().info("✓ Markt-Verlauf aktiviert (" + marketHistory.getPlotCount() + " Plots mit Verlauf)");
+
+        } catch (Exception e) {
+            getLogger().warning("✗ Markt-Verlauf konnte nicht initialisiert werden: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Initialisiert den plot-übergreifenden Markt-Suchindex.
+     */
+    private void initializeMarketIndex() {
+        if (!storageSystemEnabled || plotPriceResolver == null) {
+            getLogger().info("○ Markt-Suchindex deaktiviert (Storage oder PriceResolver nicht verfügbar)");
+            return;
+        }
+
+        this.marketIndex = new de.fallenstar.plot.manager.MarketIndex(storageProvider, plotPriceResolver, getLogger());
+        this.storageProvider.addChangeListener(marketIndex::markDirty);
+        this.plotPriceResolver.setMarketIndex(marketIndex);
+        this.marketIndex.start(this);
+
+        getLogger().info("✓ Markt-Suchindex gestartet (" + marketIndex.getListingCount() + " Angebote)");
+    }
+
     /**
      * Initialisiert die PlotBoundNPCRegistry.
      */
@@ -694,6 +862,7 @@ public class PlotModule extends JavaPlugin implements Listener {
 
         // Erstelle und registriere PlotsAdminHandler
         PlotsAdminHandler handler = new PlotsAdminHandler(providers, storageProvider, scanService);
+        handler.setPlotModule(this);
         registry.registerHandler("plots", handler);
 
         getLogger().info("✓ Admin-Commands registriert");
@@ -800,6 +969,24 @@ public class PlotModule extends JavaPlugin implements Listener {
         return plotRegistry;
     }
 
+    /**
+     * Gibt die TownBlockRegistry zurück.
+     *
+     * @return TownBlockRegistry oder null wenn Towny nicht verfügbar
+     */
+    public de.fallenstar.plot.registry.TownBlockRegistry getTownBlockRegistry() {
+        return townBlockRegistry;
+    }
+
+    /**
+     * Gibt den PlotLookupService zurück (Thread-Safe, für Async-Worker).
+     *
+     * @return PlotLookupService oder null wenn Towny nicht verfügbar
+     */
+    public de.fallenstar.plot.provider.PlotLookupService getPlotLookupService() {
+        return plotLookupService;
+    }
+
     /**
      * Prüft ob das Slot-System aktiviert ist.
      *
@@ -827,6 +1014,33 @@ public class PlotModule extends JavaPlugin implements Listener {
         return plotPriceManager;
     }
 
+    /**
+     * Gibt den PlotPriceResolver zurück.
+     *
+     * @return PlotPriceResolver oder null
+     */
+    public de.fallenstar.plot.manager.PlotPriceResolver getPriceResolver() {
+        return plotPriceResolver;
+    }
+
+    /**
+     * Gibt den Markt-Verlauf zurück.
+     *
+     * @return MarketHistory oder null
+     */
+    public de.fallenstar.plot.manager.MarketHistory getMarketHistory() {
+        return marketHistory;
+    }
+
+    /**
+     * Gibt den Markt-Suchindex zurück.
+     *
+     * @return MarketIndex oder null
+     */
+    public de.fallenstar.plot.manager.MarketIndex getMarketIndex() {
+        return marketIndex;
+    }
+
     /**
      * Gibt die PlotBoundNPCRegistry zurück.
      *
@@ -899,13 +1113,29 @@ public class PlotModule extends JavaPlugin implements Listener {
 
             for (String plotId : merchantGuildPlotIds) {
                 try {
-                    // Hole BasePlot via PlotProvider
-                    // HINWEIS: Wir brauchen eine Location um getPlot() aufzurufen
-                    // Da PlotRegistry nur IDs speichert, müssen wir eine andere Methode finden
-                    // TODO: PlotRegistry sollte Locations oder Plot-Objekte cachen
-
-                    // WORKAROUND: Überspringen bis PlotRegistry erweitert wurde
-                    getLogger().fine("Plot " + plotId + " - Location-Lookup noch nicht implementiert");
+                    // Löse Plot-ID zu Location auf (PlotRegistry, Fallback: TownBlockRegistry)
+                    java.util.Optional<org.bukkit.Location> location = plotRegistry.getPlotLocation(plotId);
+                    if (location.isEmpty() && townBlockRegistry != null) {
+                        location = townBlockRegistry.getLocation(plotId);
+                    }
+
+                    if (location.isEmpty()) {
+                        getLogger().warning("Plot " + plotId + " - Location nicht auflösbar (TownBlock unbekannt oder Welt nicht geladen)");
+                        failed++;
+                        continue;
+                    }
+
+                    de.fallenstar.core.provider.Plot basePlot = plotProvider.getPlot(location.get());
+                    if (basePlot == null) {
+                        getLogger().warning("Plot " + plotId + " - kein TownBlock mehr an " + location.get());
+                        failed++;
+                        continue;
+                    }
+
+                    // Erstelle/Lade TradeguildPlot und registriere in InteractionRegistry
+                    de.fallenstar.plot.model.TradeguildPlot tradePlot = tradeguildPlotFactory.createOrGet(basePlot);
+                    interactionRegistry.registerPlot(basePlot.getLocation(), tradePlot);
+                    loaded++;
 
                 } catch (Exception e) {
                     getLogger().warning("Fehler beim Laden von TradeguildPlot " + plotId + ": " + e.getMessage());
@@ -915,12 +1145,6 @@ public class PlotModule extends JavaPlugin implements Listener {
 
             getLogger().info("✓ TradeguildPlot-Loading abgeschlossen: " + loaded + " geladen, " + failed + " fehlgeschlagen");
 
-            if (failed > 0) {
-                getLogger().warning("HINWEIS: PlotRegistry muss erweitert werden um Locations zu speichern");
-                getLogger().warning("        Aktuell können TradeguildPlots noch nicht automatisch geladen werden");
-                getLogger().warning("        → Implementiere PlotRegistry.getPlotLocation(String plotId)");
-            }
-
         } catch (Exception e) {
             getLogger().severe("Fehler beim Laden der TradeguildPlots: " + e.getMessage());
             e.printStackTrace();
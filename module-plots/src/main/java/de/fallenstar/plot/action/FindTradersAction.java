@@ -2,58 +2,96 @@ package de.fallenstar.plot.action;
 
 import de.fallenstar.core.provider.Plot;
 import de.fallenstar.core.ui.element.UiAction;
+import de.fallenstar.plot.manager.MarketIndex;
+import de.fallenstar.plot.manager.MarketIndex.Listing;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
- * Action zum Finden von Händlern auf einem Marktplatz.
+ * Action zum Finden von Händlern für ein Item.
  *
- * **Status:** Noch nicht implementiert (Placeholder)
- *
- * Wird zukünftig folgende Funktionen bieten:
- * - Liste aller aktiven Händler
- * - Händler-Positionen auf Karte
- * - Navigation zu Händlern
- * - Händler-Spezialisierungen
- *
- * **Aktuell:** Zeigt Placeholder-Nachricht an.
+ * Sucht im plot-übergreifenden {@link MarketIndex} nach Angeboten für das
+ * Item in der Hand des Spielers und zeigt im Chat:
+ * - Die günstigsten Angebote (Preis, Bestand, Plot)
+ * - Die nächstgelegenen Angebote (Entfernung)
  *
  * **Verwendung:**
  * ```java
  * addFunctionButton(
  *     Material.COMPASS,
  *     "§e§lHändler finden",
- *     List.of("§c§lNoch nicht implementiert"),
- *     new FindTradersAction(plot)
+ *     List.of("§7Sucht Händler für das Item in deiner Hand"),
+ *     new FindTradersAction(plot, plotModule.getMarketIndex())
  * );
  * ```
  *
  * @author FallenStar
- * @version 2.0
+ * @version 3.0
  */
 public final class FindTradersAction implements UiAction {
 
+    private static final int CHEAPEST_LIMIT = 5;
+    private static final int NEAREST_LIMIT = 3;
+
     private final Plot plot;
+    private final MarketIndex marketIndex;
 
     /**
      * Konstruktor für FindTradersAction.
      *
      * @param plot Der Plot
+     * @param marketIndex Markt-Suchindex (oder null wenn nicht verfügbar)
      */
-    public FindTradersAction(Plot plot) {
+    public FindTradersAction(Plot plot, MarketIndex marketIndex) {
         this.plot = Objects.requireNonNull(plot, "Plot darf nicht null sein");
+        this.marketIndex = marketIndex;
     }
 
     @Override
     public void execute(Player player) {
-        player.sendMessage("§c§lHändler-Suche noch nicht implementiert!");
-        player.sendMessage("§7Suche manuell nach Händler-NPCs auf dem Plot");
+        player.closeInventory();
+
+        if (marketIndex == null) {
+            player.sendMessage("§cHändler-Suche ist nicht verfügbar!");
+            return;
+        }
+
+        Material material = player.getInventory().getItemInMainHand().getType();
+        if (material == Material.AIR) {
+            player.sendMessage("§cNimm das gesuchte Item in die Hand!");
+            return;
+        }
+
+        List<Listing> cheapest = marketIndex.findCheapest(material, CHEAPEST_LIMIT);
+        if (cheapest.isEmpty()) {
+            player.sendMessage("§7Kein Händler bietet §e" + material.name() + " §7an.");
+            return;
+        }
+
+        player.sendMessage("§6§l=== Händler für " + material.name() + " ===");
+        player.sendMessage("§6Günstigste Angebote:");
+        for (Listing listing : cheapest) {
+            player.sendMessage("§e" + listing.getPrice().toPlainString() + " §7pro Stück §8| §7Bestand §f"
+                    + listing.stock() + " §8| §7" + listing.plotIdentifier());
+        }
+
+        player.sendMessage("§6Nächste Angebote:");
+        for (Listing listing : marketIndex.findNearest(material, player.getLocation(), NEAREST_LIMIT)) {
+            double distance = listing.distanceSquared(player.getLocation());
+            String where = distance == Double.MAX_VALUE
+                    ? "andere Welt"
+                    : Math.round(Math.sqrt(distance)) + " Blöcke";
+            player.sendMessage("§7" + listing.plotIdentifier() + " §8| §f" + where
+                    + " §8| §e" + listing.getPrice().toPlainString());
+        }
     }
 
     @Override
     public String getActionName() {
-        return "FindTraders[" + plot.getIdentifier() + "][PLACEHOLDER]";
+        return "FindTraders[" + plot.getIdentifier() + "]";
     }
 
     /**
@@ -2,58 +2,74 @@ package de.fallenstar.plot.action;
 
 import de.fallenstar.core.provider.Plot;
 import de.fallenstar.core.ui.element.UiAction;
+import de.fallenstar.plot.manager.MarketIndex;
+import de.fallenstar.plot.manager.MarketIndex.Listing;
 import org.bukkit.entity.Player;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Action zum Anzeigen verfügbarer Waren auf einem Marktplatz.
  *
- * **Status:** Noch nicht implementiert (Placeholder)
- *
- * Wird zukünftig folgende Informationen zeigen:
- * - Alle verfügbaren Items und Preise
- * - Händler-Übersicht pro Item
- * - Preis-Vergleich
- * - Verfügbarkeit
- *
- * **Aktuell:** Zeigt Placeholder-Nachricht an.
+ * Liest die Angebote des Plots aus dem {@link MarketIndex} und zeigt im Chat:
+ * - Alle verfügbaren Items mit Preis und Bestand
+ * - Preis-Vergleich mit dem günstigsten Angebot auf anderen Plots
  *
  * **Verwendung:**
  * ```java
  * addFunctionButton(
  *     Material.EMERALD,
  *     "§a§lVerfügbare Waren",
- *     List.of("§c§lNoch nicht implementiert"),
- *     new ViewAvailableGoodsAction(plot)
+ *     List.of("§7Zeigt alle verfügbaren Waren und Preise an"),
+ *     new ViewAvailableGoodsAction(plot, plotModule.getMarketIndex())
  * );
  * ```
  *
  * @author FallenStar
- * @version 2.0
+ * @version 3.0
  */
 public final class ViewAvailableGoodsAction implements UiAction {
 
     private final Plot plot;
+    private final MarketIndex marketIndex;
 
     /**
      * Konstruktor für ViewAvailableGoodsAction.
      *
      * @param plot Der Plot
+     * @param marketIndex Markt-Suchindex (oder null wenn nicht verfügbar)
      */
-    public ViewAvailableGoodsAction(Plot plot) {
+    public ViewAvailableGoodsAction(Plot plot, MarketIndex marketIndex) {
         this.plot = Objects.requireNonNull(plot, "Plot darf nicht null sein");
+        this.marketIndex = marketIndex;
     }
 
     @Override
     public void execute(Player player) {
-        player.sendMessage("§c§lWaren-Übersicht noch nicht implementiert!");
-        player.sendMessage("§7Sprich direkt mit den Händler-NPCs");
+        player.closeInventory();
+
+        if (marketIndex == null) {
+            player.sendMessage("§cWaren-Übersicht ist nicht verfügbar!");
+            return;
+        }
+
+        List<Listing> listings = marketIndex.getListings(plot.getUuid());
+        if (listings.isEmpty()) {
+            player.sendMessage("§7Auf diesem Marktplatz werden derzeit keine Waren angeboten.");
+            return;
+        }
+
+        player.sendMessage("§6§l=== Verfügbare Waren: " + plot.getIdentifier() + " ===");
+        for (Listing listing : listings) {
+            player.sendMessage("§e" + listing.material().name() + "§7: §f" + listing.stock() + "x §7à §e"
+                    + listing.getPrice().toPlainString() + compareWithMarket(listing));
+        }
     }
 
     @Override
     public String getActionName() {
-        return "ViewAvailableGoods[" + plot.getIdentifier() + "][PLACEHOLDER]";
+        return "ViewAvailableGoods[" + plot.getIdentifier() + "]";
     }
 
     /**
@@ -64,4 +80,19 @@ public final class ViewAvailableGoodsAction implements UiAction {
     public Plot getPlot() {
         return plot;
     }
+
+    /**
+     * Vergleicht ein Angebot mit dem günstigsten Angebot eines anderen Plots.
+     */
+    private String compareWithMarket(Listing listing) {
+        // Zwei Einträge reichen: ist der erste dieser Plot, ist der zweite das beste Fremd-Angebot
+        for (Listing other : marketIndex.findCheapest(listing.material(), 2)) {
+            if (!other.plotId().equals(plot.getUuid())) {
+                return other.price() < listing.price()
+                        ? " §8| §cgünstiger: " + other.getPrice().toPlainString() + " (" + other.plotIdentifier() + ")"
+                        : " §8| §abester Preis";
+            }
+        }
+        return " §8| §aeinziger Anbieter";
+    }
 }
@@ -2,58 +2,115 @@ package de.fallenstar.plot.action;
 
 import de.fallenstar.core.provider.Plot;
 import de.fallenstar.core.ui.element.UiAction;
+import de.fallenstar.plot.manager.MarketHistory;
+import de.fallenstar.plot.manager.MarketHistory.Resolution;
+import de.fallenstar.plot.manager.MarketHistory.Summary;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
  * Action zum Anzeigen von Markt-Statistiken.
  *
- * **Status:** Noch nicht implementiert (Placeholder)
- *
- * Wird zukünftig folgende Statistiken zeigen:
- * - Umsatz (Gesamt, Heute, Woche, Monat)
- * - Top-Verkäufer
- * - Meistverkaufte Items
- * - Händler-Performance
- *
- * **Aktuell:** Zeigt Placeholder-Nachricht an.
+ * Liest die vorab aggregierten Buckets aus {@link MarketHistory}
+ * (keine Handels-Logs) und zeigt im Chat:
+ * - Umsatz (Letzte Stunde, 24 Stunden, 30 Tage)
+ * - Meistverkaufte Items der letzten 24 Stunden
+ * - Ø-Preis, Preisspanne und Trend ggü. den 24 Stunden davor
  *
  * **Verwendung:**
  * ```java
  * addFunctionButton(
  *     Material.BOOK,
  *     "§e§lMarkt-Statistiken",
- *     List.of("§c§lNoch nicht implementiert"),
- *     new ViewMarketStatsAction(plot)
+ *     List.of("§7Zeigt Umsatz und Verkaufsstatistiken an"),
+ *     new ViewMarketStatsAction(plot, plotModule.getMarketHistory())
  * );
  * ```
  *
  * @author FallenStar
- * @version 2.0
+ * @version 3.0
  */
 public final class ViewMarketStatsAction implements UiAction {
 
+    private static final int TOP_ITEMS = 5;
+
     private final Plot plot;
+    private final MarketHistory marketHistory;
 
     /**
      * Konstruktor für ViewMarketStatsAction.
      *
      * @param plot Der Plot
+     * @param marketHistory Markt-Verlauf (oder null wenn deaktiviert)
      */
-    public ViewMarketStatsAction(Plot plot) {
+    public ViewMarketStatsAction(Plot plot, MarketHistory marketHistory) {
         this.plot = Objects.requireNonNull(plot, "Plot darf nicht null sein");
+        this.marketHistory = marketHistory;
     }
 
     @Override
     public void execute(Player player) {
-        player.sendMessage("§c§lMarkt-Statistiken noch nicht implementiert!");
-        player.sendMessage("§7Geplant für zukünftige Sprints");
+        player.closeInventory();
+
+        if (marketHistory == null) {
+            player.sendMessage("§cMarkt-Statistiken sind deaktiviert!");
+            return;
+        }
+
+        player.sendMessage("§6§l=== Markt-Statistiken: " + plot.getIdentifier() + " ===");
+
+        // Alle Zusammenfassungen einmal berechnen (Material → {Stunde, 24h, 30 Tage})
+        long now = System.currentTimeMillis();
+        Map<Material, Summary[]> summaries = new EnumMap<>(Material.class);
+        for (Material material : marketHistory.getMaterials(plot.getUuid())) {
+            summaries.put(material, new Summary[]{
+                    marketHistory.summarize(plot.getUuid(), material, Resolution.MINUTE, 60, now),
+                    marketHistory.summarize(plot.getUuid(), material, Resolution.HOUR, 24, now),
+                    marketHistory.summarize(plot.getUuid(), material, Resolution.DAY, 30, now)
+            });
+        }
+
+        if (summaries.isEmpty()) {
+            player.sendMessage("§7Noch keine Handelsdaten vorhanden.");
+            return;
+        }
+
+        player.sendMessage("§7Umsatz: §eLetzte Stunde " + totalTurnover(summaries, 0).toPlainString()
+                + " §7| §e24h " + totalTurnover(summaries, 1).toPlainString()
+                + " §7| §e30 Tage " + totalTurnover(summaries, 2).toPlainString());
+
+        List<Map.Entry<Material, Summary[]>> top = summaries.entrySet().stream()
+                .filter(entry -> entry.getValue()[1].hasTrades())
+                .sorted(Comparator.comparingLong((Map.Entry<Material, Summary[]> entry) -> entry.getValue()[1].volume())
+                        .reversed())
+                .limit(TOP_ITEMS)
+                .toList();
+
+        if (top.isEmpty()) {
+            player.sendMessage("§7Keine Verkäufe in den letzten 24 Stunden.");
+            return;
+        }
+
+        player.sendMessage("§6Meistverkauft (24h):");
+        for (Map.Entry<Material, Summary[]> entry : top) {
+            Summary day = entry.getValue()[1];
+            player.sendMessage("§e" + entry.getKey().name() + "§7: " + day.volume() + "x"
+                    + " §7| Ø §f" + day.averagePrice().toPlainString()
+                    + " §7(" + day.low().toPlainString() + " - " + day.high().toPlainString() + ")"
+                    + formatTrend(day.trendPercent()));
+        }
     }
 
     @Override
     public String getActionName() {
-        return "ViewMarketStats[" + plot.getIdentifier() + "][PLACEHOLDER]";
+        return "ViewMarketStats[" + plot.getIdentifier() + "]";
     }
 
     /**
@@ -64,4 +121,24 @@ public final class ViewMarketStatsAction implements UiAction {
     public Plot getPlot() {
         return plot;
     }
+
+    /**
+     * Summiert den Umsatz aller Materialien für einen Zeitraum.
+     */
+    private static BigDecimal totalTurnover(Map<Material, Summary[]> summaries, int period) {
+        return summaries.values().stream()
+                .map(values -> values[period].turnover())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Formatiert einen Trend (grün steigend, rot fallend).
+     */
+    private static String formatTrend(Double trendPercent) {
+        if (trendPercent == null) {
+            return "";
+        }
+        String color = trendPercent > 0 ? "§a+" : trendPercent < 0 ? "§c" : "§7±";
+        return " §7Trend " + color + String.format("%.1f", trendPercent) + "%";
+    }
 }
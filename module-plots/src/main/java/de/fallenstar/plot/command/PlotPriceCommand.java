@@ -641,6 +641,9 @@ public class PlotPriceCommand {
             // Config-Speicherung erfolgt automatisch in economyProvider.setItemPrice()!
             // Kein Reflection mehr nötig - VaultEconomyProvider hat Plugin-Injection
 
+            // Basispreis geändert → aufgelöste Preise aller Plots verwerfen
+            providers.getPriceResolutionProvider().invalidateAll();
+
             return true;
 
         } catch (Exception e) {
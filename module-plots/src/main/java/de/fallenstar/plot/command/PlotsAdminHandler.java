@@ -1,9 +1,13 @@
 package de.fallenstar.plot.command;
 
 import de.fallenstar.core.command.AdminSubcommandHandler;
+import de.fallenstar.core.economy.PriceFile;
 import de.fallenstar.core.provider.Plot;
 import de.fallenstar.core.provider.PlotProvider;
 import de.fallenstar.core.registry.ProviderRegistry;
+import de.fallenstar.plot.PlotModule;
+import de.fallenstar.plot.manager.PlotPriceManager;
+import de.fallenstar.plot.model.PlotPriceData;
 import de.fallenstar.plot.storage.manager.ChestScanService;
 import de.fallenstar.plot.storage.model.PlotStorage;
 import de.fallenstar.plot.storage.provider.PlotStorageProvider;
@@ -13,10 +17,18 @@ import org.bukkit.Material;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Admin-Command-Handler für Plots-Modul.
@@ -25,6 +37,7 @@ import java.util.Set;
  * - info: Zeigt Plot-Info am aktuellen Standort
  * - storage view: Zeigt Storage-Materialien
  * - storage scan: Scannt Storage neu
+ * - prices export/import: Preistabelle des Plots als CSV/JSON (plugins/.../prices/)
  *
  * Implementiert das AdminSubcommandHandler-Interface für
  * Reflection-freie Inter-Modul-Kommunikation.
@@ -37,6 +50,7 @@ public class PlotsAdminHandler implements AdminSubcommandHandler {
     private final ProviderRegistry providerRegistry;
     private final PlotStorageProvider storageProvider;
     private final ChestScanService scanService;
+    private PlotModule plotModule; // Setter-injected (optional)
 
     /**
      * Erstellt einen neuen PlotsAdminHandler.
@@ -53,6 +67,15 @@ public class PlotsAdminHandler implements AdminSubcommandHandler {
         this.scanService = scanService;
     }
 
+    /**
+     * Setzt das Plot-Modul (für prices export/import).
+     *
+     * @param plotModule PlotModule (Preis-Manager, Datenordner, Scheduler)
+     */
+    public void setPlotModule(PlotModule plotModule) {
+        this.plotModule = plotModule;
+    }
+
     @Override
     public boolean handle(CommandSender sender, String[] args) {
         if (!(sender instanceof Player player)) {
@@ -70,6 +93,7 @@ public class PlotsAdminHandler implements AdminSubcommandHandler {
         switch (subCommand) {
             case "info" -> handlePlotInfo(player);
             case "storage" -> handlePlotStorage(player, Arrays.copyOfRange(args, 1, args.length));
+            case "prices" -> handlePlotPrices(player, Arrays.copyOfRange(args, 1, args.length));
             default -> {
                 sender.sendMessage(Component.text("Unbekannter Plot-Befehl: " + subCommand, NamedTextColor.RED));
                 sendHelp(sender);
@@ -87,10 +111,16 @@ public class PlotsAdminHandler implements AdminSubcommandHandler {
             // First argument: subcommand
             completions.add("info");
             completions.add("storage");
+            completions.add("prices");
         } else if (args.length == 1 && args[0].equalsIgnoreCase("storage")) {
             // Second argument for storage subcommand
             completions.add("view");
             completions.add("scan");
+        } else if (args.length == 1 && args[0].equalsIgnoreCase("prices")) {
+            completions.add("export");
+            completions.add("import");
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("prices") && args[1].equalsIgnoreCase("import")) {
+            completions.add("replace");
         }
 
         return completions;
@@ -109,6 +139,10 @@ public class PlotsAdminHandler implements AdminSubcommandHandler {
                 .append(Component.text(" - Zeigt Storage-Materialien", NamedTextColor.GRAY)));
         sender.sendMessage(Component.text("  /fscore admin plots storage scan", NamedTextColor.GOLD)
                 .append(Component.text(" - Scannt Storage neu", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("  /fscore admin plots prices export <datei.csv|json>", NamedTextColor.GOLD)
+                .append(Component.text(" - Exportiert die Plot-Preise", NamedTextColor.GRAY)));
+        sender.sendMessage(Component.text("  /fscore admin plots prices import <datei> [replace]", NamedTextColor.GOLD)
+                .append(Component.text(" - Importiert Plot-Preise (atomar)", NamedTextColor.GRAY)));
         sender.sendMessage(Component.empty());
         sender.sendMessage(Component.text("Hinweis:", NamedTextColor.YELLOW)
                 .append(Component.text(" Vollständige Plot-Funktionalität via ", NamedTextColor.GRAY))
@@ -335,4 +369,158 @@ public class PlotsAdminHandler implements AdminSubcommandHandler {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Behandelt /fscore admin plots prices Subcommands.
+     *
+     * Dateien liegen in {@code plugins/<Plot-Modul>/prices/}. Lesen und Schreiben
+     * laufen asynchron; ein Import wird erst vollständig geprüft und dann in
+     * einem Schritt übernommen (eine Invalidierung, ein Config-Save).
+     *
+     * @param player Spieler
+     * @param args Argumente (ohne "prices")
+     */
+    private void handlePlotPrices(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage(Component.text("Verwendung: /fscore admin plots prices <export|import> <datei.csv|json> [replace]",
+                    NamedTextColor.GRAY));
+            return;
+        }
+
+        PlotPriceManager priceManager = plotModule != null ? plotModule.getPriceManager() : null;
+        if (priceManager == null) {
+            player.sendMessage(Component.text("✗ Preis-System nicht verfügbar!", NamedTextColor.RED));
+            return;
+        }
+
+        Plot plot;
+        try {
+            plot = providerRegistry.getPlotProvider().getPlot(player.getLocation());
+        } catch (Exception e) {
+            plot = null;
+        }
+        if (plot == null) {
+            player.sendMessage(Component.text("✗ Du stehst nicht auf einem Grundstück!", NamedTextColor.RED));
+            return;
+        }
+
+        File file = resolvePriceFile(args[1]);
+        PriceFile.Format format = PriceFile.Format.fromFileName(args[1]).orElse(null);
+        if (file == null || format == null) {
+            player.sendMessage(Component.text("✗ Ungültiger Dateiname (erlaubt: name.csv oder name.json)", NamedTextColor.RED));
+            return;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "export" -> exportPrices(player, priceManager, plot, file, format);
+            case "import" -> importPrices(player, priceManager, plot, file, format,
+                    args.length > 2 && args[2].equalsIgnoreCase("replace"));
+            default -> player.sendMessage(Component.text("Unbekannter Preis-Befehl: " + args[0], NamedTextColor.RED));
+        }
+    }
+
+    /**
+     * Exportiert die Preise eines Plots (Snapshot auf dem Main-Thread, Schreiben asynchron).
+     */
+    private void exportPrices(Player player, PlotPriceManager priceManager, Plot plot,
+                              File file, PriceFile.Format format) {
+        PlotPriceData snapshot = priceManager.getPriceData(plot)
+                .map(PlotPriceData::copy)
+                .orElseGet(() -> new PlotPriceData(plot.getUuid()));
+        UUID playerId = player.getUniqueId();
+
+        plotModule.getServer().getScheduler().runTaskAsynchronously(plotModule, () -> {
+            String result;
+            try {
+                Files.createDirectories(file.getParentFile().toPath());
+                try (PriceFile.EntryWriter writer = PriceFile.writer(
+                        Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8), format)) {
+                    for (Material material : snapshot.getMaterials()) {
+                        writer.write(new PriceFile.Entry(material.name(),
+                                snapshot.getBuyPrice(material).orElse(null),
+                                snapshot.getSellPrice(material).orElse(null)));
+                    }
+                }
+                result = "✓ " + snapshot.size() + " Preise exportiert nach prices/" + file.getName();
+            } catch (IOException e) {
+                result = "✗ Export fehlgeschlagen: " + e.getMessage();
+            }
+            notifyPlayer(playerId, result);
+        });
+    }
+
+    /**
+     * Importiert Preise in ein Plot (Lesen asynchron, Übernahme atomar auf dem Main-Thread).
+     */
+    private void importPrices(Player player, PlotPriceManager priceManager, Plot plot,
+                              File file, PriceFile.Format format, boolean replace) {
+        if (!file.isFile()) {
+            player.sendMessage(Component.text("✗ Datei nicht gefunden: prices/" + file.getName(), NamedTextColor.RED));
+            return;
+        }
+        UUID playerId = player.getUniqueId();
+
+        plotModule.getServer().getScheduler().runTaskAsynchronously(plotModule, () -> {
+            Map<Material, PlotPriceManager.PriceUpdate> updates = new LinkedHashMap<>();
+            List<String> unknown = new ArrayList<>();
+
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                PriceFile.read(reader, format, entry -> {
+                    Material material = Material.matchMaterial(entry.item());
+                    if (material == null || !material.isItem()) {
+                        unknown.add(entry.item());
+                        return;
+                    }
+                    updates.put(material, new PlotPriceManager.PriceUpdate(entry.buyPrice(), entry.sellPrice()));
+                });
+            } catch (IOException e) {
+                notifyPlayer(playerId, "✗ Import abgebrochen: " + e.getMessage());
+                return;
+            }
+
+            if (!unknown.isEmpty()) {
+                notifyPlayer(playerId, "✗ Import abgebrochen - unbekannte Items: "
+                        + String.join(", ", unknown.subList(0, Math.min(5, unknown.size())))
+                        + (unknown.size() > 5 ? " (+" + (unknown.size() - 5) + ")" : ""));
+                return;
+            }
+
+            plotModule.getServer().getScheduler().runTask(plotModule, () -> {
+                String result;
+                try {
+                    int total = priceManager.applyPrices(plot, updates, replace);
+                    plotModule.saveConfiguration();
+                    result = "✓ " + updates.size() + " Preise importiert (" + total + " Items mit Preisen)";
+                } catch (ArithmeticException e) {
+                    result = "✗ Import abgebrochen - Preis außerhalb des gültigen Bereichs";
+                }
+                notifyPlayer(playerId, result);
+            });
+        });
+    }
+
+    /**
+     * Löst einen Dateinamen im Preis-Ordner auf (nur einfache Namen, keine Pfade).
+     *
+     * @return Datei, oder null bei ungültigem Namen
+     */
+    private File resolvePriceFile(String fileName) {
+        if (!fileName.matches("[A-Za-z0-9_.-]+") || fileName.contains("..")) {
+            return null;
+        }
+        return new File(new File(plotModule.getDataFolder(), "prices"), fileName);
+    }
+
+    /**
+     * Sendet eine Ergebnis-Meldung auf dem Main-Thread (falls der Spieler noch online ist).
+     */
+    private void notifyPlayer(UUID playerId, String message) {
+        plotModule.getServer().getScheduler().runTask(plotModule, () -> {
+            Player player = plotModule.getServer().getPlayer(playerId);
+            if (player != null) {
+                player.sendMessage(Component.text(message,
+                        message.startsWith("✓") ? NamedTextColor.GREEN : NamedTextColor.RED));
+            }
+        });
+    }
 }
@@ -0,0 +1,433 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.plot.model.PlotPriceData;
+import de.fallenstar.plot.storage.model.PlotStorage;
+import de.fallenstar.plot.storage.provider.PlotStorageProvider;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Angebot/Nachfrage-Preisfaktoren pro Plot und Material.
+ *
+ * Leitet aus dem Truhen-Bestand ({@link PlotStorage}) und dem jüngsten
+ * Handelsvolumen einen Multiplikator ab, den {@link PlotPriceResolver}
+ * auf die aufgelösten Material-Preise anwendet.
+ *
+ * Modell (pro Material):
+ * <pre>
+ * volumen  = volumen · volume-decay + gehandelt
+ * ziel     = clamp(((target-stock + volumen) / max(bestand, 1)) ^ elasticity, floor, ceiling)
+ * faktor  += smoothing · (ziel − faktor)
+ * </pre>
+ * Knapper Bestand oder hohes Volumen → Faktor &gt; 1, Überangebot → Faktor &lt; 1.
+ *
+ * Features:
+ * - Neuberechnung nur für geänderte Plots (Storage-Änderung oder Handel)
+ * - Asynchroner Task, nie pro Handel auf dem Main-Thread
+ * - Handelsvolumen pro Plot atomar verbucht (ConcurrentHashMap.compute)
+ * - Faktoren als unveränderliche Snapshots pro Plot veröffentlicht
+ *
+ * **Verwendung:**
+ * <pre>
+ * DynamicPricingEngine engine = new DynamicPricingEngine(Settings.fromConfig(section), storageProvider, logger);
+ * engine.setPriceResolver(resolver);
+ * storageProvider.addChangeListener(engine::markDirty);
+ * engine.start(plugin, 200L);
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Faktoren laufen dem Bestand um höchstens ein Intervall hinterher. Nur
+ * Änderungen ab {@link #MIN_CHANGE} werden veröffentlicht und invalidieren
+ * den Preis-Cache des Plots. Plots ohne registrierte Truhen gelten als
+ * neutral bevorratet (nur das Volumen wirkt).
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class DynamicPricingEngine {
+
+    /**
+     * Kleinste Faktor-Änderung, die veröffentlicht wird.
+     */
+    public static final double MIN_CHANGE = 0.001;
+
+    private static final double MIN_VOLUME = 0.5;
+
+    private final Settings settings;
+    private final PlotStorageProvider storageProvider;
+    private final Logger logger;
+
+    /**
+     * Plot-UUID → Plot mit ausstehender Neuberechnung
+     */
+    private final Map<UUID, Plot> dirtyPlots;
+
+    /**
+     * Plot-UUID → Material → seit letzter Neuberechnung gehandelte Menge
+     */
+    private final Map<UUID, Map<Material, Long>> pendingVolume;
+
+    /**
+     * Plot-UUID → veröffentlichte Faktoren (unveränderlich)
+     */
+    private final Map<UUID, Map<Material, Double>> factors;
+
+    /**
+     * Plot-UUID → Rechenstand (nur im Worker-Task verwendet)
+     */
+    private final Map<UUID, Map<Material, MaterialState>> states;
+
+    private volatile PlotPriceResolver priceResolver;
+    private BukkitTask task;
+
+    /**
+     * Konfiguration des Preismodells.
+     *
+     * @param targetStock Bestand, bei dem der Faktor 1.0 ist (ohne Volumen)
+     * @param elasticity Stärke der Reaktion auf das Angebot/Nachfrage-Verhältnis
+     * @param volumeDecay Anteil des Volumens, der pro Intervall erhalten bleibt (0-1)
+     * @param floor Minimaler Faktor
+     * @param ceiling Maximaler Faktor
+     * @param smoothing Anteil der Annäherung an den Zielfaktor pro Intervall (0-1]
+     */
+    public record Settings(
+            int targetStock,
+            double elasticity,
+            double volumeDecay,
+            double floor,
+            double ceiling,
+            double smoothing
+    ) {
+
+        public Settings {
+            if (targetStock < 1) {
+                throw new IllegalArgumentException("target-stock must be at least 1");
+            }
+            if (elasticity < 0) {
+                throw new IllegalArgumentException("elasticity cannot be negative");
+            }
+            if (volumeDecay < 0 || volumeDecay > 1) {
+                throw new IllegalArgumentException("volume-decay must be between 0 and 1");
+            }
+            if (floor <= 0 || ceiling < floor) {
+                throw new IllegalArgumentException("floor must be positive and not above ceiling");
+            }
+            if (smoothing <= 0 || smoothing > 1) {
+                throw new IllegalArgumentException("smoothing must be in (0, 1]");
+            }
+        }
+
+        /**
+         * Liest die Einstellungen aus der Config (fehlende Werte = Standard).
+         *
+         * @param section dynamic-pricing Sektion (oder null)
+         * @return Settings
+         */
+        public static Settings fromConfig(ConfigurationSection section) {
+            if (section == null) {
+                return new Settings(64, 0.5, 0.5, 0.5, 2.0, 0.3);
+            }
+            return new Settings(
+                    section.getInt("target-stock", 64),
+                    section.getDouble("elasticity", 0.5),
+                    section.getDouble("volume-decay", 0.5),
+                    section.getDouble("floor", 0.5),
+                    section.getDouble("ceiling", 2.0),
+                    section.getDouble("smoothing", 0.3)
+            );
+        }
+
+        /**
+         * Berechnet den (ungeglätteten) Zielfaktor.
+         *
+         * @param stock Aktueller Bestand
+         * @param volume Geglättetes Handelsvolumen
+         * @return Faktor in [floor, ceiling]
+         */
+        public double targetFactor(int stock, double volume) {
+            double ratio = (targetStock + volume) / Math.max(stock, 1);
+            double raw = Math.pow(ratio, elasticity);
+            return Math.max(floor, Math.min(ceiling, raw));
+        }
+    }
+
+    /**
+     * Rechenstand eines Materials.
+     */
+    private static final class MaterialState {
+        double volume;
+        double factor = 1.0;
+        double published = 1.0;
+    }
+
+    /**
+     * Erstellt eine neue DynamicPricingEngine.
+     *
+     * @param settings Modell-Einstellungen
+     * @param storageProvider PlotStorageProvider für Bestände (oder null → nur Volumen)
+     * @param logger Logger
+     */
+    public DynamicPricingEngine(Settings settings, PlotStorageProvider storageProvider, Logger logger) {
+        this.settings = Objects.requireNonNull(settings, "settings cannot be null");
+        this.storageProvider = storageProvider;
+        this.logger = Objects.requireNonNull(logger, "logger cannot be null");
+        this.dirtyPlots = new ConcurrentHashMap<>();
+        this.pendingVolume = new ConcurrentHashMap<>();
+        this.factors = new ConcurrentHashMap<>();
+        this.states = new HashMap<>();
+    }
+
+    /**
+     * Setzt den Resolver, dessen Cache bei Faktor-Änderungen invalidiert wird.
+     *
+     * @param priceResolver PlotPriceResolver
+     */
+    public void setPriceResolver(PlotPriceResolver priceResolver) {
+        this.priceResolver = priceResolver;
+    }
+
+    // ==================== Signale (beliebiger Thread) ====================
+
+    /**
+     * Merkt einen Plot nach einer Bestandsänderung zur Neuberechnung vor.
+     *
+     * Passt als Change-Listener für {@link PlotStorageProvider#addChangeListener}.
+     *
+     * @param storage Geänderter PlotStorage
+     */
+    public void markDirty(PlotStorage storage) {
+        Plot plot = storage.getPlot();
+        dirtyPlots.put(plot.getUuid(), plot);
+    }
+
+    /**
+     * Verbucht gehandeltes Volumen und merkt den Plot vor.
+     *
+     * @param plot Das Grundstück
+     * @param material Gehandeltes Material
+     * @param amount Gehandelte Menge
+     */
+    public void recordTrade(Plot plot, Material material, int amount) {
+        Objects.requireNonNull(plot, "plot cannot be null");
+        Objects.requireNonNull(material, "material cannot be null");
+        if (amount <= 0) {
+            return;
+        }
+
+        // compute() serialisiert mit dem remove() in recompute(): kein Volumen geht verloren
+        pendingVolume.compute(plot.getUuid(), (plotId, volume) -> {
+            Map<Material, Long> result = volume != null ? volume : new EnumMap<>(Material.class);
+            result.merge(material, (long) amount, Long::sum);
+            return result;
+        });
+        dirtyPlots.put(plot.getUuid(), plot);
+    }
+
+    // ==================== Abfrage (beliebiger Thread) ====================
+
+    /**
+     * Gibt den aktuellen Faktor eines Materials zurück.
+     *
+     * @param plotId Plot-UUID
+     * @param material Material
+     * @return Faktor (1.0 wenn keiner berechnet)
+     */
+    public double getFactor(UUID plotId, Material material) {
+        return factors.getOrDefault(plotId, Map.of()).getOrDefault(material, 1.0);
+    }
+
+    /**
+     * Wendet die Faktoren eines Plots auf ein Preis-Array an.
+     *
+     * @param plotId Plot-UUID
+     * @param prices Preise in Minor Units (2·ordinal = Ankauf, 2·ordinal+1 = Verkauf)
+     */
+    public void applyFactors(UUID plotId, long[] prices) {
+        Map<Material, Double> plotFactors = factors.get(plotId);
+        if (plotFactors == null) {
+            return;
+        }
+
+        plotFactors.forEach((material, factor) -> {
+            int index = material.ordinal() << 1;
+            prices[index] = scale(prices[index], factor);
+            prices[index + 1] = scale(prices[index + 1], factor);
+        });
+    }
+
+    /**
+     * Gibt die Anzahl der Plots mit abweichenden Faktoren zurück.
+     *
+     * @return Anzahl
+     */
+    public int getPricedPlotCount() {
+        return factors.size();
+    }
+
+    // ==================== Task ====================
+
+    /**
+     * Startet die asynchrone Neuberechnung.
+     *
+     * @param plugin Plugin für Scheduler
+     * @param intervalTicks Intervall in Ticks
+     */
+    public void start(Plugin plugin, long intervalTicks) {
+        stop();
+        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin, this::tick, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Stoppt die Neuberechnung.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Berechnet alle vorgemerkten Plots neu.
+     *
+     * Läuft im Async-Task; synchronisiert, falls ein Tick länger als das Intervall dauert.
+     *
+     * @return Anzahl Plots mit veröffentlichten Änderungen
+     */
+    synchronized int tick() {
+        if (dirtyPlots.isEmpty()) {
+            return 0;
+        }
+
+        int changed = 0;
+        for (UUID plotId : List.copyOf(dirtyPlots.keySet())) {
+            Plot plot = dirtyPlots.remove(plotId);
+            if (plot == null) {
+                continue;
+            }
+
+            try {
+                if (recompute(plot)) {
+                    changed++;
+                }
+            } catch (RuntimeException e) {
+                logger.warning("✗ Dynamische Preise für Plot " + plotId + " fehlgeschlagen: " + e.getMessage());
+            }
+        }
+
+        if (changed > 0) {
+            logger.fine("Dynamic pricing updated for " + changed + " plots");
+        }
+        return changed;
+    }
+
+    /**
+     * Berechnet die Faktoren eines Plots neu und veröffentlicht Änderungen.
+     *
+     * @return true wenn sich veröffentlichte Faktoren geändert haben
+     */
+    private boolean recompute(Plot plot) {
+        UUID plotId = plot.getUuid();
+        Map<Material, Long> traded = pendingVolume.remove(plotId);
+        PlotStorage storage = storageProvider != null ? storageProvider.getPlotStorage(plot) : null;
+        boolean hasStock = storage != null && !storage.getAllChests().isEmpty();
+
+        Map<Material, MaterialState> plotStates = states.computeIfAbsent(plotId, id -> new EnumMap<>(Material.class));
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        materials.addAll(plotStates.keySet());
+        if (hasStock) {
+            materials.addAll(storage.getAllMaterials());
+        }
+        if (traded != null) {
+            materials.addAll(traded.keySet());
+        }
+
+        boolean changed = false;
+        boolean pending = false;
+
+        for (Material material : materials) {
+            MaterialState state = plotStates.computeIfAbsent(material, m -> new MaterialState());
+
+            long volume = traded != null ? traded.getOrDefault(material, 0L) : 0L;
+            state.volume = state.volume * settings.volumeDecay() + volume;
+            if (state.volume < MIN_VOLUME) {
+                state.volume = 0;
+            }
+
+            int stock = hasStock ? storage.getTotalAmount(material) : settings.targetStock();
+            double target = settings.targetFactor(stock, state.volume);
+            state.factor += settings.smoothing() * (target - state.factor);
+
+            boolean converged = Math.abs(target - state.factor) < MIN_CHANGE && state.volume == 0;
+            if (!converged) {
+                pending = true;
+            }
+
+            if (Math.abs(state.factor - state.published) >= MIN_CHANGE) {
+                state.published = state.factor;
+                changed = true;
+            }
+
+            // Neutraler, eingeschwungener Stand muss nicht gehalten werden
+            if (converged && Math.abs(state.factor - 1.0) < MIN_CHANGE) {
+                plotStates.remove(material);
+                changed |= state.published != 1.0;
+            }
+        }
+
+        if (plotStates.isEmpty()) {
+            states.remove(plotId);
+        }
+
+        // Noch nicht eingeschwungen: im nächsten Intervall weiterrechnen
+        if (pending) {
+            dirtyPlots.putIfAbsent(plotId, plot);
+        }
+
+        if (changed) {
+            publish(plot, plotStates);
+        }
+        return changed;
+    }
+
+    /**
+     * Veröffentlicht den Faktor-Snapshot eines Plots und invalidiert dessen Preise.
+     */
+    private void publish(Plot plot, Map<Material, MaterialState> plotStates) {
+        Map<Material, Double> snapshot = new EnumMap<>(Material.class);
+        plotStates.forEach((material, state) -> snapshot.put(material, state.published));
+
+        if (snapshot.isEmpty()) {
+            factors.remove(plot.getUuid());
+        } else {
+            factors.put(plot.getUuid(), Map.copyOf(snapshot));
+        }
+
+        PlotPriceResolver resolver = priceResolver;
+        if (resolver != null) {
+            resolver.invalidate(plot);
+        }
+    }
+
+    /**
+     * Skaliert einen Preis in Minor Units (NO_PRICE bleibt unverändert).
+     */
+    private static long scale(long minor, double factor) {
+        return minor == PlotPriceData.NO_PRICE ? minor : Math.round(minor * factor);
+    }
+}
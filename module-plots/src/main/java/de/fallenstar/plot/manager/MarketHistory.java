@@ -0,0 +1,585 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.core.economy.Money;
+import org.bukkit.Material;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Preis- und Volumen-Verlauf pro Plot und Material.
+ *
+ * Jeder Handel wird gleichzeitig in drei Ringpuffer fester Größe gebucht
+ * (Minute, Stunde, Tag). Gröbere Auflösungen sind damit fertige Aggregate
+ * der feineren - Statistiken lesen nur wenige Buckets statt Handels-Logs.
+ *
+ * Pro Bucket: Menge, Umsatz (Minor Units), Tiefst- und Höchstpreis.
+ * Der Durchschnittspreis ist volumengewichtet (Umsatz / Menge).
+ *
+ * Features:
+ * - Feste Speichergröße pro Material ({@link Resolution})
+ * - Veraltete Buckets werden beim Überschreiben implizit verworfen
+ * - Group Commit: nur geänderte Plots werden periodisch geschrieben
+ * - Wiederherstellung beim Start über einen Index aller Plots
+ *
+ * **DataStore-Layout** (Namespace "market_history"):
+ * <pre>
+ * index          → IndexData (alle Plot-UUIDs mit Verlauf)
+ * plot_&lt;uuid&gt;    → PlotData (Ringpuffer aller Materialien)
+ * </pre>
+ *
+ * **Verwendung:**
+ * <pre>
+ * history.record(plot.getUuid(), Material.DIAMOND, 4, 2500);
+ * MarketHistory.Summary day = history.summarize(plotId, Material.DIAMOND, Resolution.HOUR, 24);
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Buchungen und Abfragen sind pro Material synchronisiert. Nach einem
+ * Absturz fehlen höchstens die Buchungen seit dem letzten Flush.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class MarketHistory {
+
+    private static final String NAMESPACE = "market_history";
+    private static final String INDEX_KEY = "index";
+    private static final String PLOT_PREFIX = "plot_";
+
+    private final Logger logger;
+
+    /**
+     * Plot-UUID → Material → Verlauf
+     */
+    private final Map<UUID, Map<Material, Series>> plots;
+
+    /**
+     * Plots mit Buchungen seit dem letzten Flush
+     */
+    private final Set<UUID> dirtyPlots;
+
+    private DataStore dataStore;
+    private BukkitTask flushTask;
+    private volatile boolean indexDirty = false;
+
+    /**
+     * Zeitliche Auflösung eines Ringpuffers.
+     */
+    public enum Resolution {
+        MINUTE(60_000L, 60),        // Letzte Stunde
+        HOUR(3_600_000L, 48),       // Letzte 2 Tage
+        DAY(86_400_000L, 30);       // Letzte 30 Tage
+
+        private final long millis;
+        private final int capacity;
+
+        Resolution(long millis, int capacity) {
+            this.millis = millis;
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return Länge eines Buckets in Millisekunden
+         */
+        public long getMillis() {
+            return millis;
+        }
+
+        /**
+         * @return Anzahl Buckets im Ringpuffer
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+    }
+
+    /**
+     * Ein Zeitabschnitt mit Handelsdaten.
+     *
+     * @param start Beginn des Buckets (Epoch-Millis)
+     * @param volume Gehandelte Menge
+     * @param turnover Umsatz in Minor Units
+     * @param low Tiefstpreis pro Stück in Minor Units
+     * @param high Höchstpreis pro Stück in Minor Units
+     */
+    public record Bucket(long start, long volume, long turnover, long low, long high) {
+
+        /**
+         * @return Volumengewichteter Durchschnittspreis pro Stück
+         */
+        public BigDecimal averagePrice() {
+            return average(turnover, volume);
+        }
+    }
+
+    /**
+     * Zusammenfassung eines Zeitraums.
+     *
+     * @param volume Gehandelte Menge
+     * @param turnover Umsatz
+     * @param averagePrice Volumengewichteter Durchschnittspreis (oder null ohne Handel)
+     * @param low Tiefstpreis (oder null ohne Handel)
+     * @param high Höchstpreis (oder null ohne Handel)
+     * @param trendPercent Preisänderung ggü. dem gleich langen Zeitraum davor (oder null)
+     */
+    public record Summary(long volume, BigDecimal turnover, BigDecimal averagePrice,
+                          BigDecimal low, BigDecimal high, Double trendPercent) {
+
+        /**
+         * @return true wenn im Zeitraum gehandelt wurde
+         */
+        public boolean hasTrades() {
+            return volume > 0;
+        }
+    }
+
+    /**
+     * Ringpuffer einer Auflösung (parallele Arrays, Slot = Bucket-Nummer mod Kapazität).
+     */
+    private static final class Ring {
+        private final Resolution resolution;
+        private final long[] keys;
+        private final long[] volume;
+        private final long[] turnover;
+        private final long[] low;
+        private final long[] high;
+
+        Ring(Resolution resolution) {
+            int capacity = resolution.getCapacity();
+            this.resolution = resolution;
+            this.keys = new long[capacity];
+            this.volume = new long[capacity];
+            this.turnover = new long[capacity];
+            this.low = new long[capacity];
+            this.high = new long[capacity];
+            Arrays.fill(keys, -1L);
+        }
+
+        void add(long timestamp, long amount, long unitPrice) {
+            long key = timestamp / resolution.getMillis();
+            int slot = (int) (key % keys.length);
+
+            if (keys[slot] != key) {
+                if (keys[slot] > key) {
+                    return; // Älter als der Ringpuffer
+                }
+                keys[slot] = key;
+                volume[slot] = 0;
+                turnover[slot] = 0;
+                low[slot] = unitPrice;
+                high[slot] = unitPrice;
+            }
+
+            volume[slot] += amount;
+            turnover[slot] += amount * unitPrice;
+            low[slot] = Math.min(low[slot], unitPrice);
+            high[slot] = Math.max(high[slot], unitPrice);
+        }
+
+        /**
+         * Gibt die belegten Buckets der letzten count Abschnitte zurück (älteste zuerst).
+         */
+        List<Bucket> buckets(long now, int count) {
+            long newest = now / resolution.getMillis();
+            long oldest = newest - Math.min(count, keys.length) + 1;
+
+            List<Bucket> result = new ArrayList<>();
+            for (long key = oldest; key <= newest; key++) {
+                int slot = (int) (key % keys.length);
+                if (key >= 0 && keys[slot] == key) {
+                    result.add(new Bucket(key * resolution.getMillis(), volume[slot], turnover[slot], low[slot], high[slot]));
+                }
+            }
+            return result;
+        }
+
+        RingData toData() {
+            RingData data = new RingData();
+            data.keys = keys.clone();
+            data.volume = volume.clone();
+            data.turnover = turnover.clone();
+            data.low = low.clone();
+            data.high = high.clone();
+            return data;
+        }
+
+        void restore(RingData data) {
+            if (data == null || data.keys == null || data.keys.length != keys.length) {
+                return; // Kapazität geändert → Verlauf dieser Auflösung verwerfen
+            }
+            System.arraycopy(data.keys, 0, keys, 0, keys.length);
+            System.arraycopy(data.volume, 0, volume, 0, keys.length);
+            System.arraycopy(data.turnover, 0, turnover, 0, keys.length);
+            System.arraycopy(data.low, 0, low, 0, keys.length);
+            System.arraycopy(data.high, 0, high, 0, keys.length);
+        }
+    }
+
+    /**
+     * Verlauf eines Materials (alle Auflösungen).
+     */
+    private static final class Series {
+        private final Map<Resolution, Ring> rings = new EnumMap<>(Resolution.class);
+
+        Series() {
+            for (Resolution resolution : Resolution.values()) {
+                rings.put(resolution, new Ring(resolution));
+            }
+        }
+
+        synchronized void add(long timestamp, long amount, long unitPrice) {
+            for (Ring ring : rings.values()) {
+                ring.add(timestamp, amount, unitPrice);
+            }
+        }
+
+        synchronized List<Bucket> buckets(Resolution resolution, long now, int count) {
+            return rings.get(resolution).buckets(now, count);
+        }
+
+        synchronized Map<String, RingData> toData() {
+            Map<String, RingData> data = new HashMap<>();
+            rings.forEach((resolution, ring) -> data.put(resolution.name(), ring.toData()));
+            return data;
+        }
+
+        synchronized void restore(Map<String, RingData> data) {
+            rings.forEach((resolution, ring) -> ring.restore(data.get(resolution.name())));
+        }
+    }
+
+    /**
+     * Persistierter Ringpuffer.
+     */
+    public static class RingData {
+        public long[] keys;
+        public long[] volume;
+        public long[] turnover;
+        public long[] low;
+        public long[] high;
+
+        public RingData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Persistierter Verlauf eines Plots (Material → Auflösung → Ringpuffer).
+     */
+    public static class PlotData {
+        public Map<String, Map<String, RingData>> materials = new HashMap<>();
+
+        public PlotData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Persistierter Index aller Plots mit Verlauf.
+     */
+    public static class IndexData {
+        public List<String> plots = new ArrayList<>();
+
+        public IndexData() {
+            // Gson
+        }
+    }
+
+    /**
+     * Konstruktor für MarketHistory.
+     *
+     * @param logger Logger
+     */
+    public MarketHistory(Logger logger) {
+        this.logger = logger;
+        this.plots = new ConcurrentHashMap<>();
+        this.dirtyPlots = ConcurrentHashMap.newKeySet();
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Stellt den Verlauf aus dem DataStore wieder her und startet den Flush-Task.
+     *
+     * @param plugin Plugin für Scheduler
+     * @param dataStore DataStore (null = nur In-Memory)
+     * @param flushIntervalTicks Intervall zwischen Flushes
+     */
+    public void start(Plugin plugin, DataStore dataStore, long flushIntervalTicks) {
+        stop();
+        this.dataStore = dataStore;
+        restore();
+
+        if (dataStore != null) {
+            long interval = Math.max(20L, flushIntervalTicks);
+            flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush, interval, interval);
+        }
+    }
+
+    /**
+     * Stoppt den Flush-Task und schreibt alle offenen Änderungen.
+     *
+     * Synchron - für onDisable gedacht.
+     */
+    public void shutdown() {
+        stop();
+        flush();
+    }
+
+    /**
+     * Stoppt den Flush-Task.
+     */
+    private void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+    }
+
+    // ==================== Buchen ====================
+
+    /**
+     * Bucht einen Handel zum aktuellen Zeitpunkt.
+     *
+     * @param plotId Plot-UUID
+     * @param material Gehandeltes Material
+     * @param amount Menge
+     * @param unitPrice Preis pro Stück in Minor Units
+     */
+    public void record(UUID plotId, Material material, int amount, long unitPrice) {
+        record(plotId, material, amount, unitPrice, System.currentTimeMillis());
+    }
+
+    /**
+     * Bucht einen Handel zu einem Zeitpunkt.
+     *
+     * @param plotId Plot-UUID
+     * @param material Gehandeltes Material
+     * @param amount Menge
+     * @param unitPrice Preis pro Stück in Minor Units
+     * @param timestamp Zeitpunkt (Epoch-Millis)
+     */
+    public void record(UUID plotId, Material material, int amount, long unitPrice, long timestamp) {
+        if (amount <= 0 || unitPrice < 0) {
+            return;
+        }
+
+        Map<Material, Series> series = plots.computeIfAbsent(plotId, id -> {
+            indexDirty = true;
+            return new ConcurrentHashMap<>();
+        });
+        series.computeIfAbsent(material, m -> new Series()).add(timestamp, amount, unitPrice);
+        dirtyPlots.add(plotId);
+    }
+
+    // ==================== Abfragen ====================
+
+    /**
+     * Gibt alle Materialien mit Verlauf auf einem Plot zurück.
+     *
+     * @param plotId Plot-UUID
+     * @return Materialien (leer wenn kein Verlauf)
+     */
+    public Set<Material> getMaterials(UUID plotId) {
+        Map<Material, Series> series = plots.get(plotId);
+        return series == null || series.isEmpty() ? Set.of() : EnumSet.copyOf(series.keySet());
+    }
+
+    /**
+     * Gibt die belegten Buckets der letzten count Abschnitte zurück.
+     *
+     * @param plotId Plot-UUID
+     * @param material Material
+     * @param resolution Auflösung
+     * @param count Anzahl Abschnitte (max. Kapazität der Auflösung)
+     * @param now Bezugszeitpunkt (Epoch-Millis)
+     * @return Buckets, älteste zuerst (Abschnitte ohne Handel fehlen)
+     */
+    public List<Bucket> getBuckets(UUID plotId, Material material, Resolution resolution, int count, long now) {
+        Series series = series(plotId, material).orElse(null);
+        return series != null ? series.buckets(resolution, now, count) : Collections.emptyList();
+    }
+
+    /**
+     * Fasst die letzten count Abschnitte zusammen (inkl. Trend ggü. den count davor).
+     *
+     * @param plotId Plot-UUID
+     * @param material Material
+     * @param resolution Auflösung
+     * @param count Anzahl Abschnitte
+     * @return Summary
+     */
+    public Summary summarize(UUID plotId, Material material, Resolution resolution, int count) {
+        return summarize(plotId, material, resolution, count, System.currentTimeMillis());
+    }
+
+    /**
+     * Fasst die letzten count Abschnitte bis now zusammen.
+     *
+     * Der Trend vergleicht die Durchschnittspreise mit den count Abschnitten davor,
+     * soweit diese noch im Ringpuffer liegen.
+     *
+     * @param plotId Plot-UUID
+     * @param material Material
+     * @param resolution Auflösung
+     * @param count Anzahl Abschnitte
+     * @param now Bezugszeitpunkt (Epoch-Millis)
+     * @return Summary
+     */
+    public Summary summarize(UUID plotId, Material material, Resolution resolution, int count, long now) {
+        List<Bucket> buckets = getBuckets(plotId, material, resolution, count * 2, now);
+        long boundary = (now / resolution.getMillis() - count + 1) * resolution.getMillis();
+
+        long volume = 0, turnover = 0, low = Long.MAX_VALUE, high = Long.MIN_VALUE;
+        long previousVolume = 0, previousTurnover = 0;
+
+        for (Bucket bucket : buckets) {
+            if (bucket.start() >= boundary) {
+                volume += bucket.volume();
+                turnover += bucket.turnover();
+                low = Math.min(low, bucket.low());
+                high = Math.max(high, bucket.high());
+            } else {
+                previousVolume += bucket.volume();
+                previousTurnover += bucket.turnover();
+            }
+        }
+
+        if (volume == 0) {
+            return new Summary(0, BigDecimal.ZERO.setScale(Money.SCALE), null, null, null, null);
+        }
+
+        BigDecimal average = average(turnover, volume);
+        Double trend = null;
+        if (previousVolume > 0) {
+            BigDecimal previous = average(previousTurnover, previousVolume);
+            if (previous.signum() > 0) {
+                trend = average.subtract(previous).doubleValue() / previous.doubleValue() * 100.0;
+            }
+        }
+
+        return new Summary(volume, BigDecimal.valueOf(turnover, Money.SCALE), average,
+                BigDecimal.valueOf(low, Money.SCALE), BigDecimal.valueOf(high, Money.SCALE), trend);
+    }
+
+    /**
+     * Gibt die Anzahl der Plots mit Verlauf zurück.
+     *
+     * @return Anzahl
+     */
+    public int getPlotCount() {
+        return plots.size();
+    }
+
+    private Optional<Series> series(UUID plotId, Material material) {
+        Map<Material, Series> series = plots.get(plotId);
+        return series != null ? Optional.ofNullable(series.get(material)) : Optional.empty();
+    }
+
+    /**
+     * Volumengewichteter Durchschnitt (Minor Units → Preis).
+     */
+    private static BigDecimal average(long turnover, long volume) {
+        if (volume <= 0) {
+            return BigDecimal.ZERO.setScale(Money.SCALE);
+        }
+        return BigDecimal.valueOf(turnover, Money.SCALE)
+                .divide(BigDecimal.valueOf(volume), Money.SCALE, RoundingMode.HALF_UP);
+    }
+
+    // ==================== Persistierung ====================
+
+    /**
+     * Lädt alle Plots aus dem Index.
+     */
+    private void restore() {
+        if (dataStore == null) {
+            return;
+        }
+
+        try {
+            Optional<IndexData> index = dataStore.loadSync(NAMESPACE, INDEX_KEY, IndexData.class);
+            if (index.isEmpty()) {
+                return;
+            }
+
+            int restored = 0;
+            for (String plotKey : index.get().plots) {
+                UUID plotId = UUID.fromString(plotKey);
+                Optional<PlotData> data = dataStore.loadSync(NAMESPACE, PLOT_PREFIX + plotKey, PlotData.class);
+                if (data.isEmpty()) {
+                    continue;
+                }
+
+                Map<Material, Series> series = plots.computeIfAbsent(plotId, id -> new ConcurrentHashMap<>());
+                data.get().materials.forEach((materialName, rings) -> {
+                    Material material = Material.matchMaterial(materialName);
+                    if (material != null) {
+                        series.computeIfAbsent(material, m -> new Series()).restore(rings);
+                    }
+                });
+                restored++;
+            }
+            logger.info("✓ Markt-Verlauf wiederhergestellt (" + restored + " Plots)");
+
+        } catch (Exception e) {
+            logger.warning("✗ Markt-Verlauf konnte nicht geladen werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Schreibt alle geänderten Plots (und ggf. den Index) in den DataStore.
+     */
+    synchronized void flush() {
+        if (dataStore == null) {
+            return;
+        }
+
+        if (indexDirty) {
+            indexDirty = false;
+            IndexData index = new IndexData();
+            plots.keySet().forEach(plotId -> index.plots.add(plotId.toString()));
+            if (!dataStore.saveSync(NAMESPACE, INDEX_KEY, index)) {
+                indexDirty = true;
+                logger.warning("Markt-Verlauf: Index nicht geschrieben");
+            }
+        }
+
+        int written = 0;
+        for (UUID plotId : List.copyOf(dirtyPlots)) {
+            dirtyPlots.remove(plotId);
+
+            PlotData data = new PlotData();
+            plots.getOrDefault(plotId, Map.of())
+                    .forEach((material, series) -> data.materials.put(material.name(), series.toData()));
+
+            if (dataStore.saveSync(NAMESPACE, PLOT_PREFIX + plotId, data)) {
+                written++;
+            } else {
+                dirtyPlots.add(plotId);
+                logger.warning("Markt-Verlauf: Plot " + plotId + " nicht geschrieben");
+            }
+        }
+
+        if (written > 0) {
+            logger.fine("Market history flushed for " + written + " plots");
+        }
+    }
+}
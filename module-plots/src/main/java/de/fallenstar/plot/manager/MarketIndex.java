@@ -0,0 +1,395 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.core.provider.PriceResolutionProvider;
+import de.fallenstar.plot.storage.model.PlotStorage;
+import de.fallenstar.plot.storage.provider.PlotStorageProvider;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.logging.Logger;
+
+/**
+ * Plot-übergreifender Suchindex für Markt-Angebote.
+ *
+ * Invertierter Index: Material → nach Preis sortierte Angebote
+ * (Plot, Verkaufspreis, Bestand). Beantwortet "wer verkauft X am
+ * günstigsten" ohne über Plots, Truhen oder Preis-Ebenen zu iterieren.
+ *
+ * Features:
+ * - Günstigste Angebote: O(log n + k) über ConcurrentSkipListSet
+ * - Nächste Angebote: nur über die Angebote des Materials (O(n log k))
+ * - Inkrementell: nur geänderte Plots werden neu indiziert
+ *   (Storage-Änderung via Change-Listener, Preis-Änderung via PlotPriceResolver)
+ *
+ * **Verwendung:**
+ * <pre>
+ * List&lt;MarketIndex.Listing&gt; cheapest = marketIndex.findCheapest(Material.DIAMOND, 5);
+ * List&lt;MarketIndex.Listing&gt; nearest = marketIndex.findNearest(Material.DIAMOND, player.getLocation(), 3);
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Änderungen werden gesammelt und einmal pro Sekunde in einem Async-Task
+ * übernommen. Die Preis-Auflösung liest die Town eines Plots dabei aus dem
+ * Snapshot des PlotLookupService (kein Towny-Zugriff). Abfragen sind von
+ * jedem Thread möglich und sehen einen höchstens eine Sekunde alten Stand.
+ *
+ * @author FallenStar
+ * @version 1.1
+ */
+public class MarketIndex {
+
+    private static final long REFRESH_TICKS = 20L;
+
+    /**
+     * Sortierung: Preis aufsteigend, dann Plot (eindeutig pro Material).
+     */
+    private static final Comparator<Listing> BY_PRICE = Comparator
+            .comparingLong(Listing::price)
+            .thenComparing(Listing::plotId);
+
+    private final PlotStorageProvider storageProvider;
+    private final PriceResolutionProvider priceResolver;
+    private final Logger logger;
+
+    /**
+     * Material → Angebote (nach Preis sortiert)
+     */
+    private final Map<Material, NavigableSet<Listing>> byMaterial;
+
+    /**
+     * Plot-UUID → Material → aktuelles Angebot (zum Entfernen/Ersetzen)
+     */
+    private final Map<UUID, Map<Material, Listing>> byPlot;
+
+    /**
+     * Plot-UUID → Plot mit ausstehender Neu-Indizierung
+     */
+    private final Map<UUID, Plot> dirtyPlots;
+
+    private volatile boolean allDirty = false;
+    private BukkitTask refreshTask;
+
+    /**
+     * Ein Angebot eines Plots.
+     *
+     * @param plotId Plot-UUID
+     * @param plotIdentifier Plot-Identifier (Anzeige)
+     * @param worldName Welt des Plots (oder null)
+     * @param x X-Koordinate des Plots
+     * @param z Z-Koordinate des Plots
+     * @param material Material
+     * @param price Verkaufspreis pro Stück in Minor Units
+     * @param stock Bestand
+     */
+    public record Listing(UUID plotId, String plotIdentifier, String worldName, double x, double z,
+                          Material material, long price, int stock) {
+
+        /**
+         * @return Verkaufspreis pro Stück
+         */
+        public BigDecimal getPrice() {
+            return BigDecimal.valueOf(price, Money.SCALE);
+        }
+
+        /**
+         * Berechnet die quadrierte horizontale Distanz zu einer Position.
+         *
+         * @param location Position
+         * @return Quadrierte Distanz oder Double.MAX_VALUE bei anderer Welt
+         */
+        public double distanceSquared(Location location) {
+            if (worldName == null || location.getWorld() == null
+                    || !worldName.equals(location.getWorld().getName())) {
+                return Double.MAX_VALUE;
+            }
+            double dx = x - location.getX();
+            double dz = z - location.getZ();
+            return dx * dx + dz * dz;
+        }
+    }
+
+    /**
+     * Erstellt einen neuen MarketIndex.
+     *
+     * @param storageProvider PlotStorageProvider (Bestände)
+     * @param priceResolver Preis-Auflösung (effektive Verkaufspreise)
+     * @param logger Logger
+     */
+    public MarketIndex(PlotStorageProvider storageProvider, PriceResolutionProvider priceResolver, Logger logger) {
+        this.storageProvider = Objects.requireNonNull(storageProvider, "storageProvider cannot be null");
+        this.priceResolver = Objects.requireNonNull(priceResolver, "priceResolver cannot be null");
+        this.logger = Objects.requireNonNull(logger, "logger cannot be null");
+        this.byMaterial = new ConcurrentHashMap<>();
+        this.byPlot = new ConcurrentHashMap<>();
+        this.dirtyPlots = new ConcurrentHashMap<>();
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Indiziert alle bekannten Plots und startet den Refresh-Task.
+     *
+     * MUSS auf dem Main-Thread aufgerufen werden.
+     *
+     * @param plugin Plugin für Scheduler
+     */
+    public void start(Plugin plugin) {
+        stop();
+        markAllDirty();
+        refresh();
+
+        refreshTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin, this::refresh, REFRESH_TICKS, REFRESH_TICKS);
+    }
+
+    /**
+     * Stoppt den Refresh-Task.
+     */
+    public void stop() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+    }
+
+    // ==================== Signale (beliebiger Thread) ====================
+
+    /**
+     * Merkt einen Plot nach einer Bestandsänderung vor.
+     *
+     * Passt als Change-Listener für {@link PlotStorageProvider#addChangeListener}.
+     *
+     * @param storage Geänderter PlotStorage
+     */
+    public void markDirty(PlotStorage storage) {
+        markDirty(storage.getPlot());
+    }
+
+    /**
+     * Merkt einen Plot nach einer Preis-Änderung vor.
+     *
+     * @param plot Das Grundstück
+     */
+    public void markDirty(Plot plot) {
+        dirtyPlots.put(plot.getUuid(), plot);
+    }
+
+    /**
+     * Merkt alle Plots vor (z.B. nach Änderung von Town- oder Basispreisen).
+     */
+    public void markAllDirty() {
+        allDirty = true;
+    }
+
+    // ==================== Abfragen (beliebiger Thread) ====================
+
+    /**
+     * Gibt die günstigsten Angebote eines Materials zurück.
+     *
+     * @param material Material
+     * @param limit Maximale Anzahl
+     * @return Angebote, günstigstes zuerst
+     */
+    public List<Listing> findCheapest(Material material, int limit) {
+        NavigableSet<Listing> listings = byMaterial.get(material);
+        if (listings == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Listing> result = new ArrayList<>(Math.min(limit, 16));
+        for (Listing listing : listings) {
+            result.add(listing);
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gibt die nächstgelegenen Angebote eines Materials zurück.
+     *
+     * @param material Material
+     * @param location Bezugsposition
+     * @param limit Maximale Anzahl
+     * @return Angebote, nächstes zuerst (andere Welten zuletzt)
+     */
+    public List<Listing> findNearest(Material material, Location location, int limit) {
+        NavigableSet<Listing> listings = byMaterial.get(material);
+        if (listings == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Max-Heap der besten k: das entfernteste liegt oben und wird verdrängt
+        Comparator<Listing> byDistance = Comparator.comparingDouble(listing -> listing.distanceSquared(location));
+        PriorityQueue<Listing> nearest = new PriorityQueue<>(limit + 1, byDistance.reversed());
+        for (Listing listing : listings) {
+            nearest.add(listing);
+            if (nearest.size() > limit) {
+                nearest.poll();
+            }
+        }
+
+        List<Listing> result = new ArrayList<>(nearest);
+        result.sort(byDistance);
+        return result;
+    }
+
+    /**
+     * Gibt alle Angebote eines Plots zurück.
+     *
+     * @param plotId Plot-UUID
+     * @return Angebote nach Material sortiert
+     */
+    public List<Listing> getListings(UUID plotId) {
+        Map<Material, Listing> listings = byPlot.get(plotId);
+        if (listings == null) {
+            return Collections.emptyList();
+        }
+        List<Listing> result = new ArrayList<>(listings.values());
+        result.sort(Comparator.comparing(Listing::material));
+        return result;
+    }
+
+    /**
+     * Gibt alle Materialien mit mindestens einem Angebot zurück.
+     *
+     * @return Materialien
+     */
+    public Set<Material> getMaterials() {
+        Set<Material> materials = EnumSet.noneOf(Material.class);
+        byMaterial.forEach((material, listings) -> {
+            if (!listings.isEmpty()) {
+                materials.add(material);
+            }
+        });
+        return materials;
+    }
+
+    /**
+     * Gibt die Anzahl aller Angebote zurück.
+     *
+     * @return Anzahl
+     */
+    public int getListingCount() {
+        return byPlot.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // ==================== Indizierung (Async-Task) ====================
+
+    /**
+     * Übernimmt alle vorgemerkten Änderungen.
+     *
+     * Läuft im Async-Task; synchronisiert, falls ein Durchlauf länger als das Intervall dauert.
+     *
+     * @return Anzahl neu indizierter Plots
+     */
+    synchronized int refresh() {
+        if (allDirty) {
+            allDirty = false;
+            for (PlotStorage storage : storageProvider.getAllPlotStorages()) {
+                markDirty(storage.getPlot());
+            }
+        }
+        if (dirtyPlots.isEmpty()) {
+            return 0;
+        }
+
+        int indexed = 0;
+        for (UUID plotId : List.copyOf(dirtyPlots.keySet())) {
+            Plot plot = dirtyPlots.remove(plotId);
+            if (plot == null) {
+                continue;
+            }
+
+            try {
+                reindex(plot);
+                indexed++;
+            } catch (RuntimeException e) {
+                logger.warning("✗ Markt-Index für Plot " + plotId + " fehlgeschlagen: " + e.getMessage());
+            }
+        }
+
+        logger.fine("Market index refreshed for " + indexed + " plots");
+        return indexed;
+    }
+
+    /**
+     * Ersetzt alle Angebote eines Plots.
+     */
+    private void reindex(Plot plot) {
+        UUID plotId = plot.getUuid();
+        Map<Material, Listing> previous = byPlot.getOrDefault(plotId, Map.of());
+        Map<Material, Listing> current = new EnumMap<>(Material.class);
+
+        PlotStorage storage = storageProvider.getPlotStorage(plot);
+        Location location = plot.getLocation();
+        String worldName = location != null && location.getWorld() != null ? location.getWorld().getName() : null;
+        double x = location != null ? location.getX() : 0;
+        double z = location != null ? location.getZ() : 0;
+
+        for (Material material : storage.getAllMaterials()) {
+            int stock = storage.getTotalAmount(material);
+            long price = sellPrice(plot, material);
+            if (stock > 0 && price >= 0) {
+                current.put(material, new Listing(plotId, plot.getIdentifier(), worldName, x, z, material, price, stock));
+            }
+        }
+
+        // Geänderte und entfernte Angebote austragen, dann neue eintragen
+        previous.forEach((material, listing) -> {
+            if (!listing.equals(current.get(material))) {
+                NavigableSet<Listing> listings = byMaterial.get(material);
+                if (listings != null) {
+                    listings.remove(listing);
+                }
+            }
+        });
+        current.forEach((material, listing) -> {
+            if (!listing.equals(previous.get(material))) {
+                byMaterial.computeIfAbsent(material, m -> new ConcurrentSkipListSet<>(BY_PRICE)).add(listing);
+            }
+        });
+
+        if (current.isEmpty()) {
+            byPlot.remove(plotId);
+        } else {
+            byPlot.put(plotId, current);
+        }
+    }
+
+    /**
+     * Gibt den effektiven Verkaufspreis in Minor Units zurück.
+     *
+     * @return Preis oder -1 wenn kein Preis gesetzt
+     */
+    private long sellPrice(Plot plot, Material material) {
+        try {
+            Optional<BigDecimal> price = priceResolver.getSellPrice(plot, material);
+            return price.map(value -> Money.fromBigDecimal(value, Money.BASE_CURRENCY_ID).minorUnits()).orElse(-1L);
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return -1L;
+        }
+    }
+}
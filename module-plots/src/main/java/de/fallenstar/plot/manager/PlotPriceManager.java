@@ -9,7 +9,10 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.Plugin;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -28,8 +31,23 @@ import java.util.logging.Logger;
  *
  * // Preis abrufen
  * Optional<BigDecimal> buyPrice = manager.getBuyPrice(plot, Material.DIAMOND);
+ *
+ * // Town-Standardpreis (gilt für alle Plots der Town ohne eigenen Preis)
+ * manager.setTownSellPrice("Sternfurt", Material.DIAMOND, BigDecimal.valueOf(80));
+ *
+ * // Viele Preise auf einmal (atomar, eine Invalidierung)
+ * manager.applyPrices(plot, Map.of(Material.DIAMOND, new PriceUpdate(buy, sell)), false);
  * ```
  *
+ * **Konsistenz:**
+ * Die Plot-Map ist eine ConcurrentHashMap; Preise werden pro Plot in einem
+ * dichten Festkomma-Array gehalten ({@link PlotPriceData}). Lesen ist lock-frei
+ * von jedem Thread möglich (z.B. Trade-Events), Schreiben ist pro Plot atomar.
+ * Jede Änderung invalidiert den {@link PlotPriceResolver}-Cache (Plot-Preise
+ * nur für das Plot, Town-Preise komplett). Batch-Änderungen arbeiten auf einer
+ * Kopie und ersetzen die Preise des Plots in einem Schritt (Copy-on-Write):
+ * Leser sehen entweder den alten oder den kompletten neuen Stand.
+ *
  * **Config-Persistierung:**
  * ```yaml
  * plot-prices:
@@ -37,10 +55,14 @@ import java.util.logging.Logger;
  *     DIAMOND:
  *       buy: 50.0
  *       sell: 75.0
+ * town-prices:
+ *   Sternfurt:
+ *     DIAMOND:
+ *       sell: 80.0
  * ```
  *
  * @author FallenStar
- * @version 1.0
+ * @version 1.3
  */
 public class PlotPriceManager implements ItemBasePriceProvider {
 
@@ -52,6 +74,22 @@ public class PlotPriceManager implements ItemBasePriceProvider {
      */
     private final Map<UUID, PlotPriceData> plotPrices;
 
+    /**
+     * Town-Name → Standardpreise der Town
+     */
+    private final Map<String, PlotPriceData> townPrices;
+
+    private PlotPriceResolver priceResolver;
+
+    /**
+     * Preisänderung für ein Material in einem Batch.
+     *
+     * @param buyPrice Neuer Ankaufpreis (null = entfernen)
+     * @param sellPrice Neuer Verkaufspreis (null = entfernen)
+     */
+    public record PriceUpdate(BigDecimal buyPrice, BigDecimal sellPrice) {
+    }
+
     /**
      * Erstellt einen neuen PlotPriceManager.
      *
@@ -61,7 +99,17 @@ public class PlotPriceManager implements ItemBasePriceProvider {
     public PlotPriceManager(Plugin plugin, Logger logger) {
         this.plugin = Objects.requireNonNull(plugin, "plugin cannot be null");
         this.logger = Objects.requireNonNull(logger, "logger cannot be null");
-        this.plotPrices = new HashMap<>();
+        this.plotPrices = new ConcurrentHashMap<>();
+        this.townPrices = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Setzt den PlotPriceResolver (Dependency Injection).
+     *
+     * @param priceResolver PlotPriceResolver-Instanz
+     */
+    public void setPriceResolver(PlotPriceResolver priceResolver) {
+        this.priceResolver = priceResolver;
     }
 
     // ==================== ItemBasePriceProvider Interface ====================
@@ -89,14 +137,20 @@ public class PlotPriceManager implements ItemBasePriceProvider {
         Objects.requireNonNull(plot, "plot cannot be null");
         Objects.requireNonNull(material, "material cannot be null");
 
-        PlotPriceData data = plotPrices.computeIfAbsent(plot.getUuid(), PlotPriceData::new);
-        data.setBuyPrice(material, price);
+        plotPrices.compute(plot.getUuid(), (plotId, data) -> {
+            if (data == null) {
+                if (price == null) {
+                    return null;
+                }
+                data = new PlotPriceData(plotId);
+            }
+            data.setBuyPrice(material, price);
 
-        // Wenn Plot keine Preise mehr hat, entferne Eintrag
-        if (data.isEmpty()) {
-            plotPrices.remove(plot.getUuid());
-        }
+            // Wenn Plot keine Preise mehr hat, entferne Eintrag
+            return data.isEmpty() ? null : data;
+        });
 
+        invalidate(plot);
         logger.fine("Set buy price for " + material + " on plot " + plot.getUuid() + ": " + price);
     }
 
@@ -105,14 +159,20 @@ public class PlotPriceManager implements ItemBasePriceProvider {
         Objects.requireNonNull(plot, "plot cannot be null");
         Objects.requireNonNull(material, "material cannot be null");
 
-        PlotPriceData data = plotPrices.computeIfAbsent(plot.getUuid(), PlotPriceData::new);
-        data.setSellPrice(material, price);
+        plotPrices.compute(plot.getUuid(), (plotId, data) -> {
+            if (data == null) {
+                if (price == null) {
+                    return null;
+                }
+                data = new PlotPriceData(plotId);
+            }
+            data.setSellPrice(material, price);
 
-        // Wenn Plot keine Preise mehr hat, entferne Eintrag
-        if (data.isEmpty()) {
-            plotPrices.remove(plot.getUuid());
-        }
+            // Wenn Plot keine Preise mehr hat, entferne Eintrag
+            return data.isEmpty() ? null : data;
+        });
 
+        invalidate(plot);
         logger.fine("Set sell price for " + material + " on plot " + plot.getUuid() + ": " + price);
     }
 
@@ -130,17 +190,15 @@ public class PlotPriceManager implements ItemBasePriceProvider {
         Objects.requireNonNull(plot, "plot cannot be null");
         Objects.requireNonNull(material, "material cannot be null");
 
-        PlotPriceData data = plotPrices.get(plot.getUuid());
-        if (data != null) {
+        plotPrices.computeIfPresent(plot.getUuid(), (plotId, data) -> {
             data.removePrices(material);
 
             // Wenn Plot keine Preise mehr hat, entferne Eintrag
-            if (data.isEmpty()) {
-                plotPrices.remove(plot.getUuid());
-            }
+            return data.isEmpty() ? null : data;
+        });
 
-            logger.fine("Removed prices for " + material + " on plot " + plot.getUuid());
-        }
+        invalidate(plot);
+        logger.fine("Removed prices for " + material + " on plot " + plot.getUuid());
     }
 
     @Override
@@ -183,9 +241,36 @@ public class PlotPriceManager implements ItemBasePriceProvider {
         Objects.requireNonNull(plot, "plot cannot be null");
 
         plotPrices.remove(plot.getUuid());
+        invalidate(plot);
         logger.info("Cleared all prices for plot " + plot.getUuid());
     }
 
+    /**
+     * Wendet viele Preisänderungen auf ein Plot atomar an.
+     *
+     * Alle Änderungen werden auf einer Kopie der Plot-Preise ausgeführt und
+     * danach in einem Schritt übernommen; schlägt eine Änderung fehl (z.B.
+     * Preis passt nicht in Minor Units), bleibt der alte Stand erhalten.
+     * Der Resolver wird genau einmal invalidiert.
+     *
+     * @param plot Das Plot
+     * @param updates Material → neue Preise
+     * @param replace true = alle nicht enthaltenen Preise des Plots entfernen
+     * @return Anzahl Materialien mit Preisen nach der Änderung
+     * @throws ArithmeticException wenn ein Preis nicht in Minor Units passt (nichts geändert)
+     */
+    public int applyPrices(Plot plot, Map<Material, PriceUpdate> updates, boolean replace) {
+        Objects.requireNonNull(plot, "plot cannot be null");
+        Objects.requireNonNull(updates, "updates cannot be null");
+
+        PlotPriceData result = plotPrices.compute(plot.getUuid(),
+                (plotId, data) -> applyBatch(plotId, data, updates, replace));
+
+        invalidate(plot);
+        logger.fine("Applied " + updates.size() + " price updates on plot " + plot.getUuid());
+        return result != null ? result.size() : 0;
+    }
+
     /**
      * Gibt die Anzahl der Plots mit Preisen zurück.
      *
@@ -195,6 +280,127 @@ public class PlotPriceManager implements ItemBasePriceProvider {
         return plotPrices.size();
     }
 
+    // ==================== Town-Standardpreise ====================
+
+    /**
+     * Setzt den Standard-Ankaufpreis einer Town.
+     *
+     * @param townName Name der Town
+     * @param material Das Material
+     * @param price Der Preis (null zum Entfernen)
+     */
+    public void setTownBuyPrice(String townName, Material material, BigDecimal price) {
+        updateTownPrice(townName, material, data -> data.setBuyPrice(material, price));
+        logger.fine("Set town buy price for " + material + " in " + townName + ": " + price);
+    }
+
+    /**
+     * Setzt den Standard-Verkaufspreis einer Town.
+     *
+     * @param townName Name der Town
+     * @param material Das Material
+     * @param price Der Preis (null zum Entfernen)
+     */
+    public void setTownSellPrice(String townName, Material material, BigDecimal price) {
+        updateTownPrice(townName, material, data -> data.setSellPrice(material, price));
+        logger.fine("Set town sell price for " + material + " in " + townName + ": " + price);
+    }
+
+    /**
+     * Wendet viele Standardpreis-Änderungen auf eine Town atomar an.
+     *
+     * @param townName Name der Town
+     * @param updates Material → neue Preise
+     * @param replace true = alle nicht enthaltenen Preise der Town entfernen
+     * @return Anzahl Materialien mit Preisen nach der Änderung
+     * @throws ArithmeticException wenn ein Preis nicht in Minor Units passt (nichts geändert)
+     * @see #applyPrices(Plot, Map, boolean)
+     */
+    public int applyTownPrices(String townName, Map<Material, PriceUpdate> updates, boolean replace) {
+        Objects.requireNonNull(townName, "townName cannot be null");
+        Objects.requireNonNull(updates, "updates cannot be null");
+
+        PlotPriceData result = townPrices.compute(townName,
+                (name, data) -> applyBatch(townId(name), data, updates, replace));
+
+        if (priceResolver != null) {
+            priceResolver.invalidateAll();
+        }
+        logger.fine("Applied " + updates.size() + " town price updates in " + townName);
+        return result != null ? result.size() : 0;
+    }
+
+    /**
+     * Gibt die Standardpreise einer Town zurück.
+     *
+     * @param townName Name der Town
+     * @return PlotPriceData der Town oder Empty
+     */
+    public Optional<PlotPriceData> getTownPriceData(String townName) {
+        Objects.requireNonNull(townName, "townName cannot be null");
+        return Optional.ofNullable(townPrices.get(townName));
+    }
+
+    /**
+     * Gibt die Anzahl der Towns mit Standardpreisen zurück.
+     *
+     * @return Anzahl
+     */
+    public int getTownCount() {
+        return townPrices.size();
+    }
+
+    /**
+     * Ändert die Standardpreise einer Town atomar und invalidiert den Resolver.
+     */
+    private void updateTownPrice(String townName, Material material,
+                                 Consumer<PlotPriceData> update) {
+        Objects.requireNonNull(townName, "townName cannot be null");
+        Objects.requireNonNull(material, "material cannot be null");
+
+        townPrices.compute(townName, (name, data) -> {
+            if (data == null) {
+                data = new PlotPriceData(townId(name));
+            }
+            update.accept(data);
+            return data.isEmpty() ? null : data;
+        });
+
+        // Town-Preise betreffen alle Plots der Town
+        if (priceResolver != null) {
+            priceResolver.invalidateAll();
+        }
+    }
+
+    /**
+     * Baut den neuen Preis-Stand eines Batches auf einer Kopie auf.
+     */
+    private static PlotPriceData applyBatch(UUID id, PlotPriceData current,
+                                            Map<Material, PriceUpdate> updates, boolean replace) {
+        PlotPriceData next = current == null || replace ? new PlotPriceData(id) : current.copy();
+        for (Map.Entry<Material, PriceUpdate> entry : updates.entrySet()) {
+            next.setBuyPrice(entry.getKey(), entry.getValue().buyPrice());
+            next.setSellPrice(entry.getKey(), entry.getValue().sellPrice());
+        }
+        return next.isEmpty() ? null : next;
+    }
+
+    /**
+     * Stabile ID für die Standardpreise einer Town.
+     */
+    private static UUID townId(String townName) {
+        return UUID.nameUUIDFromBytes(("town:" + townName).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Invalidiert die aufgelösten Preise eines Plots.
+     */
+    private void invalidate(Plot plot) {
+        if (priceResolver != null) {
+            priceResolver.invalidate(plot);
+        }
+    }
+
     // ==================== Config-Persistierung ====================
 
     /**
@@ -204,6 +410,12 @@ public class PlotPriceManager implements ItemBasePriceProvider {
      */
     public void loadFromConfig(FileConfiguration config) {
         plotPrices.clear();
+        townPrices.clear();
+        loadTownPrices(config);
+
+        if (priceResolver != null) {
+            priceResolver.invalidateAll();
+        }
 
         ConfigurationSection section = config.getConfigurationSection("plot-prices");
         if (section == null) {
@@ -235,6 +447,31 @@ public class PlotPriceManager implements ItemBasePriceProvider {
         logger.info("Loaded prices for " + loaded + " plots");
     }
 
+    /**
+     * Lädt Town-Standardpreise aus der Config.
+     */
+    private void loadTownPrices(FileConfiguration config) {
+        ConfigurationSection section = config.getConfigurationSection("town-prices");
+        if (section == null) {
+            return;
+        }
+
+        for (String townName : section.getKeys(false)) {
+            ConfigurationSection townSection = section.getConfigurationSection(townName);
+            if (townSection == null) {
+                continue;
+            }
+
+            PlotPriceData data = new PlotPriceData(townId(townName));
+            data.loadFromConfig(townSection);
+            if (!data.isEmpty()) {
+                townPrices.put(townName, data);
+            }
+        }
+
+        logger.info("Loaded default prices for " + townPrices.size() + " towns");
+    }
+
     /**
      * Speichert Plot-Preise in die Config.
      *
@@ -243,6 +480,11 @@ public class PlotPriceManager implements ItemBasePriceProvider {
     public void saveToConfig(FileConfiguration config) {
         // Clear alte Daten
         config.set("plot-prices", null);
+        config.set("town-prices", null);
+
+        for (Map.Entry<String, PlotPriceData> entry : townPrices.entrySet()) {
+            entry.getValue().saveToConfig(config.createSection("town-prices." + entry.getKey()));
+        }
 
         if (plotPrices.isEmpty()) {
             return;
@@ -0,0 +1,484 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.economy.Money;
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import de.fallenstar.core.provider.EconomyProvider;
+import de.fallenstar.core.provider.ItemProvider;
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.core.provider.PriceResolutionProvider;
+import de.fallenstar.core.provider.TownProvider;
+import de.fallenstar.core.registry.ProviderRegistry;
+import de.fallenstar.plot.model.PlotPriceData;
+import de.fallenstar.plot.provider.PlotLookupService;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Löst effektive Item-Preise hierarchisch auf und hält sie pro Plot vorberechnet.
+ *
+ * Reihenfolge (erste gesetzte Ebene gewinnt):
+ * 1. Custom-Item-Preis ({@link EconomyProvider#getCustomItemKey(ItemStack)} und
+ *    Custom-Preise des EconomyProviders, ersatzweise {@link ItemProvider#getSuggestedPrice(String)})
+ * 2. Plot-Preis ({@link PlotPriceManager})
+ * 3. Town-Standardpreis ({@link PlotPriceManager#setTownSellPrice})
+ * 4. Globaler Basispreis ({@link EconomyProvider#getSellPrice(Material)})
+ *
+ * Custom-Items werden nie als ihr Basis-Material bepreist (wie
+ * ItemBasePriceProvider#getPrice(ItemStack)). Ist eine {@link DynamicPricingEngine}
+ * gesetzt, werden die Material-Preise (Ebenen 2-4) mit dem Angebot/Nachfrage-Faktor
+ * des Plots multipliziert.
+ *
+ * Features:
+ * - Globale Basispreise einmalig als dichtes Festkomma-Array geladen
+ * - Pro Plot ein fertig überlagertes Array (Plot über Town über Global)
+ * - Preis-Abfrage = ein Map-Lookup + ein Array-Zugriff
+ * - Custom-Item-Preise pro Item-ID zwischengespeichert; die Identität eines Items
+ *   kommt aus dem Meta-Cache des EconomyProviders (kein ItemProvider-Aufruf pro Abfrage)
+ *
+ * **Verwendung:**
+ * <pre>
+ * PriceResolutionProvider resolver = providers.getPriceResolutionProvider();
+ * BigDecimal price = resolver.getSellPrice(plot, item).orElse(BigDecimal.ZERO);
+ * </pre>
+ *
+ * **Konsistenz:**
+ * Plot-Änderungen invalidieren nur das betroffene Plot, Town-, Basis- und
+ * Custom-Preis-Änderungen den gesamten Cache ({@link #invalidateAll()}).
+ * Geänderte dynamische Faktoren invalidieren das betroffene Plot.
+ * Jede Invalidierung wird an den {@link MarketIndex} weitergereicht.
+ * Wechselt der EconomyProvider (z.B. Economy-Modul lädt nach), wird der
+ * Cache automatisch neu aufgebaut. Lesen ist von jedem Thread möglich.
+ * Ist ein {@link PlotLookupService} gesetzt, kommt die Town eines Plots aus
+ * dessen Snapshot statt aus Towny; nur Plots, die noch nicht im Snapshot
+ * sind, fallen auf den TownProvider zurück.
+ *
+ * @author FallenStar
+ * @version 1.4
+ */
+public class PlotPriceResolver implements PriceResolutionProvider {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final long NO_PRICE = PlotPriceData.NO_PRICE;
+    private static final long[] NO_PRICES = {NO_PRICE, NO_PRICE};
+
+    private final PlotPriceManager priceManager;
+    private final ProviderRegistry providers;
+    private final Logger logger;
+
+    /**
+     * Plot-UUID → aufgelöste Preise
+     */
+    private final Map<UUID, PlotEntry> entries;
+
+    /**
+     * Custom-Item-ID ("TYPE:ID" des EconomyProviders bzw. ItemProvider-ID) → {Ankauf, Verkauf} in Minor Units
+     */
+    private final Map<String, long[]> customPrices;
+
+    private volatile GlobalTable globalTable;
+    private volatile DynamicPricingEngine dynamicPricing;
+    private volatile MarketHistory marketHistory;
+    private volatile MarketIndex marketIndex;
+    private volatile PlotLookupService plotLookupService;
+
+    /**
+     * Globale Basispreise (2·ordinal = Ankauf, 2·ordinal+1 = Verkauf).
+     *
+     * @param source EconomyProvider, aus dem die Tabelle geladen wurde
+     * @param prices Preise in Minor Units oder NO_PRICE
+     */
+    private record GlobalTable(EconomyProvider source, long[] prices) {
+    }
+
+    /**
+     * Aufgelöste Preise eines Plots.
+     *
+     * @param global Basis-Tabelle, auf der das Array aufbaut
+     * @param prices Effektive Preise in Minor Units oder NO_PRICE
+     */
+    private record PlotEntry(GlobalTable global, long[] prices) {
+    }
+
+    /**
+     * Erstellt einen neuen PlotPriceResolver.
+     *
+     * @param priceManager PlotPriceManager (Plot- und Town-Preise)
+     * @param providers ProviderRegistry (Town-, Economy- und Item-Provider)
+     * @param logger Logger
+     */
+    public PlotPriceResolver(PlotPriceManager priceManager, ProviderRegistry providers, Logger logger) {
+        this.priceManager = Objects.requireNonNull(priceManager, "priceManager cannot be null");
+        this.providers = Objects.requireNonNull(providers, "providers cannot be null");
+        this.logger = Objects.requireNonNull(logger, "logger cannot be null");
+        this.entries = new ConcurrentHashMap<>();
+        this.customPrices = new ConcurrentHashMap<>();
+    }
+
+    // ==================== PriceResolutionProvider Interface ====================
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public Optional<BigDecimal> getBuyPrice(Plot plot, ItemStack item) {
+        Objects.requireNonNull(item, "item cannot be null");
+        return toPrice(resolve(plot, item, 0));
+    }
+
+    @Override
+    public Optional<BigDecimal> getSellPrice(Plot plot, ItemStack item) {
+        Objects.requireNonNull(item, "item cannot be null");
+        return toPrice(resolve(plot, item, 1));
+    }
+
+    @Override
+    public Optional<BigDecimal> getBuyPrice(Plot plot, Material material) {
+        Objects.requireNonNull(material, "material cannot be null");
+        return toPrice(entry(plot).prices()[material.ordinal() << 1]);
+    }
+
+    @Override
+    public Optional<BigDecimal> getSellPrice(Plot plot, Material material) {
+        Objects.requireNonNull(material, "material cannot be null");
+        return toPrice(entry(plot).prices()[(material.ordinal() << 1) + 1]);
+    }
+
+    @Override
+    public void invalidate(Plot plot) {
+        Objects.requireNonNull(plot, "plot cannot be null");
+        entries.remove(plot.getUuid());
+
+        MarketIndex index = marketIndex;
+        if (index != null) {
+            index.markDirty(plot);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        globalTable = null;
+        entries.clear();
+        customPrices.clear();
+        logger.fine("Price resolution cache cleared");
+
+        MarketIndex index = marketIndex;
+        if (index != null) {
+            index.markAllDirty();
+        }
+    }
+
+    @Override
+    public void recordTrade(Plot plot, Material material, int amount) {
+        // Verlauf mit dem Preis, zu dem gehandelt wurde (vor einer Faktor-Änderung)
+        MarketHistory history = marketHistory;
+        if (history != null) {
+            long price = entry(plot).prices()[(material.ordinal() << 1) + 1];
+            if (price != NO_PRICE) {
+                history.record(plot.getUuid(), material, amount, price);
+            }
+        }
+
+        DynamicPricingEngine engine = dynamicPricing;
+        if (engine != null) {
+            engine.recordTrade(plot, material, amount);
+        }
+    }
+
+    // ==================== Zusätzliche Methoden ====================
+
+    /**
+     * Setzt den Markt-Verlauf, in den Handel gebucht wird (oder null).
+     *
+     * @param marketHistory MarketHistory
+     */
+    public void setMarketHistory(MarketHistory marketHistory) {
+        this.marketHistory = marketHistory;
+    }
+
+    /**
+     * Setzt den Markt-Index, der bei Preis-Änderungen neu indiziert wird (oder null).
+     *
+     * @param marketIndex MarketIndex
+     */
+    public void setMarketIndex(MarketIndex marketIndex) {
+        this.marketIndex = marketIndex;
+    }
+
+    /**
+     * Setzt den Plot-Lookup, aus dessen Snapshot die Town eines Plots gelesen wird (oder null).
+     *
+     * @param plotLookupService PlotLookupService
+     */
+    public void setPlotLookupService(PlotLookupService plotLookupService) {
+        this.plotLookupService = plotLookupService;
+    }
+
+    /**
+     * Setzt die dynamische Preisbildung (oder null zum Deaktivieren).
+     *
+     * @param dynamicPricing DynamicPricingEngine
+     */
+    public void setDynamicPricing(DynamicPricingEngine dynamicPricing) {
+        this.dynamicPricing = dynamicPricing;
+        entries.clear();
+    }
+
+    /**
+     * Gibt die Anzahl der Plots mit aufgelösten Preisen zurück.
+     *
+     * @return Anzahl
+     */
+    public int getCachedPlotCount() {
+        return entries.size();
+    }
+
+    // ==================== Auflösung ====================
+
+    /**
+     * Löst einen Preis auf (zuerst Custom-Item, danach Material-Ebenen aus dem Cache).
+     *
+     * @param offset 0 = Ankauf, 1 = Verkauf
+     */
+    private long resolve(Plot plot, ItemStack item, int offset) {
+        long[] custom = customPrice(item);
+        if (custom != NO_PRICES) {
+            return custom[offset];
+        }
+        return entry(plot).prices()[(item.getType().ordinal() << 1) + offset];
+    }
+
+    /**
+     * Gibt die aufgelösten Preise eines Plots zurück (baut sie bei Bedarf auf).
+     */
+    private PlotEntry entry(Plot plot) {
+        Objects.requireNonNull(plot, "plot cannot be null");
+
+        GlobalTable global = globalTable();
+        PlotEntry entry = entries.get(plot.getUuid());
+        if (entry != null && entry.global() == global) {
+            return entry;
+        }
+
+        // compute() serialisiert mit invalidate(): ein Aufbau vor einer Änderung wird danach verworfen
+        return entries.compute(plot.getUuid(), (plotId, current) ->
+                current != null && current.global() == global ? current : buildEntry(plot, global));
+    }
+
+    /**
+     * Überlagert Plot- über Town- über Basispreise.
+     */
+    private PlotEntry buildEntry(Plot plot, GlobalTable global) {
+        String townName = resolveTownName(plot);
+        long[] prices = global.prices().clone();
+
+        if (townName != null) {
+            priceManager.getTownPriceData(townName).ifPresent(data -> overlay(prices, data));
+        }
+        priceManager.getPriceData(plot).ifPresent(data -> overlay(prices, data));
+
+        DynamicPricingEngine engine = dynamicPricing;
+        if (engine != null) {
+            engine.applyFactors(plot.getUuid(), prices);
+        }
+
+        return new PlotEntry(global, prices);
+    }
+
+    /**
+     * Schreibt alle gesetzten Preise einer Ebene über das Array.
+     */
+    private static void overlay(long[] prices, PlotPriceData data) {
+        for (Material material : data.getMaterials()) {
+            int index = material.ordinal() << 1;
+            long buy = data.getBuyPriceMinor(material);
+            long sell = data.getSellPriceMinor(material);
+
+            if (buy != NO_PRICE) {
+                prices[index] = buy;
+            }
+            if (sell != NO_PRICE) {
+                prices[index + 1] = sell;
+            }
+        }
+    }
+
+    /**
+     * Gibt die globale Basis-Tabelle zurück (lädt sie bei Bedarf oder Provider-Wechsel neu).
+     */
+    private GlobalTable globalTable() {
+        GlobalTable table = globalTable;
+        EconomyProvider economy = providers.getEconomyProvider();
+        return table != null && table.source() == economy ? table : rebuildGlobalTable(economy);
+    }
+
+    /**
+     * Lädt die globalen Basispreise aus dem EconomyProvider.
+     */
+    private synchronized GlobalTable rebuildGlobalTable(EconomyProvider economy) {
+        GlobalTable table = globalTable;
+        if (table != null && table.source() == economy) {
+            return table;
+        }
+
+        long[] prices = new long[MATERIALS.length * 2];
+        Arrays.fill(prices, NO_PRICE);
+
+        int loaded = 0;
+        if (economy != null && economy.isAvailable()) {
+            try {
+                for (Material material : economy.getAllPricedMaterials()) {
+                    int index = material.ordinal() << 1;
+                    prices[index] = toMinor(economy.getBuyPrice(material));
+                    prices[index + 1] = toMinor(economy.getSellPrice(material));
+                    loaded++;
+                }
+            } catch (ProviderFunctionalityNotFoundException e) {
+                logger.warning("✗ Basispreise konnten nicht geladen werden: " + e.getMessage());
+            }
+        }
+
+        table = new GlobalTable(economy, prices);
+        globalTable = table;
+        logger.fine("Loaded " + loaded + " base prices for price resolution");
+        return table;
+    }
+
+    /**
+     * Gibt die Town eines Plots zurück.
+     *
+     * Bevorzugt den Snapshot des PlotLookupService (Thread-Safe, ohne Towny-Zugriff).
+     *
+     * @return Town-Name oder null wenn keine Town / kein TownProvider
+     */
+    private String resolveTownName(Plot plot) {
+        PlotLookupService lookupService = plotLookupService;
+        if (lookupService != null) {
+            Optional<PlotLookupService.PlotSnapshot> snapshot = lookupService.getPlot(plot.getUuid());
+            if (snapshot.isPresent()) {
+                String townName = snapshot.get().townName();
+                return townName == null || townName.isEmpty() ? null : townName;
+            }
+        }
+
+        TownProvider townProvider = providers.getTownProvider();
+        if (townProvider == null || !townProvider.isAvailable() || plot.getLocation() == null) {
+            return null;
+        }
+
+        try {
+            return townProvider.getTownName(plot.getLocation());
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gibt den Custom-Item-Preis eines Items zurück.
+     *
+     * Bevorzugt die gecachte Identität des EconomyProviders; nur ohne
+     * Unterstützung dort wird der ItemProvider direkt gefragt.
+     *
+     * @return {Ankauf, Verkauf} in Minor Units (NO_PRICE wenn kein Custom-Item)
+     */
+    private long[] customPrice(ItemStack item) {
+        if (!item.hasItemMeta()) {
+            return NO_PRICES;   // Ohne ItemMeta kein Custom-Item
+        }
+
+        EconomyProvider economy = providers.getEconomyProvider();
+        if (economy != null && economy.isAvailable()) {
+            try {
+                Optional<String> key = economy.getCustomItemKey(item);
+                return key.isPresent()
+                        ? customPrices.computeIfAbsent(key.get(), id -> loadCustomPrice(economy, id))
+                        : NO_PRICES;
+            } catch (ProviderFunctionalityNotFoundException e) {
+                // Keine Custom-Item-Preise im EconomyProvider - ItemProvider direkt fragen
+            }
+        }
+
+        ItemProvider itemProvider = providers.getItemProvider();
+        if (itemProvider == null || !itemProvider.isAvailable()) {
+            return NO_PRICES;
+        }
+
+        try {
+            if (!itemProvider.isCustomItem(item)) {
+                return NO_PRICES;
+            }
+
+            Optional<String> itemId = itemProvider.getItemId(item);
+            return itemId.isPresent()
+                    ? customPrices.computeIfAbsent(itemId.get(), id -> loadCustomPrice(itemProvider, id))
+                    : NO_PRICES;
+
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return NO_PRICES;
+        }
+    }
+
+    /**
+     * Lädt den Custom-Preis des EconomyProviders ("TYPE:ID"), ersatzweise den vorgeschlagenen Preis.
+     */
+    private long[] loadCustomPrice(EconomyProvider economy, String key) {
+        try {
+            long buy = toMinor(economy.getCustomBuyPrice(key));
+            long sell = toMinor(economy.getCustomSellPrice(key));
+            if (buy != NO_PRICE || sell != NO_PRICE) {
+                return new long[]{buy, sell};
+            }
+        } catch (ProviderFunctionalityNotFoundException e) {
+            // Fallback auf vorgeschlagenen Preis
+        }
+
+        ItemProvider itemProvider = providers.getItemProvider();
+        if (itemProvider == null || !itemProvider.isAvailable()) {
+            return NO_PRICES;
+        }
+        return loadCustomPrice(itemProvider, key.substring(key.indexOf(':') + 1));
+    }
+
+    /**
+     * Lädt den vorgeschlagenen Preis eines Custom-Items (gilt für Ankauf und Verkauf).
+     */
+    private long[] loadCustomPrice(ItemProvider itemProvider, String itemId) {
+        try {
+            Optional<Double> suggested = itemProvider.getSuggestedPrice(itemId);
+            if (suggested.isEmpty()) {
+                return NO_PRICES;
+            }
+
+            long minor = toMinor(Optional.of(BigDecimal.valueOf(suggested.get())));
+            return new long[]{minor, minor};
+
+        } catch (ProviderFunctionalityNotFoundException e) {
+            return NO_PRICES;
+        }
+    }
+
+    /**
+     * Konvertiert einen Preis in Minor Units.
+     */
+    private static long toMinor(Optional<BigDecimal> price) {
+        return price.map(value -> Money.fromBigDecimal(value, Money.BASE_CURRENCY_ID).minorUnits())
+                .orElse(NO_PRICE);
+    }
+
+    /**
+     * Konvertiert Minor Units zurück in einen Preis.
+     */
+    private static Optional<BigDecimal> toPrice(long minor) {
+        return minor == NO_PRICE ? Optional.empty() : Optional.of(BigDecimal.valueOf(minor, Money.SCALE));
+    }
+}
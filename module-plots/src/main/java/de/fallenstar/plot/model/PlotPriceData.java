@@ -1,10 +1,13 @@
 package de.fallenstar.plot.model;
 
+import de.fallenstar.core.economy.Money;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Speichert Ankauf- und Verkaufspreise für Items auf einem Grundstück.
@@ -16,6 +19,20 @@ import java.util.*;
  * - **Ankaufpreis (Buy Price)**: NPC kauft Item vom Spieler
  * - **Verkaufspreis (Sell Price)**: Spieler kauft Item vom NPC
  *
+ * **Speicherlayout:**
+ * Preise liegen als Festkomma-Werte (Minor Units, 2 Nachkommastellen wie
+ * {@link Money}) in einem dichten {@link AtomicLongArray}, indiziert über
+ * {@code Material.ordinal()}: Ankauf an Index 2·ordinal, Verkauf an 2·ordinal+1.
+ * Ein Preis-Lookup ist damit ein einzelner Array-Zugriff ohne Hashing und
+ * ohne Allokation; {@link #NO_PRICE} markiert "kein Preis".
+ *
+ * **Konsistenz:**
+ * Schreiber sind synchronisiert und veröffentlichen jeden Preis mit
+ * Release-Semantik, Leser greifen lock-frei mit Acquire-Semantik zu
+ * (Resolver, Async-Tasks). Jeder einzelne Preis ist damit atomar und
+ * sichtbar: ein Leser sieht den alten oder den neuen Wert, nie einen halb
+ * geschriebenen. Ankauf und Verkauf eines Materials werden unabhängig gelesen.
+ *
  * **Persistierung:**
  * ```yaml
  * plot-prices:
@@ -29,38 +46,28 @@ import java.util.*;
  * ```
  *
  * @author FallenStar
- * @version 1.0
+ * @version 2.1
  */
 public class PlotPriceData {
 
     /**
-     * Interner Container für Preis-Paar (Ankauf, Verkauf).
+     * Markierung für "kein Preis festgelegt" (Minor Units).
      */
-    public record PricePair(BigDecimal buyPrice, BigDecimal sellPrice) {
-        /**
-         * Prüft ob ein Ankaufpreis festgelegt ist.
-         */
-        public boolean hasBuyPrice() {
-            return buyPrice != null;
-        }
+    public static final long NO_PRICE = Long.MIN_VALUE;
 
-        /**
-         * Prüft ob ein Verkaufspreis festgelegt ist.
-         */
-        public boolean hasSellPrice() {
-            return sellPrice != null;
-        }
-
-        /**
-         * Prüft ob mindestens ein Preis festgelegt ist.
-         */
-        public boolean hasAnyPrice() {
-            return hasBuyPrice() || hasSellPrice();
-        }
-    }
+    private static final Material[] MATERIALS = Material.values();
 
     private final UUID plotId;
-    private final Map<Material, PricePair> prices;
+
+    /**
+     * Ankauf/Verkauf pro Material in Minor Units (2·ordinal = Ankauf, 2·ordinal+1 = Verkauf).
+     */
+    private final AtomicLongArray prices;
+
+    /**
+     * Anzahl Materialien mit mindestens einem Preis.
+     */
+    private volatile int materialCount;
 
     /**
      * Erstellt eine neue PlotPriceData für ein Grundstück.
@@ -68,8 +75,15 @@ public class PlotPriceData {
      * @param plotId UUID des Grundstücks
      */
     public PlotPriceData(UUID plotId) {
+        this(plotId, emptyPrices());
+    }
+
+    /**
+     * Erstellt eine PlotPriceData mit vorgegebenen Preisen (Array wird kopiert).
+     */
+    private PlotPriceData(UUID plotId, long[] prices) {
         this.plotId = Objects.requireNonNull(plotId, "plotId cannot be null");
-        this.prices = new HashMap<>();
+        this.prices = new AtomicLongArray(prices);
     }
 
     /**
@@ -86,19 +100,11 @@ public class PlotPriceData {
      *
      * @param material Das Material
      * @param buyPrice Der Preis (null zum Entfernen)
+     * @throws ArithmeticException wenn der Preis nicht in Minor Units passt
      */
     public void setBuyPrice(Material material, BigDecimal buyPrice) {
         Objects.requireNonNull(material, "material cannot be null");
-
-        PricePair current = prices.get(material);
-        BigDecimal sellPrice = current != null ? current.sellPrice() : null;
-
-        if (buyPrice == null && sellPrice == null) {
-            // Beide Preise null → Eintrag entfernen
-            prices.remove(material);
-        } else {
-            prices.put(material, new PricePair(buyPrice, sellPrice));
-        }
+        setMinor(material.ordinal() << 1, toMinor(buyPrice));
     }
 
     /**
@@ -106,19 +112,11 @@ public class PlotPriceData {
      *
      * @param material Das Material
      * @param sellPrice Der Preis (null zum Entfernen)
+     * @throws ArithmeticException wenn der Preis nicht in Minor Units passt
      */
     public void setSellPrice(Material material, BigDecimal sellPrice) {
         Objects.requireNonNull(material, "material cannot be null");
-
-        PricePair current = prices.get(material);
-        BigDecimal buyPrice = current != null ? current.buyPrice() : null;
-
-        if (buyPrice == null && sellPrice == null) {
-            // Beide Preise null → Eintrag entfernen
-            prices.remove(material);
-        } else {
-            prices.put(material, new PricePair(buyPrice, sellPrice));
-        }
+        setMinor((material.ordinal() << 1) + 1, toMinor(sellPrice));
     }
 
     /**
@@ -128,8 +126,7 @@ public class PlotPriceData {
      * @return Ankaufpreis oder Empty
      */
     public Optional<BigDecimal> getBuyPrice(Material material) {
-        PricePair pair = prices.get(material);
-        return pair != null && pair.hasBuyPrice() ? Optional.of(pair.buyPrice()) : Optional.empty();
+        return toPrice(prices.getAcquire(material.ordinal() << 1));
     }
 
     /**
@@ -139,8 +136,27 @@ public class PlotPriceData {
      * @return Verkaufspreis oder Empty
      */
     public Optional<BigDecimal> getSellPrice(Material material) {
-        PricePair pair = prices.get(material);
-        return pair != null && pair.hasSellPrice() ? Optional.of(pair.sellPrice()) : Optional.empty();
+        return toPrice(prices.getAcquire((material.ordinal() << 1) + 1));
+    }
+
+    /**
+     * Gibt den Ankaufpreis in Minor Units zurück (ohne Allokation).
+     *
+     * @param material Das Material
+     * @return Preis in Minor Units oder {@link #NO_PRICE}
+     */
+    public long getBuyPriceMinor(Material material) {
+        return prices.getAcquire(material.ordinal() << 1);
+    }
+
+    /**
+     * Gibt den Verkaufspreis in Minor Units zurück (ohne Allokation).
+     *
+     * @param material Das Material
+     * @return Preis in Minor Units oder {@link #NO_PRICE}
+     */
+    public long getSellPriceMinor(Material material) {
+        return prices.getAcquire((material.ordinal() << 1) + 1);
     }
 
     /**
@@ -150,8 +166,8 @@ public class PlotPriceData {
      * @return true wenn Ankauf ODER Verkauf festgelegt ist
      */
     public boolean hasPrices(Material material) {
-        PricePair pair = prices.get(material);
-        return pair != null && pair.hasAnyPrice();
+        int index = material.ordinal() << 1;
+        return prices.getAcquire(index) != NO_PRICE || prices.getAcquire(index + 1) != NO_PRICE;
     }
 
     /**
@@ -159,17 +175,28 @@ public class PlotPriceData {
      *
      * @param material Das Material
      */
-    public void removePrices(Material material) {
-        prices.remove(material);
+    public synchronized void removePrices(Material material) {
+        setMinor(material.ordinal() << 1, NO_PRICE);
+        setMinor((material.ordinal() << 1) + 1, NO_PRICE);
     }
 
     /**
      * Gibt alle Materialien zurück, für die Preise festgelegt sind.
      *
-     * @return Unveränderbare Menge aller Materialien
+     * @return Unveränderbare Momentaufnahme aller Materialien
      */
     public Set<Material> getMaterials() {
-        return Collections.unmodifiableSet(prices.keySet());
+        if (materialCount == 0) {
+            return Collections.emptySet();
+        }
+
+        EnumSet<Material> materials = EnumSet.noneOf(Material.class);
+        for (int ordinal = 0; ordinal < MATERIALS.length; ordinal++) {
+            if (prices.getAcquire(ordinal << 1) != NO_PRICE || prices.getAcquire((ordinal << 1) + 1) != NO_PRICE) {
+                materials.add(MATERIALS[ordinal]);
+            }
+        }
+        return Collections.unmodifiableSet(materials);
     }
 
     /**
@@ -178,7 +205,7 @@ public class PlotPriceData {
      * @return Anzahl
      */
     public int size() {
-        return prices.size();
+        return materialCount;
     }
 
     /**
@@ -187,14 +214,33 @@ public class PlotPriceData {
      * @return true wenn mindestens ein Preis festgelegt ist
      */
     public boolean isEmpty() {
-        return prices.isEmpty();
+        return materialCount == 0;
+    }
+
+    /**
+     * Erstellt eine unabhängige Kopie (für Copy-on-Write-Batch-Änderungen).
+     *
+     * @return Kopie mit identischen Preisen
+     */
+    public synchronized PlotPriceData copy() {
+        long[] snapshot = new long[prices.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = prices.getPlain(i);   // Unter dem Monitor - keine parallelen Schreiber
+        }
+
+        PlotPriceData copy = new PlotPriceData(plotId, snapshot);
+        copy.materialCount = materialCount;
+        return copy;
     }
 
     /**
      * Löscht alle Preise.
      */
-    public void clear() {
-        prices.clear();
+    public synchronized void clear() {
+        for (int i = 0; i < prices.length(); i++) {
+            prices.setRelease(i, NO_PRICE);
+        }
+        materialCount = 0;
     }
 
     /**
@@ -207,7 +253,7 @@ public class PlotPriceData {
             return;
         }
 
-        prices.clear();
+        clear();
 
         for (String materialName : section.getKeys(false)) {
             try {
@@ -215,24 +261,17 @@ public class PlotPriceData {
                 ConfigurationSection priceSection = section.getConfigurationSection(materialName);
 
                 if (priceSection != null) {
-                    BigDecimal buyPrice = null;
-                    BigDecimal sellPrice = null;
-
                     if (priceSection.contains("buy")) {
-                        buyPrice = BigDecimal.valueOf(priceSection.getDouble("buy"));
+                        setBuyPrice(material, BigDecimal.valueOf(priceSection.getDouble("buy")));
                     }
 
                     if (priceSection.contains("sell")) {
-                        sellPrice = BigDecimal.valueOf(priceSection.getDouble("sell"));
-                    }
-
-                    if (buyPrice != null || sellPrice != null) {
-                        prices.put(material, new PricePair(buyPrice, sellPrice));
+                        setSellPrice(material, BigDecimal.valueOf(priceSection.getDouble("sell")));
                     }
                 }
 
-            } catch (IllegalArgumentException e) {
-                // Ungültiges Material - ignorieren
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                // Ungültiges Material oder ungültiger Preis - ignorieren
             }
         }
     }
@@ -253,22 +292,63 @@ public class PlotPriceData {
         }
 
         // Speichere Preise
-        for (Map.Entry<Material, PricePair> entry : prices.entrySet()) {
-            String materialName = entry.getKey().name();
-            PricePair pair = entry.getValue();
+        for (Material material : getMaterials()) {
+            String materialName = material.name();
+            long buy = getBuyPriceMinor(material);
+            long sell = getSellPriceMinor(material);
 
-            if (pair.hasBuyPrice()) {
-                section.set(materialName + ".buy", pair.buyPrice().doubleValue());
+            if (buy != NO_PRICE) {
+                section.set(materialName + ".buy", BigDecimal.valueOf(buy, Money.SCALE).doubleValue());
             }
 
-            if (pair.hasSellPrice()) {
-                section.set(materialName + ".sell", pair.sellPrice().doubleValue());
+            if (sell != NO_PRICE) {
+                section.set(materialName + ".sell", BigDecimal.valueOf(sell, Money.SCALE).doubleValue());
             }
         }
     }
 
+    /**
+     * Schreibt einen Preis und pflegt den Material-Zähler.
+     */
+    private synchronized void setMinor(int index, long minor) {
+        int pairStart = index & ~1;
+        boolean hadAny = prices.getPlain(pairStart) != NO_PRICE || prices.getPlain(pairStart + 1) != NO_PRICE;
+        prices.setRelease(index, minor);
+        boolean hasAny = prices.getPlain(pairStart) != NO_PRICE || prices.getPlain(pairStart + 1) != NO_PRICE;
+
+        if (hadAny != hasAny) {
+            materialCount += hasAny ? 1 : -1;
+        }
+    }
+
+    /**
+     * Erstellt ein Preis-Array ohne Preise.
+     */
+    private static long[] emptyPrices() {
+        long[] prices = new long[MATERIALS.length * 2];
+        Arrays.fill(prices, NO_PRICE);
+        return prices;
+    }
+
+    /**
+     * Konvertiert einen Preis in Minor Units (HALF_UP bei mehr als 2 Nachkommastellen).
+     */
+    private static long toMinor(BigDecimal price) {
+        if (price == null) {
+            return NO_PRICE;
+        }
+        return price.setScale(Money.SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Konvertiert Minor Units zurück in einen Preis.
+     */
+    private static Optional<BigDecimal> toPrice(long minor) {
+        return minor == NO_PRICE ? Optional.empty() : Optional.of(BigDecimal.valueOf(minor, Money.SCALE));
+    }
+
     @Override
     public String toString() {
-        return "PlotPriceData{plotId=" + plotId + ", materials=" + prices.size() + "}";
+        return "PlotPriceData{plotId=" + plotId + ", materials=" + materialCount + "}";
     }
 }
@@ -0,0 +1,285 @@
+package de.fallenstar.plot.provider;
+
+import com.palmergames.bukkit.towny.TownyAPI;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import de.fallenstar.plot.registry.TownBlockRegistry;
+import de.fallenstar.plot.registry.TownBlockRegistry.PlotIdentity;
+import org.bukkit.Location;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Thread-sicherer, read-only Plot-Lookup für Async-Worker.
+ *
+ * Spiegelt die Towny-Claim-Map in einem unveränderlichen Snapshot,
+ * der auf dem Main-Thread gebaut und atomar ausgetauscht wird.
+ * Async-Worker (Scanner, Trade-Generierung, Persistierung) können so
+ * Chunk → Plot auflösen, ohne Towny oder Bukkit-Blöcke anzufassen.
+ * Der PlotPriceResolver bezieht hierüber die Town eines Plots, wodurch
+ * der MarketIndex asynchron neu indizieren kann.
+ *
+ * Features:
+ * - Welt + Chunk-Koordinaten → PlotSnapshot
+ * - Plot-UUID → PlotSnapshot
+ * - Neuaufbau bei Claim-Änderungen (markDirty, max. 1x pro Sekunde)
+ * - Periodischer Voll-Neuaufbau (fängt verpasste Events ab)
+ *
+ * **Konsistenz:**
+ * Lookups sehen immer einen vollständigen Snapshot, können aber bis zum
+ * nächsten Neuaufbau veraltet sein. Für Berechtigungs-Prüfungen weiterhin
+ * PlotProvider auf dem Main-Thread verwenden.
+ *
+ * **Verwendung:**
+ * <pre>
+ * // Auf beliebigem Thread
+ * Optional&lt;PlotSnapshot&gt; plot = lookupService.getPlot("world", chunkX, chunkZ);
+ * </pre>
+ *
+ * @author FallenStar
+ * @version 1.1
+ */
+public class PlotLookupService {
+
+    private static final long DIRTY_CHECK_TICKS = 20L;
+
+    private final Logger logger;
+    private final TownBlockRegistry townBlockRegistry;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private BukkitTask dirtyTask;
+    private BukkitTask refreshTask;
+
+    /**
+     * Unveränderliche Plot-Daten für Async-Zugriffe.
+     *
+     * @param uuid Plot-UUID
+     * @param identifier Plot-Identifier
+     * @param townName Town-Name ("" wenn keine Town)
+     * @param townUuid Town-UUID (oder null)
+     * @param ownerUuid UUID des Resident-Owners (oder null bei Town-Plots)
+     * @param plotType Towny-Plot-Typ (lowercase)
+     * @param worldName Welt-Name
+     * @param chunkX Chunk-X
+     * @param chunkZ Chunk-Z
+     */
+    public record PlotSnapshot(
+            UUID uuid,
+            String identifier,
+            String townName,
+            UUID townUuid,
+            UUID ownerUuid,
+            String plotType,
+            String worldName,
+            int chunkX,
+            int chunkZ
+    ) {
+    }
+
+    /**
+     * Unveränderlicher Gesamt-Snapshot.
+     */
+    private record Snapshot(
+            Map<String, Map<Long, PlotSnapshot>> byChunk,
+            Map<UUID, PlotSnapshot> byUuid,
+            long createdAt
+    ) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), 0L);
+    }
+
+    /**
+     * Konstruktor für PlotLookupService.
+     *
+     * @param logger Logger
+     * @param townBlockRegistry TownBlockRegistry (vorberechnete UUIDs/Identifier)
+     */
+    public PlotLookupService(Logger logger, TownBlockRegistry townBlockRegistry) {
+        this.logger = logger;
+        this.townBlockRegistry = townBlockRegistry;
+    }
+
+    /**
+     * Baut den ersten Snapshot und startet die Neuaufbau-Tasks.
+     *
+     * MUSS auf dem Main-Thread aufgerufen werden.
+     *
+     * @param plugin Plugin für Scheduler
+     * @param refreshIntervalTicks Intervall für periodischen Voll-Neuaufbau
+     */
+    public void start(Plugin plugin, long refreshIntervalTicks) {
+        stop();
+        rebuild();
+
+        dirtyTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
+            if (dirty.compareAndSet(true, false)) {
+                rebuild();
+            }
+        }, DIRTY_CHECK_TICKS, DIRTY_CHECK_TICKS);
+
+        if (refreshIntervalTicks > 0) {
+            refreshTask = plugin.getServer().getScheduler().runTaskTimer(
+                    plugin, this::rebuild, refreshIntervalTicks, refreshIntervalTicks);
+        }
+    }
+
+    /**
+     * Stoppt die Neuaufbau-Tasks.
+     */
+    public void stop() {
+        if (dirtyTask != null) {
+            dirtyTask.cancel();
+            dirtyTask = null;
+        }
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+    }
+
+    /**
+     * Markiert den Snapshot als veraltet (Neuaufbau beim nächsten Check).
+     *
+     * Thread-Safe.
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * Baut den Snapshot aus der Towny-Claim-Map neu auf und tauscht ihn atomar aus.
+     *
+     * MUSS auf dem Main-Thread aufgerufen werden.
+     */
+    public void rebuild() {
+        List<PlotSnapshot> plots = new ArrayList<>();
+        for (TownBlock townBlock : TownyAPI.getInstance().getTownBlocks()) {
+            plots.add(createSnapshot(townBlock));
+        }
+        install(plots);
+    }
+
+    /**
+     * Baut einen Snapshot aus fertigen PlotSnapshots und tauscht ihn atomar aus.
+     *
+     * Lookups laufender Async-Worker sehen entweder den alten oder den neuen
+     * Snapshot vollständig, nie einen Zwischenstand.
+     *
+     * @param plots PlotSnapshots
+     */
+    void install(Collection<PlotSnapshot> plots) {
+        Map<String, Map<Long, PlotSnapshot>> byChunk = new HashMap<>();
+        Map<UUID, PlotSnapshot> byUuid = new HashMap<>();
+
+        for (PlotSnapshot plot : plots) {
+            byChunk.computeIfAbsent(plot.worldName(), world -> new HashMap<>())
+                    .put(chunkKey(plot.chunkX(), plot.chunkZ()), plot);
+            byUuid.put(plot.uuid(), plot);
+        }
+
+        Map<String, Map<Long, PlotSnapshot>> frozen = new HashMap<>();
+        byChunk.forEach((world, chunkPlots) -> frozen.put(world, Map.copyOf(chunkPlots)));
+
+        snapshot = new Snapshot(Map.copyOf(frozen), Map.copyOf(byUuid), System.currentTimeMillis());
+        logger.fine("PlotLookupService: Snapshot mit " + byUuid.size() + " Plots erstellt");
+    }
+
+    /**
+     * Gibt das Plot an Welt + Chunk-Koordinaten zurück.
+     *
+     * Thread-Safe.
+     *
+     * @param worldName Welt-Name
+     * @param chunkX Chunk-X
+     * @param chunkZ Chunk-Z
+     * @return Optional mit PlotSnapshot
+     */
+    public Optional<PlotSnapshot> getPlot(String worldName, int chunkX, int chunkZ) {
+        Map<Long, PlotSnapshot> plots = snapshot.byChunk().get(worldName);
+        return plots != null ? Optional.ofNullable(plots.get(chunkKey(chunkX, chunkZ))) : Optional.empty();
+    }
+
+    /**
+     * Gibt das Plot an einer Location zurück.
+     *
+     * Thread-Safe (nutzt nur Koordinaten, kein Block-Zugriff).
+     *
+     * @param location Location
+     * @return Optional mit PlotSnapshot
+     */
+    public Optional<PlotSnapshot> getPlot(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return Optional.empty();
+        }
+        return getPlot(location.getWorld().getName(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Gibt das Plot mit einer UUID zurück.
+     *
+     * Thread-Safe.
+     *
+     * @param plotUuid Plot-UUID
+     * @return Optional mit PlotSnapshot
+     */
+    public Optional<PlotSnapshot> getPlot(UUID plotUuid) {
+        return Optional.ofNullable(snapshot.byUuid().get(plotUuid));
+    }
+
+    /**
+     * Gibt die Anzahl Plots im aktuellen Snapshot zurück.
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        return snapshot.byUuid().size();
+    }
+
+    /**
+     * Gibt den Erstellungszeitpunkt des aktuellen Snapshots zurück.
+     *
+     * @return Zeitstempel in Millisekunden (0 wenn noch kein Snapshot)
+     */
+    public long getSnapshotTime() {
+        return snapshot.createdAt();
+    }
+
+    /**
+     * Erstellt einen PlotSnapshot aus einem TownBlock.
+     */
+    private PlotSnapshot createSnapshot(TownBlock townBlock) {
+        PlotIdentity identity = townBlockRegistry.getIdentity(townBlock);
+        Town town = townBlock.getTownOrNull();
+        Resident owner = townBlock.getResidentOrNull();
+
+        return new PlotSnapshot(
+                identity.uuid(),
+                identity.identifier(),
+                identity.townName(),
+                town != null ? town.getUUID() : null,
+                owner != null ? owner.getUUID() : null,
+                townBlock.getType().getName().toLowerCase(),
+                identity.worldName(),
+                identity.x(),
+                identity.z()
+        );
+    }
+
+    /**
+     * Packt Chunk-Koordinaten in einen long-Key.
+     */
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,57 @@
+package de.fallenstar.plot.provider;
+
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.plot.changeowner.PlotChangeOwnerEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Listener der den PlotLookupService bei Claim-Änderungen als veraltet markiert.
+ *
+ * Der eigentliche Neuaufbau erfolgt gebündelt im Scheduler-Task des Services.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class PlotLookupServiceListener implements Listener {
+
+    private final PlotLookupService lookupService;
+
+    /**
+     * Konstruktor für PlotLookupServiceListener.
+     *
+     * @param lookupService PlotLookupService
+     */
+    public PlotLookupServiceListener(PlotLookupService lookupService) {
+        this.lookupService = lookupService;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownClaim(TownClaimEvent event) {
+        lookupService.markDirty();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownUnclaim(TownUnclaimEvent event) {
+        lookupService.markDirty();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownRename(RenameTownEvent event) {
+        lookupService.markDirty();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownDelete(DeleteTownEvent event) {
+        lookupService.markDirty();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlotChangeOwner(PlotChangeOwnerEvent event) {
+        lookupService.markDirty();
+    }
+}
@@ -0,0 +1,129 @@
+package de.fallenstar.plot.provider;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Kurzlebiger Cache für Plot-Berechtigungen (Admin/Owner) pro Spieler und Plot.
+ *
+ * Eine Towny-Auflösung (Resident, Town, Ränge) liefert beide Entscheidungen
+ * gleichzeitig, sodass ein Menü-Render höchstens eine Auflösung pro Plot auslöst.
+ *
+ * Features:
+ * - TTL pro Eintrag (Standard: 5 Sekunden)
+ * - Invalidierung pro Spieler (Resident-/Rang-Änderung)
+ * - Invalidierung pro Plot (Owner-Wechsel, Unclaim)
+ * - Thread-Safe (ConcurrentHashMap)
+ *
+ * **Hinweis:**
+ * Änderungen ohne eigenes Event (z.B. Nation-Ränge, Mayor-Wechsel)
+ * werden spätestens nach Ablauf der TTL sichtbar.
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class PlotPermissionCache {
+
+    /**
+     * Standard-TTL in Millisekunden.
+     */
+    public static final long DEFAULT_TTL_MILLIS = 5000L;
+
+    private final long ttlMillis;
+    private final Map<UUID, Map<UUID, CachedDecision>> decisions = new ConcurrentHashMap<>();  // Spieler → Plot → Entscheidung
+
+    /**
+     * Berechtigungs-Entscheidung eines Spielers für einen Plot.
+     *
+     * @param admin true wenn Admin-Rechte (Mayor, Assistant, Plot-Owner)
+     * @param owner true wenn Besitzer (Resident-Owner bzw. Mayor bei Town-Plots)
+     */
+    public record Decision(boolean admin, boolean owner) {
+        /**
+         * Entscheidung ohne jegliche Rechte.
+         */
+        public static final Decision NONE = new Decision(false, false);
+    }
+
+    private record CachedDecision(Decision decision, long expiresAt) {
+    }
+
+    /**
+     * Erstellt einen PlotPermissionCache.
+     *
+     * @param ttlMillis Lebensdauer eines Eintrags in Millisekunden (0 = kein Caching)
+     */
+    public PlotPermissionCache(long ttlMillis) {
+        this.ttlMillis = Math.max(0L, ttlMillis);
+    }
+
+    /**
+     * Gibt die gecachte Entscheidung zurück oder löst sie neu auf.
+     *
+     * @param playerId Spieler-UUID
+     * @param plotId Plot-UUID
+     * @param resolver Auflösung über Towny (nur bei Cache-Miss aufgerufen)
+     * @return Entscheidung
+     */
+    public Decision getOrResolve(UUID playerId, UUID plotId, Supplier<Decision> resolver) {
+        if (ttlMillis == 0L) {
+            return resolver.get();
+        }
+
+        long now = System.currentTimeMillis();
+        Map<UUID, CachedDecision> playerDecisions =
+                decisions.computeIfAbsent(playerId, id -> new ConcurrentHashMap<>());
+
+        CachedDecision cached = playerDecisions.get(plotId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.decision();
+        }
+
+        Decision decision = resolver.get();
+        playerDecisions.put(plotId, new CachedDecision(decision, now + ttlMillis));
+        return decision;
+    }
+
+    /**
+     * Invalidiert alle Entscheidungen eines Spielers.
+     *
+     * @param playerId Spieler-UUID
+     */
+    public void invalidatePlayer(UUID playerId) {
+        if (playerId != null) {
+            decisions.remove(playerId);
+        }
+    }
+
+    /**
+     * Invalidiert alle Entscheidungen für einen Plot.
+     *
+     * @param plotId Plot-UUID
+     */
+    public void invalidatePlot(UUID plotId) {
+        if (plotId != null) {
+            for (Map<UUID, CachedDecision> playerDecisions : decisions.values()) {
+                playerDecisions.remove(plotId);
+            }
+        }
+    }
+
+    /**
+     * Leert den gesamten Cache.
+     */
+    public void invalidateAll() {
+        decisions.clear();
+    }
+
+    /**
+     * Entfernt abgelaufene Einträge (z.B. periodisch oder beim Quit).
+     */
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        decisions.values().forEach(playerDecisions ->
+                playerDecisions.values().removeIf(cached -> cached.expiresAt() <= now));
+        decisions.values().removeIf(Map::isEmpty);
+    }
+}
@@ -0,0 +1,92 @@
+package de.fallenstar.plot.provider;
+
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.plot.changeowner.PlotChangeOwnerEvent;
+import com.palmergames.bukkit.towny.event.town.TownAddResidentRankEvent;
+import com.palmergames.bukkit.towny.event.town.TownRemoveResidentRankEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import de.fallenstar.plot.registry.TownBlockRegistry;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Listener zur Invalidierung des PlotPermissionCache.
+ *
+ * Invalidiert:
+ * - Spieler bei Town-Beitritt/-Austritt und Rang-Änderungen
+ * - Plot bei Owner-Wechsel
+ * - Alles bei Unclaim und Town-Löschung (selten)
+ * - Spieler beim Verlassen des Servers (Speicher freigeben)
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class PlotPermissionCacheListener implements Listener {
+
+    private final PlotPermissionCache permissionCache;
+    private final TownBlockRegistry townBlockRegistry;
+
+    /**
+     * Konstruktor für PlotPermissionCacheListener.
+     *
+     * @param permissionCache PlotPermissionCache
+     * @param townBlockRegistry TownBlockRegistry (für TownBlock → Plot-UUID)
+     */
+    public PlotPermissionCacheListener(PlotPermissionCache permissionCache, TownBlockRegistry townBlockRegistry) {
+        this.permissionCache = permissionCache;
+        this.townBlockRegistry = townBlockRegistry;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownAddResident(TownAddResidentEvent event) {
+        permissionCache.invalidatePlayer(event.getResident().getUUID());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownRemoveResident(TownRemoveResidentEvent event) {
+        permissionCache.invalidatePlayer(event.getResident().getUUID());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownAddResidentRank(TownAddResidentRankEvent event) {
+        permissionCache.invalidatePlayer(event.getResident().getUUID());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownRemoveResidentRank(TownRemoveResidentRankEvent event) {
+        permissionCache.invalidatePlayer(event.getResident().getUUID());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlotChangeOwner(PlotChangeOwnerEvent event) {
+        invalidateTownBlock(event.getTownBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownUnclaim(TownUnclaimEvent event) {
+        // TownBlock existiert nach dem Unclaim nicht mehr → Plot-UUID nicht auflösbar
+        permissionCache.invalidateAll();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownDelete(DeleteTownEvent event) {
+        permissionCache.invalidateAll();
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        permissionCache.invalidatePlayer(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Invalidiert alle Entscheidungen für einen TownBlock.
+     */
+    private void invalidateTownBlock(TownBlock townBlock) {
+        permissionCache.invalidatePlot(townBlockRegistry.getIdentity(townBlock).uuid());
+    }
+}
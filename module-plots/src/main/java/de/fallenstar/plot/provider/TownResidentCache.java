@@ -0,0 +1,102 @@
+package de.fallenstar.plot.provider;
+
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache für unveränderliche Bewohner-Mengen pro Town.
+ *
+ * Ersetzt das Neuaufbauen der Resident-Liste bei jedem getAssociates()-Aufruf.
+ *
+ * Features:
+ * - Unveränderliche Set-/List-Sicht pro Town (gemeinsam nutzbar, keine Kopie pro Aufruf)
+ * - O(1) Mitgliedschafts-Prüfung via Set
+ * - Invalidierung bei Town-Beitritt/-Austritt (siehe TownResidentCacheListener)
+ * - Thread-Safe (ConcurrentHashMap, unveränderliche Werte)
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class TownResidentCache {
+
+    private final Map<UUID, TownResidents> residentsByTown = new ConcurrentHashMap<>();  // Town-UUID → Bewohner
+
+    /**
+     * Unveränderliche Bewohner-Sicht einer Town.
+     *
+     * @param uuids Bewohner-UUIDs (für O(1) contains)
+     * @param list Bewohner-UUIDs als Liste (für PlotProvider.getAssociates)
+     */
+    public record TownResidents(Set<UUID> uuids, List<UUID> list) {
+        /**
+         * Leere Bewohner-Sicht.
+         */
+        public static final TownResidents EMPTY = new TownResidents(Set.of(), List.of());
+
+        /**
+         * Prüft ob ein Spieler Bewohner ist.
+         *
+         * @param playerUUID Spieler-UUID
+         * @return true wenn Bewohner
+         */
+        public boolean contains(UUID playerUUID) {
+            return playerUUID != null && uuids.contains(playerUUID);
+        }
+    }
+
+    /**
+     * Gibt die Bewohner einer Town zurück (baut sie bei Bedarf einmalig auf).
+     *
+     * @param town Die Town (oder null)
+     * @return TownResidents (nie null)
+     */
+    public TownResidents getResidents(Town town) {
+        if (town == null) {
+            return TownResidents.EMPTY;
+        }
+
+        return residentsByTown.computeIfAbsent(town.getUUID(), id -> build(town));
+    }
+
+    /**
+     * Invalidiert die Bewohner-Sicht einer Town.
+     *
+     * @param town Die Town
+     */
+    public void invalidate(Town town) {
+        if (town != null) {
+            residentsByTown.remove(town.getUUID());
+        }
+    }
+
+    /**
+     * Leert den gesamten Cache.
+     */
+    public void invalidateAll() {
+        residentsByTown.clear();
+    }
+
+    /**
+     * Baut die unveränderliche Bewohner-Sicht einer Town auf.
+     */
+    private TownResidents build(Town town) {
+        List<UUID> uuids = new ArrayList<>();
+
+        for (Resident resident : town.getResidents()) {
+            UUID playerUUID = resident.getUUID();
+            if (playerUUID != null) {
+                uuids.add(playerUUID);
+            }
+        }
+
+        List<UUID> list = List.copyOf(uuids);
+        return new TownResidents(Set.copyOf(list), list);
+    }
+}
@@ -0,0 +1,47 @@
+package de.fallenstar.plot.provider;
+
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Listener zur Invalidierung des TownResidentCache.
+ *
+ * Invalidiert:
+ * - Town bei Bewohner-Beitritt/-Austritt
+ * - Alles bei Town-Löschung
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class TownResidentCacheListener implements Listener {
+
+    private final TownResidentCache residentCache;
+
+    /**
+     * Konstruktor für TownResidentCacheListener.
+     *
+     * @param residentCache TownResidentCache
+     */
+    public TownResidentCacheListener(TownResidentCache residentCache) {
+        this.residentCache = residentCache;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownAddResident(TownAddResidentEvent event) {
+        residentCache.invalidate(event.getTown());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownRemoveResident(TownRemoveResidentEvent event) {
+        residentCache.invalidate(event.getTown());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownDelete(DeleteTownEvent event) {
+        residentCache.invalidateAll();
+    }
+}
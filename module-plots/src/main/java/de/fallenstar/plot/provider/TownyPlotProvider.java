@@ -10,6 +10,8 @@ import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
 import de.fallenstar.core.provider.BasePlot;
 import de.fallenstar.core.provider.Plot;
 import de.fallenstar.core.provider.PlotProvider;
+import de.fallenstar.plot.registry.TownBlockRegistry;
+import de.fallenstar.plot.registry.TownBlockRegistry.PlotIdentity;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
@@ -24,9 +26,9 @@ import java.util.UUID;
  *
  * Implementierung:
  * - TownBlocks werden als Plots behandelt
- * - Plot-UUID wird aus Town + Koordinaten generiert
+ * - Plot-UUID wird aus Town + Koordinaten generiert (vorberechnet in TownBlockRegistry)
  * - Plot-Typen: default, shop, embassy, arena, etc.
- * - Admin-Rechte: Mayor, Assistants
+ * - Admin-Rechte: Mayor, Assistants (gecacht in PlotPermissionCache)
  *
  * @author FallenStar
  * @version 1.0
@@ -34,12 +36,42 @@ import java.util.UUID;
 public class TownyPlotProvider implements PlotProvider {
 
     private final TownyAPI townyAPI;
+    private final TownBlockRegistry townBlockRegistry;
+    private final PlotPermissionCache permissionCache;
+    private final TownResidentCache residentCache;
 
     /**
      * Erstellt einen neuen TownyPlotProvider.
+     *
+     * @param townBlockRegistry Registry für vorberechnete Plot-UUIDs/Identifier
+     * @param permissionCache Cache für Admin-/Owner-Entscheidungen
+     * @param residentCache Cache für Bewohner-Mengen pro Town
      */
-    public TownyPlotProvider() {
+    public TownyPlotProvider(TownBlockRegistry townBlockRegistry,
+                             PlotPermissionCache permissionCache,
+                             TownResidentCache residentCache) {
         this.townyAPI = TownyAPI.getInstance();
+        this.townBlockRegistry = townBlockRegistry;
+        this.permissionCache = permissionCache;
+        this.residentCache = residentCache;
+    }
+
+    /**
+     * Gibt die TownBlockRegistry zurück.
+     *
+     * @return TownBlockRegistry
+     */
+    public TownBlockRegistry getTownBlockRegistry() {
+        return townBlockRegistry;
+    }
+
+    /**
+     * Gibt den PlotPermissionCache zurück.
+     *
+     * @return PlotPermissionCache
+     */
+    public PlotPermissionCache getPermissionCache() {
+        return permissionCache;
     }
 
     @Override
@@ -66,14 +98,11 @@ public class TownyPlotProvider implements PlotProvider {
                 return null; // Keine Stadt an dieser Location
             }
 
-            // Generiere UUID aus Town + Koordinaten
-            UUID plotId = generatePlotUUID(townBlock);
-
-            // Generiere lesbaren Identifier
-            String identifier = generatePlotIdentifier(townBlock);
+            // Hole vorberechnete UUID + Identifier
+            PlotIdentity identity = townBlockRegistry.getIdentity(townBlock);
 
             // Erstelle Plot-Objekt (nativePlot = TownBlock)
-            return new BasePlot(plotId, identifier, location, townBlock);
+            return new BasePlot(identity.uuid(), identity.identifier(), location, townBlock);
 
         } catch (Exception e) {
             throw new ProviderFunctionalityNotFoundException(
@@ -183,39 +212,7 @@ public class TownyPlotProvider implements PlotProvider {
         }
 
         try {
-            TownBlock townBlock = plot.getNativePlot();
-
-            if (townBlock == null) {
-                return false;
-            }
-
-            Town town = townBlock.getTownOrNull();
-            if (town == null) {
-                return false;
-            }
-
-            // Hole Resident des Spielers
-            Resident resident = townyAPI.getResident(player.getUniqueId());
-            if (resident == null) {
-                return false;
-            }
-
-            // Prüfe ob Mayor
-            if (town.isMayor(resident)) {
-                return true;
-            }
-
-            // Prüfe ob Assistant (Deputy)
-            if (resident.hasNationRank("assistant") || resident.hasTownRank("assistant")) {
-                return true;
-            }
-
-            // Prüfe ob Plot-Owner
-            if (townBlock.hasResident() && townBlock.getResident().equals(resident)) {
-                return true;
-            }
-
-            return false;
+            return getPermissionDecision(player, plot).admin();
 
         } catch (Exception e) {
             throw new ProviderFunctionalityNotFoundException(
@@ -235,30 +232,7 @@ public class TownyPlotProvider implements PlotProvider {
         }
 
         try {
-            TownBlock townBlock = plot.getNativePlot();
-
-            if (townBlock == null) {
-                return false;
-            }
-
-            // Hole Resident des Spielers
-            Resident resident = townyAPI.getResident(player.getUniqueId());
-            if (resident == null) {
-                return false;
-            }
-
-            // Prüfe ob Spieler der Resident-Owner des TownBlocks ist
-            if (townBlock.hasResident()) {
-                return townBlock.getResident().equals(resident);
-            }
-
-            // Wenn kein Resident-Owner: Prüfe ob Spieler der Mayor ist
-            Town town = townBlock.getTownOrNull();
-            if (town != null && town.isMayor(resident)) {
-                return true;
-            }
-
-            return false;
+            return getPermissionDecision(player, plot).owner();
 
         } catch (Exception e) {
             throw new ProviderFunctionalityNotFoundException(
@@ -269,38 +243,57 @@ public class TownyPlotProvider implements PlotProvider {
     }
 
     /**
-     * Generiert eine eindeutige UUID für ein Plot.
-     *
-     * Basiert auf Town-Name + Koordinaten für Konsistenz.
+     * Gibt die (gecachte) Berechtigungs-Entscheidung eines Spielers für ein Plot zurück.
      *
-     * @param townBlock Der TownBlock
-     * @return Eindeutige UUID
+     * @param player Der Spieler
+     * @param plot Das Plot
+     * @return Entscheidung (Admin + Owner)
      */
-    private UUID generatePlotUUID(TownBlock townBlock) {
-        Town town = townBlock.getTownOrNull();
-        String townName = (town != null) ? town.getName() : "unknown";
+    private PlotPermissionCache.Decision getPermissionDecision(Player player, Plot plot) {
+        TownBlock townBlock = plot.getNativePlot();
 
-        String uniqueString = townName + "_" +
-                             townBlock.getX() + "_" +
-                             townBlock.getZ() + "_" +
-                             townBlock.getWorldCoord().getWorldName();
+        if (townBlock == null) {
+            return PlotPermissionCache.Decision.NONE;
+        }
 
-        return UUID.nameUUIDFromBytes(uniqueString.getBytes());
+        return permissionCache.getOrResolve(
+            player.getUniqueId(),
+            plot.getUuid(),
+            () -> resolvePermissions(player, townBlock)
+        );
     }
 
     /**
-     * Generiert einen lesbaren Identifier für ein Plot.
+     * Löst Admin- und Owner-Rechte in einem Durchgang über Towny auf.
      *
-     * Format: "TownName (x,z)"
+     * Admin: Mayor, Assistant (Town/Nation) oder Plot-Owner (nur mit Town).
+     * Owner: Resident-Owner des TownBlocks, sonst Mayor der Town.
      *
+     * @param player Der Spieler
      * @param townBlock Der TownBlock
-     * @return Lesbarer Identifier
+     * @return Entscheidung
      */
-    private String generatePlotIdentifier(TownBlock townBlock) {
-        Town town = townBlock.getTownOrNull();
-        String townName = (town != null) ? town.getName() : "Unknown";
+    private PlotPermissionCache.Decision resolvePermissions(Player player, TownBlock townBlock) {
+        // Hole Resident des Spielers
+        Resident resident = townyAPI.getResident(player.getUniqueId());
+        if (resident == null) {
+            return PlotPermissionCache.Decision.NONE;
+        }
 
-        return townName + " (" + townBlock.getX() + "," + townBlock.getZ() + ")";
+        Town town = townBlock.getTownOrNull();
+        boolean mayor = town != null && town.isMayor(resident);
+        boolean hasPlotResident = townBlock.hasResident();
+        boolean plotOwner = hasPlotResident && resident.equals(townBlock.getResidentOrNull());
+
+        boolean admin = town != null && (
+            mayor
+            || resident.hasNationRank("assistant")
+            || resident.hasTownRank("assistant")
+            || plotOwner
+        );
+        boolean owner = hasPlotResident ? plotOwner : mayor;
+
+        return new PlotPermissionCache.Decision(admin, owner);
     }
 
     @Override
@@ -312,39 +305,54 @@ public class TownyPlotProvider implements PlotProvider {
             );
         }
 
-        List<UUID> associates = new ArrayList<>();
-
         try {
-            TownBlock townBlock = plot.getNativePlot();
+            // Unveränderliche, gecachte Bewohner-Liste der Town
+            return getTownResidents(plot).list();
 
-            if (townBlock == null) {
-                return associates; // Leere Liste
-            }
-
-            // Hole die Town des Plots
-            Town town = townBlock.getTownOrNull();
-            if (town == null) {
-                return associates; // Keine Stadt = keine Bewohner
-            }
+        } catch (Exception e) {
+            throw new ProviderFunctionalityNotFoundException(
+                "PlotProvider", "getAssociates",
+                "Error getting town residents: " + e.getMessage()
+            );
+        }
+    }
 
-            // Hole alle Residents der Town
-            for (Resident resident : town.getResidents()) {
-                UUID playerUUID = resident.getUUID();
-                if (playerUUID != null) {
-                    associates.add(playerUUID);
-                }
-            }
+    @Override
+    public boolean isAssociate(Plot plot, UUID playerUUID)
+            throws ProviderFunctionalityNotFoundException {
+        if (!isAvailable()) {
+            throw new ProviderFunctionalityNotFoundException(
+                "PlotProvider", "isAssociate", "Towny API not available"
+            );
+        }
 
-            return associates;
+        try {
+            return getTownResidents(plot).contains(playerUUID);
 
         } catch (Exception e) {
             throw new ProviderFunctionalityNotFoundException(
-                "PlotProvider", "getAssociates",
-                "Error getting town residents: " + e.getMessage()
+                "PlotProvider", "isAssociate",
+                "Error checking town residency: " + e.getMessage()
             );
         }
     }
 
+    /**
+     * Gibt die gecachten Bewohner der Town eines Plots zurück.
+     *
+     * @param plot Das Plot
+     * @return TownResidents (leer wenn kein TownBlock/keine Town)
+     */
+    private TownResidentCache.TownResidents getTownResidents(Plot plot) {
+        TownBlock townBlock = plot.getNativePlot();
+
+        if (townBlock == null) {
+            return TownResidentCache.TownResidents.EMPTY;
+        }
+
+        return residentCache.getResidents(townBlock.getTownOrNull());
+    }
+
     @Override
     public List<Plot> getPlayerPlots(UUID playerUUID)
             throws ProviderFunctionalityNotFoundException {
@@ -365,25 +373,20 @@ public class TownyPlotProvider implements PlotProvider {
 
             // Hole alle TownBlocks des Residents
             for (TownBlock townBlock : resident.getTownBlocks()) {
-                // Generiere UUID und Identifier
-                UUID plotId = generatePlotUUID(townBlock);
-                String identifier = generatePlotIdentifier(townBlock);
+                // Hole vorberechnete UUID und Identifier
+                PlotIdentity identity = townBlockRegistry.getIdentity(townBlock);
 
-                // Hole World
-                org.bukkit.World world = org.bukkit.Bukkit.getWorld(townBlock.getWorldCoord().getWorldName());
-                if (world == null) {
+                // Location ohne Block-Zugriff
+                Location location = identity.toLocation();
+                if (location == null) {
                     continue; // Skip wenn Welt nicht geladen
                 }
 
                 // Erstelle Plot-Objekt
                 Plot plot = new BasePlot(
-                    plotId,
-                    identifier,
-                    world.getBlockAt(
-                        townBlock.getX() * 16,
-                        64,
-                        townBlock.getZ() * 16
-                    ).getLocation(),
+                    identity.uuid(),
+                    identity.identifier(),
+                    location,
                     townBlock
                 );
 
@@ -1,44 +1,55 @@
 package de.fallenstar.plot.registry;
 
+import de.fallenstar.core.database.DataStore;
 import de.fallenstar.core.provider.Plot;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Registry für spezielle Grundstückstypen (Handelsgilden, Botschaften, etc.).
  *
  * Features:
- * - Auto-Registration via Towny-Events
- * - Auto-Deregistration bei Plot-Typ-Änderung oder Löschung
- * - Suche nach Grundstückstyp
- * - Persistent (in Config gespeichert)
+ * - Primär-Index: Plot-ID → PlotEntry (Typ, Welt, Chunk-Koordinaten, UUID)
+ * - Sekundär-Index: PlotType → Plot-IDs (EnumMap)
+ * - O(1) Lookups für Typ und Registrierungs-Status
+ * - Rückauflösung Plot-ID → Location (für Startup-Loader)
+ * - Persistent (via DataStore)
  *
  * **Verwendung:**
  * <pre>
- * List<Plot> guilds = plotRegistry.getPlotsByType(PlotType.MERCHANT_GUILD);
+ * List<String> guildIds = plotRegistry.getPlotIdsByType(PlotType.MERCHANT_GUILD);
+ * Optional<Location> location = plotRegistry.getPlotLocation(guildIds.get(0));
  * </pre>
  *
  * **Towny-Integration:**
  * - PlotRegistryListener überwacht TownBlock-Events
- * - Automatische Registration bei Plot-Typ-Änderung (COMMERCIAL → MERCHANT_GUILD)
- * - Automatische Deregistration bei Plot-Löschung
+ * - Manuelle Registration via Commands
  *
  * **Persistierung:**
- * - Config: plot-registry.yml
- * - Format: plot-types.<type>: [plot-id-1, plot-id-2, ...]
+ * - DataStore Namespace: plot_registry
+ * - Key: entries (Snapshot aller PlotEntries)
+ * - Alte YAML-Listen (plot-types.<type>) werden einmalig migriert
  *
  * @author FallenStar
- * @version 1.0
+ * @version 2.0
  */
 public class PlotRegistry {
 
+    private static final String NAMESPACE = "plot_registry";
+    private static final String KEY = "entries";
+
     private final Logger logger;
-    private final Map<PlotType, Set<String>> registeredPlots;  // PlotType → Plot-IDs
+    private final DataStore dataStore;
+    private final Map<String, PlotEntry> entries;               // Plot-ID → PlotEntry
+    private final EnumMap<PlotType, Set<String>> plotsByType;   // PlotType → Plot-IDs
 
     /**
      * Grundstücks-Typen für verschiedene Verwendungszwecke.
@@ -75,18 +86,96 @@ public class PlotRegistry {
         }
     }
 
+    /**
+     * Metadaten eines registrierten Grundstücks.
+     *
+     * Welt und Koordinaten können bei migrierten Alt-Einträgen fehlen
+     * (worldName == null), bis das Plot erneut registriert wird.
+     *
+     * @param plotId Plot-Identifier
+     * @param type Plot-Typ
+     * @param worldName Welt-Name (oder null)
+     * @param chunkX Chunk-X
+     * @param chunkZ Chunk-Z
+     * @param uuid Plot-UUID (oder null)
+     */
+    public record PlotEntry(
+            String plotId,
+            PlotType type,
+            String worldName,
+            int chunkX,
+            int chunkZ,
+            UUID uuid
+    ) {
+        /**
+         * Prüft ob Welt und Koordinaten bekannt sind.
+         *
+         * @return true wenn Location auflösbar
+         */
+        public boolean hasLocation() {
+            return worldName != null;
+        }
+
+        /**
+         * Erstellt eine Location an der Nordwest-Ecke des Chunks (Y=64).
+         *
+         * @return Location oder null wenn unbekannt/Welt nicht geladen
+         */
+        public Location toLocation() {
+            if (worldName == null) {
+                return null;
+            }
+            World world = Bukkit.getWorld(worldName);
+            if (world == null) {
+                return null;
+            }
+            return new Location(world, chunkX * 16, 64, chunkZ * 16);
+        }
+
+        /**
+         * Gibt eine Kopie mit anderem Typ zurück.
+         *
+         * @param newType Neuer Typ
+         * @return Neue PlotEntry
+         */
+        public PlotEntry withType(PlotType newType) {
+            return new PlotEntry(plotId, newType, worldName, chunkX, chunkZ, uuid);
+        }
+    }
+
+    /**
+     * Serialisierbarer Snapshot für DataStore.
+     */
+    public static class PlotRegistryData {
+        private List<PlotEntry> entries = new ArrayList<>();
+
+        public PlotRegistryData() {
+        }
+
+        public PlotRegistryData(List<PlotEntry> entries) {
+            this.entries = entries;
+        }
+
+        public List<PlotEntry> getEntries() {
+            return entries != null ? entries : List.of();
+        }
+    }
+
     /**
      * Konstruktor für PlotRegistry.
      *
      * @param logger Logger
+     * @param dataStore DataStore für Persistierung
      */
-    public PlotRegistry(Logger logger) {
+    public PlotRegistry(Logger logger, DataStore dataStore) {
         this.logger = logger;
-        this.registeredPlots = new ConcurrentHashMap<>();
+        this.dataStore = dataStore;
+        this.entries = new ConcurrentHashMap<>();
+        this.plotsByType = new EnumMap<>(PlotType.class);
 
-        // Initialisiere Maps für alle Typen
+        // Initialisiere Sets für alle Typen (EnumMap wird danach nicht mehr strukturell verändert)
         for (PlotType type : PlotType.values()) {
-            registeredPlots.put(type, ConcurrentHashMap.newKeySet());
+            plotsByType.put(type, ConcurrentHashMap.newKeySet());
         }
 
         logger.info("PlotRegistry initialisiert");
@@ -95,9 +184,11 @@ public class PlotRegistry {
     /**
      * Registriert ein Grundstück.
      *
+     * Ist das Plot bereits mit einem anderen Typ registriert, wird der Typ umgestellt.
+     *
      * @param plot Der Plot
      * @param type Der Plot-Typ
-     * @return true wenn erfolgreich registriert, false wenn bereits registriert
+     * @return true wenn erfolgreich registriert, false wenn bereits mit diesem Typ registriert
      */
     public boolean registerPlot(Plot plot, PlotType type) {
         if (plot == null || type == null) {
@@ -106,22 +197,41 @@ public class PlotRegistry {
         }
 
         String plotId = plot.getIdentifier();
-        Set<String> plots = registeredPlots.get(type);
+        Location location = plot.getLocation();
+
+        PlotEntry entry = new PlotEntry(
+                plotId,
+                type,
+                location != null && location.getWorld() != null ? location.getWorld().getName() : null,
+                location != null ? location.getBlockX() >> 4 : 0,
+                location != null ? location.getBlockZ() >> 4 : 0,
+                plot.getUuid()
+        );
+
+        PlotEntry previous;
+        synchronized (this) {
+            previous = entries.get(plotId);
+            if (entry.equals(previous)) {
+                logger.fine("Plot bereits registriert: " + plotId + " als " + type.getDisplayName());
+                return false;
+            }
+            putEntry(entry);
+        }
 
-        if (plots.add(plotId)) {
+        if (previous != null && previous.type() != type) {
+            logger.info("Plot umregistriert: " + plotId + " von " + previous.type().getDisplayName()
+                    + " zu " + type.getDisplayName());
+        } else {
             logger.info("Plot registriert: " + plotId + " als " + type.getDisplayName());
-            return true;
         }
 
-        logger.fine("Plot bereits registriert: " + plotId + " als " + type.getDisplayName());
-        return false;
+        saveAsync();
+        return previous == null || previous.type() != type;
     }
 
     /**
      * De-registriert ein Grundstück.
      *
-     * Entfernt das Plot aus ALLEN Typen.
-     *
      * @param plot Der Plot
      * @return true wenn erfolgreich deregistriert
      */
@@ -131,16 +241,53 @@ public class PlotRegistry {
             return false;
         }
 
-        String plotId = plot.getIdentifier();
-        boolean removed = false;
+        return unregisterPlot(plot.getIdentifier());
+    }
 
-        for (Map.Entry<PlotType, Set<String>> entry : registeredPlots.entrySet()) {
-            if (entry.getValue().remove(plotId)) {
-                logger.info("Plot deregistriert: " + plotId + " von " + entry.getKey().getDisplayName());
-                removed = true;
+    /**
+     * De-registriert ein Grundstück anhand seiner ID.
+     *
+     * @param plotId Plot-Identifier
+     * @return true wenn erfolgreich deregistriert
+     */
+    public boolean unregisterPlot(String plotId) {
+        PlotEntry removed;
+        synchronized (this) {
+            removed = entries.remove(plotId);
+            if (removed != null) {
+                plotsByType.get(removed.type()).remove(plotId);
             }
         }
 
+        if (removed == null) {
+            return false;
+        }
+
+        logger.info("Plot deregistriert: " + plotId + " von " + removed.type().getDisplayName());
+        saveAsync();
+        return true;
+    }
+
+    /**
+     * De-registriert alle Grundstücke einer Town.
+     *
+     * Nutzt das Identifier-Format "TownName (x,z)".
+     *
+     * @param townName Name der Town
+     * @return Anzahl deregistrierter Plots
+     */
+    public int unregisterTown(String townName) {
+        String prefix = townName + " (";
+        List<String> plotIds = entries.keySet().stream()
+                .filter(plotId -> plotId.startsWith(prefix))
+                .toList();
+
+        int removed = 0;
+        for (String plotId : plotIds) {
+            if (unregisterPlot(plotId)) {
+                removed++;
+            }
+        }
         return removed;
     }
 
@@ -148,7 +295,7 @@ public class PlotRegistry {
      * Gibt alle Grundstücke eines Typs zurück.
      *
      * HINWEIS: Gibt nur Plot-IDs zurück (String).
-     * Um Plot-Objekte zu erhalten, nutze PlotProvider.getPlot().
+     * Für Locations siehe {@link #getPlotLocation(String)}.
      *
      * @param type Der Plot-Typ
      * @return Liste von Plot-IDs
@@ -158,29 +305,58 @@ public class PlotRegistry {
             return Collections.emptyList();
         }
 
-        return new ArrayList<>(registeredPlots.getOrDefault(type, Collections.emptySet()));
+        return new ArrayList<>(plotsByType.get(type));
     }
 
     /**
-     * Prüft ob ein Grundstück registriert ist.
+     * Gibt alle PlotEntries eines Typs zurück.
      *
-     * @param plot Der Plot
-     * @return true wenn registriert (in irgendeinem Typ)
+     * @param type Der Plot-Typ
+     * @return Liste von PlotEntries
      */
-    public boolean isRegistered(Plot plot) {
-        if (plot == null) {
-            return false;
+    public List<PlotEntry> getEntriesByType(PlotType type) {
+        if (type == null) {
+            return Collections.emptyList();
         }
 
-        String plotId = plot.getIdentifier();
-
-        for (Set<String> plots : registeredPlots.values()) {
-            if (plots.contains(plotId)) {
-                return true;
+        List<PlotEntry> result = new ArrayList<>();
+        for (String plotId : plotsByType.get(type)) {
+            PlotEntry entry = entries.get(plotId);
+            if (entry != null) {
+                result.add(entry);
             }
         }
+        return result;
+    }
 
-        return false;
+    /**
+     * Gibt die Metadaten eines Grundstücks zurück.
+     *
+     * @param plotId Plot-Identifier
+     * @return Optional mit PlotEntry
+     */
+    public Optional<PlotEntry> getEntry(String plotId) {
+        return plotId != null ? Optional.ofNullable(entries.get(plotId)) : Optional.empty();
+    }
+
+    /**
+     * Löst eine Plot-ID zu einer Location auf.
+     *
+     * @param plotId Plot-Identifier
+     * @return Optional mit Location, oder empty wenn unbekannt/Welt nicht geladen
+     */
+    public Optional<Location> getPlotLocation(String plotId) {
+        return getEntry(plotId).map(PlotEntry::toLocation);
+    }
+
+    /**
+     * Prüft ob ein Grundstück registriert ist.
+     *
+     * @param plot Der Plot
+     * @return true wenn registriert (in irgendeinem Typ)
+     */
+    public boolean isRegistered(Plot plot) {
+        return plot != null && entries.containsKey(plot.getIdentifier());
     }
 
     /**
@@ -194,15 +370,7 @@ public class PlotRegistry {
             return Optional.empty();
         }
 
-        String plotId = plot.getIdentifier();
-
-        for (Map.Entry<PlotType, Set<String>> entry : registeredPlots.entrySet()) {
-            if (entry.getValue().contains(plotId)) {
-                return Optional.of(entry.getKey());
-            }
-        }
-
-        return Optional.empty();
+        return getEntry(plot.getIdentifier()).map(PlotEntry::type);
     }
 
     /**
@@ -212,7 +380,7 @@ public class PlotRegistry {
      * @return Anzahl Plots
      */
     public int getPlotCount(PlotType type) {
-        return registeredPlots.getOrDefault(type, Collections.emptySet()).size();
+        return type != null ? plotsByType.get(type).size() : 0;
     }
 
     /**
@@ -221,56 +389,100 @@ public class PlotRegistry {
      * @return Anzahl Plots (über alle Typen)
      */
     public int getTotalPlotCount() {
-        return registeredPlots.values().stream()
-                .mapToInt(Set::size)
-                .sum();
+        return entries.size();
+    }
+
+    // ========== Persistenz ==========
+
+    /**
+     * Lädt die Registry synchron aus dem DataStore.
+     *
+     * NUR für Server-Startup verwenden!
+     */
+    public void load() {
+        Optional<PlotRegistryData> data = dataStore.loadSync(NAMESPACE, KEY, PlotRegistryData.class);
+
+        synchronized (this) {
+            entries.clear();
+            plotsByType.values().forEach(Set::clear);
+
+            data.ifPresent(d -> d.getEntries().forEach(this::putEntry));
+        }
+
+        logger.info("PlotRegistry geladen: " + entries.size() + " Plots");
     }
 
     /**
-     * Lädt Plots aus Config.
+     * Migriert alte YAML-Listen (plot-types.<type>) in den DataStore.
+     *
+     * Wird nur ausgeführt wenn die Registry leer ist. Koordinaten und UUID
+     * werden über die TownBlockRegistry ergänzt, falls verfügbar.
      *
      * @param config FileConfiguration
+     * @param townBlockRegistry TownBlockRegistry (oder null)
+     * @return Anzahl migrierter Plots
      */
-    public void loadFromConfig(FileConfiguration config) {
+    public int migrateFromConfig(FileConfiguration config, TownBlockRegistry townBlockRegistry) {
         ConfigurationSection section = config.getConfigurationSection("plot-types");
-        if (section == null) {
-            logger.warning("Keine Plot-Registry in Config gefunden");
-            return;
+        if (section == null || !entries.isEmpty()) {
+            return 0;
         }
 
-        int loadedCount = 0;
+        int migrated = 0;
 
-        for (PlotType type : PlotType.values()) {
-            List<String> plotIds = section.getStringList(type.name());
-            Set<String> plots = registeredPlots.get(type);
+        synchronized (this) {
+            for (PlotType type : PlotType.values()) {
+                for (String plotId : section.getStringList(type.name())) {
+                    Optional<TownBlockRegistry.PlotIdentity> identity = townBlockRegistry != null
+                            ? townBlockRegistry.getIdentity(plotId)
+                            : Optional.empty();
 
-            plots.clear();
-            plots.addAll(plotIds);
+                    putEntry(identity
+                            .map(id -> new PlotEntry(plotId, type, id.worldName(), id.x(), id.z(), id.uuid()))
+                            .orElse(new PlotEntry(plotId, type, null, 0, 0, null)));
+                    migrated++;
+                }
+            }
+        }
 
-            loadedCount += plotIds.size();
+        if (migrated > 0 && saveSync()) {
+            config.set("plot-types", null);
+            logger.info("PlotRegistry: " + migrated + " Plots aus config.yml in DataStore migriert");
         }
 
-        logger.info("PlotRegistry geladen: " + loadedCount + " Plots");
+        return migrated;
     }
 
     /**
-     * Speichert Plots in Config.
+     * Speichert die Registry asynchron.
      *
-     * @param config FileConfiguration
+     * @return CompletableFuture<Boolean> - true wenn erfolgreich
      */
-    public void saveToConfig(FileConfiguration config) {
-        // Lösche alte Daten
-        config.set("plot-types", null);
+    public CompletableFuture<Boolean> saveAsync() {
+        return dataStore.save(NAMESPACE, KEY, snapshot())
+                .exceptionally(ex -> {
+                    logger.severe("Fehler beim Speichern der PlotRegistry: " + ex.getMessage());
+                    return false;
+                });
+    }
 
-        // Schreibe alle Typen
-        for (Map.Entry<PlotType, Set<String>> entry : registeredPlots.entrySet()) {
-            PlotType type = entry.getKey();
-            List<String> plotIds = new ArrayList<>(entry.getValue());
+    /**
+     * Speichert die Registry synchron.
+     *
+     * NUR für Server-Shutdown verwenden!
+     *
+     * @return true wenn erfolgreich
+     */
+    public boolean saveSync() {
+        boolean success = dataStore.saveSync(NAMESPACE, KEY, snapshot());
 
-            config.set("plot-types." + type.name(), plotIds);
+        if (success) {
+            logger.info("PlotRegistry gespeichert: " + getTotalPlotCount() + " Plots");
+        } else {
+            logger.warning("Fehler beim Speichern der PlotRegistry");
         }
 
-        logger.info("PlotRegistry gespeichert: " + getTotalPlotCount() + " Plots");
+        return success;
     }
 
     /**
@@ -284,14 +496,14 @@ public class PlotRegistry {
         info.add("");
 
         for (PlotType type : PlotType.values()) {
-            int count = getPlotCount(type);
-            info.add("§6" + type.getDisplayName() + ": §7" + count + " Plots");
-
-            if (count > 0) {
-                List<String> plotIds = getPlotIdsByType(type);
-                for (String plotId : plotIds) {
-                    info.add("  §8- " + plotId);
-                }
+            List<PlotEntry> typeEntries = getEntriesByType(type);
+            info.add("§6" + type.getDisplayName() + ": §7" + typeEntries.size() + " Plots");
+
+            for (PlotEntry entry : typeEntries) {
+                String location = entry.hasLocation()
+                        ? entry.worldName() + " [" + entry.chunkX() + "," + entry.chunkZ() + "]"
+                        : "Location unbekannt";
+                info.add("  §8- " + entry.plotId() + " §7(" + location + ")");
             }
         }
 
@@ -300,4 +512,22 @@ public class PlotRegistry {
 
         return info;
     }
+
+    /**
+     * Fügt einen Eintrag in beide Indizes ein (Aufrufer hält Lock).
+     */
+    private void putEntry(PlotEntry entry) {
+        PlotEntry previous = entries.put(entry.plotId(), entry);
+        if (previous != null && previous.type() != entry.type()) {
+            plotsByType.get(previous.type()).remove(entry.plotId());
+        }
+        plotsByType.get(entry.type()).add(entry.plotId());
+    }
+
+    /**
+     * Erstellt einen serialisierbaren Snapshot.
+     */
+    private PlotRegistryData snapshot() {
+        return new PlotRegistryData(new ArrayList<>(entries.values()));
+    }
 }
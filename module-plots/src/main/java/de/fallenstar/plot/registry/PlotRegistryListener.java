@@ -16,10 +16,10 @@ import java.util.logging.Logger;
  *
  * **Alternative:**
  * - Manuelle Registration via `/plot registry register <type>` Command
- * - Nur DeleteTownEvent wird behandelt (Info-Log)
+ * - Nur DeleteTownEvent wird behandelt (Auto-Deregistrierung)
  *
  * Features:
- * - Info-Log bei Town-Löschung
+ * - Auto-Deregistrierung bei Town-Löschung
  * - Manuelle Plot-Registrierung via Commands
  *
  * @author FallenStar
@@ -46,18 +46,15 @@ public class PlotRegistryListener implements Listener {
     /**
      * Behandelt Town-Löschungen.
      *
-     * Bei Town-Löschung werden alle Plots automatisch
-     * von Towny entfernt. Dies dient nur als Info-Log.
+     * Bei Town-Löschung werden alle Plots von Towny entfernt,
+     * daher werden sie auch aus der PlotRegistry deregistriert.
      *
      * @param event DeleteTownEvent
      */
     @EventHandler
     public void onTownDelete(DeleteTownEvent event) {
-        logger.info("Town gelöscht: " + event.getTownName());
-        logger.info("Hinweis: Plots dieser Town sollten manuell deregistriert werden");
-
-        // TODO: Implementiere automatische Deregistrierung aller Plots dieser Town
-        // Benötigt Mapping: Town-Name → Plot-IDs
+        int removed = plotRegistry.unregisterTown(event.getTownName());
+        logger.info("Town gelöscht: " + event.getTownName() + " - " + removed + " Plots deregistriert");
     }
 
     // NOTE: Auto-Registration via TownBlockSettingsChangedEvent wurde entfernt
@@ -0,0 +1,291 @@
+package de.fallenstar.plot.registry;
+
+import com.palmergames.bukkit.towny.TownyAPI;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Registry für vorberechnete Plot-Identitäten von Towny-TownBlocks.
+ *
+ * UUID und Identifier eines TownBlocks werden einmalig berechnet
+ * und danach nur noch nachgeschlagen (statt MD5-Hash pro getPlot()).
+ *
+ * Features:
+ * - WorldCoord → PlotIdentity (Lookup beim Plot-Erstellen)
+ * - UUID → WorldCoord (Rückauflösung UUID → TownBlock)
+ * - Identifier → WorldCoord (Rückauflösung Plot-ID → Location)
+ * - Aktualisierung via Towny-Events (Claim, Unclaim, Rename, Delete)
+ *
+ * **Konsistenz:**
+ * Einträge speichern den Town-Namen zum Zeitpunkt der Berechnung.
+ * Weicht dieser vom aktuellen Town-Namen ab (verpasstes Event),
+ * wird der Eintrag beim nächsten Zugriff neu berechnet.
+ *
+ * **Verwendung:**
+ * <pre>
+ * PlotIdentity identity = registry.getIdentity(townBlock);
+ * Optional&lt;Location&gt; location = registry.getLocation("Stadt (12,-4)");
+ * </pre>
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class TownBlockRegistry {
+
+    private final Logger logger;
+    private final Map<WorldCoord, PlotIdentity> identities = new ConcurrentHashMap<>();
+    private final Map<UUID, WorldCoord> coordsByUuid = new ConcurrentHashMap<>();
+    private final Map<String, WorldCoord> coordsByIdentifier = new ConcurrentHashMap<>();
+
+    /**
+     * Vorberechnete Identität eines TownBlocks.
+     *
+     * @param uuid Plot-UUID (aus Town-Name + Koordinaten)
+     * @param identifier Lesbarer Identifier ("TownName (x,z)")
+     * @param townName Town-Name zum Zeitpunkt der Berechnung ("" wenn keine Town)
+     * @param worldName Welt-Name
+     * @param x Chunk-X
+     * @param z Chunk-Z
+     */
+    public record PlotIdentity(
+            UUID uuid,
+            String identifier,
+            String townName,
+            String worldName,
+            int x,
+            int z
+    ) {
+        /**
+         * Erstellt eine Location an der Nordwest-Ecke des Chunks (Y=64).
+         *
+         * Lädt keinen Block (kein getBlockAt()).
+         *
+         * @return Location oder null wenn Welt nicht geladen
+         */
+        public Location toLocation() {
+            World world = Bukkit.getWorld(worldName);
+            if (world == null) {
+                return null;
+            }
+            return new Location(world, x * 16, 64, z * 16);
+        }
+    }
+
+    /**
+     * Konstruktor für TownBlockRegistry.
+     *
+     * @param logger Logger
+     */
+    public TownBlockRegistry(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Baut die Registry aus allen aktuell geclaimten TownBlocks neu auf.
+     *
+     * Sollte einmalig beim Start aufgerufen werden.
+     */
+    public void rebuild() {
+        identities.clear();
+        coordsByUuid.clear();
+        coordsByIdentifier.clear();
+
+        for (TownBlock townBlock : TownyAPI.getInstance().getTownBlocks()) {
+            put(townBlock.getWorldCoord(), compute(townBlock));
+        }
+
+        logger.info("TownBlockRegistry aufgebaut: " + identities.size() + " TownBlocks");
+    }
+
+    /**
+     * Gibt die Identität eines TownBlocks zurück.
+     *
+     * Berechnet sie bei Bedarf (erster Zugriff oder Town umbenannt).
+     *
+     * @param townBlock Der TownBlock
+     * @return PlotIdentity (nie null)
+     */
+    public PlotIdentity getIdentity(TownBlock townBlock) {
+        WorldCoord coord = townBlock.getWorldCoord();
+        PlotIdentity identity = identities.get(coord);
+
+        if (identity != null && identity.townName().equals(getTownName(townBlock))) {
+            return identity;
+        }
+
+        identity = compute(townBlock);
+        put(coord, identity);
+        return identity;
+    }
+
+    /**
+     * Gibt die Identität zu einer Plot-UUID zurück.
+     *
+     * @param uuid Plot-UUID
+     * @return Optional mit PlotIdentity
+     */
+    public Optional<PlotIdentity> getIdentity(UUID uuid) {
+        WorldCoord coord = coordsByUuid.get(uuid);
+        return coord != null ? Optional.ofNullable(identities.get(coord)) : Optional.empty();
+    }
+
+    /**
+     * Gibt die Identität zu einem Plot-Identifier zurück.
+     *
+     * @param identifier Plot-Identifier ("TownName (x,z)")
+     * @return Optional mit PlotIdentity
+     */
+    public Optional<PlotIdentity> getIdentity(String identifier) {
+        WorldCoord coord = coordsByIdentifier.get(identifier);
+        return coord != null ? Optional.ofNullable(identities.get(coord)) : Optional.empty();
+    }
+
+    /**
+     * Löst eine Plot-UUID zum TownBlock auf.
+     *
+     * @param uuid Plot-UUID
+     * @return Optional mit TownBlock, oder empty wenn unbekannt/nicht mehr geclaimt
+     */
+    public Optional<TownBlock> getTownBlock(UUID uuid) {
+        WorldCoord coord = coordsByUuid.get(uuid);
+        return coord != null ? Optional.ofNullable(coord.getTownBlockOrNull()) : Optional.empty();
+    }
+
+    /**
+     * Löst einen Plot-Identifier zu einer Location auf.
+     *
+     * @param identifier Plot-Identifier ("TownName (x,z)")
+     * @return Optional mit Location, oder empty wenn unbekannt/Welt nicht geladen
+     */
+    public Optional<Location> getLocation(String identifier) {
+        return getIdentity(identifier).map(PlotIdentity::toLocation);
+    }
+
+    /**
+     * Registriert einen neu geclaimten TownBlock.
+     *
+     * @param townBlock Der TownBlock
+     */
+    public void onClaim(TownBlock townBlock) {
+        put(townBlock.getWorldCoord(), compute(townBlock));
+    }
+
+    /**
+     * Entfernt einen ungeclaimten TownBlock.
+     *
+     * @param coord WorldCoord des TownBlocks
+     */
+    public void onUnclaim(WorldCoord coord) {
+        remove(coord);
+    }
+
+    /**
+     * Berechnet alle TownBlocks einer umbenannten Town neu.
+     *
+     * @param town Die Town (bereits mit neuem Namen)
+     */
+    public void onTownRenamed(Town town) {
+        int updated = 0;
+
+        for (TownBlock townBlock : town.getTownBlocks()) {
+            put(townBlock.getWorldCoord(), compute(townBlock));
+            updated++;
+        }
+
+        logger.fine("TownBlockRegistry: " + updated + " TownBlocks nach Umbenennung von " + town.getName() + " aktualisiert");
+    }
+
+    /**
+     * Entfernt alle TownBlocks einer gelöschten Town.
+     *
+     * @param townName Name der gelöschten Town
+     */
+    public void onTownDeleted(String townName) {
+        identities.entrySet().stream()
+                .filter(entry -> entry.getValue().townName().equals(townName))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::remove);
+    }
+
+    /**
+     * Gibt die Anzahl registrierter TownBlocks zurück.
+     *
+     * @return Anzahl
+     */
+    public int size() {
+        return identities.size();
+    }
+
+    /**
+     * Speichert eine Identität und ersetzt ggf. veraltete Rück-Mappings.
+     */
+    private void put(WorldCoord coord, PlotIdentity identity) {
+        PlotIdentity previous = identities.put(coord, identity);
+
+        if (previous != null) {
+            coordsByUuid.remove(previous.uuid(), coord);
+            coordsByIdentifier.remove(previous.identifier(), coord);
+        }
+
+        coordsByUuid.put(identity.uuid(), coord);
+        coordsByIdentifier.put(identity.identifier(), coord);
+    }
+
+    /**
+     * Entfernt eine Identität inklusive Rück-Mappings.
+     */
+    private void remove(WorldCoord coord) {
+        PlotIdentity previous = identities.remove(coord);
+
+        if (previous != null) {
+            coordsByUuid.remove(previous.uuid(), coord);
+            coordsByIdentifier.remove(previous.identifier(), coord);
+        }
+    }
+
+    /**
+     * Berechnet UUID und Identifier eines TownBlocks.
+     *
+     * UUID basiert auf Town-Name + Koordinaten + Welt (kompatibel
+     * zu bereits gespeicherten Plot-Daten).
+     */
+    private PlotIdentity compute(TownBlock townBlock) {
+        String townName = getTownName(townBlock);
+        String worldName = townBlock.getWorldCoord().getWorldName();
+        int x = townBlock.getX();
+        int z = townBlock.getZ();
+
+        boolean hasTown = !townName.isEmpty();
+
+        String uniqueString = (hasTown ? townName : "unknown") + "_" +
+                             x + "_" +
+                             z + "_" +
+                             worldName;
+        UUID uuid = UUID.nameUUIDFromBytes(uniqueString.getBytes());
+
+        String identifier = (hasTown ? townName : "Unknown") + " (" + x + "," + z + ")";
+
+        return new PlotIdentity(uuid, identifier, townName, worldName, x, z);
+    }
+
+    /**
+     * Gibt den Town-Namen eines TownBlocks zurück.
+     *
+     * @return Town-Name oder "" wenn keine Town
+     */
+    private String getTownName(TownBlock townBlock) {
+        Town town = townBlock.getTownOrNull();
+        return town != null ? town.getName() : "";
+    }
+}
@@ -0,0 +1,77 @@
+package de.fallenstar.plot.registry;
+
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.town.TownUnclaimEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Listener für Towny-Events zur Aktualisierung der TownBlockRegistry.
+ *
+ * Features:
+ * - Claim → TownBlock registrieren
+ * - Unclaim → TownBlock entfernen
+ * - Rename → UUIDs/Identifier der Town neu berechnen
+ * - Delete → alle TownBlocks der Town entfernen
+ *
+ * Alle Handler laufen auf MONITOR-Priorität (nur nach erfolgreichem Event).
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+public class TownBlockRegistryListener implements Listener {
+
+    private final TownBlockRegistry townBlockRegistry;
+
+    /**
+     * Konstruktor für TownBlockRegistryListener.
+     *
+     * @param townBlockRegistry TownBlockRegistry
+     */
+    public TownBlockRegistryListener(TownBlockRegistry townBlockRegistry) {
+        this.townBlockRegistry = townBlockRegistry;
+    }
+
+    /**
+     * Registriert neu geclaimte TownBlocks.
+     *
+     * @param event TownClaimEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownClaim(TownClaimEvent event) {
+        townBlockRegistry.onClaim(event.getTownBlock());
+    }
+
+    /**
+     * Entfernt ungeclaimte TownBlocks.
+     *
+     * @param event TownUnclaimEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownUnclaim(TownUnclaimEvent event) {
+        townBlockRegistry.onUnclaim(event.getWorldCoord());
+    }
+
+    /**
+     * Berechnet UUIDs/Identifier nach Town-Umbenennung neu.
+     *
+     * @param event RenameTownEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownRename(RenameTownEvent event) {
+        townBlockRegistry.onTownRenamed(event.getTown());
+    }
+
+    /**
+     * Entfernt alle TownBlocks einer gelöschten Town.
+     *
+     * @param event DeleteTownEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTownDelete(DeleteTownEvent event) {
+        townBlockRegistry.onTownDeleted(event.getTownName());
+    }
+}
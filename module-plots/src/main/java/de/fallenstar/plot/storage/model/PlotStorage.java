@@ -5,22 +5,26 @@ import org.bukkit.Material;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Aggregation aller gelagerter Materialien auf einem Grundstück.
  *
  * Verwaltet alle Truhen und deren Inhalte auf einem Plot.
- * Thread-safe für asynchrone Updates.
+ * Thread-safe für asynchrone Updates und Lesezugriffe (z.B. DynamicPricingEngine).
+ * Jede Bestandsänderung wird an einen optionalen Change-Listener gemeldet.
  *
  * @author FallenStar
- * @version 1.0
+ * @version 1.1
  */
 public class PlotStorage {
 
     private final Plot plot;
     private final Map<Material, List<StoredMaterial>> materialMap;
     private final Map<UUID, ChestData> chestDataMap;
-    private long lastUpdate;
+    private volatile long lastUpdate;
+    private volatile Consumer<PlotStorage> changeListener;
 
     /**
      * Erstellt ein neues PlotStorage-Objekt.
@@ -47,7 +51,7 @@ public class PlotStorage {
      * @param storedMaterial Das zu speichernde Material
      */
     public void addMaterial(StoredMaterial storedMaterial) {
-        materialMap.computeIfAbsent(storedMaterial.getMaterial(), k -> new ArrayList<>())
+        materialMap.computeIfAbsent(storedMaterial.getMaterial(), k -> new CopyOnWriteArrayList<>())
                    .add(storedMaterial);
         updateTimestamp();
     }
@@ -210,10 +214,27 @@ public class PlotStorage {
     }
 
     /**
-     * Aktualisiert den Update-Zeitstempel.
+     * Setzt den Listener für Bestandsänderungen.
+     *
+     * Der Listener wird auf dem ändernden Thread aufgerufen und sollte
+     * nur Arbeit vormerken (z.B. Plot als dirty markieren).
+     *
+     * @param changeListener Listener oder null zum Entfernen
+     */
+    public void setChangeListener(Consumer<PlotStorage> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Aktualisiert den Update-Zeitstempel und meldet die Änderung.
      */
     private void updateTimestamp() {
         this.lastUpdate = System.currentTimeMillis();
+
+        Consumer<PlotStorage> listener = changeListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
     }
 
     @Override
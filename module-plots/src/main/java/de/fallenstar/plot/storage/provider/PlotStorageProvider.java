@@ -12,6 +12,7 @@ import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -32,6 +33,7 @@ public class PlotStorageProvider implements de.fallenstar.core.provider.PlotStor
     private final Map<UUID, PlotStorage> plotStorageMap;
     private final ChestScanService scanService;
     private final Logger logger;
+    private volatile Consumer<PlotStorage> changeListener;
 
     /**
      * Erstellt einen neuen PlotStorageProvider.
@@ -53,7 +55,26 @@ public class PlotStorageProvider implements de.fallenstar.core.provider.PlotStor
      * @return Das PlotStorage-Objekt
      */
     public PlotStorage getPlotStorage(Plot plot) {
-        return plotStorageMap.computeIfAbsent(plot.getUuid(), k -> new PlotStorage(plot));
+        return plotStorageMap.computeIfAbsent(plot.getUuid(), k -> {
+            PlotStorage storage = new PlotStorage(plot);
+            storage.setChangeListener(changeListener);
+            return storage;
+        });
+    }
+
+    /**
+     * Registriert einen Listener für Bestandsänderungen aller Plots.
+     *
+     * Gilt für bestehende und neu angelegte PlotStorages. Mehrere Listener
+     * werden in Registrierungs-Reihenfolge aufgerufen.
+     *
+     * @param listener Listener
+     */
+    public synchronized void addChangeListener(Consumer<PlotStorage> listener) {
+        Objects.requireNonNull(listener, "listener cannot be null");
+        Consumer<PlotStorage> combined = changeListener == null ? listener : changeListener.andThen(listener);
+        this.changeListener = combined;
+        plotStorageMap.values().forEach(storage -> storage.setChangeListener(combined));
     }
 
     /**
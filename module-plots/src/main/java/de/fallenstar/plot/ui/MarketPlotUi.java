@@ -230,7 +230,7 @@ public class MarketPlotUi extends BasicGsUi {
                 new ViewPlotInfoAction(plot)  // Type-Safe!
         );
 
-        // Markt-Statistiken (Placeholder)
+        // Markt-Statistiken
         addFunctionButton(
                 Material.BOOK,
                 "§e§lMarkt-Statistiken",
@@ -238,9 +238,9 @@ public class MarketPlotUi extends BasicGsUi {
                         "§7Zeigt Umsatz und",
                         "§7Verkaufsstatistiken an",
                         "§7",
-                        "§c§lNoch nicht implementiert"
+                        "§a§lKlicke zum Anzeigen"
                 ),
-                new ViewMarketStatsAction(plot)  // Type-Safe Placeholder!
+                new ViewMarketStatsAction(plot, plotModule.getMarketHistory())  // Type-Safe!
         );
     }
 
@@ -248,20 +248,21 @@ public class MarketPlotUi extends BasicGsUi {
      * Baut die Guest-Funktionen.
      */
     private void buildGuestFunctions() {
-        // Händler finden (Placeholder)
+        // Händler finden
         addFunctionButton(
                 Material.COMPASS,
                 "§e§lHändler finden",
                 List.of(
-                        "§7Zeigt alle aktiven Händler",
-                        "§7auf diesem Marktplatz an",
+                        "§7Sucht die günstigsten und",
+                        "§7nächsten Händler für das",
+                        "§7Item in deiner Hand",
                         "§7",
-                        "§c§lNoch nicht implementiert"
+                        "§a§lKlicke zum Suchen"
                 ),
-                new FindTradersAction(plot)  // Type-Safe Placeholder!
+                new FindTradersAction(plot, plotModule.getMarketIndex())  // Type-Safe!
         );
 
-        // Verfügbare Waren (Placeholder)
+        // Verfügbare Waren
         addFunctionButton(
                 Material.EMERALD,
                 "§a§lVerfügbare Waren",
@@ -269,9 +270,9 @@ public class MarketPlotUi extends BasicGsUi {
                         "§7Zeigt alle verfügbaren",
                         "§7Waren und Preise an",
                         "§7",
-                        "§c§lNoch nicht implementiert"
+                        "§a§lKlicke zum Anzeigen"
                 ),
-                new ViewAvailableGoodsAction(plot)  // Type-Safe Placeholder!
+                new ViewAvailableGoodsAction(plot, plotModule.getMarketIndex())  // Type-Safe!
         );
 
         // Plot-Info
@@ -0,0 +1,132 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.plot.manager.DynamicPricingEngine.Settings;
+import de.fallenstar.plot.model.PlotPriceData;
+import de.fallenstar.plot.storage.model.ChestData;
+import de.fallenstar.plot.storage.model.PlotStorage;
+import de.fallenstar.plot.storage.provider.PlotStorageProvider;
+import org.bukkit.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für DynamicPricingEngine (Angebot/Nachfrage-Faktoren).
+ *
+ * **Testet:**
+ * - Zielfaktor inkl. floor/ceiling
+ * - Glättung und Neuberechnung nur bei Änderungen
+ * - Handelsvolumen als Nachfrage-Signal
+ * - Anwendung der Faktoren auf Preis-Arrays
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+class DynamicPricingEngineTest {
+
+    private static final Settings SETTINGS = new Settings(64, 1.0, 0.5, 0.5, 2.0, 1.0);
+
+    private PlotStorage storage;
+    private PlotPriceResolver resolver;
+    private DynamicPricingEngine engine;
+    private Plot plot;
+
+    @BeforeEach
+    void setUp() {
+        plot = mock(Plot.class);
+        when(plot.getUuid()).thenReturn(UUID.randomUUID());
+
+        storage = mock(PlotStorage.class);
+        when(storage.getPlot()).thenReturn(plot);
+        when(storage.getAllChests()).thenReturn(List.of(mock(ChestData.class)));
+
+        PlotStorageProvider storageProvider = mock(PlotStorageProvider.class);
+        when(storageProvider.getPlotStorage(plot)).thenReturn(storage);
+
+        resolver = mock(PlotPriceResolver.class);
+        engine = new DynamicPricingEngine(SETTINGS, storageProvider, Logger.getLogger("DynamicPricingEngineTest"));
+        engine.setPriceResolver(resolver);
+    }
+
+    @Test
+    @DisplayName("targetFactor: Verhältnis wird auf floor/ceiling begrenzt")
+    void testTargetFactor_Clamped() {
+        assertEquals(1.0, SETTINGS.targetFactor(64, 0), 1e-9);
+        assertEquals(2.0, SETTINGS.targetFactor(0, 0), 1e-9);
+        assertEquals(0.5, SETTINGS.targetFactor(1000, 0), 1e-9);
+        assertEquals(1.5, SETTINGS.targetFactor(64, 32), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Settings: Ungültige Werte werden abgelehnt")
+    void testSettings_InvalidRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Settings(64, 0.5, 0.5, 2.0, 1.0, 0.3));
+        assertThrows(IllegalArgumentException.class, () -> new Settings(64, 0.5, 0.5, 0.5, 2.0, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new Settings(0, 0.5, 0.5, 0.5, 2.0, 0.3));
+    }
+
+    @Test
+    @DisplayName("tick: Knapper Bestand erhöht den Faktor und invalidiert den Plot")
+    void testTick_LowStockRaisesFactor() {
+        when(storage.getAllMaterials()).thenReturn(Set.of(Material.DIAMOND));
+        when(storage.getTotalAmount(Material.DIAMOND)).thenReturn(32);
+
+        assertEquals(0, engine.tick(), "Ohne Änderung keine Neuberechnung");
+
+        engine.markDirty(storage);
+        assertEquals(1, engine.tick());
+
+        assertEquals(2.0, engine.getFactor(plot.getUuid(), Material.DIAMOND), 1e-9);
+        verify(resolver).invalidate(plot);
+    }
+
+    @Test
+    @DisplayName("recordTrade: Handelsvolumen wirkt als Nachfrage und klingt ab")
+    void testRecordTrade_VolumeDecays() {
+        when(storage.getAllMaterials()).thenReturn(Set.of(Material.DIAMOND));
+        when(storage.getTotalAmount(Material.DIAMOND)).thenReturn(64);
+
+        engine.recordTrade(plot, Material.DIAMOND, 32);
+        engine.tick();
+        assertEquals(1.5, engine.getFactor(plot.getUuid(), Material.DIAMOND), 1e-9);
+
+        // Plot bleibt vorgemerkt, bis das Volumen abgeklungen ist
+        engine.tick();
+        assertEquals(1.25, engine.getFactor(plot.getUuid(), Material.DIAMOND), 1e-9);
+
+        for (int i = 0; i < 10; i++) {
+            engine.tick();
+        }
+        assertEquals(1.0, engine.getFactor(plot.getUuid(), Material.DIAMOND), 1e-9);
+        assertEquals(0, engine.getPricedPlotCount());
+    }
+
+    @Test
+    @DisplayName("applyFactors: Skaliert vorhandene Preise, NO_PRICE bleibt")
+    void testApplyFactors_ScalesPrices() {
+        when(storage.getAllMaterials()).thenReturn(Set.of(Material.DIAMOND));
+        when(storage.getTotalAmount(Material.DIAMOND)).thenReturn(128);
+        engine.markDirty(storage);
+        engine.tick();
+
+        long[] prices = new long[Material.values().length * 2];
+        Arrays.fill(prices, PlotPriceData.NO_PRICE);
+        int index = Material.DIAMOND.ordinal() << 1;
+        prices[index + 1] = 10000;
+
+        engine.applyFactors(plot.getUuid(), prices);
+
+        assertEquals(PlotPriceData.NO_PRICE, prices[index]);
+        assertEquals(5000, prices[index + 1]);
+    }
+}
@@ -0,0 +1,129 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.database.DataStore;
+import de.fallenstar.plot.manager.MarketHistory.Bucket;
+import de.fallenstar.plot.manager.MarketHistory.Resolution;
+import de.fallenstar.plot.manager.MarketHistory.Summary;
+import org.bukkit.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für MarketHistory (Ringpuffer mit Minuten-, Stunden- und Tages-Buckets).
+ *
+ * **Testet:**
+ * - Aggregation in allen Auflösungen
+ * - Überschreiben veralteter Buckets im Ringpuffer
+ * - Zusammenfassung inkl. Trend
+ * - Persistierung über den DataStore
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+class MarketHistoryTest {
+
+    private static final long MINUTE = Resolution.MINUTE.getMillis();
+    private static final long HOUR = Resolution.HOUR.getMillis();
+    private static final long START = 1_000 * Resolution.DAY.getMillis();
+
+    private MarketHistory history;
+    private UUID plotId;
+
+    @BeforeEach
+    void setUp() {
+        history = new MarketHistory(Logger.getLogger("MarketHistoryTest"));
+        plotId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("record: Handel landet in Minuten-, Stunden- und Tages-Bucket")
+    void testRecord_AggregatesAllResolutions() {
+        history.record(plotId, Material.DIAMOND, 2, 1000, START);
+        history.record(plotId, Material.DIAMOND, 3, 1500, START + MINUTE);
+
+        assertEquals(2, history.getBuckets(plotId, Material.DIAMOND, Resolution.MINUTE, 60, START + MINUTE).size());
+
+        List<Bucket> hours = history.getBuckets(plotId, Material.DIAMOND, Resolution.HOUR, 48, START + MINUTE);
+        assertEquals(1, hours.size());
+        Bucket hour = hours.get(0);
+        assertEquals(5, hour.volume());
+        assertEquals(6500, hour.turnover());
+        assertEquals(1000, hour.low());
+        assertEquals(1500, hour.high());
+        assertEquals(0, new BigDecimal("13.00").compareTo(hour.averagePrice()));
+    }
+
+    @Test
+    @DisplayName("Ringpuffer: Buckets außerhalb des Fensters werden überschrieben")
+    void testRing_OverwritesOldBuckets() {
+        history.record(plotId, Material.DIAMOND, 1, 100, START);
+        history.record(plotId, Material.DIAMOND, 1, 200, START + 60 * MINUTE);   // gleicher Slot, 1h später
+
+        List<Bucket> minutes = history.getBuckets(plotId, Material.DIAMOND, Resolution.MINUTE, 60, START + 60 * MINUTE);
+        assertEquals(1, minutes.size());
+        assertEquals(200, minutes.get(0).low());
+
+        // Älter als der Ringpuffer → ignoriert
+        history.record(plotId, Material.DIAMOND, 1, 50, START);
+        assertEquals(200, history.getBuckets(plotId, Material.DIAMOND, Resolution.MINUTE, 60, START + 60 * MINUTE)
+                .get(0).low());
+    }
+
+    @Test
+    @DisplayName("summarize: Volumen, Ø-Preis und Trend ggü. Vorzeitraum")
+    void testSummarize_WithTrend() {
+        history.record(plotId, Material.DIAMOND, 10, 1000, START);                 // Vortag
+        history.record(plotId, Material.DIAMOND, 10, 1100, START + 24 * HOUR);     // Heute
+
+        Summary summary = history.summarize(plotId, Material.DIAMOND, Resolution.HOUR, 24, START + 24 * HOUR);
+
+        assertEquals(10, summary.volume());
+        assertEquals(0, new BigDecimal("110").compareTo(summary.turnover()));
+        assertEquals(0, new BigDecimal("11").compareTo(summary.averagePrice()));
+        assertEquals(10.0, summary.trendPercent(), 1e-9);
+
+        assertFalse(history.summarize(plotId, Material.IRON_INGOT, Resolution.HOUR, 24, START).hasTrades());
+    }
+
+    @Test
+    @DisplayName("flush/start: Verlauf wird über den DataStore wiederhergestellt")
+    void testFlush_RestoresFromDataStore() {
+        DataStore dataStore = mock(DataStore.class);
+        when(dataStore.saveSync(any(), any(), any())).thenReturn(true);
+        org.bukkit.plugin.Plugin plugin = mock(org.bukkit.plugin.Plugin.class, RETURNS_DEEP_STUBS);
+
+        history.start(plugin, dataStore, 1200L);
+        history.record(plotId, Material.DIAMOND, 4, 250, START);
+        history.flush();
+
+        ArgumentCaptor<MarketHistory.IndexData> index = ArgumentCaptor.forClass(MarketHistory.IndexData.class);
+        ArgumentCaptor<MarketHistory.PlotData> data = ArgumentCaptor.forClass(MarketHistory.PlotData.class);
+        verify(dataStore).saveSync(eq("market_history"), eq("index"), index.capture());
+        verify(dataStore).saveSync(eq("market_history"), eq("plot_" + plotId), data.capture());
+
+        when(dataStore.loadSync("market_history", "index", MarketHistory.IndexData.class))
+                .thenReturn(Optional.of(index.getValue()));
+        when(dataStore.loadSync("market_history", "plot_" + plotId, MarketHistory.PlotData.class))
+                .thenReturn(Optional.of(data.getValue()));
+
+        MarketHistory restored = new MarketHistory(Logger.getLogger("MarketHistoryTest"));
+        restored.start(plugin, dataStore, 1200L);
+
+        Summary summary = restored.summarize(plotId, Material.DIAMOND, Resolution.DAY, 1, START);
+        assertEquals(4, summary.volume());
+        assertEquals(0, new BigDecimal("2.50").compareTo(summary.averagePrice()));
+    }
+}
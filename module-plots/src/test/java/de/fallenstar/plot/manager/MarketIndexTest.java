@@ -0,0 +1,141 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.core.provider.PriceResolutionProvider;
+import de.fallenstar.plot.manager.MarketIndex.Listing;
+import de.fallenstar.plot.storage.model.PlotStorage;
+import de.fallenstar.plot.storage.provider.PlotStorageProvider;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für MarketIndex (Material → nach Preis sortierte Angebote).
+ *
+ * **Testet:**
+ * - Günstigste Angebote plot-übergreifend
+ * - Inkrementelles Ersetzen/Entfernen bei Bestands- und Preis-Änderungen
+ * - Nächste Angebote nach Entfernung
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+class MarketIndexTest {
+
+    private PlotStorageProvider storageProvider;
+    private PriceResolutionProvider priceResolver;
+    private MarketIndex index;
+    private World world;
+
+    @BeforeEach
+    void setUp() {
+        storageProvider = mock(PlotStorageProvider.class);
+        priceResolver = mock(PriceResolutionProvider.class);
+        world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+
+        index = new MarketIndex(storageProvider, priceResolver, Logger.getLogger("MarketIndexTest"));
+    }
+
+    @Test
+    @DisplayName("findCheapest: Angebote mehrerer Plots nach Preis sortiert")
+    void testFindCheapest_SortedByPrice() throws Exception {
+        Plot expensive = listPlot("A", 0, 10, "12.50");
+        Plot cheap = listPlot("B", 100, 5, "9.99");
+        index.markDirty(expensive);
+        index.markDirty(cheap);
+
+        assertEquals(2, index.refresh());
+
+        List<Listing> cheapest = index.findCheapest(Material.DIAMOND, 5);
+        assertEquals(2, cheapest.size());
+        assertEquals("B", cheapest.get(0).plotIdentifier());
+        assertEquals(0, new BigDecimal("9.99").compareTo(cheapest.get(0).getPrice()));
+        assertEquals(1, index.findCheapest(Material.DIAMOND, 1).size());
+        assertTrue(index.findCheapest(Material.IRON_INGOT, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("refresh: Geänderter Preis ersetzt, leerer Bestand entfernt das Angebot")
+    void testRefresh_ReplacesAndRemovesListings() throws Exception {
+        Plot plotA = listPlot("A", 0, 10, "12.50");
+        Plot plotB = listPlot("B", 100, 5, "9.99");
+        index.markDirty(plotA);
+        index.markDirty(plotB);
+        index.refresh();
+
+        when(priceResolver.getSellPrice(plotA, Material.DIAMOND)).thenReturn(Optional.of(new BigDecimal("5")));
+        index.markDirty(plotA);
+        index.refresh();
+
+        assertEquals("A", index.findCheapest(Material.DIAMOND, 1).get(0).plotIdentifier());
+        assertEquals(2, index.getListingCount());
+
+        when(storageProvider.getPlotStorage(plotA).getTotalAmount(Material.DIAMOND)).thenReturn(0);
+        index.markDirty(plotA);
+        index.refresh();
+
+        assertEquals(1, index.getListingCount());
+        assertTrue(index.getListings(plotA.getUuid()).isEmpty());
+        assertEquals("B", index.findCheapest(Material.DIAMOND, 5).get(0).plotIdentifier());
+    }
+
+    @Test
+    @DisplayName("findNearest: Angebote nach Entfernung sortiert")
+    void testFindNearest_SortedByDistance() throws Exception {
+        index.markDirty(listPlot("Fern", 500, 10, "1"));
+        index.markDirty(listPlot("Nah", 20, 10, "2"));
+        index.markDirty(listPlot("Mitte", 100, 10, "3"));
+        index.refresh();
+
+        List<Listing> nearest = index.findNearest(Material.DIAMOND, location(0), 2);
+
+        assertEquals(2, nearest.size());
+        assertEquals("Nah", nearest.get(0).plotIdentifier());
+        assertEquals("Mitte", nearest.get(1).plotIdentifier());
+    }
+
+    /**
+     * Hilfsmethode: Plot mit einem Diamant-Angebot an Position x.
+     */
+    private Plot listPlot(String identifier, double x, int stock, String price) throws Exception {
+        Plot plot = mock(Plot.class);
+        when(plot.getUuid()).thenReturn(UUID.randomUUID());
+        when(plot.getIdentifier()).thenReturn(identifier);
+        Location location = location(x);
+        when(plot.getLocation()).thenReturn(location);
+
+        PlotStorage storage = mock(PlotStorage.class);
+        when(storage.getPlot()).thenReturn(plot);
+        when(storage.getAllMaterials()).thenReturn(Set.of(Material.DIAMOND));
+        when(storage.getTotalAmount(Material.DIAMOND)).thenReturn(stock);
+        when(storageProvider.getPlotStorage(plot)).thenReturn(storage);
+
+        when(priceResolver.getSellPrice(plot, Material.DIAMOND)).thenReturn(Optional.of(new BigDecimal(price)));
+        return plot;
+    }
+
+    /**
+     * Hilfsmethode: Position auf der X-Achse.
+     */
+    private Location location(double x) {
+        Location location = mock(Location.class);
+        when(location.getWorld()).thenReturn(world);
+        when(location.getX()).thenReturn(x);
+        when(location.getZ()).thenReturn(0.0);
+        return location;
+    }
+}
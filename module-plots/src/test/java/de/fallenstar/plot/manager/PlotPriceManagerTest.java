@@ -0,0 +1,113 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.provider.Plot;
+import org.bukkit.Material;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für die Batch-API des PlotPriceManager.
+ *
+ * **Testet:**
+ * - Zusammenführen und Ersetzen von Plot-Preisen
+ * - Atomarität bei ungültigem Preis
+ * - Genau eine Resolver-Invalidierung pro Batch
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+class PlotPriceManagerTest {
+
+    private PlotPriceManager priceManager;
+    private PlotPriceResolver resolver;
+    private Plot plot;
+
+    @BeforeEach
+    void setUp() {
+        priceManager = new PlotPriceManager(mock(Plugin.class), Logger.getLogger("PlotPriceManagerTest"));
+        resolver = mock(PlotPriceResolver.class);
+        priceManager.setPriceResolver(resolver);
+
+        plot = mock(Plot.class);
+        when(plot.getUuid()).thenReturn(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("applyPrices() führt Änderungen zusammen und invalidiert einmal")
+    void testApplyPrices_MergesAndInvalidatesOnce() {
+        priceManager.setSellPrice(plot, Material.STONE, BigDecimal.ONE);
+        clearInvocations(resolver);
+
+        Map<Material, PlotPriceManager.PriceUpdate> updates = new LinkedHashMap<>();
+        updates.put(Material.DIAMOND, new PlotPriceManager.PriceUpdate(BigDecimal.valueOf(90), BigDecimal.valueOf(100)));
+        updates.put(Material.IRON_INGOT, new PlotPriceManager.PriceUpdate(null, new BigDecimal("5.5")));
+
+        assertEquals(3, priceManager.applyPrices(plot, updates, false));
+        assertPrice("100", priceManager.getSellPrice(plot, Material.DIAMOND));
+        assertPrice("5.5", priceManager.getSellPrice(plot, Material.IRON_INGOT));
+        assertTrue(priceManager.getBuyPrice(plot, Material.IRON_INGOT).isEmpty());
+        assertPrice("1", priceManager.getSellPrice(plot, Material.STONE));
+
+        verify(resolver, times(1)).invalidate(plot);
+    }
+
+    @Test
+    @DisplayName("applyPrices() mit replace entfernt nicht enthaltene Preise")
+    void testApplyPrices_ReplaceRemovesOthers() {
+        priceManager.setSellPrice(plot, Material.STONE, BigDecimal.ONE);
+
+        priceManager.applyPrices(plot, Map.of(Material.DIAMOND,
+                new PlotPriceManager.PriceUpdate(null, BigDecimal.TEN)), true);
+
+        assertTrue(priceManager.getSellPrice(plot, Material.STONE).isEmpty());
+        assertPrice("10", priceManager.getSellPrice(plot, Material.DIAMOND));
+
+        priceManager.applyPrices(plot, Map.of(), true);
+        assertEquals(0, priceManager.getPlotCount());
+    }
+
+    @Test
+    @DisplayName("applyPrices() lässt bei ungültigem Preis den alten Stand unverändert")
+    void testApplyPrices_IsAtomic() {
+        priceManager.setSellPrice(plot, Material.STONE, BigDecimal.ONE);
+
+        Map<Material, PlotPriceManager.PriceUpdate> updates = new LinkedHashMap<>();
+        updates.put(Material.DIAMOND, new PlotPriceManager.PriceUpdate(null, BigDecimal.TEN));
+        updates.put(Material.IRON_INGOT, new PlotPriceManager.PriceUpdate(null, new BigDecimal("1e30")));
+
+        assertThrows(ArithmeticException.class, () -> priceManager.applyPrices(plot, updates, false));
+        assertTrue(priceManager.getSellPrice(plot, Material.DIAMOND).isEmpty());
+        assertPrice("1", priceManager.getSellPrice(plot, Material.STONE));
+    }
+
+    @Test
+    @DisplayName("applyTownPrices() setzt Town-Preise und invalidiert alle Plots einmal")
+    void testApplyTownPrices_InvalidatesAll() {
+        priceManager.applyTownPrices("Sternfurt", Map.of(Material.DIAMOND,
+                new PlotPriceManager.PriceUpdate(BigDecimal.valueOf(70), BigDecimal.valueOf(80))), false);
+
+        assertPrice("80", priceManager.getTownPriceData("Sternfurt").orElseThrow().getSellPrice(Material.DIAMOND));
+        verify(resolver, times(1)).invalidateAll();
+    }
+
+    /**
+     * Hilfsmethode: Vergleicht Preise unabhängig von der Skala.
+     */
+    private static void assertPrice(String expected, Optional<BigDecimal> actual) {
+        assertTrue(actual.isPresent(), "Preis sollte vorhanden sein");
+        assertEquals(0, new BigDecimal(expected).compareTo(actual.get()),
+                "Erwartet " + expected + ", war " + actual.get());
+    }
+}
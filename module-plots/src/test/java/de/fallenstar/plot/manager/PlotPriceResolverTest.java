@@ -0,0 +1,204 @@
+package de.fallenstar.plot.manager;
+
+import de.fallenstar.core.exception.ProviderFunctionalityNotFoundException;
+import de.fallenstar.core.provider.EconomyProvider;
+import de.fallenstar.core.provider.ItemProvider;
+import de.fallenstar.core.provider.Plot;
+import de.fallenstar.core.provider.TownProvider;
+import de.fallenstar.core.registry.ProviderRegistry;
+import de.fallenstar.plot.provider.PlotLookupService;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für PlotPriceResolver (Plot → Town → Basis).
+ *
+ * **Testet:**
+ * - Reihenfolge der Preis-Ebenen
+ * - Invalidierung nach Plot- und Town-Änderungen
+ * - Neuaufbau nach invalidateAll() (Basispreis-Änderung)
+ * - Custom-Item-Preise über den Schlüssel des EconomyProviders (vor Material-Preisen)
+ * - Town aus dem Snapshot des PlotLookupService (ohne TownProvider)
+ *
+ * @author FallenStar
+ * @version 1.2
+ */
+class PlotPriceResolverTest {
+
+    private PlotPriceManager priceManager;
+    private PlotPriceResolver resolver;
+    private EconomyProvider economyProvider;
+    private ItemProvider itemProvider;
+    private TownProvider townProvider;
+    private Plot plot;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Logger logger = Logger.getLogger("PlotPriceResolverTest");
+
+        economyProvider = mock(EconomyProvider.class);
+        when(economyProvider.isAvailable()).thenReturn(true);
+        when(economyProvider.getAllPricedMaterials()).thenReturn(List.of(Material.DIAMOND));
+        when(economyProvider.getBuyPrice(Material.DIAMOND)).thenReturn(Optional.of(BigDecimal.valueOf(90)));
+        when(economyProvider.getSellPrice(Material.DIAMOND)).thenReturn(Optional.of(BigDecimal.valueOf(100)));
+
+        townProvider = mock(TownProvider.class);
+        when(townProvider.isAvailable()).thenReturn(true);
+        when(townProvider.getTownName(any())).thenReturn("Sternfurt");
+
+        itemProvider = mock(ItemProvider.class);
+        when(itemProvider.isAvailable()).thenReturn(true);
+
+        ProviderRegistry providers = mock(ProviderRegistry.class);
+        when(providers.getEconomyProvider()).thenReturn(economyProvider);
+        when(providers.getTownProvider()).thenReturn(townProvider);
+        when(providers.getItemProvider()).thenReturn(itemProvider);
+
+        plot = mock(Plot.class);
+        when(plot.getUuid()).thenReturn(UUID.randomUUID());
+        when(plot.getLocation()).thenReturn(mock(Location.class));
+
+        priceManager = new PlotPriceManager(mock(Plugin.class), logger);
+        resolver = new PlotPriceResolver(priceManager, providers, logger);
+        priceManager.setPriceResolver(resolver);
+    }
+
+    @Test
+    @DisplayName("Ohne Plot- und Town-Preis gilt der Basispreis")
+    void testResolve_FallsBackToBasePrice() {
+        assertPrice("100", resolver.getSellPrice(plot, Material.DIAMOND));
+        assertPrice("90", resolver.getBuyPrice(plot, Material.DIAMOND));
+        assertTrue(resolver.getSellPrice(plot, Material.IRON_INGOT).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Town-Preis überschreibt Basispreis, Plot-Preis überschreibt Town-Preis")
+    void testResolve_PlotOverridesTownOverridesBase() {
+        resolver.getSellPrice(plot, Material.DIAMOND); // Cache füllen
+
+        priceManager.setTownSellPrice("Sternfurt", Material.DIAMOND, BigDecimal.valueOf(80));
+        assertPrice("80", resolver.getSellPrice(plot, Material.DIAMOND));
+        assertPrice("90", resolver.getBuyPrice(plot, Material.DIAMOND));
+
+        priceManager.setSellPrice(plot, Material.DIAMOND, new BigDecimal("75.5"));
+        assertPrice("75.5", resolver.getSellPrice(plot, Material.DIAMOND));
+
+        priceManager.removePrices(plot, Material.DIAMOND);
+        assertPrice("80", resolver.getSellPrice(plot, Material.DIAMOND));
+    }
+
+    @Test
+    @DisplayName("Mit PlotLookupService kommt die Town aus dem Snapshot statt aus Towny")
+    void testResolve_TownFromLookupSnapshot() throws Exception {
+        UUID plotId = plot.getUuid();
+        PlotLookupService lookupService = mock(PlotLookupService.class);
+        when(lookupService.getPlot(plotId)).thenReturn(Optional.of(new PlotLookupService.PlotSnapshot(
+                plotId, "world_0_0", "Neufurt", UUID.randomUUID(), null, "shop", "world", 0, 0)));
+        resolver.setPlotLookupService(lookupService);
+
+        priceManager.setTownSellPrice("Sternfurt", Material.DIAMOND, BigDecimal.valueOf(80));
+        priceManager.setTownSellPrice("Neufurt", Material.DIAMOND, BigDecimal.valueOf(70));
+
+        assertPrice("70", resolver.getSellPrice(plot, Material.DIAMOND));
+        verify(townProvider, never()).getTownName(any());
+
+        // Plot noch nicht im Snapshot (z.B. frisch geclaimt): Rückfall auf den TownProvider
+        when(lookupService.getPlot(plotId)).thenReturn(Optional.empty());
+        resolver.invalidate(plot);
+        assertPrice("80", resolver.getSellPrice(plot, Material.DIAMOND));
+    }
+
+    @Test
+    @DisplayName("invalidateAll() lädt geänderte Basispreise neu")
+    void testInvalidateAll_ReloadsBasePrices() throws Exception {
+        assertPrice("100", resolver.getSellPrice(plot, Material.DIAMOND));
+
+        when(economyProvider.getSellPrice(Material.DIAMOND)).thenReturn(Optional.of(BigDecimal.valueOf(120)));
+        assertPrice("100", resolver.getSellPrice(plot, Material.DIAMOND));
+
+        resolver.invalidateAll();
+        assertPrice("120", resolver.getSellPrice(plot, Material.DIAMOND));
+        assertEquals(1, resolver.getCachedPlotCount());
+    }
+
+    @Test
+    @DisplayName("Custom-Items werden über den Schlüssel des EconomyProviders bepreist, ohne ItemProvider-Aufruf")
+    void testResolve_CustomItemUsesEconomyKey() throws Exception {
+        ItemStack sword = mock(ItemStack.class);
+        when(sword.getType()).thenReturn(Material.IRON_INGOT);
+        when(sword.hasItemMeta()).thenReturn(true);
+        when(economyProvider.getCustomItemKey(sword)).thenReturn(Optional.of("SWORD:EXCALIBUR"));
+        when(economyProvider.getCustomBuyPrice("SWORD:EXCALIBUR")).thenReturn(Optional.of(BigDecimal.valueOf(800)));
+        when(economyProvider.getCustomSellPrice("SWORD:EXCALIBUR")).thenReturn(Optional.of(BigDecimal.valueOf(1000)));
+
+        assertPrice("1000", resolver.getSellPrice(plot, sword));
+        assertPrice("800", resolver.getBuyPrice(plot, sword));
+        assertPrice("1000", resolver.getSellPrice(plot, sword));
+
+        verify(economyProvider, times(1)).getCustomSellPrice("SWORD:EXCALIBUR");
+        verify(itemProvider, never()).isCustomItem(any());
+        verify(itemProvider, never()).getItemId(any());
+    }
+
+    @Test
+    @DisplayName("Custom-Item auf einem bepreisten Material sollte den Custom-Preis erhalten")
+    void testResolve_CustomItemOnPricedMaterial() throws Exception {
+        ItemStack gem = mock(ItemStack.class);
+        when(gem.getType()).thenReturn(Material.DIAMOND);
+        when(gem.hasItemMeta()).thenReturn(true);
+        when(economyProvider.getCustomItemKey(gem)).thenReturn(Optional.of("MATERIAL:STARGEM"));
+        when(economyProvider.getCustomBuyPrice("MATERIAL:STARGEM")).thenReturn(Optional.of(BigDecimal.valueOf(450)));
+        when(economyProvider.getCustomSellPrice("MATERIAL:STARGEM")).thenReturn(Optional.of(BigDecimal.valueOf(500)));
+        priceManager.setSellPrice(plot, Material.DIAMOND, BigDecimal.valueOf(75));
+
+        assertPrice("500", resolver.getSellPrice(plot, gem));
+        assertPrice("450", resolver.getBuyPrice(plot, gem));
+        assertPrice("75", resolver.getSellPrice(plot, Material.DIAMOND));
+
+        // Vanilla-Diamant mit ItemMeta (z.B. umbenannt) bleibt beim Material-Preis
+        ItemStack named = mock(ItemStack.class);
+        when(named.getType()).thenReturn(Material.DIAMOND);
+        when(named.hasItemMeta()).thenReturn(true);
+        when(economyProvider.getCustomItemKey(named)).thenReturn(Optional.empty());
+        assertPrice("75", resolver.getSellPrice(plot, named));
+    }
+
+    @Test
+    @DisplayName("Ohne Custom-Preise im EconomyProvider wird der ItemProvider gefragt")
+    void testResolve_CustomItemFallsBackToItemProvider() throws Exception {
+        ItemStack sword = mock(ItemStack.class);
+        when(sword.getType()).thenReturn(Material.IRON_INGOT);
+        when(sword.hasItemMeta()).thenReturn(true);
+        when(economyProvider.getCustomItemKey(sword)).thenThrow(
+                new ProviderFunctionalityNotFoundException("EconomyProvider", "getCustomItemKey", "Test"));
+        when(itemProvider.isCustomItem(sword)).thenReturn(true);
+        when(itemProvider.getItemId(sword)).thenReturn(Optional.of("EXCALIBUR"));
+        when(itemProvider.getSuggestedPrice("EXCALIBUR")).thenReturn(Optional.of(500.0));
+
+        assertPrice("500", resolver.getSellPrice(plot, sword));
+    }
+
+    /**
+     * Hilfsmethode: Vergleicht Preise unabhängig von der Skala.
+     */
+    private static void assertPrice(String expected, Optional<BigDecimal> actual) {
+        assertTrue(actual.isPresent(), "Preis sollte vorhanden sein");
+        assertEquals(0, new BigDecimal(expected).compareTo(actual.get()),
+                "Erwartet " + expected + ", war " + actual.get());
+    }
+}
@@ -0,0 +1,105 @@
+package de.fallenstar.plot.model;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für PlotPriceData (dichtes Festkomma-Array).
+ *
+ * **Testet:**
+ * - Setzen/Lesen von Ankauf- und Verkaufspreisen
+ * - Festkomma-Rundung auf 2 Nachkommastellen
+ * - Entfernen einzelner Preise und Material-Zähler
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+class PlotPriceDataTest {
+
+    private PlotPriceData data;
+
+    @BeforeEach
+    void setUp() {
+        data = new PlotPriceData(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("Neue PlotPriceData ist leer")
+    void testNew_IsEmpty() {
+        assertTrue(data.isEmpty());
+        assertEquals(0, data.size());
+        assertEquals(Optional.empty(), data.getBuyPrice(Material.DIAMOND));
+        assertEquals(PlotPriceData.NO_PRICE, data.getSellPriceMinor(Material.DIAMOND));
+        assertFalse(data.hasPrices(Material.DIAMOND));
+    }
+
+    @Test
+    @DisplayName("setBuyPrice/setSellPrice: Preise werden unabhängig gespeichert")
+    void testSetPrices_BuyAndSellIndependent() {
+        data.setBuyPrice(Material.DIAMOND, new BigDecimal("50"));
+        data.setSellPrice(Material.DIAMOND, new BigDecimal("75.5"));
+
+        assertEquals(0, new BigDecimal("50").compareTo(data.getBuyPrice(Material.DIAMOND).orElseThrow()));
+        assertEquals(0, new BigDecimal("75.50").compareTo(data.getSellPrice(Material.DIAMOND).orElseThrow()));
+        assertEquals(5000, data.getBuyPriceMinor(Material.DIAMOND));
+        assertEquals(7550, data.getSellPriceMinor(Material.DIAMOND));
+        assertEquals(1, data.size());
+    }
+
+    @Test
+    @DisplayName("setBuyPrice: Mehr als 2 Nachkommastellen werden kaufmännisch gerundet")
+    void testSetBuyPrice_RoundsHalfUp() {
+        data.setBuyPrice(Material.IRON_INGOT, new BigDecimal("1.005"));
+
+        assertEquals(101, data.getBuyPriceMinor(Material.IRON_INGOT));
+    }
+
+    @Test
+    @DisplayName("setBuyPrice(null): Entfernt Preis, Material bleibt mit Verkaufspreis")
+    void testSetBuyPrice_NullKeepsSellPrice() {
+        data.setBuyPrice(Material.DIAMOND, BigDecimal.TEN);
+        data.setSellPrice(Material.DIAMOND, BigDecimal.ONE);
+
+        data.setBuyPrice(Material.DIAMOND, null);
+
+        assertFalse(data.getBuyPrice(Material.DIAMOND).isPresent());
+        assertTrue(data.hasPrices(Material.DIAMOND));
+        assertEquals(1, data.size());
+
+        data.setSellPrice(Material.DIAMOND, null);
+
+        assertFalse(data.hasPrices(Material.DIAMOND));
+        assertTrue(data.isEmpty());
+    }
+
+    @Test
+    @DisplayName("removePrices/getMaterials: Material-Zähler bleibt konsistent")
+    void testRemovePrices_UpdatesMaterials() {
+        data.setBuyPrice(Material.DIAMOND, BigDecimal.TEN);
+        data.setSellPrice(Material.IRON_INGOT, BigDecimal.ONE);
+        data.setSellPrice(Material.IRON_INGOT, BigDecimal.TEN);
+
+        assertEquals(Set.of(Material.DIAMOND, Material.IRON_INGOT), data.getMaterials());
+        assertEquals(2, data.size());
+
+        data.removePrices(Material.DIAMOND);
+        data.removePrices(Material.DIAMOND);
+
+        assertEquals(Set.of(Material.IRON_INGOT), data.getMaterials());
+        assertEquals(1, data.size());
+
+        data.clear();
+
+        assertTrue(data.isEmpty());
+        assertTrue(data.getMaterials().isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package de.fallenstar.plot.provider;
+
+import de.fallenstar.plot.provider.PlotLookupService.PlotSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Tests für PlotLookupService (Snapshot der Claim-Map).
+ *
+ * **Testet:**
+ * - Lookup über Welt + Chunk, Location und Plot-UUID
+ * - Atomarer Austausch des Snapshots
+ *
+ * @author FallenStar
+ * @version 1.0
+ */
+class PlotLookupServiceTest {
+
+    private PlotLookupService lookupService;
+
+    @BeforeEach
+    void setUp() {
+        lookupService = new PlotLookupService(Logger.getLogger("PlotLookupServiceTest"), null);
+    }
+
+    @Test
+    @DisplayName("Vor dem ersten Snapshot: keine Plots")
+    void testGetPlot_EmptyBeforeInstall() {
+        assertEquals(0, lookupService.size());
+        assertEquals(0L, lookupService.getSnapshotTime());
+        assertTrue(lookupService.getPlot("world", 0, 0).isEmpty());
+        assertTrue(lookupService.getPlot(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Lookup über Chunk, Location und UUID liefert dasselbe Plot")
+    void testGetPlot_ByChunkLocationAndUuid() {
+        PlotSnapshot market = snapshot("Sternfurt", "world", 3, -2);
+        PlotSnapshot wild = snapshot("", "world_nether", 3, -2);
+        lookupService.install(List.of(market, wild));
+
+        assertEquals(2, lookupService.size());
+        assertTrue(lookupService.getSnapshotTime() > 0);
+        assertEquals(market, lookupService.getPlot("world", 3, -2).orElseThrow());
+        assertEquals(wild, lookupService.getPlot("world_nether", 3, -2).orElseThrow());
+        assertTrue(lookupService.getPlot("world", -2, 3).isEmpty());
+        assertEquals(market, lookupService.getPlot(market.uuid()).orElseThrow());
+
+        World world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+        // Block (50, -17) liegt in Chunk (3, -2)
+        assertEquals(market, lookupService.getPlot(new Location(world, 50, 64, -17)).orElseThrow());
+        assertTrue(lookupService.getPlot((Location) null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Neuer Snapshot ersetzt den alten vollständig")
+    void testInstall_SwapsSnapshot() {
+        PlotSnapshot unclaimed = snapshot("Sternfurt", "world", 0, 0);
+        PlotSnapshot kept = snapshot("Sternfurt", "world", 1, 0);
+        lookupService.install(List.of(unclaimed, kept));
+
+        PlotSnapshot renamed = new PlotSnapshot(kept.uuid(), kept.identifier(), "Neufurt", kept.townUuid(),
+                kept.ownerUuid(), kept.plotType(), kept.worldName(), kept.chunkX(), kept.chunkZ());
+        PlotSnapshot claimed = snapshot("Neufurt", "world", 2, 0);
+        lookupService.install(List.of(renamed, claimed));
+
+        assertEquals(2, lookupService.size());
+        assertTrue(lookupService.getPlot(unclaimed.uuid()).isEmpty());
+        assertTrue(lookupService.getPlot("world", 0, 0).isEmpty());
+        assertEquals("Neufurt", lookupService.getPlot(kept.uuid()).orElseThrow().townName());
+        assertEquals(claimed, lookupService.getPlot("world", 2, 0).orElseThrow());
+    }
+
+    /**
+     * Hilfsmethode: Erstellt einen PlotSnapshot.
+     */
+    private static PlotSnapshot snapshot(String townName, String worldName, int chunkX, int chunkZ) {
+        return new PlotSnapshot(UUID.randomUUID(), worldName + "_" + chunkX + "_" + chunkZ, townName,
+                townName.isEmpty() ? null : UUID.randomUUID(), null, "shop", worldName, chunkX, chunkZ);
+    }
+}